@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link Cache} that can also be used without blocking the calling thread. Each method
+ * returns immediately, and the returned {@link CompletableFuture} is completed once the
+ * underlying operation has finished, or completed exceptionally if it failed.
+ * 
+ * @author Dennis Crissman
+ *
+ * @see cacher.impl.BlockingAsyncCache
+ */
+public interface AsyncCache extends Cache {
+
+	/**
+	 * Gets a cached value
+	 * @param key - String key
+	 * @return future of the Object value, which will be <code>null</code> if not cached.
+	 */
+	CompletableFuture<Object> getAsync(String key);
+
+	/**
+	 * Retrieves multiple cached values at once.
+	 * @param keys - List of keys to fetch
+	 * @return future of the Map of fetched key/value pairs.
+	 */
+	CompletableFuture<Map<String, Object>> getBulkAsync(List<String> keys);
+
+	/**
+	 * Sets a value in the cacher using the default expiration.
+	 * @param key - String key
+	 * @param value - Object value
+	 * @return future completed once the value has been written.
+	 */
+	CompletableFuture<Void> setAsync(String key, Object value);
+
+	/**
+	 * Sets a value in the cacher that will expire after the provided number of seconds.
+	 * @param key - String key
+	 * @param value - Object value
+	 * @param expiration - Seconds to allow the cached key/value pair to live,
+	 * {@link #NO_EXPIRATION} or {@link #DEFAULT_EXPIRATION}.
+	 * @return future completed once the value has been written.
+	 */
+	CompletableFuture<Void> setAsync(String key, Object value, int expiration);
+
+	/**
+	 * Removes a value from the cacher.
+	 * @param key - String key
+	 * @return future completed once the value has been removed.
+	 */
+	CompletableFuture<Void> removeAsync(String key);
+
+}
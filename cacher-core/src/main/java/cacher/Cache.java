@@ -11,6 +11,7 @@
 
 package cacher;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +24,16 @@ import java.util.Map;
  */
 public interface Cache {
 
+	/**
+	 * Expiration value indicating that the implementation's default expiration should be used.
+	 */
+	int DEFAULT_EXPIRATION = -1;
+
+	/**
+	 * Expiration value indicating that the key/value pair should never expire.
+	 */
+	int NO_EXPIRATION = 0;
+
 	/**
 	 * Gets a cached value
 	 * @param key - String key
@@ -47,6 +58,49 @@ public interface Cache {
 	 */
 	void set(String key, Object value);
 
+	/**
+	 * Sets a value in the cacher that will expire after the provided number of seconds.<br>
+	 * <br>
+	 * The default implementation ignores the expiration and delegates to {@link #set(String, Object)},
+	 * so the value lives until it is evicted or removed. Implementations that can expire values should
+	 * override it.
+	 * @param key - String key
+	 * @param value - Object value
+	 * @param expiration - Seconds to allow the cached key/value pair to live,
+	 * {@link #NO_EXPIRATION} or {@link #DEFAULT_EXPIRATION}.
+	 */
+	default void set(String key, Object value, int expiration){
+		set(key, value);
+	}
+
+	/**
+	 * Sets multiple values in the cacher at once.<br>
+	 * <br>
+	 * Depending on the implementation, setting multiple values at once may be more
+	 * efficient than each one at time. The default implementation calls
+	 * {@link #set(String, Object)} for each pair.
+	 * @param values - Map of key/value pairs to set.
+	 */
+	default void setBulk(Map<String, Object> values){
+		for(Map.Entry<String, Object> entry : values.entrySet()){
+			set(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Sets multiple values in the cacher at once, that will expire after the provided number of seconds.<br>
+	 * <br>
+	 * The default implementation calls {@link #set(String, Object, int)} for each pair.
+	 * @param values - Map of key/value pairs to set.
+	 * @param expiration - Seconds to allow the cached key/value pairs to live,
+	 * {@link #NO_EXPIRATION} or {@link #DEFAULT_EXPIRATION}.
+	 */
+	default void setBulk(Map<String, Object> values, int expiration){
+		for(Map.Entry<String, Object> entry : values.entrySet()){
+			set(entry.getKey(), entry.getValue(), expiration);
+		}
+	}
+
 	/**
 	 * Clears all values in the cacher
 	 */
@@ -54,4 +108,16 @@ public interface Cache {
 
 	void remove(String key);
 
+	/**
+	 * Removes multiple values from the cacher at once.<br>
+	 * <br>
+	 * The default implementation calls {@link #remove(String)} for each key.
+	 * @param keys - keys to remove.
+	 */
+	default void removeBulk(Collection<String> keys){
+		for(String key : keys){
+			remove(key);
+		}
+	}
+
 }
@@ -11,6 +11,8 @@
 
 package cacher;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * Shared utility methods.
  * 
@@ -31,6 +33,44 @@ public final class CacheUtils {
 		return prefix + key;
 	}
 
+	/**
+	 * Escapes a value that is joined with others into a composite key, so that a value containing the separator
+	 * cannot be mistaken for two values. Each <code>\</code> becomes <code>\\</code>, and each separator is
+	 * preceded by a <code>\</code>.
+	 * @param value - value to escape.
+	 * @param separator - character the values are joined with.
+	 * @return escaped value, or the same value if there was nothing to escape.
+	 */
+	public static String escapeKeyValue(String value, char separator){
+		if(value.indexOf('\\') < 0 && value.indexOf(separator) < 0){
+			return value;
+		}
+
+		StringBuilder escaped = new StringBuilder(value.length() + 8);
+		for(int i = 0; i < value.length(); i++){
+			char c = value.charAt(i);
+			if(c == '\\' || c == separator){
+				escaped.append('\\');
+			}
+			escaped.append(c);
+		}
+		return escaped.toString();
+	}
+
+	/**
+	 * Adds a random number of seconds to an expiration, so that keys written together do not
+	 * all expire together.
+	 * @param seconds - expiration in seconds, only positive values are altered.
+	 * @param jitterSeconds - maximum number of seconds to add.
+	 * @return expiration with between 0 and jitterSeconds (inclusive) added.
+	 */
+	public static int jitterExpiration(int seconds, int jitterSeconds){
+		if(seconds <= 0 || jitterSeconds <= 0){
+			return seconds;
+		}
+		return seconds + ThreadLocalRandom.current().nextInt(jitterSeconds + 1);
+	}
+
 	private CacheUtils(){}
 
 }
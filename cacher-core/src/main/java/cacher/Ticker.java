@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher;
+
+/**
+ * A time source that returns a time value representing the number of nanoseconds elapsed since
+ * some fixed but arbitrary point in time. Primarily allows time to be controlled when testing.
+ * 
+ * @author Dennis Crissman
+ */
+public interface Ticker {
+
+	/**
+	 * {@link Ticker} backed by {@link System#nanoTime()}.
+	 */
+	Ticker SYSTEM = new Ticker() {
+
+		@Override
+		public long read() {
+			return System.nanoTime();
+		}
+
+	};
+
+	/**
+	 * @return the number of nanoseconds elapsed since this ticker's fixed point of reference.
+	 */
+	long read();
+
+}
@@ -12,10 +12,18 @@
 package cacher.aop;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import javax.inject.Inject;
 
@@ -24,6 +32,8 @@ import org.aopalliance.intercept.MethodInvocation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import cacher.fetcher.AsyncFetchMultiple;
+import cacher.fetcher.AsyncFetchSingle;
 import cacher.fetcher.FetchManager;
 import cacher.fetcher.FetchMultiple;
 import cacher.fetcher.FetchSingle;
@@ -36,6 +46,16 @@ import cacher.fetcher.FetchSingle;
  * 
  * <p><b>NOTE:</b> Bulk fetches require that the annotated method returns a Map&#60;String, Object&#62;</p>
  * 
+ * <p>A method that returns a {@link CompletableFuture} (or {@link CompletionStage}) is cached through
+ * {@link FetchManager#fetchSingleAsync(String, String, AsyncFetchSingle)} or
+ * {@link FetchManager#fetchMultipleAsync(String, List, AsyncFetchMultiple)}. A future is returned immediately,
+ * and the method is only invoked, for the uncached keys, once the cache lookup has completed. This may happen on
+ * the thread that completed the lookup. Bulk fetches then require a future of a Map.</p>
+ * 
+ * <p>The annotation, {@link KeyGenerator}, {@link KeyCleaner} and {@link FetchManager} of each intercepted method
+ * are resolved the first time it is called, and reused for later calls (see {@link MethodAware}). Setting a
+ * {@link FetchManager} on the interceptor discards them.</p>
+ * 
  * @author Dennis Crissman
  * 
  * @see FetcherMethod
@@ -45,6 +65,8 @@ public class CacheInterceptor implements MethodInterceptor{
 	private static final Logger LOGGER = LoggerFactory.getLogger(CacheInterceptor.class);
 
 	private FetchManager fetchManager;
+	private volatile Map<String, FetchManager> fetchManagers = Collections.emptyMap();
+	private final ConcurrentMap<Method, InvocationPlan> plans = new ConcurrentHashMap<Method, InvocationPlan>();
 
 	public CacheInterceptor(){}
 
@@ -56,45 +78,77 @@ public class CacheInterceptor implements MethodInterceptor{
 	@Inject
 	public void setFetchManager(FetchManager fetchManager){
 		this.fetchManager = fetchManager;
+		plans.clear();
 	}
 
 	public FetchManager getFetchManager(){
 		return fetchManager;
 	}
 
+	/**
+	 * Registers {@link FetchManager}s by the name {@link FetcherMethod#cache()} uses to select them, so that
+	 * methods can be routed to separately configured {@link cacher.Cache}s.
+	 * @param fetchManagers - {@link FetchManager}s by the name of their cache.
+	 */
+	public void setFetchManagers(Map<String, FetchManager> fetchManagers){
+		this.fetchManagers = new HashMap<String, FetchManager>(fetchManagers);
+		plans.clear();
+	}
+
+	/**
+	 * @return {@link FetchManager}s by the name of their cache.
+	 */
+	public Map<String, FetchManager> getFetchManagers(){
+		return Collections.unmodifiableMap(fetchManagers);
+	}
+
 	@Override
 	public Object invoke(MethodInvocation invocation) throws Throwable { //NOSONAR
-		Object[] safetyArgs = invocation.getArguments().clone();
+		//Only bulk fetches alter the arguments, so only they need a backup.
+		Object[] safetyArgs = null;
 
 		try{
-			if(getFetchManager() == null){
+			if(getFetchManager() == null && fetchManagers.isEmpty()){
 				throw new IllegalStateException("A FetchManager instance must set.");
 			}
 
-			Method method = invocation.getMethod();
-			FetcherMethod cacheAnnotation = method.getAnnotation(FetcherMethod.class);
-			if(cacheAnnotation == null){
-				throw new IllegalStateException(
-						"Unable to intercept a method without the FetcherMethod annotation: " + method.getName());
-			}
+			InvocationPlan plan = getInvocationPlan(invocation.getMethod());
+			KeyGenerator keyGenerator = plan.getKeyGenerator(invocation);
 
-			KeyGenerator keyGenerator = cacheAnnotation.keyGenerator().newInstance();
-			ensureMethodInvocationOnAwareObject(keyGenerator, invocation);
+			if(plan.isFetchBulk()){
+				safetyArgs = invocation.getArguments().clone();
+				KeyCleaner keyCleaner = plan.getKeyCleaner(invocation);
 
-			if(cacheAnnotation.fetchBulk()){
-				KeyCleaner keyCleaner = cacheAnnotation.keyCleaner().newInstance();
-				ensureMethodInvocationOnAwareObject(keyCleaner, invocation);
+				String prefix = plan.getPrefix();
+				if(keyGenerator instanceof KeyPrefixGenerator){
+					String generatedPrefix = ((KeyPrefixGenerator) keyGenerator).generatePrefix(invocation.getArguments());
+					if(!generatedPrefix.isEmpty()){
+						prefix = prefix + generatedPrefix;
+					}
+				}
 
-				return getFetchManager().fetchMultiple(
-						cacheAnnotation.prefix(),
+				if(plan.isAsync()){
+					return withFallback(invocation, safetyArgs, plan.getFetchManager().fetchMultipleAsync(
+							prefix,
+							keyGenerator.generateKeys(invocation.getArguments()),
+							new AsyncMultipleFetcher(invocation, keyCleaner)));
+				}
+				return plan.getFetchManager().fetchMultiple(
+						prefix,
 						keyGenerator.generateKeys(invocation.getArguments()),
 						new MultipleFetcher(invocation, keyCleaner));
 			}
 			else{
-				return getFetchManager().fetchSingle(
-						cacheAnnotation.prefix(),
+				if(plan.isAsync()){
+					return withFallback(invocation, null, plan.getFetchManager().fetchSingleAsync(
+							plan.getPrefix(),
+							keyGenerator.generateKey(invocation.getArguments()),
+							new AsyncSingleFetcher(invocation, plan.getValueType())));
+				}
+				return plan.getFetchManager().fetchSingle(
+						plan.getPrefix(),
 						keyGenerator.generateKey(invocation.getArguments()),
-						new SingleFetcher(invocation));
+						new SingleFetcher(invocation, plan.getValueType()));
 			}
 		}
 		catch(AopFetcherInvocationException e){
@@ -115,20 +169,149 @@ public class CacheInterceptor implements MethodInterceptor{
 			 * that if we are aborting the cache, then we want the FetchMethod to retrieve
 			 * all values.
 			 */
-			System.arraycopy(safetyArgs, 0, invocation.getArguments(), 0, safetyArgs.length);
+			if(safetyArgs != null){
+				System.arraycopy(safetyArgs, 0, invocation.getArguments(), 0, safetyArgs.length);
+			}
 
 			return invocation.proceed();
 		}
 	}
 
 	/**
-	 * Ensures that the {@link MethodInvocation} is populated on any {@link MethodInvocationAware} classes.
-	 * @param obj - Object to be checked
-	 * @param invocation - {@link MethodInvocation}
+	 * Returns the {@link InvocationPlan} for the {@link Method}, creating it the first time the {@link Method}
+	 * is intercepted.
+	 * @param method - intercepted {@link Method}
+	 * @return {@link InvocationPlan}
 	 */
-	private void ensureMethodInvocationOnAwareObject(Object obj, MethodInvocation invocation){
-		if(obj instanceof MethodInvocationAware){
-			((MethodInvocationAware)obj).setMethodInvocation(invocation);
+	private InvocationPlan getInvocationPlan(Method method) throws ReflectiveOperationException{
+		InvocationPlan plan = plans.get(method);
+		if(plan == null){
+			plan = InvocationPlan.create(method, getFetchManager(), fetchManagers);
+			InvocationPlan existing = plans.putIfAbsent(method, plan);
+			if(existing != null){
+				plan = existing;
+			}
+		}
+		return plan;
+	}
+
+	/**
+	 * Handles the completion of an asynchronous fetch the same way {@link #invoke(MethodInvocation)} handles
+	 * exceptions: an exception from the {@link FetcherMethod} fails the returned future, while anything else
+	 * invokes the method again without caching.
+	 * @param invocation - intercepted {@link MethodInvocation}
+	 * @param safetyArgs - arguments to restore before invoking the method again, or <code>null</code>.
+	 * @param fetch - future returned from the {@link FetchManager}.
+	 * @return future to return from the intercepted method.
+	 */
+	private static CompletableFuture<Object> withFallback(final MethodInvocation invocation, final Object[] safetyArgs,
+			CompletableFuture<?> fetch){
+		final CompletableFuture<Object> result = new CompletableFuture<Object>();
+		fetch.whenComplete(new BiConsumer<Object, Throwable>() {
+
+			@Override
+			public void accept(Object value, Throwable error) {
+				if(error == null){
+					result.complete(value);
+					return;
+				}
+
+				Throwable cause = unwrap(error);
+				if(cause instanceof AopFetcherInvocationException){
+					LOGGER.info("Fetcher threw an Exception that should be handled by client code, see following stacktrace:", cause);
+					result.completeExceptionally(cause.getCause());
+					return;
+				}
+
+				LOGGER.info("An unexpected exception was thrown while attempting to cache '" + invocation.getMethod().getName()
+						+ "'. Method will now be invoked without caching enabled.", cause);
+				if(safetyArgs != null){
+					System.arraycopy(safetyArgs, 0, invocation.getArguments(), 0, safetyArgs.length);
+				}
+				proceed(invocation).whenComplete(new BiConsumer<Object, Throwable>() {
+
+					@Override
+					public void accept(Object value, Throwable error) {
+						if(error == null){
+							result.complete(value);
+						}
+						else{
+							result.completeExceptionally(unwrap(error));
+						}
+					}
+				});
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Invokes a {@link FetcherMethod} that returns a future.
+	 * @return the returned future, or a failed future if the method threw.
+	 */
+	@SuppressWarnings("unchecked")
+	private static CompletableFuture<Object> proceed(MethodInvocation invocation){
+		try{
+			Object obj = invocation.proceed();
+			if(obj == null){
+				return CompletableFuture.completedFuture(null);
+			}
+			return ((CompletionStage<Object>) obj).toCompletableFuture();
+		}
+		catch(Throwable e){ //NOSONAR
+			CompletableFuture<Object> future = new CompletableFuture<Object>();
+			future.completeExceptionally(e);
+			return future;
+		}
+	}
+
+	/**
+	 * Invokes a {@link FetcherMethod} that returns a future, failing with an {@link AopFetcherInvocationException}
+	 * if the method throws or its future fails.
+	 */
+	private static CompletableFuture<Object> proceedAsFetcher(MethodInvocation invocation, final String message){
+		final CompletableFuture<Object> result = new CompletableFuture<Object>();
+		proceed(invocation).whenComplete(new BiConsumer<Object, Throwable>() {
+
+			@Override
+			public void accept(Object value, Throwable error) {
+				if(error == null){
+					result.complete(value);
+				}
+				else{
+					result.completeExceptionally(new AopFetcherInvocationException(message, unwrap(error)));
+				}
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * @return the cause of a {@link CompletionException}, otherwise the exception itself.
+	 */
+	private static Throwable unwrap(Throwable error){
+		return (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+	}
+
+	/**
+	 * Converts the result of a bulk {@link FetcherMethod} to a Map keyed by String.
+	 * @throws InvalidBulkReturnTypeException if the result is not a Map.
+	 */
+	private static Map<String, Object> toResults(MethodInvocation invocation, Object obj){
+		if(obj instanceof Map){
+			Map<String, Object> results = new HashMap<String, Object>();
+
+			@SuppressWarnings("unchecked")
+			Map<Object, Object> fetchedResults = (Map<Object, Object>) obj;
+			for(Entry<Object, Object> entry : fetchedResults.entrySet()){
+				results.put(entry.getKey().toString(), entry.getValue());
+			}
+
+			return results;
+		}
+		else{
+			throw new InvalidBulkReturnTypeException("@FetcherMethod must return a Map<String, Object> in order to utilize Caching: "
+					+ invocation.getMethod().toString());
 		}
 	}
 
@@ -140,9 +323,11 @@ public class CacheInterceptor implements MethodInterceptor{
 	private static class SingleFetcher implements FetchSingle<Object>{
 
 		private final MethodInvocation invocation;
+		private final Class<?> type;
 
-		public SingleFetcher(MethodInvocation invocation){
+		public SingleFetcher(MethodInvocation invocation, Class<?> type){
 			this.invocation = invocation;
+			this.type = type;
 		}
 
 		/*
@@ -167,7 +352,7 @@ public class CacheInterceptor implements MethodInterceptor{
 		@Override
 		@SuppressWarnings("unchecked")
 		public Class<Object> getType() {
-			return (Class<Object>)invocation.getMethod().getReturnType();
+			return (Class<Object>)type;
 		}
 
 	}
@@ -205,22 +390,7 @@ public class CacheInterceptor implements MethodInterceptor{
 							"Unable to fetch keys for method " + invocation.getMethod().toString() + ": " + uncachedKeys, e);
 				}
 
-				if(obj instanceof Map){
-					Map<String, Object> results = new HashMap<String, Object>();
-
-					@SuppressWarnings("unchecked")
-					Map<Object, Object> fetchedResults = (Map<Object, Object>) obj;
-					for(Entry<Object, Object> entry : fetchedResults.entrySet()){
-						results.put(entry.getKey().toString(), entry.getValue());
-					}
-
-					return results;
-				}
-				else{
-					throw new InvalidBulkReturnTypeException("@FetcherMethod must return a Map<String, Object> in order to utilize Caching: "
-							+ invocation.getMethod().toString());
-				}
-
+				return toResults(invocation, obj);
 			}
 			catch(AopFetcherInvocationException e){ //NOSONAR
 				throw e;
@@ -242,6 +412,88 @@ public class CacheInterceptor implements MethodInterceptor{
 
 	}
 
+	/**
+	 * {@link AsyncFetchSingle} implementation used to wrap single result {@link FetcherMethod}s that return a future.
+	 * 
+	 * @author Dennis Crissman
+	 */
+	private static class AsyncSingleFetcher implements AsyncFetchSingle<Object>{
+
+		private final MethodInvocation invocation;
+		private final Class<?> type;
+
+		public AsyncSingleFetcher(MethodInvocation invocation, Class<?> type){
+			this.invocation = invocation;
+			this.type = type;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see cacher.fetcher.AsyncFetchSingle#fetch(java.lang.String)
+		 */
+		@Override
+		public CompletableFuture<Object> fetch(String uncachedKey) {
+			return proceedAsFetcher(invocation,
+					"Unable to fetch key for method " + invocation.getMethod().toString() + ": " + uncachedKey);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see cacher.fetcher.AsyncFetchSingle#getType()
+		 */
+		@Override
+		@SuppressWarnings("unchecked")
+		public Class<Object> getType() {
+			return (Class<Object>)type;
+		}
+
+	}
+
+	/**
+	 * {@link AsyncFetchMultiple} implementation used to wrap bulk {@link FetcherMethod}s that return a future.
+	 * 
+	 * @author Dennis Crissman
+	 */
+	private static class AsyncMultipleFetcher implements AsyncFetchMultiple<Object>{
+
+		private final MethodInvocation invocation;
+		private final KeyCleaner cleaner;
+
+		public AsyncMultipleFetcher(MethodInvocation invocation, KeyCleaner cleaner){
+			this.invocation = invocation;
+			this.cleaner = cleaner;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see cacher.fetcher.AsyncFetchMultiple#fetch(java.util.List)
+		 */
+		@Override
+		public CompletableFuture<Map<String, Object>> fetch(List<String> uncachedKeys) {
+			cleaner.clean(invocation.getArguments(), uncachedKeys);
+
+			return proceedAsFetcher(invocation,
+					"Unable to fetch keys for method " + invocation.getMethod().toString() + ": " + uncachedKeys)
+					.thenApply(new Function<Object, Map<String, Object>>() {
+
+						@Override
+						public Map<String, Object> apply(Object obj) {
+							return toResults(invocation, obj);
+						}
+					});
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see cacher.fetcher.AsyncFetchMultiple#getType()
+		 */
+		@Override
+		public Class<Object> getType() {
+			return Object.class;
+		}
+
+	}
+
 	/**
 	 * <p>Exception that is thrown when the {@link FetcherMethod} throws an {@link Exception} of it's own.</p>
 	 * <p>This helps ensure that the Fetcher will not be executed a second time.</p>
@@ -17,6 +17,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+import cacher.Cache;
 import cacher.aop.impl.simple.SimpleCacheKeyCleaner;
 import cacher.aop.impl.simple.SimpleCacheKeyGenerator;
 
@@ -37,6 +38,10 @@ import cacher.aop.impl.simple.SimpleCacheKeyGenerator;
  * 
  * <p><b>NOTE:</b> Bulk Fetches are required to return a Map&#60;String, Object&#62;</p>
  * 
+ * <p>By default each method uses the {@link cacher.fetcher.FetchManager} of the {@link CacheInterceptor} as it is.
+ * A method can instead use another {@link cacher.Cache} registered by name (see {@link #cache()}), and override the
+ * expiration, negative expiration and coalescing of the {@link cacher.fetcher.FetchManager}.</p>
+ * 
  * @author Dennis Crissman
  *
  * @see KeyCleaner
@@ -79,4 +84,43 @@ public @interface FetcherMethod {
 	 */
 	Class<? extends KeyCleaner> keyCleaner() default SimpleCacheKeyCleaner.class;
 
+	/**
+	 * <p>Name of the {@link cacher.fetcher.FetchManager}, and so the {@link cacher.Cache}, to use, as registered with
+	 * {@link CacheInterceptor#setFetchManagers(java.util.Map)}. For example, cheap lookups could be kept in a local
+	 * cache while expensive ones go to memcached.</p>
+	 * <p>Defaults to the {@link cacher.fetcher.FetchManager} set on the {@link CacheInterceptor}.</p>
+	 */
+	String cache() default "";
+
+	/**
+	 * <p>Seconds to cache the returned value(s) for, or {@link Cache#NO_EXPIRATION}.</p>
+	 * <p>Defaults to {@link Cache#DEFAULT_EXPIRATION}, which uses the expiration of the
+	 * {@link cacher.fetcher.FetchManager}. See {@link cacher.fetcher.FetchManager#setExpireSeconds(int)}.</p>
+	 */
+	int expiration() default Cache.DEFAULT_EXPIRATION;
+
+	/**
+	 * <p>Seconds to remember that no value was returned for a key, or 0 to not remember it.</p>
+	 * <p>Defaults to {@link Cache#DEFAULT_EXPIRATION}, which uses the negative expiration of the
+	 * {@link cacher.fetcher.FetchManager}. See {@link cacher.fetcher.FetchManager#setNegativeExpireSeconds(int)}.</p>
+	 */
+	int negativeExpiration() default Cache.DEFAULT_EXPIRATION;
+
+	/**
+	 * <p>Whether concurrent cache misses on the same key share a single call to the method.</p>
+	 * <p>Defaults to {@link Coalescing#DEFAULT}, which uses the setting of the {@link cacher.fetcher.FetchManager}.
+	 * See {@link cacher.fetcher.FetchManager#setCoalescing(boolean)}.</p>
+	 */
+	Coalescing coalescing() default Coalescing.DEFAULT;
+
+	/**
+	 * Values of {@link FetcherMethod#coalescing()}.
+	 */
+	enum Coalescing {
+		/** Use the setting of the {@link cacher.fetcher.FetchManager}. */
+		DEFAULT,
+		ENABLED,
+		DISABLED
+	}
+
 }
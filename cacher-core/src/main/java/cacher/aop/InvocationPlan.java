@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.aop;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.aopalliance.intercept.MethodInvocation;
+
+import cacher.Cache;
+import cacher.aop.FetcherMethod.Coalescing;
+import cacher.fetcher.FetchManager;
+
+/**
+ * <p>Everything the {@link CacheInterceptor} needs to know about a {@link FetcherMethod}, resolved once per
+ * {@link Method} so that intercepting it does not repeat the reflection.</p>
+ * <p>{@link KeyGenerator}s and {@link KeyCleaner}s are created once and shared, unless they implement
+ * {@link MethodInvocationAware} without also implementing {@link MethodAware}. Those hold state for a single
+ * invocation, so a new instance is still created for each invocation.</p>
+ * <p>The {@link FetchManager} is resolved from {@link FetcherMethod#cache()}, and copied if the {@link FetcherMethod}
+ * overrides any of its settings.</p>
+ *
+ * @author Dennis Crissman
+ */
+final class InvocationPlan {
+
+	private final FetchManager fetchManager;
+	private final String prefix;
+	private final boolean fetchBulk;
+	private final boolean async;
+	private final Class<?> valueType;
+
+	private final KeyGenerator keyGenerator;
+	private final Constructor<? extends KeyGenerator> keyGeneratorConstructor;
+	private final KeyCleaner keyCleaner;
+	private final Constructor<? extends KeyCleaner> keyCleanerConstructor;
+
+	private InvocationPlan(Method method, FetcherMethod annotation, FetchManager fetchManager,
+			Map<String, FetchManager> fetchManagers) throws ReflectiveOperationException{
+		this.fetchManager = resolveFetchManager(annotation, fetchManager, fetchManagers);
+		this.prefix = annotation.prefix();
+		this.fetchBulk = annotation.fetchBulk();
+		this.async = isAsync(method.getReturnType());
+		this.valueType = async ? futureValueType(method.getGenericReturnType()) : method.getReturnType();
+
+		this.keyGeneratorConstructor = constructor(annotation.keyGenerator());
+		this.keyGenerator = isShareable(annotation.keyGenerator())
+				? instantiate(keyGeneratorConstructor, method)
+				: null;
+
+		if(fetchBulk){
+			this.keyCleanerConstructor = constructor(annotation.keyCleaner());
+			this.keyCleaner = isShareable(annotation.keyCleaner())
+					? instantiate(keyCleanerConstructor, method)
+					: null;
+		}
+		else{
+			this.keyCleanerConstructor = null;
+			this.keyCleaner = null;
+		}
+	}
+
+	/**
+	 * @param method - {@link Method} annotated with {@link FetcherMethod}.
+	 * @param fetchManager - default {@link FetchManager}, may be <code>null</code> if the method names a cache.
+	 * @param fetchManagers - {@link FetchManager}s by the name of their cache.
+	 * @return a new {@link InvocationPlan}
+	 * @throws IllegalStateException if the {@link Method} is not annotated with {@link FetcherMethod}, or
+	 * there is no {@link FetchManager} for it.
+	 * @throws ReflectiveOperationException if the {@link KeyGenerator} or {@link KeyCleaner} cannot be created.
+	 */
+	static InvocationPlan create(Method method, FetchManager fetchManager, Map<String, FetchManager> fetchManagers)
+			throws ReflectiveOperationException{
+		FetcherMethod annotation = method.getAnnotation(FetcherMethod.class);
+		if(annotation == null){
+			throw new IllegalStateException(
+					"Unable to intercept a method without the FetcherMethod annotation: " + method.getName());
+		}
+		return new InvocationPlan(method, annotation, fetchManager, fetchManagers);
+	}
+
+	FetchManager getFetchManager(){
+		return fetchManager;
+	}
+
+	String getPrefix(){
+		return prefix;
+	}
+
+	boolean isFetchBulk(){
+		return fetchBulk;
+	}
+
+	/**
+	 * @return <code>true</code> if the method returns a {@link CompletableFuture} or {@link CompletionStage}.
+	 */
+	boolean isAsync(){
+		return async;
+	}
+
+	/**
+	 * @return type of the cached value, which is the return type unless the method is {@link #isAsync()}, in
+	 * which case it is the type the future is completed with.
+	 */
+	Class<?> getValueType(){
+		return valueType;
+	}
+
+	/**
+	 * @param invocation - current {@link MethodInvocation}
+	 * @return the shared {@link KeyGenerator}, or a new one populated with the {@link MethodInvocation}.
+	 */
+	KeyGenerator getKeyGenerator(MethodInvocation invocation) throws ReflectiveOperationException{
+		if(keyGenerator != null){
+			return keyGenerator;
+		}
+		return forInvocation(keyGeneratorConstructor, invocation);
+	}
+
+	/**
+	 * @param invocation - current {@link MethodInvocation}
+	 * @return the shared {@link KeyCleaner}, or a new one populated with the {@link MethodInvocation}.
+	 */
+	KeyCleaner getKeyCleaner(MethodInvocation invocation) throws ReflectiveOperationException{
+		if(keyCleaner != null){
+			return keyCleaner;
+		}
+		return forInvocation(keyCleanerConstructor, invocation);
+	}
+
+	private static FetchManager resolveFetchManager(FetcherMethod annotation, FetchManager fetchManager,
+			Map<String, FetchManager> fetchManagers){
+		if(!annotation.cache().isEmpty()){
+			fetchManager = fetchManagers.get(annotation.cache());
+			if(fetchManager == null){
+				throw new IllegalStateException("No FetchManager is registered for cache '" + annotation.cache() + "'.");
+			}
+		}
+		else if(fetchManager == null){
+			throw new IllegalStateException("A FetchManager instance must set.");
+		}
+
+		if(annotation.expiration() == Cache.DEFAULT_EXPIRATION
+				&& annotation.negativeExpiration() == Cache.DEFAULT_EXPIRATION
+				&& annotation.coalescing() == Coalescing.DEFAULT){
+			return fetchManager;
+		}
+
+		FetchManager copy = fetchManager.copy();
+		if(annotation.expiration() != Cache.DEFAULT_EXPIRATION){
+			copy.setExpireSeconds(annotation.expiration());
+		}
+		if(annotation.negativeExpiration() != Cache.DEFAULT_EXPIRATION){
+			copy.setNegativeExpireSeconds(annotation.negativeExpiration());
+		}
+		if(annotation.coalescing() != Coalescing.DEFAULT){
+			copy.setCoalescing(annotation.coalescing() == Coalescing.ENABLED);
+		}
+		return copy;
+	}
+
+	private static boolean isAsync(Class<?> returnType){
+		return returnType == CompletableFuture.class || returnType == CompletionStage.class;
+	}
+
+	private static Class<?> futureValueType(Type returnType){
+		if(returnType instanceof ParameterizedType){
+			Type valueType = ((ParameterizedType) returnType).getActualTypeArguments()[0];
+			if(valueType instanceof ParameterizedType){
+				valueType = ((ParameterizedType) valueType).getRawType();
+			}
+			if(valueType instanceof Class){
+				return (Class<?>) valueType;
+			}
+		}
+		return Object.class;
+	}
+
+	private static boolean isShareable(Class<?> type){
+		return MethodAware.class.isAssignableFrom(type) || !MethodInvocationAware.class.isAssignableFrom(type);
+	}
+
+	private static <T> Constructor<T> constructor(Class<T> type) throws NoSuchMethodException{
+		Constructor<T> constructor = type.getDeclaredConstructor();
+		constructor.setAccessible(true);
+		return constructor;
+	}
+
+	private static <T> T instantiate(Constructor<T> constructor, Method method) throws ReflectiveOperationException{
+		T instance = constructor.newInstance();
+		if(instance instanceof MethodAware){
+			((MethodAware) instance).setMethod(method);
+		}
+		return instance;
+	}
+
+	private static <T> T forInvocation(Constructor<T> constructor, MethodInvocation invocation)
+			throws ReflectiveOperationException{
+		T instance = constructor.newInstance();
+		((MethodInvocationAware) instance).setMethodInvocation(invocation);
+		return instance;
+	}
+
+}
@@ -21,6 +21,9 @@ import java.util.List;
  * 
  * <p>This interface tells the {@link CacheInterceptor} how to strip out the already cached keys.</p>
  * 
+ * <p>A single instance is shared between invocations of the same method, so implementations must be thread
+ * safe, unless they implement {@link MethodInvocationAware} and not {@link MethodAware}.</p>
+ * 
  * @author Dennis Crissman
  *
  */
@@ -20,6 +20,9 @@ import java.util.List;
  * of this interface tell the {@link CacheInterceptor} how to retrieve the key(s) and ultimately what the cached
  * key should be.</p>
  * 
+ * <p>A single instance is shared between invocations of the same method, so implementations must be thread
+ * safe, unless they implement {@link MethodInvocationAware} and not {@link MethodAware}.</p>
+ * 
  * @author Dennis Crissman
  */
 public interface KeyGenerator {
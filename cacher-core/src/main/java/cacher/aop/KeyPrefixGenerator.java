@@ -0,0 +1,31 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.aop;
+
+/**
+ * <p>Optionally implemented by a {@link KeyGenerator} when the keys of a bulk fetch share a part that comes from
+ * the other arguments of the method, such as the region in <code>getPrices(skus, region)</code>.</p>
+ * <p>For bulk fetches, the {@link CacheInterceptor} appends the generated prefix to {@link FetcherMethod#prefix()}.
+ * The cached keys then include it, while the keys given to the {@link KeyCleaner} and the keys of the returned
+ * map do not.</p>
+ *
+ * @author Dennis Crissman
+ */
+public interface KeyPrefixGenerator {
+
+	/**
+	 * @param arguments - Method arguments passed into called method.
+	 * @return prefix for every key of the bulk fetch, or an empty String if there is none.
+	 */
+	String generatePrefix(Object[] arguments);
+
+}
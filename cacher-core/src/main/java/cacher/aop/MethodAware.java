@@ -0,0 +1,34 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * <p>Applicable to {@link KeyGenerator} or {@link KeyCleaner} implementations that only need to know which
+ * {@link Method} they are used for, rather than each {@link org.aopalliance.intercept.MethodInvocation}.</p>
+ * <p>The {@link CacheInterceptor} calls {@link #setMethod(Method)} once, and then shares the instance between
+ * every invocation of that {@link Method}, so implementations must be thread safe after that call.
+ * {@link MethodInvocationAware#setMethodInvocation(org.aopalliance.intercept.MethodInvocation)} is not called
+ * on shared instances.</p>
+ *
+ * @author Dennis Crissman
+ */
+public interface MethodAware {
+
+	/**
+	 * Sets the {@link Method}
+	 * @param method - {@link Method}
+	 */
+	void setMethod(Method method);
+
+}
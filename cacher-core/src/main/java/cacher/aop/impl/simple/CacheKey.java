@@ -26,7 +26,15 @@ import java.lang.annotation.Target;
  * <p>
  * For a bulk fetch, this parameter should be a {@link java.util.Collection} or an array. The values contained
  * within should be <code>String</code>s or <code>Object</code>s
- * that has had <code>#toString()</code> overridden.
+ * that has had <code>#toString()</code> overridden. Arrays of <code>long</code> or <code>int</code> are
+ * also supported.
+ * </p>
+ * <p>
+ * Several parameters can be annotated, in which case their values are joined into a single composite key,
+ * separated by {@link CacheKeyInterpreter#KEY_SEPARATOR}, in ascending {@link #order()} and then parameter
+ * order. A separator or <code>\</code> within any value but the last is escaped with a <code>\</code>.
+ * For a bulk fetch, exactly one of them must be a {@link java.util.Collection} or an array. It is fanned
+ * out into one key per value, each prefixed by the values of the other parameters.
  * </p>
  * 
  * @author Dennis Crissman
@@ -36,4 +44,10 @@ import java.lang.annotation.Target;
 @Documented
 public @interface CacheKey {
 
+	/**
+	 * Position of this parameter within a composite key. Parameters with the same order are
+	 * used in the order they are declared.
+	 */
+	int order() default 0;
+
 }
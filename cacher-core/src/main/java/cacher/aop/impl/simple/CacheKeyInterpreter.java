@@ -12,24 +12,43 @@
 package cacher.aop.impl.simple;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 import org.aopalliance.intercept.MethodInvocation;
 
+import cacher.aop.MethodAware;
 import cacher.aop.MethodInvocationAware;
 
 /**
- * Common functionality for classes that utilize the {@link CacheKey} annotation.
+ * <p>Common functionality for classes that utilize the {@link CacheKey} annotation.</p>
+ * <p>When given the {@link Method} through {@link #setMethod(Method)}, the key position and how to read the
+ * keys from the argument are resolved once, and the instance can be shared between invocations.</p>
  * 
  * @author Dennis Crissman
  */
-public class CacheKeyInterpreter implements MethodInvocationAware {
+public class CacheKeyInterpreter implements MethodAware, MethodInvocationAware {
+
+	/** Separates the values of a composite key. */
+	public static final char KEY_SEPARATOR = ':';
 
 	private MethodInvocation invocation;
 
+	/* Resolved by setMethod, null when it must be resolved from the invocation. */
+	private KeyExtractor extractor;
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.aop.MethodAware#setMethod(java.lang.reflect.Method)
+	 */
+	@Override
+	public void setMethod(Method method) {
+		this.extractor = KeyExtractor.forMethod(method);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see cacher.aop.MethodInvocationAware#setMethodInvocation(org.aopalliance.intercept.MethodInvocation)
@@ -37,6 +56,7 @@ public class CacheKeyInterpreter implements MethodInvocationAware {
 	@Override
 	public void setMethodInvocation(MethodInvocation invocation) {
 		this.invocation = invocation;
+		this.extractor = null;
 	}
 
 	/**
@@ -47,7 +67,32 @@ public class CacheKeyInterpreter implements MethodInvocationAware {
 	 * @throws NoKeyException
 	 */
 	public int findKeyPosition(){
-		Annotation[][] annotatedArguments = invocation.getMethod().getParameterAnnotations();
+		if(extractor != null){
+			return extractor.getPosition();
+		}
+		return findKeyPosition(invocation.getMethod());
+	}
+
+	/**
+	 * @return {@link KeyExtractor} for the {@link CacheKey} argument.
+	 */
+	KeyExtractor getKeyExtractor(){
+		if(extractor != null){
+			return extractor;
+		}
+		return KeyExtractor.forMethod(invocation.getMethod());
+	}
+
+	/**
+	 * Finds the argument of the {@link Method} that uses {@link CacheKey}. If multiple or none are found,
+	 * then a runtime exception will be thrown.
+	 * @param method - {@link Method} to inspect.
+	 * @return argument position annotated with {@link CacheKey}.
+	 * @throws MultipleKeyException
+	 * @throws NoKeyException
+	 */
+	public static int findKeyPosition(Method method){
+		Annotation[][] annotatedArguments = method.getParameterAnnotations();
 		Integer position = null;
 
 		for(int x = 0; x < annotatedArguments.length; x++){
@@ -72,31 +117,53 @@ public class CacheKeyInterpreter implements MethodInvocationAware {
 	}
 
 	/**
-	 * Attempts to convert the passed in keyObj to a {@link List}. Will throw
-	 * a {@link ConversionException} if the object cannot be converted.
-	 * @param keyObj - Object to be acted on
-	 * @return List of Strings
-	 * @throws ConversionException
+	 * Finds every argument of the {@link Method} that uses {@link CacheKey}, sorted by {@link CacheKey#order()}
+	 * and then by position.
+	 * @param method - {@link Method} to inspect.
+	 * @return argument positions annotated with {@link CacheKey}.
+	 * @throws NoKeyException
 	 */
-	public List<String> convertToList(final Object keyObj){
-		Collection<? extends Object> col = null;
+	public static int[] findKeyPositions(Method method){
+		Annotation[][] annotatedArguments = method.getParameterAnnotations();
+		List<int[]> keys = new ArrayList<int[]>();
 
-		if(keyObj instanceof Collection){
-			col = (Collection<?>) keyObj;
-		}
-		else if(keyObj.getClass().isArray()){
-			col = Arrays.asList((Object[]) keyObj );
+		for(int x = 0; x < annotatedArguments.length; x++){
+			for(Annotation argAnnotation : annotatedArguments[x]){
+				if(argAnnotation instanceof CacheKey){
+					keys.add(new int[]{((CacheKey) argAnnotation).order(), x});
+				}
+			}
 		}
-		else{
-			throw new ConversionException("Unable to convert " + keyObj.getClass() + " to a Collection");
+
+		if(keys.isEmpty()){
+			throw new NoKeyException();
 		}
 
-		List<String> keys = new ArrayList<String>();
-		for(Object o : col){
-			keys.add(o.toString());
+		//Stable sort, so equal orders keep their declared order.
+		Collections.sort(keys, new Comparator<int[]>() {
+
+			@Override
+			public int compare(int[] key1, int[] key2) {
+				return Integer.compare(key1[0], key2[0]);
+			}
+		});
+
+		int[] positions = new int[keys.size()];
+		for(int x = 0; x < positions.length; x++){
+			positions[x] = keys.get(x)[1];
 		}
+		return positions;
+	}
 
-		return keys;
+	/**
+	 * Attempts to convert the passed in keyObj to a {@link List}. Will throw
+	 * a {@link ConversionException} if the object cannot be converted.
+	 * @param keyObj - Object to be acted on
+	 * @return List of Strings
+	 * @throws ConversionException
+	 */
+	public List<String> convertToList(final Object keyObj){
+		return KeyExtractor.convertToList(keyObj);
 	}
 
 	/**
@@ -0,0 +1,420 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.aop.impl.simple;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import cacher.CacheUtils;
+import cacher.aop.impl.simple.CacheKeyInterpreter.ConversionException;
+
+/**
+ * <p>Reads the key(s) out of the {@link CacheKey} argument of a method, and builds the replacement argument
+ * for the keys that still need to be fetched.</p>
+ * <p>An extractor is chosen once per method from the declared type of the {@link CacheKey} parameter, so that
+ * a {@link Collection}, an <code>Object[]</code>, a <code>long[]</code> or an <code>int[]</code> is read
+ * directly rather than being inspected on every call. Primitive arrays are read without boxing. Parameters
+ * declared with any other type are inspected on each call.</p>
+ * <p>When several parameters use {@link CacheKey}, their values are joined into a composite key, escaping any
+ * separator within them. For bulk fetches the single {@link Collection} or array parameter is fanned out, and
+ * the other values become a prefix of each key.</p>
+ *
+ * @author Dennis Crissman
+ */
+abstract class KeyExtractor {
+
+	private final int position;
+
+	private KeyExtractor(int position){
+		this.position = position;
+	}
+
+	/**
+	 * @param method - {@link Method} with a {@link CacheKey} parameter.
+	 * @return {@link KeyExtractor} for the declared type of the {@link CacheKey} parameter.
+	 * @throws CacheKeyInterpreter.MultipleKeyException
+	 * @throws CacheKeyInterpreter.NoKeyException
+	 */
+	static KeyExtractor forMethod(Method method){
+		int[] positions = CacheKeyInterpreter.findKeyPositions(method);
+		Class<?>[] types = method.getParameterTypes();
+		if(positions.length == 1){
+			return forParameter(positions[0], types[positions[0]]);
+		}
+
+		Integer fanOut = null;
+		boolean ambiguous = false;
+		for(int position : positions){
+			if(Collection.class.isAssignableFrom(types[position]) || types[position].isArray()){
+				ambiguous = fanOut != null;
+				fanOut = position;
+			}
+		}
+		return new CompositeKeyExtractor(positions,
+				(fanOut == null || ambiguous) ? null : forParameter(fanOut, types[fanOut]));
+	}
+
+	private static KeyExtractor forParameter(int position, Class<?> type){
+		if(Collection.class.isAssignableFrom(type)){
+			return new CollectionExtractor(position, type);
+		}
+		if(type == long[].class){
+			return new LongArrayExtractor(position);
+		}
+		if(type == int[].class){
+			return new IntArrayExtractor(position);
+		}
+		if(type.isArray() && !type.getComponentType().isPrimitive()){
+			return new ObjectArrayExtractor(position, type.getComponentType());
+		}
+		return new RuntimeTypeExtractor(position);
+	}
+
+	/**
+	 * @return argument position annotated with {@link CacheKey}.
+	 * @throws CacheKeyInterpreter.MultipleKeyException if the key is a composite.
+	 */
+	int getPosition(){
+		return position;
+	}
+
+	/**
+	 * @param arguments - method arguments.
+	 * @return prefix shared by the keys of a bulk fetch, or an empty String if there is none.
+	 */
+	String extractPrefix(Object[] arguments){
+		return "";
+	}
+
+	/**
+	 * @param arguments - method arguments.
+	 * @return single key
+	 */
+	String extractKey(Object[] arguments){
+		return arguments[position].toString();
+	}
+
+	/**
+	 * @param arguments - method arguments.
+	 * @return list of keys
+	 * @throws ConversionException if the argument cannot be converted.
+	 */
+	List<String> extractKeys(Object[] arguments){
+		return toKeys(arguments[position]);
+	}
+
+	/**
+	 * Replaces the {@link CacheKey} argument with one containing only the uncached keys.
+	 * @param arguments - method arguments.
+	 * @param uncachedKeys - keys that need to be fetched.
+	 */
+	void clean(Object[] arguments, List<String> uncachedKeys){
+		arguments[position] = toArgument(arguments[position], uncachedKeys);
+	}
+
+	abstract List<String> toKeys(Object argument);
+
+	abstract Object toArgument(Object original, List<String> uncachedKeys);
+
+	/**
+	 * Converts the value to a list of keys based on its runtime type.
+	 * @throws ConversionException
+	 */
+	static List<String> convertToList(Object keyObj){
+		if(keyObj instanceof Collection){
+			return collectionToKeys((Collection<?>) keyObj);
+		}
+		if(keyObj instanceof Object[]){
+			return arrayToKeys((Object[]) keyObj);
+		}
+		if(keyObj instanceof long[]){
+			return longsToKeys((long[]) keyObj);
+		}
+		if(keyObj instanceof int[]){
+			return intsToKeys((int[]) keyObj);
+		}
+		throw new ConversionException("Unable to convert " + keyObj.getClass() + " to a Collection");
+	}
+
+	private static List<String> collectionToKeys(Collection<?> values){
+		List<String> keys = new ArrayList<String>(values.size());
+		for(Object value : values){
+			keys.add(value.toString());
+		}
+		return keys;
+	}
+
+	private static List<String> arrayToKeys(Object[] values){
+		List<String> keys = new ArrayList<String>(values.length);
+		for(Object value : values){
+			keys.add(value.toString());
+		}
+		return keys;
+	}
+
+	private static List<String> longsToKeys(long[] values){
+		List<String> keys = new ArrayList<String>(values.length);
+		for(long value : values){
+			keys.add(Long.toString(value));
+		}
+		return keys;
+	}
+
+	private static List<String> intsToKeys(int[] values){
+		List<String> keys = new ArrayList<String>(values.length);
+		for(int value : values){
+			keys.add(Integer.toString(value));
+		}
+		return keys;
+	}
+
+	/**
+	 * Joins the values into a key, using a buffer sized for the whole key.<br>
+	 * <br>
+	 * Each value followed by a separator is escaped with {@link CacheUtils#escapeKeyValue(String, char)}, so that
+	 * values containing the separator cannot collide. The last value of a single key is left as is, as it is
+	 * unambiguous once the values before it are escaped. This matches a bulk fetch, where each fanned out key is
+	 * appended to the prefix as is.
+	 */
+	private static String join(Object[] arguments, int[] positions, boolean trailingSeparator){
+		String[] values = new String[positions.length];
+		int length = trailingSeparator ? positions.length : positions.length - 1;
+		for(int i = 0; i < positions.length; i++){
+			values[i] = arguments[positions[i]].toString();
+			if(trailingSeparator || i < positions.length - 1){
+				values[i] = CacheUtils.escapeKeyValue(values[i], CacheKeyInterpreter.KEY_SEPARATOR);
+			}
+			length += values[i].length();
+		}
+
+		StringBuilder key = new StringBuilder(length);
+		for(int i = 0; i < values.length; i++){
+			if(i > 0){
+				key.append(CacheKeyInterpreter.KEY_SEPARATOR);
+			}
+			key.append(values[i]);
+		}
+		if(trailingSeparator){
+			key.append(CacheKeyInterpreter.KEY_SEPARATOR);
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Several parameters use {@link CacheKey}. A single key joins every value, while the keys of a bulk fetch
+	 * come from the fanned out parameter, prefixed by the other values.
+	 */
+	private static final class CompositeKeyExtractor extends KeyExtractor {
+
+		private final int[] positions;
+		private final int[] prefixPositions;
+		private final KeyExtractor fanOut;
+
+		private CompositeKeyExtractor(int[] positions, KeyExtractor fanOut){
+			super(fanOut == null ? -1 : fanOut.getPosition());
+			this.positions = positions;
+			this.fanOut = fanOut;
+
+			if(fanOut == null){
+				this.prefixPositions = positions;
+			}
+			else{
+				this.prefixPositions = new int[positions.length - 1];
+				int i = 0;
+				for(int position : positions){
+					if(position != fanOut.getPosition()){
+						prefixPositions[i++] = position;
+					}
+				}
+			}
+		}
+
+		@Override
+		int getPosition() {
+			throw new CacheKeyInterpreter.MultipleKeyException();
+		}
+
+		@Override
+		String extractKey(Object[] arguments) {
+			return join(arguments, positions, false);
+		}
+
+		@Override
+		String extractPrefix(Object[] arguments) {
+			requireFanOut();
+			return join(arguments, prefixPositions, true);
+		}
+
+		@Override
+		List<String> extractKeys(Object[] arguments) {
+			return requireFanOut().extractKeys(arguments);
+		}
+
+		@Override
+		void clean(Object[] arguments, List<String> uncachedKeys) {
+			requireFanOut().clean(arguments, uncachedKeys);
+		}
+
+		@Override
+		List<String> toKeys(Object argument) {
+			return requireFanOut().toKeys(argument);
+		}
+
+		@Override
+		Object toArgument(Object original, List<String> uncachedKeys) {
+			return requireFanOut().toArgument(original, uncachedKeys);
+		}
+
+		private KeyExtractor requireFanOut(){
+			if(fanOut == null){
+				throw new ConversionException(
+						"A bulk fetch with multiple CacheKey parameters requires exactly one of them to be a Collection or an array.");
+			}
+			return fanOut;
+		}
+
+	}
+
+	/**
+	 * The parameter is declared as a {@link Collection}. The uncached keys are passed as a {@link List}, or
+	 * as a {@link Set} if the parameter requires one.
+	 */
+	private static final class CollectionExtractor extends KeyExtractor {
+
+		private final boolean needsSet;
+
+		private CollectionExtractor(int position, Class<?> type){
+			super(position);
+			this.needsSet = !type.isAssignableFrom(List.class) && type.isAssignableFrom(LinkedHashSet.class);
+		}
+
+		@Override
+		List<String> toKeys(Object argument) {
+			return collectionToKeys((Collection<?>) argument);
+		}
+
+		@Override
+		Object toArgument(Object original, List<String> uncachedKeys) {
+			if(needsSet){
+				return new LinkedHashSet<String>(uncachedKeys);
+			}
+			return uncachedKeys;
+		}
+
+	}
+
+	/**
+	 * The parameter is declared as an array of objects. The original elements are kept for the uncached keys,
+	 * so that the array keeps its component type.
+	 */
+	private static final class ObjectArrayExtractor extends KeyExtractor {
+
+		private final Class<?> componentType;
+
+		private ObjectArrayExtractor(int position, Class<?> componentType){
+			super(position);
+			this.componentType = componentType;
+		}
+
+		@Override
+		List<String> toKeys(Object argument) {
+			return arrayToKeys((Object[]) argument);
+		}
+
+		@Override
+		Object toArgument(Object original, List<String> uncachedKeys) {
+			Set<String> uncached = new HashSet<String>(uncachedKeys);
+			Object[] values = (Object[]) original;
+			List<Object> kept = new ArrayList<Object>(uncachedKeys.size());
+			for(Object value : values){
+				if(uncached.contains(value.toString())){
+					kept.add(value);
+				}
+			}
+			return kept.toArray((Object[]) Array.newInstance(componentType, kept.size()));
+		}
+
+	}
+
+	private static final class LongArrayExtractor extends KeyExtractor {
+
+		private LongArrayExtractor(int position){
+			super(position);
+		}
+
+		@Override
+		List<String> toKeys(Object argument) {
+			return longsToKeys((long[]) argument);
+		}
+
+		@Override
+		Object toArgument(Object original, List<String> uncachedKeys) {
+			long[] values = new long[uncachedKeys.size()];
+			for(int i = 0; i < values.length; i++){
+				values[i] = Long.parseLong(uncachedKeys.get(i));
+			}
+			return values;
+		}
+
+	}
+
+	private static final class IntArrayExtractor extends KeyExtractor {
+
+		private IntArrayExtractor(int position){
+			super(position);
+		}
+
+		@Override
+		List<String> toKeys(Object argument) {
+			return intsToKeys((int[]) argument);
+		}
+
+		@Override
+		Object toArgument(Object original, List<String> uncachedKeys) {
+			int[] values = new int[uncachedKeys.size()];
+			for(int i = 0; i < values.length; i++){
+				values[i] = Integer.parseInt(uncachedKeys.get(i));
+			}
+			return values;
+		}
+
+	}
+
+	/**
+	 * The parameter is declared with a type that does not identify how to read it, such as <code>Object</code>,
+	 * so the argument is inspected on each call. The uncached keys are passed as a {@link List}.
+	 */
+	private static final class RuntimeTypeExtractor extends KeyExtractor {
+
+		private RuntimeTypeExtractor(int position){
+			super(position);
+		}
+
+		@Override
+		List<String> toKeys(Object argument) {
+			return convertToList(argument);
+		}
+
+		@Override
+		Object toArgument(Object original, List<String> uncachedKeys) {
+			return uncachedKeys;
+		}
+
+	}
+
+}
@@ -17,7 +17,9 @@ import cacher.aop.KeyCleaner;
 
 /**
  * <p>Uses the {@link CacheKey} annotation to identify the parameter to use as the key in the cache.</p>
- * <p>As only bulk fetches use {@link KeyCleaner}s, the annotated parameter needs to be a {@link java.util.Collection}.</p>
+ * <p>As only bulk fetches use {@link KeyCleaner}s, the annotated parameter needs to be a {@link java.util.Collection},
+ * an array, a <code>long[]</code> or an <code>int[]</code>. It is replaced with one of the same kind containing only the
+ * uncached keys.</p>
  * 
  * @author Dennis Crissman
  */
@@ -29,8 +31,7 @@ public class SimpleCacheKeyCleaner extends CacheKeyInterpreter implements KeyCle
 	 */
 	@Override
 	public void clean(final Object[] arguments, final List<String> uncachedKeys) {
-		int keyPosition = findKeyPosition();
-		arguments[keyPosition] = uncachedKeys;
+		getKeyExtractor().clean(arguments, uncachedKeys);
 	}
 
 }
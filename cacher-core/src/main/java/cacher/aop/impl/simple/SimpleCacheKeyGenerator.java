@@ -14,13 +14,16 @@ package cacher.aop.impl.simple;
 import java.util.List;
 
 import cacher.aop.KeyGenerator;
+import cacher.aop.KeyPrefixGenerator;
 
 /**
- * Uses the {@link CacheKey} annotation to identify the parameter to use as the key in the cache.
+ * <p>Uses the {@link CacheKey} annotation to identify the parameter(s) to use as the key in the cache.</p>
+ * <p>For a bulk fetch with several {@link CacheKey} parameters, the values of the parameters that are not fanned
+ * out are returned as a prefix by {@link #generatePrefix(Object[])}.</p>
  * 
  * @author Dennis Crissman
  */
-public class SimpleCacheKeyGenerator extends CacheKeyInterpreter implements KeyGenerator {
+public class SimpleCacheKeyGenerator extends CacheKeyInterpreter implements KeyGenerator, KeyPrefixGenerator {
 
 	/*
 	 * (non-Javadoc)
@@ -28,7 +31,7 @@ public class SimpleCacheKeyGenerator extends CacheKeyInterpreter implements KeyG
 	 */
 	@Override
 	public String generateKey(final Object[] arguments) {
-		return arguments[findKeyPosition()].toString();
+		return getKeyExtractor().extractKey(arguments);
 	}
 
 	/*
@@ -37,7 +40,16 @@ public class SimpleCacheKeyGenerator extends CacheKeyInterpreter implements KeyG
 	 */
 	@Override
 	public List<String> generateKeys(final Object[] arguments) {
-		return convertToList(arguments[findKeyPosition()]);
+		return getKeyExtractor().extractKeys(arguments);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.aop.KeyPrefixGenerator#generatePrefix(java.lang.Object[])
+	 */
+	@Override
+	public String generatePrefix(final Object[] arguments) {
+		return getKeyExtractor().extractPrefix(arguments);
 	}
 
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * {@link ValueCodec} that uses standard java serialization, so cached values must be {@link java.io.Serializable}.
+ * 
+ * @author Dennis Crissman
+ */
+public class SerializingValueCodec implements ValueCodec {
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.codec.ValueCodec#encode(java.lang.Object)
+	 */
+	@Override
+	public byte[] encode(Object value) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try{
+			ObjectOutputStream out = new ObjectOutputStream(bytes);
+			out.writeObject(value);
+			out.close();
+		}
+		catch(IOException e){
+			throw new CodecException("Unable to serialize " + value.getClass(), e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.codec.ValueCodec#decode(byte[])
+	 */
+	@Override
+	public Object decode(byte[] bytes) {
+		try{
+			ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes));
+			try{
+				return in.readObject();
+			}
+			finally{
+				in.close();
+			}
+		}
+		catch(IOException e){
+			throw new CodecException("Unable to deserialize value", e);
+		}
+		catch(ClassNotFoundException e){
+			throw new CodecException("Unable to deserialize value", e);
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.codec;
+
+/**
+ * Converts cached values to and from bytes, for {@link cacher.Cache} implementations that
+ * store values outside of the java heap.
+ * 
+ * @author Dennis Crissman
+ * 
+ * @see SerializingValueCodec
+ */
+public interface ValueCodec {
+
+	/**
+	 * @param value - value to be cached, never <code>null</code>.
+	 * @return encoded bytes
+	 * @throws CodecException
+	 */
+	byte[] encode(Object value);
+
+	/**
+	 * @param bytes - bytes previously produced by {@link #encode(Object)}.
+	 * @return decoded value
+	 * @throws CodecException
+	 */
+	Object decode(byte[] bytes);
+
+	/**
+	 * Thrown when a value cannot be encoded or decoded.
+	 * 
+	 * @author Dennis Crissman
+	 */
+	class CodecException extends RuntimeException{
+
+		private static final long serialVersionUID = 4125436436719337271L;
+
+		public CodecException(String message, Throwable cause){
+			super(message, cause);
+		}
+
+	}
+
+}
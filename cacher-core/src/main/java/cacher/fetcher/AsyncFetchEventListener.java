@@ -0,0 +1,315 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>{@link FetchEventListener} that hands each event to a background thread, which then notifies the
+ * wrapped listeners, so that a slow listener does not slow down {@link FetchManager}.</p>
+ * <p>Events are placed on a bounded, lock-free ring. If the ring is full the event is dropped and counted
+ * rather than blocking the caller. Optionally the keys of each type of event can be aggregated over an
+ * interval (see {@link #setAggregationMillis(long)}), so that each listener is notified at most once per
+ * interval per type of event.</p>
+ * <p>The background thread is started by {@link #start()} rather than the constructor, so that it never sees a
+ * partially constructed instance. Events published before then wait on the ring.</p>
+ * <p>The key lists passed to the listeners must not be modified.</p>
+ *
+ * @author Dennis Crissman
+ */
+public class AsyncFetchEventListener implements FetchEventListener, Closeable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AsyncFetchEventListener.class);
+
+	public static final int DEFAULT_CAPACITY = 8192;
+
+	private static final int FROM_CACHE = 0;
+	private static final int FROM_FETCHER = 1;
+	private static final int NEGATIVE_FROM_CACHE = 2;
+
+	private final List<FetchEventListener> listeners;
+	private final EventRing<Event> ring;
+	private final Thread dispatcher;
+	private volatile long aggregationMillis = 0;
+	private volatile boolean closed = false;
+	/* Set while the dispatch thread is parked, or about to park, so that publish knows to unpark it. */
+	private volatile boolean waiting = false;
+
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final AtomicLong dispatchedCount = new AtomicLong();
+
+	/**
+	 * Uses {@link #DEFAULT_CAPACITY}.
+	 * @param listeners - {@link FetchEventListener}s to notify from the background thread.
+	 */
+	public AsyncFetchEventListener(List<FetchEventListener> listeners){
+		this(listeners, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param listeners - {@link FetchEventListener}s to notify from the background thread.
+	 * @param capacity - maximum number of events waiting to be dispatched.
+	 */
+	public AsyncFetchEventListener(List<FetchEventListener> listeners, int capacity){
+		this.listeners = new CopyOnWriteArrayList<FetchEventListener>(listeners);
+		this.ring = new EventRing<Event>(capacity);
+		this.dispatcher = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				dispatch();
+			}
+		}, "cacher-fetch-events");
+		dispatcher.setDaemon(true);
+	}
+
+	/**
+	 * Starts the background thread that notifies the listeners. Must be called once.
+	 */
+	public void start(){
+		dispatcher.start();
+	}
+
+	/**
+	 * Sets the interval over which keys are aggregated before notifying the listeners. Defaults to 0, which
+	 * notifies the listeners once per event.
+	 * @param millis - milliseconds to aggregate keys for.
+	 */
+	public void setAggregationMillis(long millis){
+		this.aggregationMillis = millis;
+	}
+
+	/**
+	 * @return milliseconds keys are aggregated for, 0 if not aggregated.
+	 */
+	public long getAggregationMillis(){
+		return aggregationMillis;
+	}
+
+	/**
+	 * @return number of events dropped because the ring was full.
+	 */
+	public long getDroppedCount(){
+		return droppedCount.get();
+	}
+
+	/**
+	 * @return number of events taken off of the ring.
+	 */
+	public long getDispatchedCount(){
+		return dispatchedCount.get();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.fetcher.FetchEventListener#fetchedFromCache(java.util.List)
+	 */
+	@Override
+	public void fetchedFromCache(List<String> keys) {
+		publish(FROM_CACHE, keys);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.fetcher.FetchEventListener#fetchedFromFetcher(java.util.List)
+	 */
+	@Override
+	public void fetchedFromFetcher(List<String> keys) {
+		publish(FROM_FETCHER, keys);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.fetcher.FetchEventListener#fetchedNegativeFromCache(java.util.List)
+	 */
+	@Override
+	public void fetchedNegativeFromCache(List<String> keys) {
+		publish(NEGATIVE_FROM_CACHE, keys);
+	}
+
+	/**
+	 * Stops the background thread once the events already published have been dispatched.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		LockSupport.unpark(dispatcher);
+		try{
+			dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+		}
+		catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void publish(int type, List<String> keys){
+		if(closed || listeners.isEmpty()){
+			return;
+		}
+		if(!ring.offer(new Event(type, keys))){
+			droppedCount.incrementAndGet();
+		}
+		else if(waiting){
+			LockSupport.unpark(dispatcher);
+		}
+	}
+
+	/**
+	 * Dispatch thread loop.
+	 */
+	private void dispatch(){
+		Aggregate aggregate = new Aggregate();
+		long flushAt = 0;
+		while(true){
+			Event event = ring.poll();
+			if(event == null){
+				if(!aggregate.isEmpty() && (closed || (System.nanoTime() - flushAt) >= 0)){
+					aggregate.flush();
+				}
+				if(closed){
+					return;
+				}
+				park(!aggregate.isEmpty(), flushAt);
+				continue;
+			}
+
+			dispatchedCount.incrementAndGet();
+			long millis = getAggregationMillis();
+			if(millis <= 0){
+				notifyListeners(event.type, event.keys);
+				continue;
+			}
+			if(aggregate.isEmpty()){
+				flushAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+			}
+			aggregate.add(event);
+			if((System.nanoTime() - flushAt) >= 0){
+				aggregate.flush();
+			}
+		}
+	}
+
+	/**
+	 * Parks the dispatch thread until an event is published or it is closed. While keys are being aggregated,
+	 * it also wakes up when they are due to be flushed.
+	 * @param aggregating - whether any keys are being aggregated.
+	 * @param flushAt - {@link System#nanoTime()} to flush the aggregated keys at.
+	 */
+	private void park(boolean aggregating, long flushAt){
+		waiting = true;
+		try{
+			//Checked after setting waiting, so that an event published concurrently is either seen here or unparks the thread.
+			if(closed || !ring.isEmpty()){
+				return;
+			}
+			if(aggregating){
+				LockSupport.parkNanos(this, flushAt - System.nanoTime());
+			}
+			else{
+				LockSupport.park(this);
+			}
+		}
+		finally{
+			waiting = false;
+		}
+	}
+
+	private void notifyListeners(int type, List<String> keys){
+		for(FetchEventListener listener : listeners){
+			switch(type){
+			case FROM_CACHE:
+				try{
+					listener.fetchedFromCache(keys);
+				}
+				catch(Exception e){
+					LOGGER.error("Exception occurred while handling a 'fetchedFromCache' event", e);
+				}
+				break;
+			case FROM_FETCHER:
+				try{
+					listener.fetchedFromFetcher(keys);
+				}
+				catch(Exception e){
+					LOGGER.error("Exception occurred while handling a 'fetchedFromFetcher' event", e);
+				}
+				break;
+			default:
+				try{
+					listener.fetchedNegativeFromCache(keys);
+				}
+				catch(Exception e){
+					LOGGER.error("Exception occurred while handling a 'fetchedNegativeFromCache' event", e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Keys collected for each type of event since the last flush. Only used by the dispatch thread.
+	 */
+	private final class Aggregate {
+
+		private final List<List<String>> keys = new ArrayList<List<String>>();
+
+		private Aggregate(){
+			for(int i = 0; i <= NEGATIVE_FROM_CACHE; i++){
+				keys.add(new ArrayList<String>());
+			}
+		}
+
+		private void add(Event event){
+			keys.get(event.type).addAll(event.keys);
+		}
+
+		private boolean isEmpty(){
+			for(List<String> typeKeys : keys){
+				if(!typeKeys.isEmpty()){
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void flush(){
+			for(int type = 0; type < keys.size(); type++){
+				List<String> typeKeys = keys.get(type);
+				if(!typeKeys.isEmpty()){
+					notifyListeners(type, new ArrayList<String>(typeKeys));
+					typeKeys.clear();
+				}
+			}
+		}
+
+	}
+
+	private static final class Event {
+
+		private final int type;
+		private final List<String> keys;
+
+		private Event(int type, List<String> keys){
+			this.type = type;
+			this.keys = keys;
+		}
+
+	}
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous form of {@link FetchMultiple}, for a primary data store that returns its results as a
+ * {@link CompletableFuture} rather than blocking the calling thread.
+ * 
+ * @author Dennis Crissman
+ *
+ * @param <T>
+ * 
+ * @see FetchManager#fetchMultipleAsync(String, List, AsyncFetchMultiple)
+ */
+public interface AsyncFetchMultiple<T> {
+
+	/**
+	 * @return the type class
+	 */
+	Class<T> getType();
+
+	/**
+	 * Starts fetching multiple data-points from the primary data store.
+	 * @param keys - keys that need to be fetched.
+	 * @return future of the fetched data points.
+	 */
+	CompletableFuture<Map<String, T>> fetch(List<String> keys);
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous form of {@link FetchSingle}, for a primary data store that returns its results as a
+ * {@link CompletableFuture} rather than blocking the calling thread.
+ * 
+ * @author Dennis Crissman
+ *
+ * @param <T>
+ * 
+ * @see FetchManager#fetchSingleAsync(String, String, AsyncFetchSingle)
+ */
+public interface AsyncFetchSingle<T> {
+
+	/**
+	 * @return the type class
+	 */
+	Class<T> getType();
+
+	/**
+	 * Starts fetching a single data-point from the primary data store.
+	 * @param key - key that needs to be fetched.
+	 * @return future of the fetched data point.
+	 */
+	CompletableFuture<T> fetch(String key);
+
+}
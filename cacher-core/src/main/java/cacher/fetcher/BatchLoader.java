@@ -0,0 +1,276 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Collects individual key lookups for a single group and loads them together through
+ * {@link FetchManager#fetchMultiple(String, List, FetchMultiple)}, so that a loop or a set of concurrent
+ * tasks each needing one key results in a single {@link cacher.Cache#getBulk(List)} and at most one call
+ * to the {@link FetchMultiple} rather than one of each per key.</p>
+ * <p>Requested keys are held until either {@link #getMaxBatchSize()} keys are waiting, or
+ * {@link #getMaxDelayMillis()} has passed since the first of them was requested. The batch can also be sent
+ * right away with {@link #dispatch()}. Requests for a key that is already waiting share the same future.</p>
+ * <p>A batch sent once its delay has passed is loaded on the executor, so the scheduler is only ever
+ * busy long enough to hand the batch off.</p>
+ *
+ * @author Dennis Crissman
+ *
+ * @param <T> - type of value loaded.
+ */
+public class BatchLoader<T> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BatchLoader.class);
+
+	public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+	public static final long DEFAULT_MAX_DELAY_MILLIS = 2;
+
+	private final FetchManager fetchManager;
+	private final String group;
+	private final FetchMultiple<T> fetcher;
+	private final ScheduledExecutorService scheduler;
+	private final Executor executor;
+	private volatile int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+	private volatile long maxDelayMillis = DEFAULT_MAX_DELAY_MILLIS;
+
+	/* Guarded by this */
+	private Map<String, CompletableFuture<T>> pending = new LinkedHashMap<String, CompletableFuture<T>>();
+	private ScheduledFuture<?> scheduledDispatch;
+
+	/**
+	 * @param fetchManager - {@link FetchManager} to load each batch through.
+	 * @param group - key prefix to use with the cacher, may be <code>null</code>.
+	 * @param fetcher - {@link FetchMultiple} used for keys that are not cached.
+	 * @param scheduler - {@link ScheduledExecutorService} that hands a batch off once its delay has passed.
+	 * @param executor - {@link Executor} that loads a batch once its delay has passed.
+	 */
+	public BatchLoader(FetchManager fetchManager, String group, FetchMultiple<T> fetcher, ScheduledExecutorService scheduler,
+			Executor executor){
+		this.fetchManager = fetchManager;
+		this.group = group;
+		this.fetcher = fetcher;
+		this.scheduler = scheduler;
+		this.executor = executor;
+	}
+
+	public String getGroup(){
+		return group;
+	}
+
+	/**
+	 * Sets the number of keys that causes a batch to be sent without waiting for the delay to pass.
+	 * @param maxBatchSize - maximum keys per batch.
+	 */
+	public void setMaxBatchSize(int maxBatchSize){
+		if(maxBatchSize < 1){
+			throw new IllegalArgumentException("maxBatchSize must be at least 1: " + maxBatchSize);
+		}
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * @return maximum keys per batch.
+	 */
+	public int getMaxBatchSize(){
+		return maxBatchSize;
+	}
+
+	/**
+	 * Sets how long to wait, after the first key of a batch is requested, for more keys to join the batch.
+	 * @param maxDelayMillis - milliseconds to wait.
+	 */
+	public void setMaxDelayMillis(long maxDelayMillis){
+		this.maxDelayMillis = maxDelayMillis;
+	}
+
+	/**
+	 * @return milliseconds to wait for more keys to join a batch.
+	 */
+	public long getMaxDelayMillis(){
+		return maxDelayMillis;
+	}
+
+	/**
+	 * Adds the key to the current batch.
+	 * @param key - key
+	 * @return future of the value, completed with <code>null</code> if there is no value, or exceptionally
+	 * if the {@link FetchMultiple} threw an exception.
+	 */
+	public CompletableFuture<T> load(String key){
+		if(key == null){
+			return CompletableFuture.completedFuture(null);
+		}
+
+		CompletableFuture<T> future;
+		boolean full;
+		synchronized(this){
+			future = pending.get(key);
+			if(future != null){
+				return future;
+			}
+			future = new CompletableFuture<T>();
+			pending.put(key, future);
+
+			full = pending.size() >= getMaxBatchSize();
+			if(!full && scheduledDispatch == null){
+				scheduledDispatch = scheduleDispatch();
+				full = (scheduledDispatch == null);
+			}
+		}
+
+		if(full){
+			dispatch();
+		}
+		return future;
+	}
+
+	/**
+	 * Adds the key to the current batch and waits for the batch to be loaded. Behaves like
+	 * {@link FetchManager#fetchSingle(String, String, FetchSingle)}, including rethrowing any
+	 * exception thrown by the {@link FetchMultiple}.
+	 * @param key - key
+	 * @return T instance, or <code>null</code> if there is no value.
+	 */
+	public T fetchSingle(String key){
+		CompletableFuture<T> future = load(key);
+		boolean interrupted = false;
+		try{
+			while(true){
+				try{
+					return future.get();
+				}
+				catch(InterruptedException e){
+					interrupted = true;
+				}
+				catch(ExecutionException e){
+					Throwable cause = e.getCause();
+					if(cause instanceof RuntimeException){
+						throw (RuntimeException) cause;
+					}
+					if(cause instanceof Error){
+						throw (Error) cause;
+					}
+					throw new IllegalStateException(cause);
+				}
+			}
+		}
+		finally{
+			if(interrupted){
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Sends the current batch now, on the calling thread.
+	 */
+	public void dispatch(){
+		Map<String, CompletableFuture<T>> batch = takeBatch(null);
+		if(batch != null){
+			send(batch);
+		}
+	}
+
+	/**
+	 * @return the number of keys waiting to be sent.
+	 */
+	public synchronized int getPendingCount(){
+		return pending.size();
+	}
+
+	/**
+	 * @param expected - the batch to take, or <code>null</code> for whichever batch is waiting.
+	 * @return the batch to send, or <code>null</code> if there is nothing to send.
+	 */
+	private synchronized Map<String, CompletableFuture<T>> takeBatch(Map<String, CompletableFuture<T>> expected){
+		if(pending.isEmpty() || (expected != null && pending != expected)){
+			return null;
+		}
+		Map<String, CompletableFuture<T>> batch = pending;
+		pending = new LinkedHashMap<String, CompletableFuture<T>>();
+		if(scheduledDispatch != null){
+			scheduledDispatch.cancel(false);
+			scheduledDispatch = null;
+		}
+		return batch;
+	}
+
+	private void send(Map<String, CompletableFuture<T>> batch){
+		try{
+			Map<String, T> values = fetchManager.fetchMultiple(group, new ArrayList<String>(batch.keySet()), fetcher);
+			for(Entry<String, CompletableFuture<T>> entry : batch.entrySet()){
+				entry.getValue().complete(values.get(entry.getKey()));
+			}
+		}
+		catch(RuntimeException | Error e){
+			for(CompletableFuture<T> future : batch.values()){
+				future.completeExceptionally(e);
+			}
+		}
+	}
+
+	/**
+	 * <p>Must be called while holding the lock.</p>
+	 * <p>The scheduled dispatch only sends the batch it was scheduled for. If that batch has already been
+	 * sent, the dispatch may still run after failing to be cancelled, and then does nothing.</p>
+	 * @return the scheduled dispatch, or <code>null</code> if it could not be scheduled and the batch
+	 * should be sent right away.
+	 */
+	private ScheduledFuture<?> scheduleDispatch(){
+		final Map<String, CompletableFuture<T>> expected = pending;
+		try{
+			return scheduler.schedule(new Runnable() {
+
+				@Override
+				public void run() {
+					final Map<String, CompletableFuture<T>> batch = takeBatch(expected);
+					if(batch == null){
+						return;
+					}
+					try{
+						executor.execute(new Runnable() {
+
+							@Override
+							public void run() {
+								send(batch);
+							}
+						});
+					}
+					catch(RejectedExecutionException e){
+						LOGGER.warn("Unable to hand off batch for group '" + (group == null ? "" : group) + "', sending it now", e);
+						send(batch);
+					}
+				}
+			}, getMaxDelayMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch(RejectedExecutionException e){
+			LOGGER.warn("Unable to schedule batch for group '" + (group == null ? "" : group) + "', sending it now", e);
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import java.io.Serializable;
+
+/**
+ * <p>Envelope stored by {@link FetchManager} in place of the fetched value when serving stale values
+ * is enabled (see {@link FetchManager#setSoftExpireSeconds(int)}).</p>
+ * <p>Once the soft deadline passes the value is considered stale and should be refreshed, but it may
+ * still be served until the hard deadline.</p>
+ * <p>The time it took to fetch the value is also recorded, so that expensive values can be refreshed
+ * early (see {@link #shouldRefreshEarly(long, double, double)}).</p>
+ * 
+ * @author Dennis Crissman
+ */
+public final class CachedEntry implements Serializable {
+
+	private static final long serialVersionUID = -6390264587305291172L;
+
+	private final Object value;
+	private final long softExpiresAt;
+	private final long hardExpiresAt;
+	private final long fetchCostMillis;
+
+	/**
+	 * @param value - cached value
+	 * @param softExpiresAt - epoch millis after which the value is stale.
+	 * @param hardExpiresAt - epoch millis after which the value must no longer be served.
+	 */
+	public CachedEntry(Object value, long softExpiresAt, long hardExpiresAt){
+		this(value, softExpiresAt, hardExpiresAt, 0);
+	}
+
+	/**
+	 * @param value - cached value
+	 * @param softExpiresAt - epoch millis after which the value is stale.
+	 * @param hardExpiresAt - epoch millis after which the value must no longer be served.
+	 * @param fetchCostMillis - milliseconds it took to fetch the value.
+	 */
+	public CachedEntry(Object value, long softExpiresAt, long hardExpiresAt, long fetchCostMillis){
+		this.value = value;
+		this.softExpiresAt = softExpiresAt;
+		this.hardExpiresAt = hardExpiresAt;
+		this.fetchCostMillis = fetchCostMillis;
+	}
+
+	public Object getValue(){
+		return value;
+	}
+
+	public long getSoftExpiresAt(){
+		return softExpiresAt;
+	}
+
+	public long getHardExpiresAt(){
+		return hardExpiresAt;
+	}
+
+	public long getFetchCostMillis(){
+		return fetchCostMillis;
+	}
+
+	/**
+	 * @param now - current epoch millis
+	 * @return <code>true</code> if the value should be refreshed.
+	 */
+	public boolean isStale(long now){
+		return now >= softExpiresAt;
+	}
+
+	/**
+	 * <p>Probabilistic early expiration (XFetch). Each reader independently decides to refresh with a
+	 * probability that rises as the soft deadline approaches, and rises sooner for values that are
+	 * expensive to fetch. Refreshes of keys written together are therefore spread out rather than all
+	 * happening at the soft deadline.</p>
+	 * @param now - current epoch millis
+	 * @param beta - values greater than 1.0 favour refreshing earlier, less than 1.0 later.
+	 * @param random - uniformly distributed random number in (0, 1].
+	 * @return <code>true</code> if the value should be refreshed now.
+	 */
+	public boolean shouldRefreshEarly(long now, double beta, double random){
+		return (now - (fetchCostMillis * beta * Math.log(random))) >= softExpiresAt;
+	}
+
+	/**
+	 * @param now - current epoch millis
+	 * @return <code>true</code> if the value must no longer be served.
+	 */
+	public boolean isExpired(long now){
+		return now >= hardExpiresAt;
+	}
+
+	@Override
+	public String toString(){
+		return "CachedEntry[value=" + value + ", softExpiresAt=" + softExpiresAt + ", hardExpiresAt=" + hardExpiresAt
+				+ ", fetchCostMillis=" + fetchCostMillis + "]";
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>A bounded, lock-free ring buffer that any number of threads may offer to, but only a single thread
+ * may poll from.</p>
+ * <p>Each slot carries a sequence number. A producer claims a slot by advancing the head, writes the element
+ * and then publishes it by advancing the slot's sequence. The consumer only reads a slot once it has been
+ * published, and releases it for the next lap by advancing the sequence again.</p>
+ *
+ * @author Dennis Crissman
+ *
+ * @param <E> - type of element
+ */
+final class EventRing<E> {
+
+	private final AtomicReferenceArray<E> elements;
+	private final AtomicLongArray sequences;
+	private final int mask;
+	private final AtomicLong head = new AtomicLong();
+
+	/* Only accessed by the consumer */
+	private long tail = 0;
+
+	/**
+	 * @param capacity - minimum number of elements the ring can hold, rounded up to a power of two.
+	 */
+	EventRing(int capacity){
+		if(capacity < 1){
+			throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+		}
+		int size = Integer.highestOneBit(capacity);
+		if(size < capacity){
+			size <<= 1;
+		}
+
+		this.elements = new AtomicReferenceArray<E>(size);
+		this.sequences = new AtomicLongArray(size);
+		for(int i = 0; i < size; i++){
+			sequences.set(i, i);
+		}
+		this.mask = size - 1;
+	}
+
+	/**
+	 * @return the number of elements the ring can hold.
+	 */
+	int capacity(){
+		return mask + 1;
+	}
+
+	/**
+	 * Adds the element, unless the ring is full. Safe to call from any thread.
+	 * @param element - element to add, must not be <code>null</code>.
+	 * @return <code>true</code> if added, <code>false</code> if the ring was full.
+	 */
+	boolean offer(E element){
+		while(true){
+			long position = head.get();
+			int index = (int) (position & mask);
+			long difference = sequences.get(index) - position;
+			if(difference == 0){
+				if(head.compareAndSet(position, position + 1)){
+					elements.lazySet(index, element);
+					sequences.lazySet(index, position + 1);
+					return true;
+				}
+			}
+			else if(difference < 0){
+				return false;
+			}
+			//Otherwise another producer claimed the slot first, try the next one.
+		}
+	}
+
+	/**
+	 * Unlike {@link #poll()}, also counts elements that a producer has claimed a slot for but not yet
+	 * published, so that a consumer can safely check it before waiting for more elements.
+	 * Must only be called by the single consumer thread.
+	 * @return <code>true</code> if there is nothing left to consume.
+	 */
+	boolean isEmpty(){
+		return head.get() == tail;
+	}
+
+	/**
+	 * Removes the oldest published element. Must only be called by the single consumer thread.
+	 * @return the element, or <code>null</code> if there is nothing to consume.
+	 */
+	E poll(){
+		int index = (int) (tail & mask);
+		if(sequences.get(index) != tail + 1){
+			return null;
+		}
+
+		E element = elements.get(index);
+		elements.lazySet(index, null);
+		sequences.lazySet(index, tail + mask + 1);
+		tail++;
+		return element;
+	}
+
+}
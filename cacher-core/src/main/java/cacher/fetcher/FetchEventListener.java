@@ -33,4 +33,13 @@ public interface FetchEventListener {
 	 */
 	void fetchedFromFetcher(List<String> keys);
 
+	/**
+	 * The cacher recorded that these keys have no value (see {@link FetchManager#setNegativeExpireSeconds(int)}),
+	 * so the Fetcher was not called. These keys are not included in {@link #fetchedFromCache(List)}.
+	 * @param keys - keys known to have no value.
+	 */
+	default void fetchedNegativeFromCache(List<String> keys){
+		//Do nothing by default.
+	}
+
 }
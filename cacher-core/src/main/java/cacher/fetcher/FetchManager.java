@@ -11,15 +11,34 @@
 
 package cacher.fetcher;
 
+import java.time.Clock;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import cacher.AsyncCache;
 import cacher.Cache;
 import cacher.CacheUtils;
 
@@ -28,7 +47,30 @@ import cacher.CacheUtils;
  * cacher if available, otherwise retrieving data from a strategy and then caching that value.<br>
  * <br>
  * <b>NOTE:</b> if an unexpected class type is returned from the {@link cacher.Cache}
- * a {@link ClassCastException} will be returned.
+ * a {@link ClassCastException} will be returned.<br>
+ * <br>
+ * If coalescing is enabled (see {@link #setCoalescing(boolean)}), concurrent cache misses on the same
+ * key share a single call to the fetcher, whether fetched individually or as part of multiple keys.<br>
+ * <br>
+ * If a soft expiration is set (see {@link #setSoftExpireSeconds(int)}), values are cached inside a
+ * {@link CachedEntry}. Once stale, a value continues to be served while it is refreshed, and if the
+ * refresh fails, until its hard expiration.<br>
+ * <br>
+ * If a negative expiration is set (see {@link #setNegativeExpireSeconds(int)}), keys the fetcher returns no
+ * value for are cached as a {@link NegativeEntry}, so repeated lookups of missing keys do not reach the fetcher.<br>
+ * <br>
+ * If a latency budget is set (see {@link #setCacheLatencyBudgetMillis(long)}), lookups against an
+ * {@link AsyncCache} that take longer than the budget are abandoned and treated as misses.<br>
+ * <br>
+ * Fetched values are written to the {@link cacher.Cache} before they are returned. To take those writes off of
+ * the caller's thread, wrap the {@link cacher.Cache} in a {@link cacher.impl.WriteBehindCache}. To stop calling
+ * a {@link cacher.Cache} that is failing or slow, wrap it in a {@link cacher.impl.CircuitBreakerCache}.<br>
+ * <br>
+ * {@link FetchEventListener}s are notified on the calling thread. To notify slow listeners in the background,
+ * wrap them in an {@link AsyncFetchEventListener}.<br>
+ * <br>
+ * For a fetcher that returns a {@link CompletableFuture}, see {@link #fetchSingleAsync(String, String, AsyncFetchSingle)}
+ * and {@link #fetchMultipleAsync(String, List, AsyncFetchMultiple)}, which do not block the calling thread.
  * 
  * @author Dennis Crissman
  * 
@@ -39,10 +81,32 @@ public class FetchManager {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(FetchManager.class);
 
+	public static final long DEFAULT_COALESCING_TIMEOUT_MILLIS = 5000;
+
 	private final List<FetchEventListener> fetchEventListeners;
 
 	private final Cache cache;
 
+	private final InFlightFetches inFlightFetches;
+	private volatile boolean coalescing = false;
+	private volatile long coalescingTimeoutMillis = DEFAULT_COALESCING_TIMEOUT_MILLIS;
+
+	private final Set<String> refreshing;
+	private volatile int expireSeconds = Cache.DEFAULT_EXPIRATION;
+	private volatile int softExpireSeconds = 0;
+	private volatile int maxStaleSeconds = 0;
+	private volatile Executor refreshExecutor;
+	private volatile Clock clock = Clock.systemUTC();
+	private volatile double earlyRefreshBeta = 0;
+	private volatile int negativeExpireSeconds = 0;
+	private volatile int bulkChunkSize = 0;
+	private volatile Executor bulkExecutor;
+
+	private final LatencyTracker cacheLatency;
+	private volatile long cacheLatencyBudgetMillis = 0;
+	private volatile double hedgePercentile = 0;
+	private volatile Executor hedgeExecutor;
+
 	public FetchManager(Cache cache){
 		this(cache, null);
 	}
@@ -50,12 +114,299 @@ public class FetchManager {
 	public FetchManager(Cache cache, List<FetchEventListener> fetchEventListeners){
 		this.cache = cache;
 		this.fetchEventListeners = (fetchEventListeners == null) ? new ArrayList<FetchEventListener>() : fetchEventListeners;
+		this.inFlightFetches = new InFlightFetches();
+		this.refreshing = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+		this.cacheLatency = new LatencyTracker();
+	}
+
+	/**
+	 * See {@link #copy()}.
+	 */
+	private FetchManager(FetchManager base){
+		this.cache = base.cache;
+		this.fetchEventListeners = base.fetchEventListeners;
+		this.inFlightFetches = base.inFlightFetches;
+		this.refreshing = base.refreshing;
+		this.cacheLatency = base.cacheLatency;
+
+		this.coalescing = base.coalescing;
+		this.coalescingTimeoutMillis = base.coalescingTimeoutMillis;
+		this.expireSeconds = base.expireSeconds;
+		this.softExpireSeconds = base.softExpireSeconds;
+		this.maxStaleSeconds = base.maxStaleSeconds;
+		this.refreshExecutor = base.refreshExecutor;
+		this.clock = base.clock;
+		this.earlyRefreshBeta = base.earlyRefreshBeta;
+		this.negativeExpireSeconds = base.negativeExpireSeconds;
+		this.bulkChunkSize = base.bulkChunkSize;
+		this.bulkExecutor = base.bulkExecutor;
+		this.cacheLatencyBudgetMillis = base.cacheLatencyBudgetMillis;
+		this.hedgePercentile = base.hedgePercentile;
+		this.hedgeExecutor = base.hedgeExecutor;
+	}
+
+	/**
+	 * <p>Creates a {@link FetchManager} that starts with a copy of the settings of this one, and shares its
+	 * {@link Cache}, {@link FetchEventListener}s, in-flight fetches and refreshes. Settings changed on the copy,
+	 * such as {@link #setExpireSeconds(int)}, only apply to the callers of the copy, and settings changed on this
+	 * {@link FetchManager} afterwards are not copied.</p>
+	 * <p>This allows some callers, such as a {@link cacher.aop.FetcherMethod}, to use their own expiration
+	 * without another {@link Cache} connection.</p>
+	 * @return a new {@link FetchManager}
+	 */
+	public FetchManager copy(){
+		return new FetchManager(this);
 	}
 
 	public Cache getCache(){
 		return cache;
 	}
 
+	/**
+	 * If <code>true</code>, a caller that misses the cache on a key that another caller is already
+	 * fetching will wait for that fetch instead of calling the fetcher itself. This applies to both
+	 * {@link #fetchSingle(String, String, FetchSingle)} and {@link #fetchMultiple(String, List, FetchMultiple)},
+	 * where only the keys nobody else is fetching are passed to the fetcher. Any exception thrown
+	 * by the fetcher is rethrown to every waiting caller. Defaults to <code>false</code>.
+	 * @param coalescing - whether to coalesce concurrent fetches of the same key.
+	 */
+	public void setCoalescing(boolean coalescing){
+		this.coalescing = coalescing;
+	}
+
+	/**
+	 * @return whether concurrent fetches of the same key are coalesced.
+	 */
+	public boolean isCoalescing(){
+		return coalescing;
+	}
+
+	/**
+	 * Sets the maximum time to wait on another caller's fetch. Once elapsed, the waiting caller
+	 * calls the fetcher itself.
+	 * @param timeoutMillis - milliseconds to wait.
+	 */
+	public void setCoalescingTimeoutMillis(long timeoutMillis){
+		this.coalescingTimeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * @return milliseconds to wait on another caller's fetch.
+	 */
+	public long getCoalescingTimeoutMillis(){
+		return coalescingTimeoutMillis;
+	}
+
+	/**
+	 * Sets the number of seconds fetched values are cached for. When a soft expiration is set
+	 * (see {@link #setSoftExpireSeconds(int)}), it caps how long a value lives, stale or not. Defaults to
+	 * {@link Cache#DEFAULT_EXPIRATION}, which uses the expiration of the {@link Cache}.
+	 * @param seconds - seconds to cache values for, {@link Cache#NO_EXPIRATION} or {@link Cache#DEFAULT_EXPIRATION}.
+	 */
+	public void setExpireSeconds(int seconds){
+		this.expireSeconds = seconds;
+	}
+
+	/**
+	 * @return seconds values are cached for, or {@link Cache#DEFAULT_EXPIRATION} to use the {@link Cache}'s expiration.
+	 */
+	public int getExpireSeconds(){
+		return expireSeconds;
+	}
+
+	/**
+	 * Sets the number of seconds after which a fetched value is considered stale and should be refreshed.
+	 * If greater than 0, values are cached inside a {@link CachedEntry} that lives in the {@link Cache}
+	 * for the soft expiration plus {@link #setMaxStaleSeconds(int)}, or {@link #setExpireSeconds(int)} if that
+	 * is shorter. Defaults to 0, which disables serving stale values.
+	 * @param seconds - seconds until a value is stale.
+	 */
+	public void setSoftExpireSeconds(int seconds){
+		this.softExpireSeconds = seconds;
+	}
+
+	/**
+	 * @return seconds until a value is stale, 0 if stale values are not served.
+	 */
+	public int getSoftExpireSeconds(){
+		return softExpireSeconds;
+	}
+
+	/**
+	 * Sets the number of seconds, after it became stale, that a value may continue to be served
+	 * while it is refreshed or while the fetcher is failing.
+	 * @param seconds - seconds a stale value may be served.
+	 */
+	public void setMaxStaleSeconds(int seconds){
+		this.maxStaleSeconds = seconds;
+	}
+
+	/**
+	 * @return seconds a stale value may be served.
+	 */
+	public int getMaxStaleSeconds(){
+		return maxStaleSeconds;
+	}
+
+	/**
+	 * Sets the {@link Executor} used to refresh stale values. If set, stale values are returned immediately
+	 * and refreshed in the background (stale-while-revalidate). Otherwise stale values are refreshed by the
+	 * caller, and only returned if the fetcher throws an exception (stale-if-error).
+	 * @param refreshExecutor - {@link Executor} to refresh stale values on, or <code>null</code>.
+	 */
+	public void setRefreshExecutor(Executor refreshExecutor){
+		this.refreshExecutor = refreshExecutor;
+	}
+
+	/**
+	 * @return {@link Executor} stale values are refreshed on, or <code>null</code>.
+	 */
+	public Executor getRefreshExecutor(){
+		return refreshExecutor;
+	}
+
+	/**
+	 * Enables probabilistic early refresh (XFetch) of values stored in a {@link CachedEntry}. Before its
+	 * soft expiration a value may be treated as stale, with a likelihood that grows as the soft expiration
+	 * nears and with the time it took to fetch. A beta of 1.0 is a good default, larger values refresh earlier.
+	 * Defaults to 0, which disables early refresh. Has no effect unless {@link #setSoftExpireSeconds(int)} is set.
+	 * @param beta - early refresh factor.
+	 */
+	public void setEarlyRefreshBeta(double beta){
+		this.earlyRefreshBeta = beta;
+	}
+
+	/**
+	 * @return early refresh factor, 0 if disabled.
+	 */
+	public double getEarlyRefreshBeta(){
+		return earlyRefreshBeta;
+	}
+
+	/**
+	 * Sets the number of seconds to remember that the fetcher returned no value for a key. Until then,
+	 * {@link #fetchSingle(String, String, FetchSingle)} returns <code>null</code> and
+	 * {@link #fetchMultiple(String, List, FetchMultiple)} leaves the key out of its results without calling
+	 * the fetcher. This should usually be much shorter than the expiration of real values, as a missing key may
+	 * be created at any time. Defaults to 0, which disables negative caching.
+	 * @param seconds - seconds to cache the absence of a value.
+	 */
+	public void setNegativeExpireSeconds(int seconds){
+		this.negativeExpireSeconds = seconds;
+	}
+
+	/**
+	 * @return seconds to cache the absence of a value, 0 if disabled.
+	 */
+	public int getNegativeExpireSeconds(){
+		return negativeExpireSeconds;
+	}
+
+	/**
+	 * Sets the maximum number of keys requested from the {@link Cache} in one {@link Cache#getBulk(List)} call.
+	 * Larger lookups are split into chunks which are requested concurrently, using {@link AsyncCache#getBulkAsync(List)}
+	 * if the {@link Cache} supports it, otherwise on the {@link #setBulkExecutor(Executor)} if one is set, otherwise
+	 * one after another. If a chunk fails, only the keys in that chunk are sent to the fetcher.
+	 * Defaults to 0, which requests all keys in one call.
+	 * @param chunkSize - maximum keys per {@link Cache#getBulk(List)} call, or 0 for no limit.
+	 */
+	public void setBulkChunkSize(int chunkSize){
+		this.bulkChunkSize = chunkSize;
+	}
+
+	/**
+	 * @return maximum keys per {@link Cache#getBulk(List)} call, 0 if there is no limit.
+	 */
+	public int getBulkChunkSize(){
+		return bulkChunkSize;
+	}
+
+	/**
+	 * Sets the {@link Executor} used to request chunks concurrently from a {@link Cache} that is not
+	 * an {@link AsyncCache}. See {@link #setBulkChunkSize(int)}.
+	 * @param bulkExecutor - {@link Executor} to request chunks on, or <code>null</code>.
+	 */
+	public void setBulkExecutor(Executor bulkExecutor){
+		this.bulkExecutor = bulkExecutor;
+	}
+
+	/**
+	 * @return {@link Executor} chunks are requested on, or <code>null</code>.
+	 */
+	public Executor getBulkExecutor(){
+		return bulkExecutor;
+	}
+
+	/**
+	 * Sets the maximum time to wait on the {@link Cache}. A lookup that has not been answered in time is
+	 * abandoned and treated as a miss, so a slow cache costs at most this much on top of the fetcher.
+	 * Only applies to a {@link Cache} that is also an {@link AsyncCache}, a blocking {@link Cache} can be
+	 * adapted with {@link cacher.impl.BlockingAsyncCache} and an {@link Executor}. When lookups are split
+	 * into chunks (see {@link #setBulkChunkSize(int)}), the budget applies to all chunks together.
+	 * Defaults to 0, which waits for as long as the {@link Cache} does.
+	 * @param budgetMillis - milliseconds to wait on the {@link Cache}.
+	 */
+	public void setCacheLatencyBudgetMillis(long budgetMillis){
+		this.cacheLatencyBudgetMillis = budgetMillis;
+	}
+
+	/**
+	 * @return milliseconds to wait on the {@link Cache}, 0 if there is no budget.
+	 */
+	public long getCacheLatencyBudgetMillis(){
+		return cacheLatencyBudgetMillis;
+	}
+
+	/**
+	 * Enables hedging of {@link #fetchSingle(String, String, FetchSingle)}. Once a lookup has taken longer than this
+	 * percentile of recent lookups, the fetcher is started on the {@link #setHedgeExecutor(Executor)} while the
+	 * lookup continues, and whichever provides the value first is used. Requires a latency budget
+	 * (see {@link #setCacheLatencyBudgetMillis(long)}) and a hedge {@link Executor}. Hedging only starts once
+	 * enough lookups have been observed. Defaults to 0, which disables hedging.
+	 * @param percentile - between 0 and 1, for example 0.95
+	 */
+	public void setHedgePercentile(double percentile){
+		this.hedgePercentile = percentile;
+	}
+
+	/**
+	 * @return percentile of lookup latency after which the fetcher is started, 0 if disabled.
+	 */
+	public double getHedgePercentile(){
+		return hedgePercentile;
+	}
+
+	/**
+	 * Sets the {@link Executor} hedged fetches run on. See {@link #setHedgePercentile(double)}.
+	 * @param hedgeExecutor - {@link Executor} to run hedged fetches on, or <code>null</code>.
+	 */
+	public void setHedgeExecutor(Executor hedgeExecutor){
+		this.hedgeExecutor = hedgeExecutor;
+	}
+
+	/**
+	 * @return {@link Executor} hedged fetches run on, or <code>null</code>.
+	 */
+	public Executor getHedgeExecutor(){
+		return hedgeExecutor;
+	}
+
+	/**
+	 * Sets the {@link Clock} used to determine when a {@link CachedEntry} is stale or expired.
+	 * Defaults to {@link Clock#systemUTC()}.
+	 * @param clock - {@link Clock}
+	 */
+	public void setClock(Clock clock){
+		this.clock = clock;
+	}
+
+	/**
+	 * @return {@link Clock} used to determine when a {@link CachedEntry} is stale or expired.
+	 */
+	public Clock getClock(){
+		return clock;
+	}
+
 	/**
 	 * Searches the {@link Cache} for the provided keys. If cached, then the cached instance will be
 	 * returned, otherwise the method will attempt to find and use a {@link FetchMultiple} to find the value
@@ -79,7 +430,6 @@ public class FetchManager {
 	 * @param fetcher - Instance of {@link FetchMultiple}
 	 * @return Map of keys to T instances
 	 */
-	@SuppressWarnings("unchecked")
 	public <T> Map<String, T> fetchMultiple(String group, List<String> keys, FetchMultiple<T> fetcher){
 		Map<String, T> map = new HashMap<String, T>();
 		if((keys == null) || keys.isEmpty()){
@@ -87,6 +437,8 @@ public class FetchManager {
 		}
 
 		List<String> uncachedObjects = new ArrayList<String>();
+		Map<String, T> staleObjects = new HashMap<String, T>();
+		List<String> negativeKeys = new ArrayList<String>();
 		try{
 			Map<String, Object> cachedObjects = getBulkWithPrefix(group, keys);
 			if(cachedObjects == null || cachedObjects.isEmpty()){
@@ -94,17 +446,21 @@ public class FetchManager {
 				uncachedObjects.addAll(keys);
 			}
 			else{
-				for(String key : keys) {
-					Object obj = cachedObjects.get(CacheUtils.prefixedKey(group, key));
-					if(obj == null){
-						uncachedObjects.add(key);
+				sortCached(group, keys, cachedObjects, fetcher.getType(), map, staleObjects, negativeKeys, uncachedObjects);
+
+				if(!staleObjects.isEmpty()){
+					if(getRefreshExecutor() == null){
+						uncachedObjects.addAll(staleObjects.keySet());
 					}
-					else {
-						assertValidType(fetcher.getType(), obj);
-						map.put(key, (T)obj);
+					else{
+						map.putAll(staleObjects);
+						refreshInBackground(group, new ArrayList<String>(staleObjects.keySet()), fetcher);
 					}
 				}
-				fireFetchedFromCacheEvent(new ArrayList<String>(map.keySet()));
+				if(hasFetchEventListeners()){
+					fireFetchedFromCacheEvent(new ArrayList<String>(map.keySet()));
+				}
+				fireFetchedNegativeFromCacheEvent(negativeKeys);
 			}
 		}
 		catch(ClassCastException e){ //NOSONAR
@@ -119,6 +475,8 @@ public class FetchManager {
 					+ (group == null ? "" : group)
 					+ "' Keys: " + keys, e);
 			map.clear();
+			staleObjects.clear();
+			negativeKeys.clear();
 			uncachedObjects.clear();
 			uncachedObjects.addAll(keys);
 		}
@@ -128,24 +486,139 @@ public class FetchManager {
 		 * and should be allowed to bubble up to application code.
 		 */
 		if(!uncachedObjects.isEmpty()) {
-			Map<String, T> missingObjects = fetcher.fetch(uncachedObjects);
-			for(Entry<String, T> entry : missingObjects.entrySet()){
-				map.put(entry.getKey(), entry.getValue());
-				addToCache(CacheUtils.prefixedKey(group, entry.getKey()), entry.getValue());
+			Map<String, T> missingObjects;
+			try{
+				missingObjects = isCoalescing()
+						? fetchCoalesced(group, uncachedObjects, fetcher)
+						: fetchAndCache(group, uncachedObjects, fetcher);
+			}
+			catch(RuntimeException e){
+				if(staleObjects.isEmpty() || !staleObjects.keySet().containsAll(uncachedObjects)){
+					throw e;
+				}
+				LOGGER.warn("Unable to refresh stale keys " + uncachedObjects + ", serving the stale values", e);
+				map.putAll(staleObjects);
+				fireFetchedFromCacheEvent(uncachedObjects);
+				return map;
 			}
+			map.putAll(missingObjects);
 			fireFetchedFromFetcherEvent(uncachedObjects);
 		}
 
 		return map;
 	}
 
+	/**
+	 * Sorts each key by what was cached for it: a value to return, a stale value to refresh, a {@link NegativeEntry},
+	 * or nothing.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> void sortCached(String group, List<String> keys, Map<String, Object> cachedObjects, Class<T> type,
+			Map<String, T> map, Map<String, T> staleObjects, List<String> negativeKeys, List<String> uncachedObjects){
+		long now = getClock().millis();
+		for(String key : keys) {
+			Object obj = cachedObjects.get(CacheUtils.prefixedKey(group, key));
+			if(obj instanceof NegativeEntry){
+				if(((NegativeEntry) obj).isExpired(now)){
+					uncachedObjects.add(key);
+				}
+				else{
+					negativeKeys.add(key);
+				}
+				continue;
+			}
+			if(obj instanceof CachedEntry){
+				CachedEntry entry = (CachedEntry) obj;
+				obj = entry.isExpired(now) ? null : entry.getValue();
+				if(obj != null && needsRefresh(entry, now)){
+					assertValidType(type, obj);
+					staleObjects.put(key, (T)obj);
+					continue;
+				}
+			}
+
+			if(obj == null){
+				uncachedObjects.add(key);
+			}
+			else {
+				assertValidType(type, obj);
+				map.put(key, (T)obj);
+			}
+		}
+	}
+
 	private Map<String, Object> getBulkWithPrefix(String prefix, List<String> keys){
 		ArrayList<String> adjustedKeys = new ArrayList<String>();
 		for(String key : keys) {
 			adjustedKeys.add(CacheUtils.prefixedKey(prefix, key));
 		}
 
-		return cache.getBulk(adjustedKeys);
+		int chunkSize = getBulkChunkSize();
+		if(chunkSize <= 0 || adjustedKeys.size() <= chunkSize){
+			AsyncCache asyncCache = getBudgetedCache();
+			if(asyncCache == null){
+				return cache.getBulk(adjustedKeys);
+			}
+			return awaitLookup(asyncCache.getBulkAsync(adjustedKeys), null, budgetDeadline());
+		}
+		return getBulkChunked(adjustedKeys, chunkSize);
+	}
+
+	/**
+	 * Requests the keys in chunks, concurrently where possible, and merges the results. Keys in a chunk that
+	 * failed are left out of the results, so that they are treated as cache misses.
+	 */
+	private Map<String, Object> getBulkChunked(List<String> keys, int chunkSize){
+		List<List<String>> chunks = new ArrayList<List<String>>();
+		for(int i = 0; i < keys.size(); i += chunkSize){
+			chunks.add(keys.subList(i, Math.min(i + chunkSize, keys.size())));
+		}
+
+		List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<CompletableFuture<Map<String, Object>>>();
+		for(List<String> chunk : chunks){
+			futures.add(getBulkAsync(chunk));
+		}
+
+		boolean budgeted = getCacheLatencyBudgetMillis() > 0;
+		long deadline = budgetDeadline();
+		Map<String, Object> results = new HashMap<String, Object>();
+		for(int i = 0; i < chunks.size(); i++){
+			try{
+				Map<String, Object> chunkResults = budgeted
+						? awaitLookup(futures.get(i), null, deadline)
+						: futures.get(i).join();
+				if(chunkResults != null){
+					results.putAll(chunkResults);
+				}
+			}
+			catch(RuntimeException e){
+				LOGGER.error("Unable to fetch chunk from cacher - Keys: " + chunks.get(i), unwrap(e));
+			}
+		}
+		return results;
+	}
+
+	private CompletableFuture<Map<String, Object>> getBulkAsync(final List<String> keys){
+		try{
+			if(cache instanceof AsyncCache){
+				return ((AsyncCache) cache).getBulkAsync(keys);
+			}
+
+			Executor executor = getBulkExecutor();
+			if(executor != null){
+				return CompletableFuture.supplyAsync(new Supplier<Map<String, Object>>() {
+
+					@Override
+					public Map<String, Object> get() {
+						return cache.getBulk(keys);
+					}
+				}, executor);
+			}
+			return CompletableFuture.completedFuture(cache.getBulk(keys));
+		}
+		catch(RuntimeException e){
+			return failedFuture(e);
+		}
 	}
 
 	/**
@@ -176,9 +649,23 @@ public class FetchManager {
 		if(key == null){
 			return null;
 		}
+		String prefixedKey = CacheUtils.prefixedKey(group, key);
 		Object cachedObj = null;
+		CompletableFuture<T> hedge = null;
 		try{
-			cachedObj = cache.get(CacheUtils.prefixedKey(group, key));
+			AsyncCache asyncCache = getBudgetedCache();
+			if(asyncCache == null){
+				cachedObj = cache.get(prefixedKey);
+			}
+			else{
+				long deadline = budgetDeadline();
+				CompletableFuture<Object> lookup = trackLatency(asyncCache.getAsync(prefixedKey));
+				long hedgeNanos = hedgeDelayNanos();
+				if(hedgeNanos >= 0 && !completesWithin(lookup, hedgeNanos)){
+					hedge = startHedge(prefixedKey, key, fetcher);
+				}
+				cachedObj = awaitLookup(lookup, hedge, deadline);
+			}
 		}
 		catch(RuntimeException e){
 			LOGGER.error("Unable to fetch from cacher: - Group: '"
@@ -186,88 +673,968 @@ public class FetchManager {
 					+ "' Keys: " + key, e);
 		}
 
-		List<String> keys = new ArrayList<String>();
-		keys.add(key);
+		if(cachedObj instanceof NegativeEntry && ((NegativeEntry) cachedObj).isExpired(getClock().millis())){
+			cachedObj = null;
+		}
+
+		if(hedge != null && cachedObj == null){
+			//The cache did not answer before the hedged fetch, or did not have the value, so any failure of the hedged fetch stands.
+			T obj = joinHedge(hedge);
+			fireFetchedFromFetcherEvent(Collections.singletonList(key));
+			return obj;
+		}
+
+		CachedEntry entry = null;
+		long now = 0;
+		if(cachedObj instanceof CachedEntry){
+			entry = (CachedEntry) cachedObj;
+			now = getClock().millis();
+			cachedObj = entry.isExpired(now) ? null : entry.getValue();
+		}
+
+		List<String> keys = Collections.singletonList(key);
+		if(cachedObj instanceof NegativeEntry){
+			fireFetchedNegativeFromCacheEvent(keys);
+			return null;
+		}
 		if(cachedObj == null){
 			/*
 			 * Any exception generated from this block is from the Fetcher
 			 * and should be allowed to bubble up to application code.
 			 */
-			T obj = fetcher.fetch(key);
-			addToCache(CacheUtils.prefixedKey(group, key), obj);
+			T obj = isCoalescing()
+					? fetchCoalesced(prefixedKey, key, fetcher)
+					: fetchAndCache(prefixedKey, key, fetcher);
 			fireFetchedFromFetcherEvent(keys);
 			return obj;
 		}
-		else {
-			assertValidType(fetcher.getType(), cachedObj);
-			fireFetchedFromCacheEvent(keys);
-			return (T)cachedObj;
+
+		assertValidType(fetcher.getType(), cachedObj);
+		if(entry != null && needsRefresh(entry, now)){
+			if(getRefreshExecutor() == null){
+				try{
+					T obj = isCoalescing()
+							? fetchCoalesced(prefixedKey, key, fetcher)
+							: fetchAndCache(prefixedKey, key, fetcher);
+					fireFetchedFromFetcherEvent(keys);
+					return obj;
+				}
+				catch(RuntimeException e){
+					LOGGER.warn("Unable to refresh stale key " + prefixedKey + ", serving the stale value", e);
+				}
+			}
+			else{
+				refreshInBackground(group, keys, new FetchSingleAdapter<T>(fetcher));
+			}
 		}
+		fireFetchedFromCacheEvent(keys);
+		return (T)cachedObj;
 	}
 
 	/**
-	 * Adds the provided key/value to the cacher.
+	 * Asynchronous form of {@link #fetchSingle(String, FetchSingle)}.
+	 * @param key - key
+	 * @param fetcher - Instance of {@link AsyncFetchSingle}
+	 * @return future of the T instance
+	 * @see #fetchSingleAsync(String, String, AsyncFetchSingle)
 	 */
-	private void addToCache(String key, Object value) {
-		if(value == null){
-			return;
-		}
+	public <T> CompletableFuture<T> fetchSingleAsync(String key, AsyncFetchSingle<T> fetcher){
+		return fetchSingleAsync(null, key, fetcher);
+	}
 
-		try{
-			cache.set(key, value);
-		}
-		catch(RuntimeException e){
-			//Log it! Otherwise, don't care.
-			LOGGER.error("Unable to cacher key " + key + " with value " + value, e);
+	/**
+	 * <p>Asynchronous form of {@link #fetchSingle(String, String, FetchSingle)}. Returns immediately, and the
+	 * returned future is completed with the cached value, or if not cached, with the value of the future returned
+	 * by the {@link AsyncFetchSingle}, which is then cached.</p>
+	 * <p>See {@link #fetchMultipleAsync(String, List, AsyncFetchMultiple)} for the threads this runs on.</p>
+	 * @param group - key prefix to use with the cacher
+	 * @param key - key
+	 * @param fetcher - Instance of {@link AsyncFetchSingle}
+	 * @return future of the T instance
+	 */
+	public <T> CompletableFuture<T> fetchSingleAsync(String group, final String key, AsyncFetchSingle<T> fetcher){
+		if(key == null){
+			return CompletableFuture.completedFuture(null);
 		}
+		return fetchMultipleAsync(group, Collections.singletonList(key), new AsyncFetchSingleAdapter<T>(fetcher))
+				.thenApply(new Function<Map<String, T>, T>() {
+
+					@Override
+					public T apply(Map<String, T> values) {
+						return values.get(key);
+					}
+				});
 	}
 
 	/**
-	 * Asserts that the passed in Object is of the correct type, otherwise throws a {@link ClassCastException}.
+	 * Asynchronous form of {@link #fetchMultiple(List, FetchMultiple)}.
+	 * @param keys - List of keys
+	 * @param fetcher - Instance of {@link AsyncFetchMultiple}
+	 * @return future of the Map of keys to T instances
+	 * @see #fetchMultipleAsync(String, List, AsyncFetchMultiple)
 	 */
-	private <T> void assertValidType(Class<T> type, Object obj) {
-		if(!type.isInstance(obj)){
-			throw new ClassCastException("Unable to cast type " + obj.getClass() + " to " + type);
-		}
+	public <T> CompletableFuture<Map<String, T>> fetchMultipleAsync(List<String> keys, AsyncFetchMultiple<T> fetcher){
+		return fetchMultipleAsync(null, keys, fetcher);
 	}
 
 	/**
-	 * Fires the fetchedFromCache events.
-	 * @param keys - Keys fetched from the cacher.
+	 * <p>Asynchronous form of {@link #fetchMultiple(String, List, FetchMultiple)}. Returns immediately, and the
+	 * returned future is completed once the cached values have been read and the {@link AsyncFetchMultiple} has
+	 * fetched the rest, which are then cached. No thread waits on the {@link Cache} or on the fetcher.</p>
+	 * <p>The {@link Cache} is read with {@link AsyncCache#getBulkAsync(List)} if it is an {@link AsyncCache},
+	 * otherwise on the calling thread. The fetcher is then started, and its values cached, on whichever thread
+	 * completed the lookup or the fetch. The latency budget, hedging and chunking only apply to the blocking methods,
+	 * and while coalescing, a key that is already being fetched waits on that fetch without a timeout.</p>
+	 * @param group - key prefix to use with the cacher
+	 * @param keys - List of keys
+	 * @param fetcher - Instance of {@link AsyncFetchMultiple}
+	 * @return future of the Map of keys to T instances
 	 */
-	private void fireFetchedFromCacheEvent(List<String> keys){
-		if((keys == null) || keys.isEmpty() || (fetchEventListeners == null)){
-			return;
+	public <T> CompletableFuture<Map<String, T>> fetchMultipleAsync(final String group, final List<String> keys,
+			final AsyncFetchMultiple<T> fetcher){
+		if((keys == null) || keys.isEmpty()){
+			return CompletableFuture.completedFuture((Map<String, T>) new HashMap<String, T>());
 		}
 
-		for(FetchEventListener listener : fetchEventListeners){
-			try{
-				listener.fetchedFromCache(keys);
-			}
-			catch(Exception e){
-				LOGGER.error("Exception occurred while handling a 'fetchedFromCache' event", e);
-			}
+		List<String> prefixedKeys = new ArrayList<String>(keys.size());
+		for(String key : keys){
+			prefixedKeys.add(CacheUtils.prefixedKey(group, key));
 		}
+
+		final CompletableFuture<Map<String, T>> result = new CompletableFuture<Map<String, T>>();
+		getBulkAsyncWithoutBlocking(prefixedKeys).whenComplete(new BiConsumer<Map<String, Object>, Throwable>() {
+
+			@Override
+			public void accept(Map<String, Object> cachedObjects, Throwable error) {
+				if(error != null){
+					LOGGER.error("Unable to fetch from cacher - Group: '"
+							+ (group == null ? "" : group)
+							+ "' Keys: " + keys, unwrap(error));
+				}
+				try{
+					completeFromCache(group, keys, (error == null) ? cachedObjects : null, fetcher, result);
+				}
+				catch(RuntimeException | Error e){
+					result.completeExceptionally(e);
+				}
+			}
+		});
+		return result;
 	}
 
 	/**
-	 * Fires the fetchedFromFetcher events.
-	 * @param keys - Keys fetched from the fetcher.
+	 * Completes the result of {@link #fetchMultipleAsync(String, List, AsyncFetchMultiple)} with the cached values,
+	 * once any that were not cached have been fetched.
 	 */
-	private void fireFetchedFromFetcherEvent(List<String> keys){
-		if((keys == null) || keys.isEmpty() || (fetchEventListeners == null)){
-			return;
+	private <T> void completeFromCache(String group, List<String> keys, Map<String, Object> cachedObjects,
+			AsyncFetchMultiple<T> fetcher, final CompletableFuture<Map<String, T>> result){
+		final Map<String, T> map = new HashMap<String, T>();
+		final List<String> uncachedObjects = new ArrayList<String>();
+		final Map<String, T> staleObjects = new HashMap<String, T>();
+		if(cachedObjects == null || cachedObjects.isEmpty()){
+			uncachedObjects.addAll(keys);
 		}
+		else{
+			List<String> negativeKeys = new ArrayList<String>();
+			sortCached(group, keys, cachedObjects, fetcher.getType(), map, staleObjects, negativeKeys, uncachedObjects);
 
-		for(FetchEventListener listener : fetchEventListeners){
-			try{
-				listener.fetchedFromFetcher(keys);
+			if(!staleObjects.isEmpty()){
+				if(getRefreshExecutor() == null){
+					uncachedObjects.addAll(staleObjects.keySet());
+				}
+				else{
+					map.putAll(staleObjects);
+					refreshInBackground(group, new ArrayList<String>(staleObjects.keySet()), new BlockingFetchMultiple<T>(fetcher));
+				}
 			}
-			catch(Exception e){
-				LOGGER.error("Exception occurred while handling a 'fetchedFromFetcher' event", e);
+			if(hasFetchEventListeners()){
+				fireFetchedFromCacheEvent(new ArrayList<String>(map.keySet()));
+			}
+			fireFetchedNegativeFromCacheEvent(negativeKeys);
+		}
+
+		if(uncachedObjects.isEmpty()){
+			result.complete(map);
+			return;
+		}
+
+		CompletableFuture<Map<String, T>> missing = isCoalescing()
+				? fetchCoalescedAsync(group, uncachedObjects, fetcher)
+				: fetchAndCacheAsync(group, uncachedObjects, fetcher);
+		missing.whenComplete(new BiConsumer<Map<String, T>, Throwable>() {
+
+			@Override
+			public void accept(Map<String, T> missingObjects, Throwable error) {
+				if(error != null){
+					if(staleObjects.isEmpty() || !staleObjects.keySet().containsAll(uncachedObjects)){
+						result.completeExceptionally(unwrap(error));
+						return;
+					}
+					LOGGER.warn("Unable to refresh stale keys " + uncachedObjects + ", serving the stale values", unwrap(error));
+					map.putAll(staleObjects);
+					fireFetchedFromCacheEvent(uncachedObjects);
+				}
+				else{
+					map.putAll(missingObjects);
+					fireFetchedFromFetcherEvent(uncachedObjects);
+				}
+				result.complete(map);
+			}
+		});
+	}
+
+	/**
+	 * Reads the keys with {@link AsyncCache#getBulkAsync(List)} if possible, otherwise on the calling thread.
+	 */
+	private CompletableFuture<Map<String, Object>> getBulkAsyncWithoutBlocking(List<String> keys){
+		try{
+			if(cache instanceof AsyncCache){
+				return ((AsyncCache) cache).getBulkAsync(keys);
+			}
+			return CompletableFuture.completedFuture(cache.getBulk(keys));
+		}
+		catch(RuntimeException e){
+			return failedFuture(e);
+		}
+	}
+
+	/**
+	 * @return the {@link Cache} as an {@link AsyncCache} if lookups should be bounded by the latency budget,
+	 * otherwise <code>null</code>.
+	 */
+	private AsyncCache getBudgetedCache(){
+		if(getCacheLatencyBudgetMillis() > 0 && cache instanceof AsyncCache){
+			return (AsyncCache) cache;
+		}
+		return null;
+	}
+
+	private long budgetDeadline(){
+		return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(getCacheLatencyBudgetMillis());
+	}
+
+	/**
+	 * Records how long the lookup takes, even if it is abandoned, so that hedging reflects the {@link Cache}'s
+	 * real latency.
+	 */
+	private CompletableFuture<Object> trackLatency(CompletableFuture<Object> lookup){
+		final long start = System.nanoTime();
+		lookup.whenComplete(new BiConsumer<Object, Throwable>() {
+
+			@Override
+			public void accept(Object value, Throwable error) {
+				if(!(error instanceof CancellationException)){
+					cacheLatency.record(System.nanoTime() - start);
+				}
+			}
+		});
+		return lookup;
+	}
+
+	/**
+	 * @return nanoseconds to wait on a lookup before starting a hedged fetch, or -1 if not hedging.
+	 */
+	private long hedgeDelayNanos(){
+		double percentile = getHedgePercentile();
+		if(percentile <= 0 || getHedgeExecutor() == null){
+			return -1;
+		}
+		long nanos = cacheLatency.percentile(percentile);
+		if(nanos < 0){
+			return -1;
+		}
+		return Math.min(nanos, TimeUnit.MILLISECONDS.toNanos(getCacheLatencyBudgetMillis()));
+	}
+
+	private static boolean completesWithin(CompletableFuture<?> future, long nanos){
+		try{
+			future.get(nanos, TimeUnit.NANOSECONDS);
+		}
+		catch(TimeoutException e){
+			return false;
+		}
+		catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			return false;
+		}
+		catch(ExecutionException e){ //NOSONAR
+			//Failure is reported by awaitLookup.
+		}
+		return true;
+	}
+
+	/**
+	 * Starts fetching the key on the hedge executor.
+	 * @return the hedged fetch, or <code>null</code> if it was rejected.
+	 */
+	private <T> CompletableFuture<T> startHedge(final String prefixedKey, final String key, final FetchSingle<T> fetcher){
+		try{
+			return CompletableFuture.supplyAsync(new Supplier<T>() {
+
+				@Override
+				public T get() {
+					return isCoalescing()
+							? fetchCoalesced(prefixedKey, key, fetcher)
+							: fetchAndCache(prefixedKey, key, fetcher);
+				}
+			}, getHedgeExecutor());
+		}
+		catch(RejectedExecutionException e){
+			LOGGER.warn("Hedged fetch of key " + prefixedKey + " was rejected", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Waits for the hedged fetch, rethrowing any exception thrown by the fetcher.
+	 */
+	private static <T> T joinHedge(CompletableFuture<T> hedge){
+		try{
+			return hedge.join();
+		}
+		catch(CompletionException e){
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException){
+				throw (RuntimeException) cause;
+			}
+			if(cause instanceof Error){
+				throw (Error) cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Waits for the lookup until the deadline, or until the hedged fetch (if any) completes successfully.
+	 * A hedged fetch that fails does not cut the lookup short, as the cache may still have the value.
+	 * @return the looked up value, or <code>null</code> if the lookup did not complete in time.
+	 */
+	private static <V> V awaitLookup(CompletableFuture<V> lookup, CompletableFuture<?> hedge, long deadlineNanos){
+		CompletableFuture<?> first = (hedge == null) ? lookup : CompletableFuture.anyOf(lookup, whenSuccessful(hedge));
+		completesWithin(first, Math.max(0, deadlineNanos - System.nanoTime()));
+
+		if(!lookup.isDone()){
+			lookup.cancel(true);
+			LOGGER.debug((hedge != null && hedge.isDone() && !hedge.isCompletedExceptionally())
+					? "Hedged fetch completed before the cache lookup"
+					: "Cache lookup exceeded the latency budget, treating it as a miss");
+			return null;
+		}
+
+		try{
+			return lookup.join();
+		}
+		catch(CompletionException e){
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException){
+				throw (RuntimeException) cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * @return a future that completes with the value of the provided future, but never completes if it fails.
+	 */
+	private static <V> CompletableFuture<V> whenSuccessful(CompletableFuture<V> future){
+		final CompletableFuture<V> successful = new CompletableFuture<V>();
+		future.thenAccept(new Consumer<V>() {
+
+			@Override
+			public void accept(V value) {
+				successful.complete(value);
+			}
+		});
+		return successful;
+	}
+
+	/**
+	 * Refreshes the keys on the refresh executor, skipping any that are already being refreshed.
+	 */
+	private <T> void refreshInBackground(final String group, List<String> keys, final FetchMultiple<T> fetcher){
+		final List<String> claimedKeys = new ArrayList<String>();
+		for(String key : keys){
+			if(refreshing.add(CacheUtils.prefixedKey(group, key))){
+				claimedKeys.add(key);
+			}
+		}
+		if(claimedKeys.isEmpty()){
+			return;
+		}
+
+		try{
+			getRefreshExecutor().execute(new Runnable() {
+
+				@Override
+				public void run() {
+					try{
+						fetchAndCache(group, claimedKeys, fetcher);
+					}
+					catch(RuntimeException e){
+						LOGGER.warn("Unable to refresh stale keys " + claimedKeys + ", stale values will continue to be served", e);
+					}
+					finally{
+						releaseRefresh(group, claimedKeys);
+					}
+				}
+			});
+		}
+		catch(RejectedExecutionException e){
+			LOGGER.warn("Refresh of stale keys " + claimedKeys + " was rejected", e);
+			releaseRefresh(group, claimedKeys);
+		}
+	}
+
+	private void releaseRefresh(String group, List<String> keys){
+		for(String key : keys){
+			refreshing.remove(CacheUtils.prefixedKey(group, key));
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the entry is stale, or has been chosen to be refreshed early.
+	 */
+	private boolean needsRefresh(CachedEntry entry, long now){
+		if(entry.isStale(now)){
+			return true;
+		}
+		double beta = getEarlyRefreshBeta();
+		return (beta > 0) && entry.shouldRefreshEarly(now, beta, 1.0 - ThreadLocalRandom.current().nextDouble());
+	}
+
+	private <T> Map<String, T> fetchAndCache(String group, List<String> keys, FetchMultiple<T> fetcher){
+		long start = System.nanoTime();
+		Map<String, T> missingObjects = fetcher.fetch(keys);
+		cacheFetched(group, keys, missingObjects, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		return missingObjects;
+	}
+
+	/**
+	 * Caches the fetched values, and a {@link NegativeEntry} for each key the fetcher returned no value for.
+	 */
+	private <T> void cacheFetched(String group, List<String> keys, Map<String, T> missingObjects, long costMillis){
+		Map<String, Object> toCache = new HashMap<String, Object>();
+		for(Entry<String, T> entry : missingObjects.entrySet()){
+			if(entry.getValue() != null){
+				toCache.put(CacheUtils.prefixedKey(group, entry.getKey()), entry.getValue());
+			}
+		}
+		List<String> absentKeys = new ArrayList<String>();
+		for(String key : keys){
+			if(missingObjects.get(key) == null){
+				absentKeys.add(CacheUtils.prefixedKey(group, key));
+			}
+		}
+		addToCache(toCache, costMillis);
+		addNegativesToCache(absentKeys);
+	}
+
+	/**
+	 * Fetches only the keys that no other caller is already fetching, then waits on the rest.
+	 * Keys are always fetched before waiting, so callers with overlapping keys cannot wait on each other.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> Map<String, T> fetchCoalesced(String group, List<String> keys, FetchMultiple<T> fetcher){
+		List<String> claimedKeys = new ArrayList<String>();
+		Map<String, CompletableFuture<Object>> inFlightKeys = new LinkedHashMap<String, CompletableFuture<Object>>();
+		for(String key : keys){
+			CompletableFuture<Object> inFlight = inFlightFetches.claim(CacheUtils.prefixedKey(group, key));
+			if(inFlight == null){
+				claimedKeys.add(key);
+			}
+			else{
+				inFlightKeys.put(key, inFlight);
+			}
+		}
+
+		Map<String, T> results = new HashMap<String, T>();
+		if(!claimedKeys.isEmpty()){
+			try{
+				results.putAll(fetchAndCache(group, claimedKeys, fetcher));
+				for(String key : claimedKeys){
+					inFlightFetches.complete(CacheUtils.prefixedKey(group, key), results.get(key));
+				}
+			}
+			catch(RuntimeException | Error e){
+				for(String key : claimedKeys){
+					inFlightFetches.fail(CacheUtils.prefixedKey(group, key), e);
+				}
+				throw e;
+			}
+		}
+
+		List<String> abandonedKeys = new ArrayList<String>();
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(getCoalescingTimeoutMillis());
+		for(Entry<String, CompletableFuture<Object>> entry : inFlightKeys.entrySet()){
+			try{
+				Object obj = InFlightFetches.await(entry.getValue(),
+						TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+				if(obj != null){
+					assertValidType(fetcher.getType(), obj);
+					results.put(entry.getKey(), (T)obj);
+				}
+			}
+			catch(TimeoutException e){
+				abandonedKeys.add(entry.getKey());
+			}
+			catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+				abandonedKeys.add(entry.getKey());
+			}
+		}
+
+		if(!abandonedKeys.isEmpty()){
+			LOGGER.warn("Timed out waiting on the in-flight fetch of keys " + abandonedKeys + ", fetching them directly");
+			results.putAll(fetchAndCache(group, abandonedKeys, fetcher));
+		}
+		return results;
+	}
+
+	/**
+	 * Asynchronous form of {@link #fetchAndCache(String, List, FetchMultiple)}.
+	 */
+	private <T> CompletableFuture<Map<String, T>> fetchAndCacheAsync(final String group, final List<String> keys,
+			AsyncFetchMultiple<T> fetcher){
+		final long start = System.nanoTime();
+		return startFetch(fetcher, keys).thenApply(new Function<Map<String, T>, Map<String, T>>() {
+
+			@Override
+			public Map<String, T> apply(Map<String, T> missingObjects) {
+				cacheFetched(group, keys, missingObjects, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+				return missingObjects;
+			}
+		});
+	}
+
+	/**
+	 * Asynchronous form of {@link #fetchCoalesced(String, List, FetchMultiple)}. Keys that another caller is
+	 * already fetching are completed from that fetch once it finishes, rather than waiting on it.
+	 */
+	private <T> CompletableFuture<Map<String, T>> fetchCoalescedAsync(final String group, List<String> keys,
+			final AsyncFetchMultiple<T> fetcher){
+		final List<String> claimedKeys = new ArrayList<String>();
+		final Map<String, CompletableFuture<Object>> inFlightKeys = new LinkedHashMap<String, CompletableFuture<Object>>();
+		for(String key : keys){
+			CompletableFuture<Object> inFlight = inFlightFetches.claim(CacheUtils.prefixedKey(group, key));
+			if(inFlight == null){
+				claimedKeys.add(key);
+			}
+			else{
+				inFlightKeys.put(key, inFlight);
+			}
+		}
+
+		final CompletableFuture<Map<String, T>> claimed;
+		if(claimedKeys.isEmpty()){
+			claimed = CompletableFuture.completedFuture(Collections.<String, T>emptyMap());
+		}
+		else{
+			claimed = fetchAndCacheAsync(group, claimedKeys, fetcher);
+			claimed.whenComplete(new BiConsumer<Map<String, T>, Throwable>() {
+
+				@Override
+				public void accept(Map<String, T> values, Throwable error) {
+					for(String key : claimedKeys){
+						if(error == null){
+							inFlightFetches.complete(CacheUtils.prefixedKey(group, key), values.get(key));
+						}
+						else{
+							inFlightFetches.fail(CacheUtils.prefixedKey(group, key), unwrap(error));
+						}
+					}
+				}
+			});
+		}
+		if(inFlightKeys.isEmpty()){
+			return claimed;
+		}
+
+		List<CompletableFuture<?>> pending = new ArrayList<CompletableFuture<?>>(inFlightKeys.values());
+		pending.add(claimed);
+		return CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[pending.size()]))
+				.thenApply(new Function<Void, Map<String, T>>() {
+
+					@Override
+					@SuppressWarnings("unchecked")
+					public Map<String, T> apply(Void ignored) {
+						Map<String, T> results = new HashMap<String, T>(claimed.join());
+						for(Entry<String, CompletableFuture<Object>> entry : inFlightKeys.entrySet()){
+							Object obj = entry.getValue().join();
+							if(obj != null){
+								assertValidType(fetcher.getType(), obj);
+								results.put(entry.getKey(), (T)obj);
+							}
+						}
+						return results;
+					}
+				});
+	}
+
+	/**
+	 * Starts the fetch, returning a failed future if the fetcher throws or does not return a future.
+	 */
+	private static <T> CompletableFuture<Map<String, T>> startFetch(AsyncFetchMultiple<T> fetcher, List<String> keys){
+		CompletableFuture<Map<String, T>> future;
+		try{
+			future = fetcher.fetch(keys);
+		}
+		catch(RuntimeException e){
+			return failedFuture(e);
+		}
+		if(future == null){
+			return failedFuture(new IllegalStateException("No future was returned when fetching keys " + keys));
+		}
+		return future;
+	}
+
+	private static <V> CompletableFuture<V> failedFuture(Throwable error){
+		CompletableFuture<V> future = new CompletableFuture<V>();
+		future.completeExceptionally(error);
+		return future;
+	}
+
+	/**
+	 * @return the cause of a {@link CompletionException}, otherwise the exception itself.
+	 */
+	private static Throwable unwrap(Throwable error){
+		return (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+	}
+
+	private <T> T fetchAndCache(String prefixedKey, String key, FetchSingle<T> fetcher){
+		long start = System.nanoTime();
+		T obj = fetcher.fetch(key);
+		addToCache(prefixedKey, obj, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		return obj;
+	}
+
+	/**
+	 * Fetches the key, unless another caller is already fetching it, in which case that result is used.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T fetchCoalesced(String prefixedKey, String key, FetchSingle<T> fetcher){
+		CompletableFuture<Object> inFlight = inFlightFetches.claim(prefixedKey);
+		if(inFlight == null){
+			try{
+				T obj = fetchAndCache(prefixedKey, key, fetcher);
+				inFlightFetches.complete(prefixedKey, obj);
+				return obj;
+			}
+			catch(RuntimeException | Error e){
+				inFlightFetches.fail(prefixedKey, e);
+				throw e;
+			}
+		}
+
+		try{
+			Object obj = InFlightFetches.await(inFlight, getCoalescingTimeoutMillis());
+			if(obj != null){
+				assertValidType(fetcher.getType(), obj);
+			}
+			return (T)obj;
+		}
+		catch(TimeoutException e){
+			LOGGER.warn("Timed out waiting on the in-flight fetch of key " + prefixedKey + ", fetching it directly");
+		}
+		catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			LOGGER.warn("Interrupted waiting on the in-flight fetch of key " + prefixedKey + ", fetching it directly");
+		}
+		return fetchAndCache(prefixedKey, key, fetcher);
+	}
+
+	/**
+	 * Adds the provided key/value to the cacher.
+	 */
+	private void addToCache(String key, Object value, long costMillis) {
+		if(value == null){
+			addNegativeToCache(key);
+			return;
+		}
+
+		try{
+			int softSeconds = getSoftExpireSeconds();
+			if(softSeconds > 0){
+				int hardSeconds = hardExpireSeconds(softSeconds);
+				cache.set(key, toCachedEntry(value, softSeconds, hardSeconds, getClock().millis(), costMillis), hardSeconds);
+			}
+			else if(getExpireSeconds() == Cache.DEFAULT_EXPIRATION){
+				cache.set(key, value);
+			}
+			else{
+				cache.set(key, value, getExpireSeconds());
+			}
+		}
+		catch(RuntimeException e){
+			//Log it! Otherwise, don't care.
+			LOGGER.error("Unable to cacher key " + key + " with value " + value, e);
+		}
+	}
+
+	/**
+	 * Adds the provided key/values to the cacher in a single call.
+	 */
+	private void addToCache(Map<String, Object> values, long costMillis) {
+		if(values.isEmpty()){
+			return;
+		}
+
+		try{
+			int softSeconds = getSoftExpireSeconds();
+			if(softSeconds > 0){
+				int hardSeconds = hardExpireSeconds(softSeconds);
+				long now = getClock().millis();
+				Map<String, Object> entries = new HashMap<String, Object>();
+				for(Entry<String, Object> entry : values.entrySet()){
+					entries.put(entry.getKey(), toCachedEntry(entry.getValue(), softSeconds, hardSeconds, now, costMillis));
+				}
+				cache.setBulk(entries, hardSeconds);
+			}
+			else if(getExpireSeconds() == Cache.DEFAULT_EXPIRATION){
+				cache.setBulk(values);
+			}
+			else{
+				cache.setBulk(values, getExpireSeconds());
+			}
+		}
+		catch(RuntimeException e){
+			//Log it! Otherwise, don't care.
+			LOGGER.error("Unable to cacher keys " + values.keySet(), e);
+		}
+	}
+
+	/**
+	 * Records in the cacher that the key has no value, if negative caching is enabled.
+	 */
+	private void addNegativeToCache(String key) {
+		int seconds = getNegativeExpireSeconds();
+		if(seconds <= 0){
+			return;
+		}
+
+		try{
+			cache.set(key, toNegativeEntry(seconds), seconds);
+		}
+		catch(RuntimeException e){
+			//Log it! Otherwise, don't care.
+			LOGGER.error("Unable to cacher negative key " + key, e);
+		}
+	}
+
+	/**
+	 * Records in the cacher that the keys have no value in a single call, if negative caching is enabled.
+	 */
+	private void addNegativesToCache(List<String> keys) {
+		int seconds = getNegativeExpireSeconds();
+		if(seconds <= 0 || keys.isEmpty()){
+			return;
+		}
+
+		try{
+			NegativeEntry entry = toNegativeEntry(seconds);
+			Map<String, Object> values = new HashMap<String, Object>();
+			for(String key : keys){
+				values.put(key, entry);
+			}
+			cache.setBulk(values, seconds);
+		}
+		catch(RuntimeException e){
+			//Log it! Otherwise, don't care.
+			LOGGER.error("Unable to cacher negative keys " + keys, e);
+		}
+	}
+
+	private NegativeEntry toNegativeEntry(int seconds){
+		return new NegativeEntry(getClock().millis() + TimeUnit.SECONDS.toMillis(seconds));
+	}
+
+	/**
+	 * @return seconds a soft expiring value lives in the {@link Cache}, the soft expiration plus
+	 * {@link #getMaxStaleSeconds()}, capped by {@link #getExpireSeconds()}.
+	 */
+	private int hardExpireSeconds(int softSeconds){
+		int seconds = softSeconds + getMaxStaleSeconds();
+		int expireSeconds = getExpireSeconds();
+		if(expireSeconds > 0 && expireSeconds < seconds){
+			return expireSeconds;
+		}
+		return seconds;
+	}
+
+	private CachedEntry toCachedEntry(Object value, int softSeconds, int hardSeconds, long now, long costMillis){
+		return new CachedEntry(value,
+				now + TimeUnit.SECONDS.toMillis(Math.min(softSeconds, hardSeconds)),
+				now + TimeUnit.SECONDS.toMillis(hardSeconds),
+				costMillis);
+	}
+
+	/**
+	 * Asserts that the passed in Object is of the correct type, otherwise throws a {@link ClassCastException}.
+	 */
+	private <T> void assertValidType(Class<T> type, Object obj) {
+		if(!type.isInstance(obj)){
+			throw new ClassCastException("Unable to cast type " + obj.getClass() + " to " + type);
+		}
+	}
+
+	private boolean hasFetchEventListeners(){
+		return (fetchEventListeners != null) && !fetchEventListeners.isEmpty();
+	}
+
+	/**
+	 * Fires the fetchedFromCache events.
+	 * @param keys - Keys fetched from the cacher.
+	 */
+	private void fireFetchedFromCacheEvent(List<String> keys){
+		if((keys == null) || keys.isEmpty() || !hasFetchEventListeners()){
+			return;
+		}
+
+		for(FetchEventListener listener : fetchEventListeners){
+			try{
+				listener.fetchedFromCache(keys);
+			}
+			catch(Exception e){
+				LOGGER.error("Exception occurred while handling a 'fetchedFromCache' event", e);
+			}
+		}
+	}
+
+	/**
+	 * Fires the fetchedFromFetcher events.
+	 * @param keys - Keys fetched from the fetcher.
+	 */
+	private void fireFetchedFromFetcherEvent(List<String> keys){
+		if((keys == null) || keys.isEmpty() || !hasFetchEventListeners()){
+			return;
+		}
+
+		for(FetchEventListener listener : fetchEventListeners){
+			try{
+				listener.fetchedFromFetcher(keys);
+			}
+			catch(Exception e){
+				LOGGER.error("Exception occurred while handling a 'fetchedFromFetcher' event", e);
+			}
+		}
+
+	}
+
+	/**
+	 * Fires the fetchedNegativeFromCache events.
+	 * @param keys - Keys the cacher recorded as having no value.
+	 */
+	private void fireFetchedNegativeFromCacheEvent(List<String> keys){
+		if((keys == null) || keys.isEmpty() || !hasFetchEventListeners()){
+			return;
+		}
+
+		for(FetchEventListener listener : fetchEventListeners){
+			try{
+				listener.fetchedNegativeFromCache(keys);
+			}
+			catch(Exception e){
+				LOGGER.error("Exception occurred while handling a 'fetchedNegativeFromCache' event", e);
+			}
+		}
+	}
+
+	/**
+	 * Allows a {@link FetchSingle} to be used where a {@link FetchMultiple} is expected.
+	 */
+	private static final class FetchSingleAdapter<T> implements FetchMultiple<T> {
+
+		private final FetchSingle<T> fetcher;
+
+		private FetchSingleAdapter(FetchSingle<T> fetcher){
+			this.fetcher = fetcher;
+		}
+
+		@Override
+		public Class<T> getType() {
+			return fetcher.getType();
+		}
+
+		@Override
+		public Map<String, T> fetch(List<String> keys) {
+			Map<String, T> results = new HashMap<String, T>();
+			for(String key : keys){
+				results.put(key, fetcher.fetch(key));
+			}
+			return results;
+		}
+
+	}
+
+	/**
+	 * Allows an {@link AsyncFetchSingle} to be used where an {@link AsyncFetchMultiple} is expected.
+	 */
+	private static final class AsyncFetchSingleAdapter<T> implements AsyncFetchMultiple<T> {
+
+		private final AsyncFetchSingle<T> fetcher;
+
+		private AsyncFetchSingleAdapter(AsyncFetchSingle<T> fetcher){
+			this.fetcher = fetcher;
+		}
+
+		@Override
+		public Class<T> getType() {
+			return fetcher.getType();
+		}
+
+		@Override
+		public CompletableFuture<Map<String, T>> fetch(final List<String> keys) {
+			final List<CompletableFuture<T>> futures = new ArrayList<CompletableFuture<T>>(keys.size());
+			for(String key : keys){
+				CompletableFuture<T> future = fetcher.fetch(key);
+				futures.add((future == null) ? CompletableFuture.<T>completedFuture(null) : future);
+			}
+			return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]))
+					.thenApply(new Function<Void, Map<String, T>>() {
+
+						@Override
+						public Map<String, T> apply(Void ignored) {
+							Map<String, T> results = new HashMap<String, T>();
+							for(int i = 0; i < keys.size(); i++){
+								results.put(keys.get(i), futures.get(i).join());
+							}
+							return results;
+						}
+					});
+		}
+
+	}
+
+	/**
+	 * Allows an {@link AsyncFetchMultiple} to be used where a {@link FetchMultiple} is expected, by waiting on it.
+	 * Only used to refresh stale values on the refresh {@link Executor}.
+	 */
+	private static final class BlockingFetchMultiple<T> implements FetchMultiple<T> {
+
+		private final AsyncFetchMultiple<T> fetcher;
+
+		private BlockingFetchMultiple(AsyncFetchMultiple<T> fetcher){
+			this.fetcher = fetcher;
+		}
+
+		@Override
+		public Class<T> getType() {
+			return fetcher.getType();
+		}
+
+		@Override
+		public Map<String, T> fetch(List<String> keys) {
+			try{
+				return startFetch(fetcher, keys).join();
+			}
+			catch(CompletionException e){
+				Throwable cause = unwrap(e);
+				if(cause instanceof RuntimeException){
+					throw (RuntimeException) cause;
+				}
+				throw e;
 			}
 		}
 
 	}
 
-}
\ No newline at end of file
+}
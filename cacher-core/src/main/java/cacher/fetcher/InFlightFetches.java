@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>Tracks the keys that are currently being fetched, so that concurrent requests for the same
+ * key can share a single fetch rather than each going to the fetcher.</p>
+ * <p>The first caller to {@link #claim(String)} a key becomes its leader and must later call either
+ * {@link #complete(String, Object)} or {@link #fail(String, Throwable)}. Every other caller receives
+ * the leader's future to wait on.</p>
+ * 
+ * @author Dennis Crissman
+ */
+final class InFlightFetches {
+
+	private final ConcurrentMap<String, CompletableFuture<Object>> fetches =
+			new ConcurrentHashMap<String, CompletableFuture<Object>>();
+
+	/**
+	 * @param key - prefixed key about to be fetched.
+	 * @return <code>null</code> if the caller is now the leader for the key, otherwise the
+	 * future of the fetch already in progress.
+	 */
+	CompletableFuture<Object> claim(String key){
+		return fetches.putIfAbsent(key, new CompletableFuture<Object>());
+	}
+
+	/**
+	 * Releases the key, handing the fetched value to every waiting caller.
+	 * @param key - claimed key
+	 * @param value - fetched value, may be <code>null</code>.
+	 */
+	void complete(String key, Object value){
+		CompletableFuture<Object> future = fetches.remove(key);
+		if(future != null){
+			future.complete(value);
+		}
+	}
+
+	/**
+	 * Releases the key, handing the exception to every waiting caller.
+	 * @param key - claimed key
+	 * @param error - exception thrown while fetching.
+	 */
+	void fail(String key, Throwable error){
+		CompletableFuture<Object> future = fetches.remove(key);
+		if(future != null){
+			future.completeExceptionally(error);
+		}
+	}
+
+	/**
+	 * @return the number of keys currently being fetched.
+	 */
+	int size(){
+		return fetches.size();
+	}
+
+	/**
+	 * Waits on another caller's fetch.
+	 * @param future - future returned from {@link #claim(String)}.
+	 * @param timeoutMillis - maximum milliseconds to wait.
+	 * @return the fetched value.
+	 * @throws TimeoutException if the fetch did not finish in time.
+	 * @throws InterruptedException if the thread was interrupted while waiting.
+	 */
+	static Object await(CompletableFuture<Object> future, long timeoutMillis) throws TimeoutException, InterruptedException{
+		try{
+			return future.get(Math.max(0, timeoutMillis), TimeUnit.MILLISECONDS);
+		}
+		catch(ExecutionException e){
+			//The leader's exception is rethrown to each waiting caller.
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException){
+				throw (RuntimeException) cause;
+			}
+			if(cause instanceof Error){
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+}
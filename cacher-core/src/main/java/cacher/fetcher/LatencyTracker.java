@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import java.util.Arrays;
+
+/**
+ * <p>Keeps the most recent latency samples in a ring, and estimates percentiles from them.</p>
+ * <p>Percentiles are only recalculated after a number of new samples have been recorded, so that
+ * reading a percentile on every request does not sort the samples every time.</p>
+ *
+ * @author Dennis Crissman
+ */
+final class LatencyTracker {
+
+	static final int DEFAULT_SAMPLES = 1024;
+
+	/** Minimum samples before a percentile is reported. */
+	static final int MIN_SAMPLES = 64;
+
+	/** Samples recorded before a percentile is recalculated. */
+	private static final int RECALCULATE_INTERVAL = 64;
+
+	/* Guarded by this */
+	private final long[] samples;
+	private int count = 0;
+	private int next = 0;
+	private int sinceCalculated = 0;
+	private double calculatedPercentile = -1;
+	private long calculatedNanos = -1;
+
+	LatencyTracker(){
+		this(DEFAULT_SAMPLES);
+	}
+
+	LatencyTracker(int sampleCount){
+		this.samples = new long[sampleCount];
+	}
+
+	/**
+	 * @param nanos - observed latency in nanoseconds.
+	 */
+	synchronized void record(long nanos){
+		samples[next] = nanos;
+		next = (next + 1) % samples.length;
+		if(count < samples.length){
+			count++;
+		}
+		sinceCalculated++;
+	}
+
+	/**
+	 * @param percentile - between 0 and 1, for example 0.95
+	 * @return the latency in nanoseconds below which the given fraction of samples fall, or -1 if there
+	 * are not yet enough samples.
+	 */
+	synchronized long percentile(double percentile){
+		if(count < MIN_SAMPLES){
+			return -1;
+		}
+		if(percentile != calculatedPercentile || sinceCalculated >= RECALCULATE_INTERVAL){
+			long[] sorted = Arrays.copyOf(samples, count);
+			Arrays.sort(sorted);
+			int index = (int) Math.ceil(percentile * count) - 1;
+			calculatedNanos = sorted[Math.max(0, Math.min(count - 1, index))];
+			calculatedPercentile = percentile;
+			sinceCalculated = 0;
+		}
+		return calculatedNanos;
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import java.io.Serializable;
+
+/**
+ * <p>Marker stored by {@link FetchManager} for keys the fetcher did not return a value for, when
+ * negative caching is enabled (see {@link FetchManager#setNegativeExpireSeconds(int)}).</p>
+ * <p>The entry carries its own deadline, and is ignored once it has passed. A {@link cacher.Cache} that
+ * does not honour expirations (see {@link cacher.Cache#set(String, Object, int)}) would otherwise keep
+ * the key missing forever.</p>
+ * 
+ * @author Dennis Crissman
+ */
+public final class NegativeEntry implements Serializable {
+
+	private static final long serialVersionUID = 2419036523474183917L;
+
+	private final long expiresAt;
+
+	/**
+	 * @param expiresAt - epoch millis after which the key must be fetched again.
+	 */
+	public NegativeEntry(long expiresAt){
+		this.expiresAt = expiresAt;
+	}
+
+	public long getExpiresAt(){
+		return expiresAt;
+	}
+
+	/**
+	 * @param now - current epoch millis
+	 * @return <code>true</code> if the key must be fetched again.
+	 */
+	public boolean isExpired(long now){
+		return now >= expiresAt;
+	}
+
+	@Override
+	public String toString(){
+		return "NegativeEntry[expiresAt=" + expiresAt + "]";
+	}
+
+}
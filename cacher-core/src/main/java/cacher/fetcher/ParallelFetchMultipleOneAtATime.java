@@ -0,0 +1,442 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>A variant of {@link FetchMultipleOneAtATime} for when items must be fetched one at a time, but the
+ * individual fetches can run in parallel. Each key is fetched on an {@link Executor}, at most
+ * {@link #getMaxConcurrency()} at a time per call, and the results are merged into a single map.</p>
+ * <p>If no {@link Executor} is provided, a shared one is used that runs each fetch on a virtual thread when the
+ * JVM supports them, otherwise on a pooled daemon thread.</p>
+ * <p>How a failed or timed out key affects the result is controlled by the {@link ErrorPolicy}.</p>
+ *
+ * @author Dennis Crissman
+ *
+ * @param <T>
+ */
+public abstract class ParallelFetchMultipleOneAtATime<T> implements FetchSingle<T>, FetchMultiple<T> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ParallelFetchMultipleOneAtATime.class);
+
+	public static final int DEFAULT_MAX_CONCURRENCY = 16;
+
+	/**
+	 * What to do when fetching a key throws an exception or times out.
+	 */
+	public enum ErrorPolicy {
+		/** Rethrow the first exception encountered and cancel the remaining fetches. */
+		FAIL_FAST,
+		/** Log the exception and leave the key out of the results. */
+		SKIP,
+		/** Wait for every fetch, then throw a {@link ParallelFetchException} with every exception. */
+		COLLECT
+	}
+
+	private final Executor executor;
+	private volatile int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+	private volatile long timeoutMillis = 0;
+	private volatile ErrorPolicy errorPolicy = ErrorPolicy.FAIL_FAST;
+
+	/**
+	 * Uses a shared {@link Executor}, backed by virtual threads where available.
+	 */
+	public ParallelFetchMultipleOneAtATime(){
+		this(DefaultExecutorHolder.EXECUTOR);
+	}
+
+	/**
+	 * @param executor - {@link Executor} to run each fetch on.
+	 */
+	public ParallelFetchMultipleOneAtATime(Executor executor){
+		this.executor = executor;
+	}
+
+	public Executor getExecutor(){
+		return executor;
+	}
+
+	/**
+	 * Sets the maximum number of keys fetched at the same time by a single call to {@link #fetch(List)}.
+	 * @param maxConcurrency - maximum concurrent fetches.
+	 */
+	public void setMaxConcurrency(int maxConcurrency){
+		if(maxConcurrency < 1){
+			throw new IllegalArgumentException("maxConcurrency must be at least 1: " + maxConcurrency);
+		}
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	/**
+	 * @return maximum concurrent fetches.
+	 */
+	public int getMaxConcurrency(){
+		return maxConcurrency;
+	}
+
+	/**
+	 * Sets the maximum time to wait for a single key, measured from when it is handed to the {@link Executor}.
+	 * A key that takes longer is cancelled and handled according to the {@link ErrorPolicy}. It only gives up
+	 * its place to the next key once it stops running, so if {@link #getMaxConcurrency()} has been reached, a key
+	 * that cannot start within the timeout is handled as timed out as well.
+	 * Defaults to 0, which waits indefinitely.
+	 * @param timeoutMillis - milliseconds to wait for each key.
+	 */
+	public void setTimeoutMillis(long timeoutMillis){
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * @return milliseconds to wait for each key, 0 to wait indefinitely.
+	 */
+	public long getTimeoutMillis(){
+		return timeoutMillis;
+	}
+
+	/**
+	 * Defaults to {@link ErrorPolicy#FAIL_FAST}, which matches {@link FetchMultipleOneAtATime}.
+	 * @param errorPolicy - {@link ErrorPolicy}
+	 */
+	public void setErrorPolicy(ErrorPolicy errorPolicy){
+		this.errorPolicy = errorPolicy;
+	}
+
+	/**
+	 * @return {@link ErrorPolicy}
+	 */
+	public ErrorPolicy getErrorPolicy(){
+		return errorPolicy;
+	}
+
+	@Override
+	public Map<String, T> fetch(List<String> keys) {
+		ErrorPolicy policy = getErrorPolicy();
+		Map<String, T> results = new HashMap<String, T>();
+		Map<String, Throwable> errors = new LinkedHashMap<String, Throwable>();
+		if(keys.size() == 1 && getTimeoutMillis() <= 0){
+			//Nothing to run in parallel or time out, so avoid the hand-off to the executor.
+			String key = keys.get(0);
+			try{
+				results.put(key, fetch(key));
+			}
+			catch(RuntimeException e){
+				handleError(policy, key, e, errors);
+			}
+		}
+		else{
+			fetchInParallel(policy, keys, results, errors);
+		}
+
+		if(!errors.isEmpty()){
+			throw new ParallelFetchException("Unable to fetch keys " + errors.keySet(), errors);
+		}
+		return results;
+	}
+
+	/**
+	 * Fetches each key on the {@link Executor}, applying the {@link ErrorPolicy} to each key that fails or times out.
+	 */
+	private void fetchInParallel(ErrorPolicy policy, List<String> keys, Map<String, T> results, Map<String, Throwable> errors){
+		Map<String, KeyFetch> fetches = submit(keys);
+		try{
+			for(Entry<String, KeyFetch> entry : fetches.entrySet()){
+				try{
+					results.put(entry.getKey(), entry.getValue().await(getTimeoutMillis()));
+				}
+				catch(ExecutionException e){
+					handleError(policy, entry.getKey(), e.getCause(), errors);
+				}
+				catch(TimeoutException | CancellationException e){
+					entry.getValue().cancel(true);
+					handleError(policy, entry.getKey(), e, errors);
+				}
+			}
+		}
+		catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new ParallelFetchException("Interrupted while fetching keys " + keys, e);
+		}
+		finally{
+			for(KeyFetch fetch : fetches.values()){
+				fetch.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Hands each key to the {@link Executor}, waiting for a permit before each one so that no more
+	 * than {@link #getMaxConcurrency()} run at the same time.
+	 */
+	private Map<String, KeyFetch> submit(List<String> keys){
+		Semaphore permits = new Semaphore(getMaxConcurrency());
+		Map<String, KeyFetch> fetches = new LinkedHashMap<String, KeyFetch>();
+		boolean starved = false;
+		try{
+			for(String key : keys){
+				if(fetches.containsKey(key)){
+					continue;
+				}
+				//Once a key has timed out waiting, the rest only run if a permit is free straight away.
+				starved = starved ? !permits.tryAcquire() : !acquire(permits, fetches.values());
+				KeyFetch fetch = new KeyFetch(key, permits);
+				fetches.put(key, fetch);
+				if(starved){
+					fetch.timeOutWaiting();
+					continue;
+				}
+				try{
+					executor.execute(fetch);
+				}
+				catch(RejectedExecutionException e){
+					fetch.fail(e);
+				}
+			}
+		}
+		catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			for(KeyFetch fetch : fetches.values()){
+				fetch.cancel(true);
+			}
+			throw new ParallelFetchException("Interrupted while fetching keys " + keys, e);
+		}
+		return fetches;
+	}
+
+	/**
+	 * Waits for a permit. When there is a timeout, a running fetch that exceeds it is timed out while
+	 * waiting, which interrupts it. Its permit is only released once it actually stops, so a fetch that
+	 * ignores the interrupt still counts towards {@link #getMaxConcurrency()}. The wait is therefore
+	 * bounded as well, by the timeout after the last running fetch was timed out.
+	 * @return <code>true</code> if a permit was acquired, <code>false</code> if the timeout elapsed first.
+	 */
+	private boolean acquire(Semaphore permits, Collection<KeyFetch> running) throws InterruptedException{
+		long timeoutMillis = getTimeoutMillis();
+		if(timeoutMillis <= 0){
+			permits.acquire();
+			return true;
+		}
+
+		long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		long deadline = System.nanoTime() + timeoutNanos;
+		while(true){
+			long wait = deadline - System.nanoTime();
+			for(KeyFetch fetch : running){
+				if(!fetch.isDone()){
+					wait = Math.min(wait, fetch.remainingNanos(timeoutNanos));
+				}
+			}
+			if(permits.tryAcquire(Math.max(0, wait), TimeUnit.NANOSECONDS)){
+				return true;
+			}
+			for(KeyFetch fetch : running){
+				if(!fetch.isDone() && fetch.remainingNanos(timeoutNanos) <= 0){
+					fetch.timeOut();
+					//Give the interrupted fetch up to the timeout to stop and release its permit.
+					deadline = Math.max(deadline, System.nanoTime() + timeoutNanos);
+				}
+			}
+			if(deadline - System.nanoTime() <= 0){
+				return permits.tryAcquire();
+			}
+		}
+	}
+
+	/**
+	 * Applies the {@link ErrorPolicy} to an exception thrown while fetching the key.
+	 */
+	private void handleError(ErrorPolicy policy, String key, Throwable error, Map<String, Throwable> errors){
+		switch(policy){
+		case SKIP:
+			LOGGER.warn("Unable to fetch key " + key + ", leaving it out of the results", error);
+			break;
+		case COLLECT:
+			errors.put(key, error);
+			break;
+		default:
+			if(error instanceof RuntimeException){
+				throw (RuntimeException) error;
+			}
+			if(error instanceof Error){
+				throw (Error) error;
+			}
+			throw new ParallelFetchException("Unable to fetch key " + key,
+					Collections.<String, Throwable>singletonMap(key, error));
+		}
+	}
+
+	/**
+	 * Fetch of a single key. The permit is released when the fetch stops running, or when the task is
+	 * completed without ever running. Whichever happens first claims the permit, so it is released once.
+	 */
+	private final class KeyFetch extends FutureTask<T> {
+
+		private final Semaphore permits;
+		private final AtomicBoolean claimed;
+		private final long submittedAt = System.nanoTime();
+		private volatile boolean timedOut;
+
+		private KeyFetch(String key, Semaphore permits){
+			this(key, permits, new AtomicBoolean());
+		}
+
+		private KeyFetch(final String key, final Semaphore permits, final AtomicBoolean claimed){
+			super(new Callable<T>() {
+
+				@Override
+				public T call() throws Exception {
+					if(!claimed.compareAndSet(false, true)){
+						throw new CancellationException();
+					}
+					try{
+						return fetch(key);
+					}
+					finally{
+						permits.release();
+					}
+				}
+			});
+			this.permits = permits;
+			this.claimed = claimed;
+		}
+
+		private T await(long timeoutMillis) throws InterruptedException, ExecutionException, TimeoutException{
+			if(timeoutMillis <= 0){
+				return get();
+			}
+			if(timedOut){
+				throw new TimeoutException("Timed out after " + timeoutMillis + "ms");
+			}
+			long remaining = remainingNanos(TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+			return get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+		}
+
+		private long remainingNanos(long timeoutNanos){
+			return timeoutNanos - (System.nanoTime() - submittedAt);
+		}
+
+		/**
+		 * Cancels the fetch, interrupting it if it is running, and reports it as timed out to {@link #await(long)}.
+		 */
+		private void timeOut(){
+			timedOut = true;
+			cancel(true);
+		}
+
+		/**
+		 * Reports the fetch as timed out without ever running it, as no permit became free in time.
+		 */
+		private void timeOutWaiting(){
+			claimed.set(true);
+			timedOut = true;
+			setException(new TimeoutException("Timed out waiting to be fetched"));
+		}
+
+		private void fail(Throwable error){
+			setException(error);
+		}
+
+		@Override
+		protected void done() {
+			if(claimed.compareAndSet(false, true)){
+				//Completed without running, for example cancelled or rejected.
+				permits.release();
+			}
+		}
+
+	}
+
+	/**
+	 * Holds the shared {@link Executor}, so that it is only created if it is used.
+	 */
+	private static final class DefaultExecutorHolder {
+
+		private static final Executor EXECUTOR = createDefaultExecutor();
+
+		/**
+		 * Uses a virtual thread per task when running on a JVM that supports them.
+		 */
+		private static Executor createDefaultExecutor(){
+			try{
+				Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+				return (Executor) method.invoke(null);
+			}
+			catch(Exception e){
+				LOGGER.debug("Virtual threads are not available, using a thread pool", e);
+			}
+
+			final AtomicInteger count = new AtomicInteger();
+			return Executors.newCachedThreadPool(new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "cacher-fetch-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+
+	}
+
+	/**
+	 * Thrown when one or more keys could not be fetched.
+	 */
+	public static class ParallelFetchException extends RuntimeException {
+
+		private static final long serialVersionUID = 4806432718150623977L;
+
+		private final Map<String, Throwable> errors;
+
+		public ParallelFetchException(String message, Throwable cause){
+			super(message, cause);
+			this.errors = Collections.emptyMap();
+		}
+
+		public ParallelFetchException(String message, Map<String, Throwable> errors){
+			super(message, errors.isEmpty() ? null : errors.values().iterator().next());
+			this.errors = errors;
+		}
+
+		/**
+		 * @return each key that could not be fetched, mapped to the exception thrown while fetching it.
+		 */
+		public Map<String, Throwable> getErrors(){
+			return errors;
+		}
+
+	}
+
+}
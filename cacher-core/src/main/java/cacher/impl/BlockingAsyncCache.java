@@ -0,0 +1,247 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import cacher.AsyncCache;
+import cacher.Cache;
+
+/**
+ * <p>Adapts a blocking {@link Cache}, such as {@link InMemoryCache}, to {@link AsyncCache}.</p>
+ * <p>By default each operation runs on the calling thread and returns an already completed future,
+ * which is appropriate for caches that never block for long. Otherwise an {@link Executor} can be
+ * provided to run the operations on.</p>
+ * 
+ * @author Dennis Crissman
+ */
+public class BlockingAsyncCache implements AsyncCache {
+
+	private final Cache cache;
+	private final Executor executor;
+
+	/**
+	 * Runs each operation on the calling thread.
+	 * @param cache - {@link Cache} to adapt.
+	 */
+	public BlockingAsyncCache(Cache cache){
+		this(cache, null);
+	}
+
+	/**
+	 * @param cache - {@link Cache} to adapt.
+	 * @param executor - {@link Executor} to run operations on, or <code>null</code> to use the calling thread.
+	 */
+	public BlockingAsyncCache(Cache cache, Executor executor){
+		this.cache = cache;
+		this.executor = executor;
+	}
+
+	public Cache getCache(){
+		return cache;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.AsyncCache#getAsync(java.lang.String)
+	 */
+	@Override
+	public CompletableFuture<Object> getAsync(final String key) {
+		return supply(new Operation<Object>() {
+
+			@Override
+			public Object run() {
+				return cache.get(key);
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.AsyncCache#getBulkAsync(java.util.List)
+	 */
+	@Override
+	public CompletableFuture<Map<String, Object>> getBulkAsync(final List<String> keys) {
+		return supply(new Operation<Map<String, Object>>() {
+
+			@Override
+			public Map<String, Object> run() {
+				return cache.getBulk(keys);
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.AsyncCache#setAsync(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public CompletableFuture<Void> setAsync(String key, Object value) {
+		return setAsync(key, value, DEFAULT_EXPIRATION);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.AsyncCache#setAsync(java.lang.String, java.lang.Object, int)
+	 */
+	@Override
+	public CompletableFuture<Void> setAsync(final String key, final Object value, final int expiration) {
+		return supply(new Operation<Void>() {
+
+			@Override
+			public Void run() {
+				cache.set(key, value, expiration);
+				return null;
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.AsyncCache#removeAsync(java.lang.String)
+	 */
+	@Override
+	public CompletableFuture<Void> removeAsync(final String key) {
+		return supply(new Operation<Void>() {
+
+			@Override
+			public Void run() {
+				cache.remove(key);
+				return null;
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#get(java.lang.String)
+	 */
+	@Override
+	public Object get(String key) {
+		return cache.get(key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#getBulk(java.util.List)
+	 */
+	@Override
+	public Map<String, Object> getBulk(List<String> keys) {
+		return cache.getBulk(keys);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#set(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void set(String key, Object value) {
+		cache.set(key, value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#set(java.lang.String, java.lang.Object, int)
+	 */
+	@Override
+	public void set(String key, Object value, int expiration) {
+		cache.set(key, value, expiration);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values) {
+		cache.setBulk(values);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map, int)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values, int expiration) {
+		cache.setBulk(values, expiration);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#clear()
+	 */
+	@Override
+	public void clear() {
+		cache.clear();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#remove(java.lang.String)
+	 */
+	@Override
+	public void remove(String key) {
+		cache.remove(key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#removeBulk(java.util.Collection)
+	 */
+	@Override
+	public void removeBulk(Collection<String> keys) {
+		cache.removeBulk(keys);
+	}
+
+	/**
+	 * Runs the operation on the executor, or the calling thread if there is no executor.
+	 */
+	private <T> CompletableFuture<T> supply(final Operation<T> operation){
+		final CompletableFuture<T> future = new CompletableFuture<T>();
+		Runnable task = new Runnable() {
+
+			@Override
+			public void run() {
+				try{
+					future.complete(operation.run());
+				}
+				catch(RuntimeException e){
+					future.completeExceptionally(e);
+				}
+			}
+		};
+
+		if(executor == null){
+			task.run();
+		}
+		else{
+			try{
+				executor.execute(task);
+			}
+			catch(RuntimeException e){
+				future.completeExceptionally(e);
+			}
+		}
+		return future;
+	}
+
+	private interface Operation<T> {
+
+		T run();
+
+	}
+
+}
@@ -0,0 +1,636 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.impl;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import cacher.Cache;
+import cacher.Ticker;
+
+/**
+ * <p>Thread-safe in-memory {@link Cache} that holds at most a configured number of entries.</p>
+ * <p>Eviction follows the W-TinyLFU policy: new entries land in a small LRU admission window, and when
+ * the window overflows its oldest entry must compete against the oldest entry of the main space. The
+ * entry with the higher estimated access frequency (see {@link FrequencySketch}) is retained. The main
+ * space is a segmented LRU (probation and protected segments), so that a one-time scan of many keys
+ * cannot flush the keys that are repeatedly requested.</p>
+ * <p>Entries may also expire, either a fixed time after they were written or after a period without
+ * being read (time-to-idle). Expired entries are never returned and are removed using a
+ * {@link TimerWheel}, so no sweep of the whole cache is required.</p>
+ * <p>Reads are lock free, they are recorded in a lossy ring buffer that is replayed against the
+ * eviction policy under a lock. Writes are applied to the policy immediately.</p>
+ *
+ * @author Dennis Crissman
+ *
+ * @see InMemoryCache
+ */
+public class BoundedInMemoryCache implements Cache {
+
+	/** Percentage of the maximum size dedicated to the admission window. */
+	private static final double WINDOW_PERCENTAGE = 0.01;
+	/** Percentage of the main space dedicated to the protected segment. */
+	private static final double PROTECTED_PERCENTAGE = 0.80;
+
+	private static final int READ_BUFFER_SIZE = 128;
+	private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+	private static final int READ_BUFFER_DRAIN_THRESHOLD = READ_BUFFER_SIZE / 4;
+
+	private static final int WINDOW = 0;
+	private static final int PROBATION = 1;
+	private static final int PROTECTED = 2;
+	private static final int DEAD = -1;
+
+	private final long maximumSize;
+	private final long windowMaximum;
+	private final long mainMaximum;
+	private final long protectedMaximum;
+
+	private final ConcurrentHashMap<String, Node> data;
+	private final ReentrantLock evictionLock = new ReentrantLock();
+	private final Ticker ticker;
+
+	private volatile int defaultExpireSeconds = NO_EXPIRATION;
+	private volatile long timeToIdleNanos;
+
+	/* Guarded by evictionLock */
+	private final TimerWheel<Node> timerWheel;
+	private final FrequencySketch sketch;
+	private final AccessOrderDeque window = new AccessOrderDeque();
+	private final AccessOrderDeque probation = new AccessOrderDeque();
+	private final AccessOrderDeque protectedSegment = new AccessOrderDeque();
+
+	private final AtomicReferenceArray<Node> readBuffer = new AtomicReferenceArray<Node>(READ_BUFFER_SIZE);
+	private final AtomicLong readBufferWriteCount = new AtomicLong();
+	private volatile long readBufferReadCount;
+
+	/**
+	 * @param maximumSize - maximum number of entries to hold before evicting.
+	 */
+	public BoundedInMemoryCache(long maximumSize){
+		this(maximumSize, Ticker.SYSTEM);
+	}
+
+	/**
+	 * @param maximumSize - maximum number of entries to hold before evicting.
+	 * @param ticker - {@link Ticker} used to determine when entries expire.
+	 */
+	public BoundedInMemoryCache(long maximumSize, Ticker ticker){
+		if(maximumSize < 1){
+			throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+		}
+
+		this.maximumSize = maximumSize;
+		this.windowMaximum = Math.max(1, (long) (maximumSize * WINDOW_PERCENTAGE));
+		this.mainMaximum = maximumSize - windowMaximum;
+		this.protectedMaximum = (long) (mainMaximum * PROTECTED_PERCENTAGE);
+
+		this.data = new ConcurrentHashMap<String, Node>((int) Math.min(maximumSize, 1 << 16));
+		this.sketch = new FrequencySketch(maximumSize);
+		this.ticker = ticker;
+		this.timerWheel = new TimerWheel<Node>(ticker.read());
+	}
+
+	/**
+	 * Sets the default entry expire timeout in seconds. This value will be used if one is not otherwise specified.
+	 * @param seconds - default seconds to expire entries, {@link Cache#NO_EXPIRATION} to never expire.
+	 */
+	public void setDefaultCacheExpireSeconds(int seconds) {
+		defaultExpireSeconds = seconds;
+	}
+
+	/**
+	 * @return default seconds each entry will expire in.
+	 */
+	public int getDefaultCacheExpireSeconds() {
+		return defaultExpireSeconds;
+	}
+
+	/**
+	 * Sets how long an entry may go without being read before it expires. Applies to entries
+	 * as they are next written or read.
+	 * @param seconds - seconds an entry may be idle, 0 to disable time-to-idle expiration.
+	 */
+	public void setTimeToIdleSeconds(int seconds){
+		timeToIdleNanos = TimeUnit.SECONDS.toNanos(Math.max(0, seconds));
+	}
+
+	/**
+	 * @return seconds an entry may be idle before it expires, 0 if disabled.
+	 */
+	public int getTimeToIdleSeconds(){
+		return (int) TimeUnit.NANOSECONDS.toSeconds(timeToIdleNanos);
+	}
+
+	/**
+	 * @return the maximum number of entries that will be held.
+	 */
+	public long getMaximumSize(){
+		return maximumSize;
+	}
+
+	/**
+	 * @return the current number of entries, which may include expired entries that have not yet been removed.
+	 */
+	public long size(){
+		return data.size();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#get(java.lang.String)
+	 */
+	@Override
+	public Object get(String key) {
+		Node node = data.get(key);
+		if(node == null){
+			return null;
+		}
+
+		if(node.expiresAfterWrite || timeToIdleNanos > 0){
+			long now = ticker.read();
+			if(hasExpired(node, now)){
+				return null;
+			}
+			node.accessTime = now;
+		}
+
+		afterRead(node);
+		return node.value;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#getBulk(java.util.List)
+	 */
+	@Override
+	public Map<String, Object> getBulk(List<String> keys) {
+		Map<String, Object> values = new HashMap<String, Object>();
+		for(String key : keys){
+			Object value = get(key);
+			if(value != null){
+				values.put(key, value);
+			}
+		}
+		return values;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#set(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void set(String key, Object value) {
+		set(key, value, DEFAULT_EXPIRATION);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#set(java.lang.String, java.lang.Object, int)
+	 */
+	@Override
+	public void set(String key, Object value, int expiration) {
+		if(value == null){
+			remove(key);
+			return;
+		}
+
+		int seconds = (expiration == DEFAULT_EXPIRATION) ? getDefaultCacheExpireSeconds() : expiration;
+
+		evictionLock.lock();
+		try{
+			long now = ticker.read();
+			maintenance(now);
+			setLocked(key, value, seconds, now);
+		}
+		finally{
+			evictionLock.unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values) {
+		setBulk(values, DEFAULT_EXPIRATION);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map, int)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values, int expiration) {
+		int seconds = (expiration == DEFAULT_EXPIRATION) ? getDefaultCacheExpireSeconds() : expiration;
+
+		evictionLock.lock();
+		try{
+			long now = ticker.read();
+			maintenance(now);
+			for(Map.Entry<String, Object> entry : values.entrySet()){
+				if(entry.getValue() == null){
+					removeLocked(entry.getKey());
+				}
+				else{
+					setLocked(entry.getKey(), entry.getValue(), seconds, now);
+				}
+			}
+		}
+		finally{
+			evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Adds or updates the entry. Must be called while holding the evictionLock.
+	 */
+	private void setLocked(String key, Object value, int seconds, long now){
+		Node node = data.get(key);
+		if(node == null){
+			node = new Node(key, value);
+			data.put(key, node);
+			sketch.increment(key);
+			node.queue = WINDOW;
+			window.addLast(node);
+		}
+		else{
+			node.value = value;
+			onAccess(node);
+		}
+
+		node.accessTime = now;
+		node.expiresAfterWrite = seconds > 0;
+		node.writeDeadline = now + TimeUnit.SECONDS.toNanos(Math.max(0, seconds));
+		scheduleExpiration(node, now);
+
+		evictEntries();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#clear()
+	 */
+	@Override
+	public void clear() {
+		evictionLock.lock();
+		try{
+			drainReadBuffer();
+			timerWheel.clear();
+			window.clear();
+			probation.clear();
+			protectedSegment.clear();
+			data.clear();
+		}
+		finally{
+			evictionLock.unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#remove(java.lang.String)
+	 */
+	@Override
+	public void remove(String key) {
+		evictionLock.lock();
+		try{
+			removeLocked(key);
+		}
+		finally{
+			evictionLock.unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#removeBulk(java.util.Collection)
+	 */
+	@Override
+	public void removeBulk(Collection<String> keys) {
+		evictionLock.lock();
+		try{
+			for(String key : keys){
+				removeLocked(key);
+			}
+		}
+		finally{
+			evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Removes the entry. Must be called while holding the evictionLock.
+	 */
+	private void removeLocked(String key){
+		Node node = data.remove(key);
+		if(node != null){
+			unlink(node);
+		}
+	}
+
+	/**
+	 * Records the read in the read buffer, and replays the buffer if it is getting full. If the buffer
+	 * is already full the read is simply dropped, the policy only needs an approximation.
+	 */
+	private void afterRead(Node node){
+		long head = readBufferReadCount;
+		long tail = readBufferWriteCount.get();
+		long pending = tail - head;
+
+		if(pending < READ_BUFFER_SIZE && readBufferWriteCount.compareAndSet(tail, tail + 1)){
+			readBuffer.lazySet((int) (tail & READ_BUFFER_MASK), node);
+			if(pending + 1 < READ_BUFFER_DRAIN_THRESHOLD){
+				return;
+			}
+		}
+
+		if(evictionLock.tryLock()){
+			try{
+				maintenance(ticker.read());
+			}
+			finally{
+				evictionLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Replays buffered reads and removes expired entries. Must be called while holding the evictionLock.
+	 */
+	private void maintenance(long now){
+		drainReadBuffer();
+		expireEntries(now);
+	}
+
+	/**
+	 * Applies all buffered reads to the eviction policy. Must be called while holding the evictionLock.
+	 */
+	private void drainReadBuffer(){
+		long head = readBufferReadCount;
+		long tail = readBufferWriteCount.get();
+		for(; head < tail; head++){
+			int index = (int) (head & READ_BUFFER_MASK);
+			Node node = readBuffer.get(index);
+			if(node == null){
+				//slot was claimed, but the node has not been published yet.
+				break;
+			}
+			readBuffer.lazySet(index, null);
+			onAccess(node);
+		}
+		readBufferReadCount = head;
+	}
+
+	/**
+	 * Removes every entry whose timer has fired. Entries that were read since they were scheduled
+	 * are rescheduled instead.
+	 */
+	private void expireEntries(long now){
+		for(Node node : timerWheel.advance(now)){
+			if(node.queue == DEAD){
+				continue;
+			}
+			if(hasExpired(node, now)){
+				evict(node);
+			}
+			else{
+				scheduleExpiration(node, now);
+			}
+		}
+	}
+
+	/**
+	 * Places the node on the timer wheel at its earliest deadline, or removes it if the node does not expire.
+	 */
+	private void scheduleExpiration(Node node, long now){
+		long tti = timeToIdleNanos;
+		if(node.expiresAfterWrite && tti > 0){
+			long idleDeadline = node.accessTime + tti;
+			node.setExpirationTime(((idleDeadline - node.writeDeadline) < 0) ? idleDeadline : node.writeDeadline);
+		}
+		else if(node.expiresAfterWrite){
+			node.setExpirationTime(node.writeDeadline);
+		}
+		else if(tti > 0){
+			node.setExpirationTime(node.accessTime + tti);
+		}
+		else{
+			timerWheel.deschedule(node);
+			return;
+		}
+		timerWheel.schedule(node);
+	}
+
+	private boolean hasExpired(Node node, long now){
+		if(node.expiresAfterWrite && (now - node.writeDeadline) >= 0){
+			return true;
+		}
+		long tti = timeToIdleNanos;
+		return (tti > 0) && ((now - node.accessTime) >= tti);
+	}
+
+	/**
+	 * Updates the node's position in the policy after it was read or updated.
+	 */
+	private void onAccess(Node node){
+		switch(node.queue){
+			case WINDOW:
+				sketch.increment(node.key);
+				window.moveToBack(node);
+				rescheduleIdle(node);
+				break;
+			case PROBATION:
+				sketch.increment(node.key);
+				probation.remove(node);
+				node.queue = PROTECTED;
+				protectedSegment.addLast(node);
+				if(protectedSegment.size > protectedMaximum){
+					Node demoted = protectedSegment.pollFirst();
+					demoted.queue = PROBATION;
+					probation.addLast(demoted);
+				}
+				rescheduleIdle(node);
+				break;
+			case PROTECTED:
+				sketch.increment(node.key);
+				protectedSegment.moveToBack(node);
+				rescheduleIdle(node);
+				break;
+			default:
+				//Already evicted or removed.
+				break;
+		}
+	}
+
+	/**
+	 * Pushes back the expiration of a node that was read, when time-to-idle is enabled.
+	 */
+	private void rescheduleIdle(Node node){
+		if(timeToIdleNanos > 0){
+			scheduleExpiration(node, node.accessTime);
+		}
+	}
+
+	/**
+	 * Moves entries that overflow the window into the main space, evicting whichever of
+	 * the candidate and the main space's victim is least frequently used.
+	 */
+	private void evictEntries(){
+		while(window.size > windowMaximum){
+			Node candidate = window.pollFirst();
+
+			if(probation.size + protectedSegment.size < mainMaximum){
+				candidate.queue = PROBATION;
+				probation.addLast(candidate);
+				continue;
+			}
+
+			Node victim = (probation.first == null) ? protectedSegment.first : probation.first;
+			if(victim != null && sketch.frequency(candidate.key) > sketch.frequency(victim.key)){
+				evict(victim);
+				candidate.queue = PROBATION;
+				probation.addLast(candidate);
+			}
+			else{
+				timerWheel.deschedule(candidate);
+				candidate.queue = DEAD;
+				data.remove(candidate.key, candidate);
+			}
+		}
+	}
+
+	private void evict(Node node){
+		unlink(node);
+		data.remove(node.key, node);
+	}
+
+	private void unlink(Node node){
+		timerWheel.deschedule(node);
+		switch(node.queue){
+			case WINDOW:
+				window.remove(node);
+				break;
+			case PROBATION:
+				probation.remove(node);
+				break;
+			case PROTECTED:
+				protectedSegment.remove(node);
+				break;
+			default:
+				break;
+		}
+		node.queue = DEAD;
+	}
+
+	/**
+	 * Cache entry, linked into one of the policy's deques and, if it expires, the timer wheel.
+	 */
+	private static final class Node extends TimerWheel.Timer {
+
+		private final String key;
+		private volatile Object value;
+		private volatile boolean expiresAfterWrite;
+		private volatile long writeDeadline;
+		private volatile long accessTime;
+
+		/* Guarded by evictionLock */
+		private int queue = DEAD;
+		private Node prev;
+		private Node next;
+
+		private Node(String key, Object value){
+			this.key = key;
+			this.value = value;
+		}
+
+	}
+
+	/**
+	 * Minimal intrusive doubly linked list, ordered from least to most recently used.
+	 */
+	private static final class AccessOrderDeque {
+
+		private Node first;
+		private Node last;
+		private long size;
+
+		private void addLast(Node node){
+			node.prev = last;
+			node.next = null;
+			if(last == null){
+				first = node;
+			}
+			else{
+				last.next = node;
+			}
+			last = node;
+			size++;
+		}
+
+		private void remove(Node node){
+			if(node.prev == null){
+				first = node.next;
+			}
+			else{
+				node.prev.next = node.next;
+			}
+			if(node.next == null){
+				last = node.prev;
+			}
+			else{
+				node.next.prev = node.prev;
+			}
+			node.prev = null;
+			node.next = null;
+			size--;
+		}
+
+		private void moveToBack(Node node){
+			if(node != last){
+				remove(node);
+				addLast(node);
+			}
+		}
+
+		private Node pollFirst(){
+			Node node = first;
+			if(node != null){
+				remove(node);
+			}
+			return node;
+		}
+
+		private void clear(){
+			for(Node node = first; node != null; ){
+				Node next = node.next;
+				node.queue = DEAD;
+				node.prev = null;
+				node.next = null;
+				node = next;
+			}
+			first = null;
+			last = null;
+			size = 0;
+		}
+
+	}
+
+}
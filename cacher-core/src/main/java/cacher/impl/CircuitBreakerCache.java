@@ -0,0 +1,702 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.impl;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import cacher.AsyncCache;
+import cacher.Cache;
+import cacher.Ticker;
+
+/**
+ * <p>{@link Cache} decorator that stops calling the underlying {@link Cache} once it is failing or too slow,
+ * so that an unavailable cache does not add its timeouts and error logging to every request.</p>
+ * <p>The outcome of the most recent calls is kept in a sliding window. Once at least the minimum number of
+ * calls have been made and the failure rate or the slow call rate reaches its threshold, the breaker opens.
+ * While {@link State#OPEN} reads return nothing and writes are skipped, so callers such as
+ * {@link cacher.fetcher.FetchManager} go straight to their fetcher. After the open interval a few probe calls
+ * are allowed through ({@link State#HALF_OPEN}). If they all succeed the breaker closes again, otherwise it
+ * reopens.</p>
+ * <p><b>NOTE:</b> removes skipped while open are not replayed, so entries changed during an outage
+ * may be served until they expire.</p>
+ * <p>If the underlying {@link Cache} is an {@link AsyncCache}, the asynchronous methods are passed through,
+ * otherwise they run on the calling thread.</p>
+ *
+ * @author Dennis Crissman
+ */
+public class CircuitBreakerCache implements AsyncCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreakerCache.class);
+
+	public static final int DEFAULT_WINDOW_SIZE = 100;
+	public static final int DEFAULT_MINIMUM_CALLS = 20;
+	public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+	public static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 0.8;
+	public static final long DEFAULT_SLOW_CALL_MILLIS = 1000;
+	public static final long DEFAULT_OPEN_MILLIS = 30000;
+	public static final int DEFAULT_PROBE_CALLS = 5;
+
+	/**
+	 * State of the circuit breaker.
+	 */
+	public enum State {
+		/** Calls are passed to the underlying {@link Cache}. */
+		CLOSED,
+		/** Calls are skipped. */
+		OPEN,
+		/** A limited number of probe calls are passed to the underlying {@link Cache}. */
+		HALF_OPEN
+	}
+
+	private static final byte SUCCESS = 0;
+	private static final byte FAILURE = 1;
+	private static final byte SLOW = 2;
+
+	private final Cache cache;
+	private final Ticker ticker;
+	private final List<CircuitBreakerListener> listeners = new CopyOnWriteArrayList<CircuitBreakerListener>();
+
+	private volatile int minimumCalls = DEFAULT_MINIMUM_CALLS;
+	private volatile double failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+	private volatile double slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+	private volatile long slowCallMillis = DEFAULT_SLOW_CALL_MILLIS;
+	private volatile long openMillis = DEFAULT_OPEN_MILLIS;
+	private volatile int probeCalls = DEFAULT_PROBE_CALLS;
+
+	private final AtomicLong shortCircuitedCount = new AtomicLong();
+
+	/* Guarded by this */
+	private State state = State.CLOSED;
+	private byte[] window = new byte[DEFAULT_WINDOW_SIZE];
+	private int windowCount = 0;
+	private int windowNext = 0;
+	private int windowFailures = 0;
+	private int windowSlow = 0;
+	private long openedAt = 0;
+	private int probesStarted = 0;
+	private int probesSucceeded = 0;
+
+	/**
+	 * @param cache - underlying {@link Cache} to protect.
+	 */
+	public CircuitBreakerCache(Cache cache){
+		this(cache, Ticker.SYSTEM);
+	}
+
+	/**
+	 * @param cache - underlying {@link Cache} to protect.
+	 * @param ticker - {@link Ticker} used to time calls and the open interval.
+	 */
+	public CircuitBreakerCache(Cache cache, Ticker ticker){
+		this.cache = cache;
+		this.ticker = ticker;
+	}
+
+	public Cache getCache(){
+		return cache;
+	}
+
+	/**
+	 * Sets the number of most recent calls the failure and slow call rates are calculated from.
+	 * Resets the recorded calls.
+	 * @param windowSize - number of calls.
+	 */
+	public synchronized void setWindowSize(int windowSize){
+		if(windowSize < 1){
+			throw new IllegalArgumentException("windowSize must be at least 1: " + windowSize);
+		}
+		window = new byte[windowSize];
+		resetWindowLocked();
+	}
+
+	/**
+	 * @return number of calls the rates are calculated from.
+	 */
+	public synchronized int getWindowSize(){
+		return window.length;
+	}
+
+	/**
+	 * @param minimumCalls - calls that must be recorded before the breaker can open.
+	 */
+	public void setMinimumCalls(int minimumCalls){
+		this.minimumCalls = minimumCalls;
+	}
+
+	/**
+	 * @return calls that must be recorded before the breaker can open.
+	 */
+	public int getMinimumCalls(){
+		return minimumCalls;
+	}
+
+	/**
+	 * @param threshold - fraction of failed calls, between 0 and 1, at which the breaker opens.
+	 */
+	public void setFailureRateThreshold(double threshold){
+		this.failureRateThreshold = threshold;
+	}
+
+	/**
+	 * @return fraction of failed calls at which the breaker opens.
+	 */
+	public double getFailureRateThreshold(){
+		return failureRateThreshold;
+	}
+
+	/**
+	 * @param threshold - fraction of slow calls, between 0 and 1, at which the breaker opens, 0 to ignore slow calls.
+	 */
+	public void setSlowCallRateThreshold(double threshold){
+		this.slowCallRateThreshold = threshold;
+	}
+
+	/**
+	 * @return fraction of slow calls at which the breaker opens, 0 if slow calls are ignored.
+	 */
+	public double getSlowCallRateThreshold(){
+		return slowCallRateThreshold;
+	}
+
+	/**
+	 * @param millis - duration in milliseconds at or above which a successful call is considered slow.
+	 */
+	public void setSlowCallMillis(long millis){
+		this.slowCallMillis = millis;
+	}
+
+	/**
+	 * @return duration in milliseconds at or above which a call is considered slow.
+	 */
+	public long getSlowCallMillis(){
+		return slowCallMillis;
+	}
+
+	/**
+	 * @param millis - milliseconds the breaker stays open before allowing probe calls.
+	 */
+	public void setOpenMillis(long millis){
+		this.openMillis = millis;
+	}
+
+	/**
+	 * @return milliseconds the breaker stays open before allowing probe calls.
+	 */
+	public long getOpenMillis(){
+		return openMillis;
+	}
+
+	/**
+	 * @param probeCalls - calls allowed while half-open, all of which must succeed for the breaker to close.
+	 */
+	public void setProbeCalls(int probeCalls){
+		if(probeCalls < 1){
+			throw new IllegalArgumentException("probeCalls must be at least 1: " + probeCalls);
+		}
+		this.probeCalls = probeCalls;
+	}
+
+	/**
+	 * @return calls allowed while half-open.
+	 */
+	public int getProbeCalls(){
+		return probeCalls;
+	}
+
+	/**
+	 * @param listener - {@link CircuitBreakerListener} to add.
+	 */
+	public void addListener(CircuitBreakerListener listener){
+		listeners.add(listener);
+	}
+
+	/**
+	 * @param listener - {@link CircuitBreakerListener} to remove.
+	 */
+	public void removeListener(CircuitBreakerListener listener){
+		listeners.remove(listener);
+	}
+
+	/**
+	 * @return current {@link State}
+	 */
+	public synchronized State getState(){
+		return state;
+	}
+
+	/**
+	 * @return number of calls skipped because the breaker was not closed.
+	 */
+	public long getShortCircuitedCount(){
+		return shortCircuitedCount.get();
+	}
+
+	/**
+	 * Closes the breaker and forgets every recorded call.
+	 */
+	public void reset(){
+		State previous;
+		synchronized(this){
+			previous = transitionLocked(State.CLOSED);
+		}
+		fireStateChanged(previous, State.CLOSED);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#get(java.lang.String)
+	 */
+	@Override
+	public Object get(final String key) {
+		return call(new Operation<Object>() {
+
+			@Override
+			public Object run() {
+				return cache.get(key);
+			}
+		}, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#getBulk(java.util.List)
+	 */
+	@Override
+	public Map<String, Object> getBulk(final List<String> keys) {
+		return call(new Operation<Map<String, Object>>() {
+
+			@Override
+			public Map<String, Object> run() {
+				return cache.getBulk(keys);
+			}
+		}, new HashMap<String, Object>());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#set(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void set(final String key, final Object value) {
+		call(new Operation<Void>() {
+
+			@Override
+			public Void run() {
+				cache.set(key, value);
+				return null;
+			}
+		}, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#set(java.lang.String, java.lang.Object, int)
+	 */
+	@Override
+	public void set(final String key, final Object value, final int expiration) {
+		call(new Operation<Void>() {
+
+			@Override
+			public Void run() {
+				cache.set(key, value, expiration);
+				return null;
+			}
+		}, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map)
+	 */
+	@Override
+	public void setBulk(final Map<String, Object> values) {
+		call(new Operation<Void>() {
+
+			@Override
+			public Void run() {
+				cache.setBulk(values);
+				return null;
+			}
+		}, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map, int)
+	 */
+	@Override
+	public void setBulk(final Map<String, Object> values, final int expiration) {
+		call(new Operation<Void>() {
+
+			@Override
+			public Void run() {
+				cache.setBulk(values, expiration);
+				return null;
+			}
+		}, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#clear()
+	 */
+	@Override
+	public void clear() {
+		call(new Operation<Void>() {
+
+			@Override
+			public Void run() {
+				cache.clear();
+				return null;
+			}
+		}, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#remove(java.lang.String)
+	 */
+	@Override
+	public void remove(final String key) {
+		call(new Operation<Void>() {
+
+			@Override
+			public Void run() {
+				cache.remove(key);
+				return null;
+			}
+		}, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#removeBulk(java.util.Collection)
+	 */
+	@Override
+	public void removeBulk(final Collection<String> keys) {
+		call(new Operation<Void>() {
+
+			@Override
+			public Void run() {
+				cache.removeBulk(keys);
+				return null;
+			}
+		}, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.AsyncCache#getAsync(java.lang.String)
+	 */
+	@Override
+	public CompletableFuture<Object> getAsync(final String key) {
+		if(!(cache instanceof AsyncCache)){
+			return CompletableFuture.completedFuture(get(key));
+		}
+		return callAsync(new Operation<CompletableFuture<Object>>() {
+
+			@Override
+			public CompletableFuture<Object> run() {
+				return ((AsyncCache) cache).getAsync(key);
+			}
+		}, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.AsyncCache#getBulkAsync(java.util.List)
+	 */
+	@Override
+	public CompletableFuture<Map<String, Object>> getBulkAsync(final List<String> keys) {
+		if(!(cache instanceof AsyncCache)){
+			return CompletableFuture.completedFuture(getBulk(keys));
+		}
+		return callAsync(new Operation<CompletableFuture<Map<String, Object>>>() {
+
+			@Override
+			public CompletableFuture<Map<String, Object>> run() {
+				return ((AsyncCache) cache).getBulkAsync(keys);
+			}
+		}, new HashMap<String, Object>());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.AsyncCache#setAsync(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public CompletableFuture<Void> setAsync(String key, Object value) {
+		return setAsync(key, value, DEFAULT_EXPIRATION);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.AsyncCache#setAsync(java.lang.String, java.lang.Object, int)
+	 */
+	@Override
+	public CompletableFuture<Void> setAsync(final String key, final Object value, final int expiration) {
+		if(!(cache instanceof AsyncCache)){
+			set(key, value, expiration);
+			return CompletableFuture.completedFuture(null);
+		}
+		return callAsync(new Operation<CompletableFuture<Void>>() {
+
+			@Override
+			public CompletableFuture<Void> run() {
+				return ((AsyncCache) cache).setAsync(key, value, expiration);
+			}
+		}, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.AsyncCache#removeAsync(java.lang.String)
+	 */
+	@Override
+	public CompletableFuture<Void> removeAsync(final String key) {
+		if(!(cache instanceof AsyncCache)){
+			remove(key);
+			return CompletableFuture.completedFuture(null);
+		}
+		return callAsync(new Operation<CompletableFuture<Void>>() {
+
+			@Override
+			public CompletableFuture<Void> run() {
+				return ((AsyncCache) cache).removeAsync(key);
+			}
+		}, null);
+	}
+
+	/**
+	 * Runs the operation if the breaker allows it, recording its outcome.
+	 * @return the operation's result, or the fallback if the call was skipped.
+	 */
+	private <T> T call(Operation<T> operation, T fallback){
+		if(!tryAcquire()){
+			return fallback;
+		}
+
+		long start = ticker.read();
+		try{
+			T result = operation.run();
+			record(false, ticker.read() - start);
+			return result;
+		}
+		catch(RuntimeException | Error e){
+			record(true, ticker.read() - start);
+			throw e;
+		}
+	}
+
+	/**
+	 * Starts the operation if the breaker allows it, recording its outcome once the future completes.
+	 * @return the operation's future, or a future completed with the fallback if the call was skipped.
+	 */
+	private <T> CompletableFuture<T> callAsync(Operation<CompletableFuture<T>> operation, T fallback){
+		if(!tryAcquire()){
+			return CompletableFuture.completedFuture(fallback);
+		}
+
+		final long start = ticker.read();
+		CompletableFuture<T> future;
+		try{
+			future = operation.run();
+		}
+		catch(RuntimeException | Error e){
+			record(true, ticker.read() - start);
+			throw e;
+		}
+
+		future.whenComplete(new BiConsumer<T, Throwable>() {
+
+			@Override
+			public void accept(T result, Throwable error) {
+				record(error != null, ticker.read() - start);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * @return <code>true</code> if a call may be made to the underlying {@link Cache}.
+	 */
+	private boolean tryAcquire(){
+		State previous = null;
+		boolean permitted;
+		synchronized(this){
+			if(state == State.OPEN && (ticker.read() - openedAt) >= TimeUnit.MILLISECONDS.toNanos(getOpenMillis())){
+				previous = transitionLocked(State.HALF_OPEN);
+			}
+
+			if(state == State.CLOSED){
+				permitted = true;
+			}
+			else if(state == State.HALF_OPEN && probesStarted < getProbeCalls()){
+				probesStarted++;
+				permitted = true;
+			}
+			else{
+				permitted = false;
+			}
+		}
+
+		if(previous != null){
+			fireStateChanged(previous, State.HALF_OPEN);
+		}
+		if(!permitted){
+			shortCircuitedCount.incrementAndGet();
+		}
+		return permitted;
+	}
+
+	/**
+	 * Records the outcome of a call, opening or closing the breaker as needed.
+	 */
+	private void record(boolean failed, long nanos){
+		long slowMillis = getSlowCallMillis();
+		boolean slow = !failed && slowMillis > 0 && nanos >= TimeUnit.MILLISECONDS.toNanos(slowMillis);
+
+		State previous = null;
+		State next = null;
+		synchronized(this){
+			if(state == State.CLOSED){
+				addToWindowLocked(failed ? FAILURE : (slow ? SLOW : SUCCESS));
+				if(shouldOpenLocked()){
+					next = State.OPEN;
+				}
+			}
+			else if(state == State.HALF_OPEN){
+				if(failed || slow){
+					next = State.OPEN;
+				}
+				else if(++probesSucceeded >= getProbeCalls()){
+					next = State.CLOSED;
+				}
+			}
+			//Results that arrive while open were started before it opened, and are ignored.
+
+			if(next != null){
+				previous = transitionLocked(next);
+			}
+		}
+
+		if(next != null){
+			fireStateChanged(previous, next);
+		}
+	}
+
+	private boolean shouldOpenLocked(){
+		if(windowCount < Math.max(1, getMinimumCalls())){
+			return false;
+		}
+		double slowThreshold = getSlowCallRateThreshold();
+		return ((double) windowFailures / windowCount) >= getFailureRateThreshold()
+				|| (slowThreshold > 0 && ((double) windowSlow / windowCount) >= slowThreshold);
+	}
+
+	private void addToWindowLocked(byte outcome){
+		if(windowCount == window.length){
+			removeOutcome(window[windowNext]);
+		}
+		else{
+			windowCount++;
+		}
+		window[windowNext] = outcome;
+		windowNext = (windowNext + 1) % window.length;
+
+		if(outcome == FAILURE){
+			windowFailures++;
+		}
+		else if(outcome == SLOW){
+			windowSlow++;
+		}
+	}
+
+	private void removeOutcome(byte outcome){
+		if(outcome == FAILURE){
+			windowFailures--;
+		}
+		else if(outcome == SLOW){
+			windowSlow--;
+		}
+	}
+
+	private void resetWindowLocked(){
+		windowCount = 0;
+		windowNext = 0;
+		windowFailures = 0;
+		windowSlow = 0;
+	}
+
+	/**
+	 * Must be called while holding the lock.
+	 * @return the previous {@link State}
+	 */
+	private State transitionLocked(State next){
+		State previous = state;
+		state = next;
+		if(next == State.OPEN){
+			openedAt = ticker.read();
+		}
+		else if(next == State.HALF_OPEN){
+			probesStarted = 0;
+			probesSucceeded = 0;
+		}
+		else{
+			resetWindowLocked();
+		}
+		return previous;
+	}
+
+	private void fireStateChanged(State from, State to){
+		if(from == to){
+			return;
+		}
+
+		if(to == State.OPEN){
+			LOGGER.warn("Circuit breaker opened, calls to the cache will be skipped for " + getOpenMillis() + "ms");
+		}
+		else{
+			LOGGER.info("Circuit breaker changed from " + from + " to " + to);
+		}
+
+		for(CircuitBreakerListener listener : listeners){
+			try{
+				listener.stateChanged(this, from, to);
+			}
+			catch(Exception e){
+				LOGGER.error("Exception occurred while handling a 'stateChanged' event", e);
+			}
+		}
+	}
+
+	/**
+	 * A call to the underlying {@link Cache}.
+	 */
+	private interface Operation<T> {
+
+		T run();
+
+	}
+
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.impl;
+
+/**
+ * Listener of {@link CircuitBreakerCache} state changes, typically used for alerting or metrics.
+ * 
+ * @author Dennis Crissman
+ *
+ */
+public interface CircuitBreakerListener {
+
+	/**
+	 * The circuit breaker has moved from one state to another.
+	 * @param cache - {@link CircuitBreakerCache} whose state changed.
+	 * @param from - previous {@link CircuitBreakerCache.State}
+	 * @param to - new {@link CircuitBreakerCache.State}
+	 */
+	void stateChanged(CircuitBreakerCache cache, CircuitBreakerCache.State from, CircuitBreakerCache.State to);
+
+}
@@ -11,6 +11,7 @@
 
 package cacher.impl;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -44,6 +45,33 @@ public class ExceptionThrowingCache implements Cache {
 		throw new UnsupportedOperationException(CACHING_IS_NOT_SUPPORTED);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#set(java.lang.String, java.lang.Object, int)
+	 */
+	@Override
+	public void set(String key, Object value, int expiration) {
+		throw new UnsupportedOperationException(CACHING_IS_NOT_SUPPORTED);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values) {
+		throw new UnsupportedOperationException(CACHING_IS_NOT_SUPPORTED);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map, int)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values, int expiration) {
+		throw new UnsupportedOperationException(CACHING_IS_NOT_SUPPORTED);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see cacher.Cache#clear()
@@ -71,4 +99,13 @@ public class ExceptionThrowingCache implements Cache {
 		throw new UnsupportedOperationException(CACHING_IS_NOT_SUPPORTED);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#removeBulk(java.util.Collection)
+	 */
+	@Override
+	public void removeBulk(Collection<String> keys) {
+		throw new UnsupportedOperationException(CACHING_IS_NOT_SUPPORTED);
+	}
+
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.impl;
+
+/**
+ * <p>A probabilistic multiset used to estimate how often a key has been accessed (TinyLFU).</p>
+ * <p>Implemented as a Count-Min sketch with four 4-bit counters per key packed into a <code>long[]</code>.
+ * Once the number of recorded increments reaches the sample size, all counters are halved so that
+ * the estimates age and favour recent popularity.</p>
+ * <p><b>NOTE:</b> This class is not thread-safe, callers must provide their own synchronization.</p>
+ *
+ * @author Dennis Crissman
+ */
+final class FrequencySketch {
+
+	private static final long[] SEED = new long[]{
+		0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+	private static final long RESET_MASK = 0x7777777777777777L;
+	private static final long ONE_MASK = 0x1111111111111111L;
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	private final long[] table;
+	private final int tableMask;
+	private final int sampleSize;
+	private int size;
+
+	/**
+	 * @param maximumSize - maximum number of entries the owning cache will hold.
+	 */
+	FrequencySketch(long maximumSize){
+		int capacity = ceilingPowerOfTwo((int) Math.max(8, Math.min(maximumSize, MAXIMUM_CAPACITY)));
+		this.table = new long[capacity];
+		this.tableMask = capacity - 1;
+		this.sampleSize = (capacity > MAXIMUM_CAPACITY / 10) ? Integer.MAX_VALUE : 10 * capacity;
+	}
+
+	/**
+	 * @param key - key to look up
+	 * @return the estimated number of occurrences of the key, maximum of 15.
+	 */
+	int frequency(Object key){
+		int hash = spread(key.hashCode());
+		int start = (hash & 3) << 2;
+		int frequency = Integer.MAX_VALUE;
+		for(int i = 0; i < 4; i++){
+			int index = indexOf(hash, i);
+			int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+			frequency = Math.min(frequency, count);
+		}
+		return frequency;
+	}
+
+	/**
+	 * Increments the popularity of the key, if it does not exceed the maximum (15).
+	 * @param key - key to increment
+	 */
+	void increment(Object key){
+		int hash = spread(key.hashCode());
+		int start = (hash & 3) << 2;
+
+		boolean added = false;
+		for(int i = 0; i < 4; i++){
+			added |= incrementAt(indexOf(hash, i), start + i);
+		}
+
+		if(added && (++size == sampleSize)){
+			reset();
+		}
+	}
+
+	private boolean incrementAt(int i, int j){
+		int offset = j << 2;
+		long mask = 0xfL << offset;
+		if((table[i] & mask) != mask){
+			table[i] += 1L << offset;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Halves every counter, adjusting the sample size for the odd counters that were truncated.
+	 */
+	private void reset(){
+		int count = 0;
+		for(int i = 0; i < table.length; i++){
+			count += Long.bitCount(table[i] & ONE_MASK);
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+		size = (size >>> 1) - (count >>> 2);
+	}
+
+	private int indexOf(int item, int i){
+		long hash = (item + SEED[i]) * SEED[i];
+		hash += hash >>> 32;
+		return ((int) hash) & tableMask;
+	}
+
+	/**
+	 * Applies a supplemental hash to defend against poor quality <code>hashCode()</code> implementations.
+	 */
+	private static int spread(int x){
+		int h = ((x >>> 16) ^ x) * 0x45d9f3b;
+		h = ((h >>> 16) ^ h) * 0x45d9f3b;
+		return (h >>> 16) ^ h;
+	}
+
+	private static int ceilingPowerOfTwo(int x){
+		return 1 << -Integer.numberOfLeadingZeros(x - 1);
+	}
+
+}
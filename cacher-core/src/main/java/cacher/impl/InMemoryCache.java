@@ -11,17 +11,22 @@
 
 package cacher.impl;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import cacher.Cache;
+import cacher.Ticker;
 
 /**
- * Simple in-memory cacher, really just a wrapper around a {@link Map}.
+ * <p>Simple in-memory cacher, really just a wrapper around a {@link Map}.</p>
+ * <p>Entries set with an expiration are tracked on a {@link TimerWheel} and are removed once expired.</p>
+ * <p><b>NOTE:</b> This class is not thread-safe, see {@link BoundedInMemoryCache} for a concurrent alternative.</p>
  * 
  * @author Dennis Crissman
  */
@@ -31,12 +36,45 @@ public class InMemoryCache extends HashMap<String, Object> implements Cache {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(InMemoryCache.class);
 
+	private transient Ticker ticker;
+	private transient TimerWheel<KeyTimer> timerWheel;
+	private transient Map<String, KeyTimer> timers;
+	private int defaultExpireSeconds = NO_EXPIRATION;
+
+	public InMemoryCache(){
+		this(Ticker.SYSTEM);
+	}
+
+	/**
+	 * @param ticker - {@link Ticker} used to determine when entries expire.
+	 */
+	public InMemoryCache(Ticker ticker){
+		this.ticker = ticker;
+	}
+
+	/**
+	 * Sets the default entry expire timeout in seconds. This value will be used if one is not otherwise specified.
+	 * @param seconds - default seconds to expire entries, {@link Cache#NO_EXPIRATION} to never expire.
+	 */
+	public void setDefaultCacheExpireSeconds(int seconds) {
+		defaultExpireSeconds = seconds;
+	}
+
+	/**
+	 * @return default seconds each entry will expire in.
+	 */
+	public int getDefaultCacheExpireSeconds() {
+		return defaultExpireSeconds;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see cacher.Cache#get(java.lang.String)
 	 */
 	@Override
 	public Object get(String key) {
+		expireEntries();
+		expireEntry(key);
 		Object value = super.get(key);
 		LOGGER.debug("get: " + key + ", return value = " + ((value == null) ? "null" : value.toString()));
 		return value;
@@ -48,8 +86,52 @@ public class InMemoryCache extends HashMap<String, Object> implements Cache {
 	 */
 	@Override
 	public void set(String key, Object value) {
-		LOGGER.debug("set: " + key + ", " + ((value == null) ? "null" : value.toString()));
+		set(key, value, DEFAULT_EXPIRATION);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#set(java.lang.String, java.lang.Object, int)
+	 */
+	@Override
+	public void set(String key, Object value, int expiration) {
+		LOGGER.debug("set: " + key + ", " + ((value == null) ? "null" : value.toString()) + ", expiration " + expiration);
+		expireEntries();
 		super.put(key, value);
+
+		int seconds = (expiration == DEFAULT_EXPIRATION) ? getDefaultCacheExpireSeconds() : expiration;
+		if(seconds > 0){
+			KeyTimer timer = timers().get(key);
+			if(timer == null){
+				timer = new KeyTimer(key);
+				timers().put(key, timer);
+			}
+			timer.setExpirationTime(ticker().read() + TimeUnit.SECONDS.toNanos(seconds));
+			timerWheel().schedule(timer);
+		}
+		else{
+			descheduleTimer(key);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values) {
+		setBulk(values, DEFAULT_EXPIRATION);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map, int)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values, int expiration) {
+		for(Map.Entry<String, Object> entry : values.entrySet()){
+			set(entry.getKey(), entry.getValue(), expiration);
+		}
 	}
 
 	/*
@@ -60,6 +142,10 @@ public class InMemoryCache extends HashMap<String, Object> implements Cache {
 	public void clear() {
 		LOGGER.debug("clear");
 		super.clear();
+		if(timers != null){
+			timers.clear();
+			timerWheel.clear();
+		}
 	}
 
 	/*
@@ -71,8 +157,10 @@ public class InMemoryCache extends HashMap<String, Object> implements Cache {
 		Map<String, Object> values = new HashMap<String, Object>();
 
 		LOGGER.debug("getBulk requested: " + keys);
+		expireEntries();
 
 		for(String key : keys){
+			expireEntry(key);
 			values.put(key, super.get(key));
 		}
 
@@ -89,6 +177,95 @@ public class InMemoryCache extends HashMap<String, Object> implements Cache {
 	public void remove(String key) {
 		LOGGER.debug("remove: " + key);
 		super.remove(key);
+		descheduleTimer(key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#removeBulk(java.util.Collection)
+	 */
+	@Override
+	public void removeBulk(Collection<String> keys) {
+		for(String key : keys){
+			remove(key);
+		}
+	}
+
+	/**
+	 * Removes all entries whose expiration has passed.
+	 */
+	private void expireEntries(){
+		if(timers == null || timers.isEmpty()){
+			return;
+		}
+
+		for(KeyTimer timer : timerWheel.advance(ticker().read())){
+			LOGGER.debug("expired: " + timer.key);
+			timers.remove(timer.key);
+			super.remove(timer.key);
+		}
+	}
+
+	/**
+	 * The {@link TimerWheel} only guarantees the entry will be expired within its bucket's time span,
+	 * so a key that is being read must be checked directly.
+	 */
+	private void expireEntry(String key){
+		if(timers == null){
+			return;
+		}
+
+		KeyTimer timer = timers.get(key);
+		if(timer != null && (ticker().read() - timer.getExpirationTime()) >= 0){
+			LOGGER.debug("expired: " + key);
+			descheduleTimer(key);
+			super.remove(key);
+		}
+	}
+
+	private void descheduleTimer(String key){
+		if(timers == null){
+			return;
+		}
+
+		KeyTimer timer = timers.remove(key);
+		if(timer != null){
+			timerWheel.deschedule(timer);
+		}
+	}
+
+	private Ticker ticker(){
+		if(ticker == null){
+			//Possible after deserialization.
+			ticker = Ticker.SYSTEM;
+		}
+		return ticker;
+	}
+
+	private Map<String, KeyTimer> timers(){
+		if(timers == null){
+			timers = new HashMap<String, KeyTimer>();
+			timerWheel = new TimerWheel<KeyTimer>(ticker().read());
+		}
+		return timers;
+	}
+
+	private TimerWheel<KeyTimer> timerWheel(){
+		timers();
+		return timerWheel;
+	}
+
+	/**
+	 * {@link TimerWheel.Timer} for a single key.
+	 */
+	private static final class KeyTimer extends TimerWheel.Timer {
+
+		private final String key;
+
+		private KeyTimer(String key){
+			this.key = key;
+		}
+
 	}
 
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.impl;
+
+/**
+ * Listener of {@link TieredCache} writes, typically used to broadcast invalidations so that
+ * other nodes can evict the key from their local tier using {@link TieredCache#invalidateLocal(String)}.
+ * 
+ * @author Dennis Crissman
+ *
+ */
+public interface InvalidationListener {
+
+	/**
+	 * The key has been set or removed.
+	 * @param key - key that was changed.
+	 */
+	void invalidated(String key);
+
+	/**
+	 * All keys have been cleared.
+	 */
+	void invalidatedAll();
+
+}
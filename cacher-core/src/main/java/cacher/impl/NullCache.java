@@ -11,6 +11,7 @@
 
 package cacher.impl;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -55,6 +56,36 @@ public class NullCache implements Cache{
 		LOGGER.info("set: " + key + ", " + ((value == null) ? "null" : value.toString()));
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#set(java.lang.String, java.lang.Object, int)
+	 */
+	@Override
+	public void set(String key, Object value, int expiration) {
+		log();
+		LOGGER.info("set: " + key + ", " + ((value == null) ? "null" : value.toString()) + ", expiration " + expiration);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values) {
+		log();
+		LOGGER.info("setBulk: " + values);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map, int)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values, int expiration) {
+		log();
+		LOGGER.info("setBulk: " + values + ", expiration " + expiration);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see cacher.Cache#clear()
@@ -86,4 +117,14 @@ public class NullCache implements Cache{
 		LOGGER.info("remove: " + key);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#removeBulk(java.util.Collection)
+	 */
+	@Override
+	public void removeBulk(Collection<String> keys) {
+		log();
+		LOGGER.info("removeBulk: " + keys);
+	}
+
 }
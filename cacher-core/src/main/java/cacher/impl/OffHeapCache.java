@@ -0,0 +1,417 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import cacher.Cache;
+import cacher.Ticker;
+import cacher.codec.SerializingValueCodec;
+import cacher.codec.ValueCodec;
+
+/**
+ * <p>In-memory {@link Cache} that stores encoded values outside of the java heap, so that large caches
+ * do not add to garbage collection pauses.</p>
+ * <p>Memory is allocated up front as a ring of fixed size slabs (direct {@link ByteBuffer}s). Entries are
+ * appended to the current slab, and only a small index of slab offsets is kept on the heap. When the
+ * last slab fills up, the oldest slab is recycled and every entry still stored in it is evicted.
+ * Overwritten, removed and expired entries therefore only release their space once their slab is recycled.</p>
+ * <p>Values are converted to bytes using a {@link ValueCodec}, by default {@link SerializingValueCodec}.</p>
+ *
+ * @author Dennis Crissman
+ */
+public class OffHeapCache implements Cache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OffHeapCache.class);
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/** keyLength (int) + valueLength (int) */
+	private static final int HEADER_SIZE = 8;
+
+	private final ByteBuffer[] slabs;
+	private final int slabSize;
+	private final ValueCodec codec;
+	private final Ticker ticker;
+	private volatile int defaultExpireSeconds = NO_EXPIRATION;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/* Guarded by lock */
+	private final Map<String, Location> index = new HashMap<String, Location>();
+	private int currentSlab;
+
+	/**
+	 * Uses {@link SerializingValueCodec}.
+	 * @param slabCount - number of slabs to allocate.
+	 * @param slabSize - size of each slab in bytes, which is also the largest entry that can be cached.
+	 */
+	public OffHeapCache(int slabCount, int slabSize){
+		this(slabCount, slabSize, new SerializingValueCodec(), Ticker.SYSTEM);
+	}
+
+	/**
+	 * @param slabCount - number of slabs to allocate.
+	 * @param slabSize - size of each slab in bytes, which is also the largest entry that can be cached.
+	 * @param codec - {@link ValueCodec} used to convert values to and from bytes.
+	 * @param ticker - {@link Ticker} used to determine when entries expire.
+	 */
+	public OffHeapCache(int slabCount, int slabSize, ValueCodec codec, Ticker ticker){
+		if(slabCount < 2){
+			throw new IllegalArgumentException("At least 2 slabs are required: " + slabCount);
+		}
+		if(slabSize <= HEADER_SIZE){
+			throw new IllegalArgumentException("slabSize is too small: " + slabSize);
+		}
+
+		this.slabs = new ByteBuffer[slabCount];
+		for(int i = 0; i < slabCount; i++){
+			slabs[i] = ByteBuffer.allocateDirect(slabSize);
+		}
+		this.slabSize = slabSize;
+		this.codec = codec;
+		this.ticker = ticker;
+	}
+
+	/**
+	 * Sets the default entry expire timeout in seconds. This value will be used if one is not otherwise specified.
+	 * @param seconds - default seconds to expire entries, {@link Cache#NO_EXPIRATION} to never expire.
+	 */
+	public void setDefaultCacheExpireSeconds(int seconds) {
+		defaultExpireSeconds = seconds;
+	}
+
+	/**
+	 * @return default seconds each entry will expire in.
+	 */
+	public int getDefaultCacheExpireSeconds() {
+		return defaultExpireSeconds;
+	}
+
+	/**
+	 * @return total off-heap bytes allocated for storing entries.
+	 */
+	public long getCapacity(){
+		return (long) slabs.length * slabSize;
+	}
+
+	/**
+	 * @return the current number of entries, which may include expired entries that have not yet been removed.
+	 */
+	public int size(){
+		lock.readLock().lock();
+		try{
+			return index.size();
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#get(java.lang.String)
+	 */
+	@Override
+	public Object get(String key) {
+		byte[] bytes = read(key);
+		if(bytes == null){
+			return null;
+		}
+		return codec.decode(bytes);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#getBulk(java.util.List)
+	 */
+	@Override
+	public Map<String, Object> getBulk(List<String> keys) {
+		Map<String, byte[]> encoded = new HashMap<String, byte[]>();
+		lock.readLock().lock();
+		try{
+			long now = ticker.read();
+			for(String key : keys){
+				byte[] bytes = readLocked(key, now);
+				if(bytes != null){
+					encoded.put(key, bytes);
+				}
+			}
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+
+		Map<String, Object> values = new HashMap<String, Object>();
+		for(Map.Entry<String, byte[]> entry : encoded.entrySet()){
+			values.put(entry.getKey(), codec.decode(entry.getValue()));
+		}
+		return values;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#set(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void set(String key, Object value) {
+		set(key, value, DEFAULT_EXPIRATION);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#set(java.lang.String, java.lang.Object, int)
+	 */
+	@Override
+	public void set(String key, Object value, int expiration) {
+		if(value == null){
+			remove(key);
+			return;
+		}
+
+		byte[] keyBytes = key.getBytes(UTF8);
+		byte[] valueBytes = codec.encode(value);
+		int seconds = (expiration == DEFAULT_EXPIRATION) ? getDefaultCacheExpireSeconds() : expiration;
+
+		lock.writeLock().lock();
+		try{
+			writeLocked(key, keyBytes, valueBytes, seconds, ticker.read());
+		}
+		finally{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values) {
+		setBulk(values, DEFAULT_EXPIRATION);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map, int)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values, int expiration) {
+		int seconds = (expiration == DEFAULT_EXPIRATION) ? getDefaultCacheExpireSeconds() : expiration;
+
+		//Encode outside of the lock, null values are removed.
+		Map<String, byte[]> encoded = new HashMap<String, byte[]>();
+		for(Map.Entry<String, Object> entry : values.entrySet()){
+			encoded.put(entry.getKey(), (entry.getValue() == null) ? null : codec.encode(entry.getValue()));
+		}
+
+		lock.writeLock().lock();
+		try{
+			long now = ticker.read();
+			for(Map.Entry<String, byte[]> entry : encoded.entrySet()){
+				if(entry.getValue() == null){
+					index.remove(entry.getKey());
+				}
+				else{
+					writeLocked(entry.getKey(), entry.getKey().getBytes(UTF8), entry.getValue(), seconds, now);
+				}
+			}
+		}
+		finally{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Appends the record to the current slab. Must be called while holding the write lock.
+	 */
+	private void writeLocked(String key, byte[] keyBytes, byte[] valueBytes, int seconds, long now){
+		int recordSize = HEADER_SIZE + keyBytes.length + valueBytes.length;
+
+		index.remove(key);
+		if(recordSize > slabSize){
+			LOGGER.debug("Entry too large to cache (" + recordSize + " bytes): " + key);
+			return;
+		}
+
+		ByteBuffer slab = slabs[currentSlab];
+		if(slab.remaining() < recordSize){
+			slab = nextSlab();
+		}
+
+		int offset = slab.position();
+		slab.putInt(keyBytes.length);
+		slab.putInt(valueBytes.length);
+		slab.put(keyBytes);
+		slab.put(valueBytes);
+
+		index.put(key, new Location(currentSlab, offset, keyBytes.length, valueBytes.length,
+				(seconds > 0) ? now + TimeUnit.SECONDS.toNanos(seconds) : 0L, seconds > 0));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#clear()
+	 */
+	@Override
+	public void clear() {
+		lock.writeLock().lock();
+		try{
+			index.clear();
+			for(ByteBuffer slab : slabs){
+				slab.clear();
+			}
+			currentSlab = 0;
+		}
+		finally{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#remove(java.lang.String)
+	 */
+	@Override
+	public void remove(String key) {
+		lock.writeLock().lock();
+		try{
+			index.remove(key);
+		}
+		finally{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#removeBulk(java.util.Collection)
+	 */
+	@Override
+	public void removeBulk(Collection<String> keys) {
+		lock.writeLock().lock();
+		try{
+			for(String key : keys){
+				index.remove(key);
+			}
+		}
+		finally{
+			lock.writeLock().unlock();
+		}
+	}
+
+	private byte[] read(String key){
+		lock.readLock().lock();
+		try{
+			return readLocked(key, ticker.read());
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Copies the value bytes for the key out of its slab. Must be called while holding the lock.
+	 */
+	private byte[] readLocked(String key, long now){
+		Location location = index.get(key);
+		if(location == null || location.hasExpired(now)){
+			return null;
+		}
+
+		byte[] bytes = new byte[location.valueLength];
+		ByteBuffer view = slabs[location.slab].duplicate();
+		view.position(location.offset + HEADER_SIZE + location.keyLength);
+		view.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Advances to the next slab in the ring, evicting all entries still stored in it.
+	 * Must be called while holding the write lock.
+	 * @return the new current slab.
+	 */
+	private ByteBuffer nextSlab(){
+		currentSlab = (currentSlab + 1) % slabs.length;
+		ByteBuffer slab = slabs[currentSlab];
+		evictSlab(currentSlab);
+		slab.clear();
+		return slab;
+	}
+
+	/**
+	 * Walks the records in the slab, removing each from the index if the index still points at it.
+	 */
+	private void evictSlab(int slabIndex){
+		ByteBuffer view = slabs[slabIndex].duplicate();
+		view.flip();
+
+		int evicted = 0;
+		while(view.hasRemaining()){
+			int offset = view.position();
+			int keyLength = view.getInt();
+			int valueLength = view.getInt();
+
+			byte[] keyBytes = new byte[keyLength];
+			view.get(keyBytes);
+			view.position(view.position() + valueLength);
+
+			String key = new String(keyBytes, UTF8);
+			Location location = index.get(key);
+			if(location != null && location.slab == slabIndex && location.offset == offset){
+				index.remove(key);
+				evicted++;
+			}
+		}
+
+		LOGGER.debug("Recycled slab " + slabIndex + ", evicted " + evicted + " entries");
+	}
+
+	/**
+	 * Where an entry lives off-heap.
+	 */
+	private static final class Location {
+
+		private final int slab;
+		private final int offset;
+		private final int keyLength;
+		private final int valueLength;
+		private final long expiresAt;
+		private final boolean expires;
+
+		private Location(int slab, int offset, int keyLength, int valueLength, long expiresAt, boolean expires){
+			this.slab = slab;
+			this.offset = offset;
+			this.keyLength = keyLength;
+			this.valueLength = valueLength;
+			this.expiresAt = expiresAt;
+			this.expires = expires;
+		}
+
+		private boolean hasExpired(long now){
+			return expires && (now - expiresAt) >= 0;
+		}
+
+	}
+
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import cacher.Cache;
+
+/**
+ * <p>A near cache that places a local (L1) {@link Cache} in front of a remote (L2) {@link Cache},
+ * such as <code>MemcachedCache</code>.</p>
+ * <p>Reads are served from the local tier when possible, and only local misses are sent to the remote
+ * tier (in a single call for {@link #getBulk(List)}). Values read from or written to the remote tier are
+ * copied into the local tier with a short expiration, which bounds how long a node may serve a value
+ * that was changed by another node.</p>
+ * <p>To evict changed keys sooner, register an {@link InvalidationListener} to publish local writes and
+ * call {@link #invalidateLocal(String)} on the other nodes when they are received.</p>
+ * 
+ * @author Dennis Crissman
+ */
+public class TieredCache implements Cache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TieredCache.class);
+
+	public static final int DEFAULT_LOCAL_EXPIRE_SECONDS = 60;
+
+	private final Cache local;
+	private final Cache remote;
+	private final List<InvalidationListener> invalidationListeners;
+	private volatile int localExpireSeconds = DEFAULT_LOCAL_EXPIRE_SECONDS;
+
+	/**
+	 * Uses a {@link BoundedInMemoryCache} as the local tier.
+	 * @param remote - remote (L2) {@link Cache}
+	 * @param localMaximumSize - maximum number of entries to hold locally.
+	 */
+	public TieredCache(Cache remote, long localMaximumSize){
+		this(new BoundedInMemoryCache(localMaximumSize), remote);
+	}
+
+	/**
+	 * @param local - local (L1) {@link Cache}, should be bounded.
+	 * @param remote - remote (L2) {@link Cache}
+	 */
+	public TieredCache(Cache local, Cache remote){
+		this(local, remote, null);
+	}
+
+	/**
+	 * @param local - local (L1) {@link Cache}, should be bounded.
+	 * @param remote - remote (L2) {@link Cache}
+	 * @param invalidationListeners - notified whenever a key is set, removed or cleared through this instance.
+	 */
+	public TieredCache(Cache local, Cache remote, List<InvalidationListener> invalidationListeners){
+		this.local = local;
+		this.remote = remote;
+		this.invalidationListeners = new CopyOnWriteArrayList<InvalidationListener>();
+		if(invalidationListeners != null){
+			this.invalidationListeners.addAll(invalidationListeners);
+		}
+	}
+
+	public Cache getLocalCache(){
+		return local;
+	}
+
+	public Cache getRemoteCache(){
+		return remote;
+	}
+
+	/**
+	 * Sets the number of seconds entries live in the local tier. An entry never lives locally
+	 * longer than the expiration it was set with.
+	 * @param seconds - seconds to keep entries locally, {@link Cache#NO_EXPIRATION} to rely on invalidation alone.
+	 */
+	public void setLocalExpireSeconds(int seconds){
+		localExpireSeconds = seconds;
+	}
+
+	/**
+	 * @return seconds entries live in the local tier.
+	 */
+	public int getLocalExpireSeconds(){
+		return localExpireSeconds;
+	}
+
+	/**
+	 * @param listener - {@link InvalidationListener} to add.
+	 */
+	public void addInvalidationListener(InvalidationListener listener){
+		invalidationListeners.add(listener);
+	}
+
+	/**
+	 * @param listener - {@link InvalidationListener} to remove.
+	 */
+	public void removeInvalidationListener(InvalidationListener listener){
+		invalidationListeners.remove(listener);
+	}
+
+	/**
+	 * Evicts the key from the local tier only, the next read will go to the remote tier.
+	 * Intended to be called when another node publishes a change to the key.
+	 * @param key - key to evict.
+	 */
+	public void invalidateLocal(String key){
+		local.remove(key);
+	}
+
+	/**
+	 * Evicts all keys from the local tier only.
+	 */
+	public void invalidateLocal(){
+		local.clear();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#get(java.lang.String)
+	 */
+	@Override
+	public Object get(String key) {
+		Object value = local.get(key);
+		if(value != null){
+			return value;
+		}
+
+		value = remote.get(key);
+		if(value != null){
+			local.set(key, value, localExpiration(DEFAULT_EXPIRATION));
+		}
+		return value;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#getBulk(java.util.List)
+	 */
+	@Override
+	public Map<String, Object> getBulk(List<String> keys) {
+		Map<String, Object> values = new HashMap<String, Object>();
+		Map<String, Object> localValues = local.getBulk(keys);
+
+		List<String> misses = new ArrayList<String>();
+		for(String key : keys){
+			Object value = (localValues == null) ? null : localValues.get(key);
+			if(value == null){
+				misses.add(key);
+			}
+			else{
+				values.put(key, value);
+			}
+		}
+		if(misses.isEmpty()){
+			return values;
+		}
+
+		Map<String, Object> remoteValues = remote.getBulk(misses);
+		if(remoteValues != null){
+			Map<String, Object> hits = new HashMap<String, Object>();
+			for(Map.Entry<String, Object> entry : remoteValues.entrySet()){
+				if(entry.getValue() != null){
+					hits.put(entry.getKey(), entry.getValue());
+				}
+			}
+			if(!hits.isEmpty()){
+				values.putAll(hits);
+				local.setBulk(hits, localExpiration(DEFAULT_EXPIRATION));
+			}
+		}
+		return values;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#set(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void set(String key, Object value) {
+		set(key, value, DEFAULT_EXPIRATION);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#set(java.lang.String, java.lang.Object, int)
+	 */
+	@Override
+	public void set(String key, Object value, int expiration) {
+		/*
+		 * Evict locally first, so that a failed remote write cannot leave
+		 * a value locally that the remote tier never received.
+		 */
+		local.remove(key);
+		remote.set(key, value, expiration);
+		if(value != null){
+			local.set(key, value, localExpiration(expiration));
+		}
+		fireInvalidatedEvent(key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values) {
+		setBulk(values, DEFAULT_EXPIRATION);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map, int)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values, int expiration) {
+		local.removeBulk(values.keySet());
+		remote.setBulk(values, expiration);
+
+		Map<String, Object> nonNull = new HashMap<String, Object>();
+		for(Map.Entry<String, Object> entry : values.entrySet()){
+			if(entry.getValue() != null){
+				nonNull.put(entry.getKey(), entry.getValue());
+			}
+		}
+		local.setBulk(nonNull, localExpiration(expiration));
+
+		for(String key : values.keySet()){
+			fireInvalidatedEvent(key);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#clear()
+	 */
+	@Override
+	public void clear() {
+		local.clear();
+		remote.clear();
+		fireInvalidatedAllEvent();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#remove(java.lang.String)
+	 */
+	@Override
+	public void remove(String key) {
+		local.remove(key);
+		remote.remove(key);
+		fireInvalidatedEvent(key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#removeBulk(java.util.Collection)
+	 */
+	@Override
+	public void removeBulk(Collection<String> keys) {
+		local.removeBulk(keys);
+		remote.removeBulk(keys);
+		for(String key : keys){
+			fireInvalidatedEvent(key);
+		}
+	}
+
+	/**
+	 * @return the expiration to use for the local tier, which never exceeds the requested expiration.
+	 */
+	private int localExpiration(int expiration){
+		int seconds = getLocalExpireSeconds();
+		if(expiration > 0 && (seconds == NO_EXPIRATION || expiration < seconds)){
+			return expiration;
+		}
+		return seconds;
+	}
+
+	/**
+	 * Fires the invalidated events.
+	 * @param key - Key that was changed.
+	 */
+	private void fireInvalidatedEvent(String key){
+		for(InvalidationListener listener : invalidationListeners){
+			try{
+				listener.invalidated(key);
+			}
+			catch(Exception e){
+				LOGGER.error("Exception occurred while handling an 'invalidated' event", e);
+			}
+		}
+	}
+
+	/**
+	 * Fires the invalidatedAll events.
+	 */
+	private void fireInvalidatedAllEvent(){
+		for(InvalidationListener listener : invalidationListeners){
+			try{
+				listener.invalidatedAll();
+			}
+			catch(Exception e){
+				LOGGER.error("Exception occurred while handling an 'invalidatedAll' event", e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>A hierarchical timer wheel used to expire cache entries in amortized O(1) time.</p>
+ * <p>Each wheel is an array of buckets (doubly linked lists) and covers a coarser time span than
+ * the wheel before it: roughly seconds, minutes, hours, days and an overflow wheel. A timer is placed
+ * in the wheel whose span covers its remaining duration. As time advances only the buckets that were
+ * passed over are visited, timers that have not yet expired cascade down into a finer wheel.</p>
+ * <p><b>NOTE:</b> This class is not thread-safe, callers must provide their own synchronization.</p>
+ *
+ * @author Dennis Crissman
+ *
+ * @param <T> - type of {@link Timer} scheduled on the wheel.
+ */
+final class TimerWheel<T extends TimerWheel.Timer> {
+
+	private static final int[] BUCKETS = new int[]{64, 64, 32, 4, 1};
+	private static final long[] SPANS = new long[]{
+		ceilingPowerOfTwo(TimeUnit.SECONDS.toNanos(1)), // 1.07s
+		ceilingPowerOfTwo(TimeUnit.MINUTES.toNanos(1)), // 1.14m
+		ceilingPowerOfTwo(TimeUnit.HOURS.toNanos(1)),   // 1.22h
+		ceilingPowerOfTwo(TimeUnit.DAYS.toNanos(1)),    // 1.63d
+		BUCKETS[3] * ceilingPowerOfTwo(TimeUnit.DAYS.toNanos(1)), // 6.5d
+		BUCKETS[3] * ceilingPowerOfTwo(TimeUnit.DAYS.toNanos(1)), // 6.5d
+	};
+	private static final long[] SHIFT = new long[]{
+		Long.numberOfTrailingZeros(SPANS[0]),
+		Long.numberOfTrailingZeros(SPANS[1]),
+		Long.numberOfTrailingZeros(SPANS[2]),
+		Long.numberOfTrailingZeros(SPANS[3]),
+		Long.numberOfTrailingZeros(SPANS[4]),
+	};
+
+	private final Timer[][] wheel;
+	private long nanos;
+
+	/**
+	 * @param currentTimeNanos - the current time, as read from the owning cache's {@link cacher.Ticker}.
+	 */
+	TimerWheel(long currentTimeNanos){
+		this.nanos = currentTimeNanos;
+		this.wheel = new Timer[BUCKETS.length][];
+		for(int i = 0; i < wheel.length; i++){
+			wheel[i] = new Timer[BUCKETS[i]];
+			for(int j = 0; j < wheel[i].length; j++){
+				wheel[i][j] = new Sentinel();
+			}
+		}
+	}
+
+	/**
+	 * Schedules (or reschedules) the timer to fire at its {@link Timer#getExpirationTime()}.
+	 * @param timer - {@link Timer} to schedule.
+	 */
+	void schedule(T timer){
+		deschedule(timer);
+		link(findBucket(timer.expirationTime), timer);
+	}
+
+	/**
+	 * Removes the timer from the wheel, if it is scheduled.
+	 * @param timer - {@link Timer} to remove.
+	 */
+	void deschedule(T timer){
+		if(timer.nextInWheel != null){
+			timer.prevInWheel.nextInWheel = timer.nextInWheel;
+			timer.nextInWheel.prevInWheel = timer.prevInWheel;
+			timer.prevInWheel = null;
+			timer.nextInWheel = null;
+		}
+	}
+
+	/**
+	 * Advances the wheel to the current time, returning every timer that has expired. Returned
+	 * timers are no longer scheduled.
+	 * @param currentTimeNanos - the current time.
+	 * @return List of expired timers, never <code>null</code>.
+	 */
+	List<T> advance(long currentTimeNanos){
+		long previousTimeNanos = nanos;
+		nanos = currentTimeNanos;
+
+		List<T> expired = null;
+		for(int i = 0; i < SHIFT.length; i++){
+			long previousTicks = previousTimeNanos >>> SHIFT[i];
+			long currentTicks = currentTimeNanos >>> SHIFT[i];
+			if((currentTicks - previousTicks) <= 0L){
+				break;
+			}
+			expired = expire(i, previousTicks, currentTicks - previousTicks, expired);
+		}
+
+		if(expired == null){
+			return Collections.emptyList();
+		}
+		return expired;
+	}
+
+	/**
+	 * Removes every timer from the wheel.
+	 */
+	void clear(){
+		for(Timer[] buckets : wheel){
+			for(Timer sentinel : buckets){
+				Timer timer = sentinel.nextInWheel;
+				while(timer != sentinel){
+					Timer next = timer.nextInWheel;
+					timer.prevInWheel = null;
+					timer.nextInWheel = null;
+					timer = next;
+				}
+				sentinel.prevInWheel = sentinel;
+				sentinel.nextInWheel = sentinel;
+			}
+		}
+	}
+
+	/**
+	 * Visits the buckets of the given wheel that time has passed over, collecting the expired timers and
+	 * cascading the rest down into a finer wheel.
+	 */
+	@SuppressWarnings("unchecked")
+	private List<T> expire(int index, long previousTicks, long delta, List<T> expired){
+		Timer[] timerWheel = wheel[index];
+		int mask = timerWheel.length - 1;
+		int steps = (int) Math.min(1 + delta, timerWheel.length);
+		int start = (int) (previousTicks & mask);
+		int end = start + steps;
+
+		List<T> results = expired;
+		for(int i = start; i < end; i++){
+			Timer sentinel = timerWheel[i & mask];
+			Timer timer = sentinel.nextInWheel;
+			sentinel.prevInWheel = sentinel;
+			sentinel.nextInWheel = sentinel;
+
+			while(timer != sentinel){
+				Timer next = timer.nextInWheel;
+				timer.prevInWheel = null;
+				timer.nextInWheel = null;
+
+				if((timer.expirationTime - nanos) > 0){
+					link(findBucket(timer.expirationTime), timer);
+				}
+				else{
+					if(results == null){
+						results = new ArrayList<T>();
+					}
+					results.add((T) timer);
+				}
+				timer = next;
+			}
+		}
+		return results;
+	}
+
+	private Timer findBucket(long time){
+		long duration = time - nanos;
+		int length = wheel.length - 1;
+		for(int i = 0; i < length; i++){
+			if(duration < SPANS[i + 1]){
+				long ticks = time >>> SHIFT[i];
+				int index = (int) (ticks & (wheel[i].length - 1));
+				return wheel[i][index];
+			}
+		}
+		return wheel[length][0];
+	}
+
+	private static void link(Timer sentinel, Timer timer){
+		timer.prevInWheel = sentinel.prevInWheel;
+		timer.nextInWheel = sentinel;
+		sentinel.prevInWheel.nextInWheel = timer;
+		sentinel.prevInWheel = timer;
+	}
+
+	private static long ceilingPowerOfTwo(long x){
+		return 1L << -Long.numberOfLeadingZeros(x - 1);
+	}
+
+	/**
+	 * An entry that can be scheduled on a {@link TimerWheel}.
+	 */
+	static class Timer {
+
+		long expirationTime;
+		Timer prevInWheel;
+		Timer nextInWheel;
+
+		/**
+		 * @return the time, in nanoseconds, that this timer should fire.
+		 */
+		long getExpirationTime(){
+			return expirationTime;
+		}
+
+		/**
+		 * Sets the time this timer should fire. Must be called before (re)scheduling the timer.
+		 * @param expirationTime - time in nanoseconds
+		 */
+		void setExpirationTime(long expirationTime){
+			this.expirationTime = expirationTime;
+		}
+
+		/**
+		 * @return <code>true</code> if this timer is currently scheduled on a wheel.
+		 */
+		boolean isScheduled(){
+			return nextInWheel != null;
+		}
+
+	}
+
+	/**
+	 * Head of each bucket's circular list.
+	 */
+	private static final class Sentinel extends Timer {
+
+		private Sentinel(){
+			prevInWheel = this;
+			nextInWheel = this;
+		}
+
+	}
+
+}
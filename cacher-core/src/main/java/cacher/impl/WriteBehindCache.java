@@ -0,0 +1,486 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.impl;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import cacher.Cache;
+
+/**
+ * <p>{@link Cache} decorator that applies writes to the underlying {@link Cache} in the background, so that
+ * callers such as {@link cacher.fetcher.FetchManager} do not wait on a remote cache after a miss.</p>
+ * <p>Sets and removes are recorded as pending and their keys placed on a bounded queue, which is drained by
+ * worker threads. If a key is written again before its pending write has been applied, only the latest write
+ * is applied. Reads see pending writes before they reach the underlying {@link Cache}.</p>
+ * <p>When the queue is full the write is handled according to the {@link OverflowPolicy}. Counters of queued,
+ * coalesced, dropped, written and failed writes are available for monitoring.</p>
+ * <p>{@link #clear()} is applied immediately, discarding every pending write. It waits for any write that is
+ * being applied to the underlying {@link Cache} to finish, so that the write cannot land after the clear.</p>
+ *
+ * @author Dennis Crissman
+ */
+public class WriteBehindCache implements Cache, Closeable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindCache.class);
+
+	public static final int DEFAULT_CAPACITY = 10000;
+	public static final int DEFAULT_WORKERS = 1;
+
+	/**
+	 * What to do with a write when the queue is full.
+	 */
+	public enum OverflowPolicy {
+		/** Discard the write. The underlying {@link Cache} keeps whatever it had for the key. */
+		DROP,
+		/** Apply the write to the underlying {@link Cache} on the calling thread. */
+		CALLER_RUNS
+	}
+
+	private final Cache cache;
+	private final BlockingQueue<String> queue;
+	private final ConcurrentMap<String, PendingWrite> pending = new ConcurrentHashMap<String, PendingWrite>();
+	private final List<Thread> workers = new ArrayList<Thread>();
+	private volatile OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+	private volatile boolean closed = false;
+
+	private final AtomicLong queuedCount = new AtomicLong();
+	private final AtomicLong coalescedCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final AtomicLong writtenCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+
+	/*
+	 * Writes are applied under the read lock and clear takes the write lock, so a write that clear
+	 * discarded from pending is never applied afterwards.
+	 */
+	private final ReadWriteLock clearLock = new ReentrantReadWriteLock();
+
+	/* Guarded by itself, number of queued keys that have not finished being written. */
+	private final Object outstandingLock = new Object();
+	private long outstanding = 0;
+
+	/**
+	 * Uses {@link #DEFAULT_CAPACITY} and {@link #DEFAULT_WORKERS}.
+	 * @param cache - underlying {@link Cache} to write to.
+	 */
+	public WriteBehindCache(Cache cache){
+		this(cache, DEFAULT_CAPACITY, DEFAULT_WORKERS);
+	}
+
+	/**
+	 * @param cache - underlying {@link Cache} to write to.
+	 * @param capacity - maximum number of keys waiting to be written.
+	 * @param workerCount - number of background threads writing to the underlying {@link Cache}.
+	 */
+	public WriteBehindCache(Cache cache, int capacity, int workerCount){
+		this(cache, newQueue(capacity), workerCount);
+	}
+
+	/**
+	 * @param cache - underlying {@link Cache} to write to.
+	 * @param queue - bounded queue of keys waiting to be written.
+	 * @param workerCount - number of background threads writing to the underlying {@link Cache}.
+	 */
+	WriteBehindCache(Cache cache, BlockingQueue<String> queue, int workerCount){
+		if(workerCount < 1){
+			throw new IllegalArgumentException("workerCount must be at least 1: " + workerCount);
+		}
+
+		this.cache = cache;
+		this.queue = queue;
+		for(int i = 0; i < workerCount; i++){
+			Thread worker = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					drain();
+				}
+			}, "cacher-write-behind-" + (i + 1));
+			worker.setDaemon(true);
+			workers.add(worker);
+			worker.start();
+		}
+	}
+
+	private static BlockingQueue<String> newQueue(int capacity){
+		if(capacity < 1){
+			throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+		}
+		return new LinkedBlockingQueue<String>(capacity);
+	}
+
+	public Cache getCache(){
+		return cache;
+	}
+
+	/**
+	 * Defaults to {@link OverflowPolicy#DROP}.
+	 * @param overflowPolicy - {@link OverflowPolicy}
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy){
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * @return {@link OverflowPolicy}
+	 */
+	public OverflowPolicy getOverflowPolicy(){
+		return overflowPolicy;
+	}
+
+	/**
+	 * @return number of writes placed on the queue.
+	 */
+	public long getQueuedCount(){
+		return queuedCount.get();
+	}
+
+	/**
+	 * @return number of writes that replaced a pending write for the same key.
+	 */
+	public long getCoalescedCount(){
+		return coalescedCount.get();
+	}
+
+	/**
+	 * @return number of writes discarded because the queue was full.
+	 */
+	public long getDroppedCount(){
+		return droppedCount.get();
+	}
+
+	/**
+	 * @return number of writes applied to the underlying {@link Cache}.
+	 */
+	public long getWrittenCount(){
+		return writtenCount.get();
+	}
+
+	/**
+	 * @return number of writes the underlying {@link Cache} threw an exception for.
+	 */
+	public long getFailedCount(){
+		return failedCount.get();
+	}
+
+	/**
+	 * @return number of keys with a write that has not yet been applied.
+	 */
+	public int getPendingCount(){
+		return pending.size();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#get(java.lang.String)
+	 */
+	@Override
+	public Object get(String key) {
+		PendingWrite write = pending.get(key);
+		if(write != null){
+			return write.value;
+		}
+		return cache.get(key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#getBulk(java.util.List)
+	 */
+	@Override
+	public Map<String, Object> getBulk(List<String> keys) {
+		Map<String, Object> values = new HashMap<String, Object>();
+		List<String> remaining = new ArrayList<String>();
+		for(String key : keys){
+			PendingWrite write = pending.get(key);
+			if(write == null){
+				remaining.add(key);
+			}
+			else if(write.value != null){
+				values.put(key, write.value);
+			}
+		}
+
+		if(!remaining.isEmpty()){
+			Map<String, Object> cached = cache.getBulk(remaining);
+			if(cached != null){
+				values.putAll(cached);
+			}
+		}
+		return values;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#set(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void set(String key, Object value) {
+		set(key, value, DEFAULT_EXPIRATION);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#set(java.lang.String, java.lang.Object, int)
+	 */
+	@Override
+	public void set(String key, Object value, int expiration) {
+		enqueue(key, new PendingWrite(value, expiration));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values) {
+		setBulk(values, DEFAULT_EXPIRATION);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map, int)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values, int expiration) {
+		for(Map.Entry<String, Object> entry : values.entrySet()){
+			set(entry.getKey(), entry.getValue(), expiration);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#clear()
+	 */
+	@Override
+	public void clear() {
+		clearLock.writeLock().lock();
+		try{
+			pending.clear();
+			cache.clear();
+		}
+		finally{
+			clearLock.writeLock().unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#remove(java.lang.String)
+	 */
+	@Override
+	public void remove(String key) {
+		enqueue(key, new PendingWrite(null, DEFAULT_EXPIRATION));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#removeBulk(java.util.Collection)
+	 */
+	@Override
+	public void removeBulk(Collection<String> keys) {
+		for(String key : keys){
+			remove(key);
+		}
+	}
+
+	/**
+	 * Waits for every queued write to be applied to the underlying {@link Cache}.
+	 * @param timeoutMillis - maximum milliseconds to wait.
+	 * @return <code>true</code> if every queued write was applied, <code>false</code> if the timeout elapsed.
+	 * @throws InterruptedException
+	 */
+	public boolean flush(long timeoutMillis) throws InterruptedException{
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		synchronized(outstandingLock){
+			while(outstanding > 0){
+				long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+				if(remaining <= 0){
+					return false;
+				}
+				outstandingLock.wait(remaining);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Stops the worker threads once the queued writes have been applied, waiting at most a few seconds.
+	 * Any later writes are applied on the calling thread.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		try{
+			if(!flush(TimeUnit.SECONDS.toMillis(5))){
+				LOGGER.warn("Closed with " + pending.size() + " writes still pending");
+			}
+		}
+		catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+		}
+		for(Thread worker : workers){
+			worker.interrupt();
+		}
+	}
+
+	private void enqueue(String key, PendingWrite write){
+		if(closed){
+			apply(key, write);
+			return;
+		}
+
+		if(pending.put(key, write) != null){
+			//A key is only ever queued once, the worker will pick up the latest write.
+			coalescedCount.incrementAndGet();
+			return;
+		}
+
+		if(offer(key)){
+			return;
+		}
+
+		if(getOverflowPolicy() == OverflowPolicy.CALLER_RUNS){
+			applyPending(key, write);
+			return;
+		}
+
+		PendingWrite dropped = write;
+		while(!pending.remove(key, dropped)){
+			/*
+			 * A later write was coalesced into this one while the queue was full. It was never queued
+			 * itself, so try queueing the key again rather than leave that write pending forever.
+			 */
+			if(offer(key)){
+				return;
+			}
+			dropped = pending.get(key);
+			if(dropped == null){
+				//Cleared in the meantime, so there is nothing left to drop.
+				return;
+			}
+		}
+		droppedCount.incrementAndGet();
+		LOGGER.debug("Write-behind queue is full, dropped write of key " + key);
+	}
+
+	private boolean offer(String key){
+		changeOutstanding(1);
+		if(queue.offer(key)){
+			queuedCount.incrementAndGet();
+			return true;
+		}
+		changeOutstanding(-1);
+		return false;
+	}
+
+	/**
+	 * Worker loop, applying the latest pending write of each queued key.
+	 */
+	private void drain(){
+		while(!Thread.currentThread().isInterrupted()){
+			String key;
+			try{
+				key = queue.take();
+			}
+			catch(InterruptedException e){
+				return;
+			}
+
+			try{
+				applyPending(key, pending.get(key));
+			}
+			finally{
+				changeOutstanding(-1);
+			}
+		}
+	}
+
+	/**
+	 * The key stays pending until its write has been applied, so a write that replaces it in the
+	 * meantime is not queued again. Keep applying until the applied write is the latest.
+	 */
+	private void applyPending(String key, PendingWrite write){
+		while(write != null){
+			apply(key, write);
+			if(pending.remove(key, write)){
+				return;
+			}
+			write = pending.get(key);
+		}
+	}
+
+	private void apply(String key, PendingWrite write){
+		clearLock.readLock().lock();
+		try{
+			if(pending.get(key) != write){
+				//Discarded by a clear, or replaced by a later write.
+				return;
+			}
+			if(write.value == null){
+				cache.remove(key);
+			}
+			else{
+				cache.set(key, write.value, write.expiration);
+			}
+			writtenCount.incrementAndGet();
+		}
+		catch(RuntimeException e){
+			failedCount.incrementAndGet();
+			LOGGER.error("Unable to write key " + key + " to the underlying cache", e);
+		}
+		finally{
+			clearLock.readLock().unlock();
+		}
+	}
+
+	private void changeOutstanding(int delta){
+		synchronized(outstandingLock){
+			outstanding += delta;
+			if(outstanding <= 0){
+				outstandingLock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * A set, or a remove if the value is <code>null</code>, waiting to be applied.
+	 */
+	private static final class PendingWrite {
+
+		private final Object value;
+		private final int expiration;
+
+		private PendingWrite(Object value, int expiration){
+			this.value = value;
+			this.expiration = expiration;
+		}
+
+	}
+
+}
@@ -13,6 +13,8 @@ package cacher;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
@@ -40,4 +42,26 @@ public class TestCacheUtils {
 		assertEquals(key, prefixedKey);
 	}
 
+	@Test
+	public void testJitterExpiration(){
+		for(int x = 0; x < 100; x++){
+			int seconds = CacheUtils.jitterExpiration(60, 10);
+			assertTrue(seconds >= 60 && seconds <= 70);
+		}
+	}
+
+	@Test
+	public void testJitterExpiration_NotExpiring(){
+		assertEquals(Cache.NO_EXPIRATION, CacheUtils.jitterExpiration(Cache.NO_EXPIRATION, 10));
+		assertEquals(60, CacheUtils.jitterExpiration(60, 0));
+	}
+
+	@Test
+	public void testEscapeKeyValue(){
+		String value = "plain";
+		assertSame(value, CacheUtils.escapeKeyValue(value, ':'));
+		assertEquals("a\\:b", CacheUtils.escapeKeyValue("a:b", ':'));
+		assertEquals("a\\\\\\:b\\\\", CacheUtils.escapeKeyValue("a\\:b\\", ':'));
+	}
+
 }
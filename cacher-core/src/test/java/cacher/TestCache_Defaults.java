@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class TestCache_Defaults {
+
+	/**
+	 * Implements only the abstract methods, as a third-party {@link Cache} written
+	 * against the original contract would.
+	 */
+	private static class MinimalCache implements Cache {
+
+		private final Map<String, Object> values = new HashMap<String, Object>();
+
+		@Override
+		public Object get(String key) {
+			return values.get(key);
+		}
+
+		@Override
+		public Map<String, Object> getBulk(List<String> keys) {
+			Map<String, Object> found = new HashMap<String, Object>();
+			for(String key : keys){
+				if(values.containsKey(key)){
+					found.put(key, values.get(key));
+				}
+			}
+			return found;
+		}
+
+		@Override
+		public void set(String key, Object value) {
+			values.put(key, value);
+		}
+
+		@Override
+		public void clear() {
+			values.clear();
+		}
+
+		@Override
+		public void remove(String key) {
+			values.remove(key);
+		}
+
+	}
+
+	private final MinimalCache cache = new MinimalCache();
+
+	@Test
+	public void testSetWithExpiration(){
+		cache.set("a", "value-a", 10);
+
+		assertEquals("value-a", cache.get("a"));
+	}
+
+	@Test
+	public void testSetBulk(){
+		Map<String, Object> values = new HashMap<String, Object>();
+		values.put("a", "value-a");
+		values.put("b", "value-b");
+
+		cache.setBulk(values);
+
+		assertEquals(values, cache.values);
+	}
+
+	@Test
+	public void testSetBulkWithExpiration(){
+		Map<String, Object> values = new HashMap<String, Object>();
+		values.put("a", "value-a");
+
+		cache.setBulk(values, 10);
+
+		assertEquals("value-a", cache.get("a"));
+	}
+
+	@Test
+	public void testRemoveBulk(){
+		cache.set("a", "value-a");
+		cache.set("b", "value-b");
+		cache.set("c", "value-c");
+
+		cache.removeBulk(Arrays.asList("a", "b"));
+
+		assertNull(cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals("value-c", cache.get("c"));
+	}
+
+}
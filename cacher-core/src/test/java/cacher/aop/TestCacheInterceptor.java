@@ -32,9 +32,7 @@ public class TestCacheInterceptor{
 
 		MethodInvocation invocation = EasyMock.createMock(MethodInvocation.class);
 		reset(invocation);
-		expect(invocation.getArguments()).andReturn(new Object[0]).once();
 		expect(invocation.getMethod()).andReturn(getClass().getMethod("testNullFetcher")).once();
-		expect(invocation.getArguments()).andReturn(new Object[0]).once();
 		expect(invocation.proceed()).andReturn(rtn).once();
 		replay(invocation);
 
@@ -51,9 +49,7 @@ public class TestCacheInterceptor{
 
 		MethodInvocation invocation = EasyMock.createMock(MethodInvocation.class);
 		reset(invocation);
-		expect(invocation.getArguments()).andReturn(new Object[0]).once();
 		expect(invocation.getMethod()).andReturn(getClass().getMethod("testMissingAnnotation")).times(2);
-		expect(invocation.getArguments()).andReturn(new Object[0]).once();
 		expect(invocation.proceed()).andReturn(rtn).once();
 		replay(invocation);
 
@@ -0,0 +1,371 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.aop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.Before;
+import org.junit.Test;
+
+import testframework.util.FakeTicker;
+import cacher.aop.FetcherMethod.Coalescing;
+import cacher.aop.impl.simple.CacheKey;
+import cacher.Cache;
+import cacher.fetcher.FetchManager;
+import cacher.impl.InMemoryCache;
+
+public class TestCacheInterceptor_InvocationPlan {
+
+	private static final AtomicInteger CREATED = new AtomicInteger();
+
+	private InMemoryCache cache;
+	private CacheInterceptor interceptor;
+	private final TestHelper helper = new TestHelper();
+
+	@Before
+	public void before(){
+		CREATED.set(0);
+		cache = new InMemoryCache();
+		interceptor = new CacheInterceptor(new FetchManager(cache));
+	}
+
+	private Object invoke(String methodName, Object... arguments) throws Throwable{
+		for(Method method : TestHelper.class.getMethods()){
+			if(method.getName().equals(methodName)){
+				return interceptor.invoke(new FakeInvocation(helper, method, arguments));
+			}
+		}
+		throw new IllegalArgumentException(methodName);
+	}
+
+	@Test
+	public void testSharedKeyGenerator() throws Throwable{
+		assertEquals("value-key1", invoke("getShared", "key1"));
+		assertEquals("value-key2", invoke("getShared", "key2"));
+		assertEquals("value-key1", invoke("getShared", "key1"));
+
+		assertEquals(1, CREATED.get());
+		assertEquals(2, helper.calls.get());
+		assertEquals("value-key2", cache.get("key2"));
+	}
+
+	@Test
+	public void testInvocationAwareKeyGenerator() throws Throwable{
+		assertEquals("value-key1", invoke("getPerInvocation", "key1"));
+		assertEquals("value-key1", invoke("getPerInvocation", "key1"));
+
+		assertEquals(2, CREATED.get());
+		assertEquals(1, helper.calls.get());
+	}
+
+	@Test
+	public void testSimpleKeyGeneratorAndCleaner() throws Throwable{
+		@SuppressWarnings("unchecked")
+		Map<String, String> first = (Map<String, String>) invoke("getBulk", "ignored", Arrays.asList("a", "b"));
+		@SuppressWarnings("unchecked")
+		Map<String, String> second = (Map<String, String>) invoke("getBulk", "ignored", Arrays.asList("b", "c"));
+
+		assertEquals("value-a", first.get("a"));
+		assertEquals("value-b", second.get("b"));
+		assertEquals("value-c", second.get("c"));
+		assertEquals(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c")), helper.bulkRequests);
+	}
+
+	@Test
+	public void testMisconfiguredMethodProceeds() throws Throwable{
+		assertEquals("value-key1", invoke("getWithoutCacheKey", "key1"));
+		assertEquals("value-key1", invoke("getWithoutCacheKey", "key1"));
+
+		assertEquals(2, helper.calls.get());
+		assertNull(cache.get("key1"));
+	}
+
+	@Test
+	public void testCompositeKey() throws Throwable{
+		assertEquals("value-sku1-us", invoke("getPrice", "sku1", "us"));
+		assertEquals("value-sku1-us", cache.get("sku1:us"));
+	}
+
+	@Test
+	public void testCompositeKey_Bulk() throws Throwable{
+		@SuppressWarnings("unchecked")
+		Map<String, String> first = (Map<String, String>) invoke("getPrices", Arrays.asList("a", "b"), "us");
+		@SuppressWarnings("unchecked")
+		Map<String, String> second = (Map<String, String>) invoke("getPrices", Arrays.asList("b", "c"), "us");
+		@SuppressWarnings("unchecked")
+		Map<String, String> other = (Map<String, String>) invoke("getPrices", Arrays.asList("b"), "eu");
+
+		assertEquals("value-a-us", first.get("a"));
+		assertEquals("value-c-us", second.get("c"));
+		assertEquals("value-b-eu", other.get("b"));
+		assertEquals("value-b-us", cache.get("us:b"));
+		assertEquals(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c"), Arrays.asList("b")), helper.bulkRequests);
+	}
+
+	@Test
+	public void testAsync() throws Throwable{
+		@SuppressWarnings("unchecked")
+		CompletableFuture<String> first = (CompletableFuture<String>) invoke("getAsync", "key1");
+		assertFalse(first.isDone());
+
+		helper.pending.get(0).complete("value-key1");
+		assertEquals("value-key1", first.get());
+		assertEquals("value-key1", cache.get("key1"));
+
+		@SuppressWarnings("unchecked")
+		CompletableFuture<String> second = (CompletableFuture<String>) invoke("getAsync", "key1");
+		assertEquals("value-key1", second.get());
+		assertEquals(1, helper.calls.get());
+	}
+
+	@Test
+	public void testAsync_FetcherFails() throws Throwable{
+		IOException failure = new IOException("fake");
+
+		@SuppressWarnings("unchecked")
+		CompletableFuture<String> result = (CompletableFuture<String>) invoke("getAsync", "key1");
+		helper.pending.get(0).completeExceptionally(failure);
+
+		try{
+			result.get();
+			fail("Expected the FetcherMethod's exception");
+		}
+		catch(ExecutionException e){
+			assertSame(failure, e.getCause());
+		}
+		assertNull(cache.get("key1"));
+		assertEquals(1, helper.calls.get());
+	}
+
+	@Test
+	public void testAsync_Bulk() throws Throwable{
+		@SuppressWarnings("unchecked")
+		Map<String, String> first = ((CompletableFuture<Map<String, String>>) invoke("getBulkAsync", Arrays.asList("a", "b"))).get();
+		@SuppressWarnings("unchecked")
+		Map<String, String> second = ((CompletableFuture<Map<String, String>>) invoke("getBulkAsync", Arrays.asList("b", "c"))).get();
+
+		assertEquals("value-a", first.get("a"));
+		assertEquals("value-b", second.get("b"));
+		assertEquals("value-c", second.get("c"));
+		assertEquals(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c")), helper.bulkRequests);
+	}
+
+	@Test
+	public void testNamedCache() throws Throwable{
+		FakeTicker ticker = new FakeTicker();
+		InMemoryCache localCache = new InMemoryCache(ticker);
+		FetchManager local = new FetchManager(localCache);
+		interceptor.setFetchManagers(Collections.singletonMap("local", local));
+
+		assertEquals("value-key1", invoke("getLocal", "key1"));
+		assertEquals("value-key1", localCache.get("key1"));
+		assertNull(cache.get("key1"));
+
+		ticker.advance(31, TimeUnit.SECONDS);
+		assertNull(localCache.get("key1"));
+		assertEquals(Cache.DEFAULT_EXPIRATION, local.getExpireSeconds());
+		assertFalse(local.isCoalescing());
+	}
+
+	@Test
+	public void testNamedCache_NotRegistered() throws Throwable{
+		assertEquals("value-key1", invoke("getLocal", "key1"));
+		assertEquals("value-key1", invoke("getLocal", "key1"));
+
+		assertEquals(2, helper.calls.get());
+		assertNull(cache.get("key1"));
+	}
+
+	@Test
+	public void testNegativeExpiration() throws Throwable{
+		assertNull(invoke("getMissing", "key1"));
+		assertNull(invoke("getMissing", "key1"));
+
+		assertEquals(1, helper.calls.get());
+		assertEquals(0, interceptor.getFetchManager().getNegativeExpireSeconds());
+	}
+
+	public static class TestHelper{
+
+		@FetcherMethod(cache = "local", expiration = 30, coalescing = Coalescing.ENABLED)
+		public String getLocal(@CacheKey String key){
+			calls.incrementAndGet();
+			return "value-" + key;
+		}
+
+		@FetcherMethod(negativeExpiration = 60)
+		public String getMissing(@CacheKey String key){
+			calls.incrementAndGet();
+			return null;
+		}
+
+		private final List<CompletableFuture<String>> pending = new ArrayList<CompletableFuture<String>>();
+
+		@FetcherMethod
+		public CompletableFuture<String> getAsync(@CacheKey String key){
+			calls.incrementAndGet();
+			CompletableFuture<String> future = new CompletableFuture<String>();
+			pending.add(future);
+			return future;
+		}
+
+		@FetcherMethod(fetchBulk = true)
+		public CompletableFuture<Map<String, String>> getBulkAsync(@CacheKey List<String> keys){
+			bulkRequests.add(keys);
+			Map<String, String> values = new HashMap<String, String>();
+			for(String key : keys){
+				values.put(key, "value-" + key);
+			}
+			return CompletableFuture.completedFuture(values);
+		}
+
+		@FetcherMethod
+		public String getPrice(@CacheKey String sku, @CacheKey String region){
+			return "value-" + sku + "-" + region;
+		}
+
+		@FetcherMethod(fetchBulk = true)
+		public Map<String, String> getPrices(@CacheKey(order = 1) List<String> skus, @CacheKey String region){
+			bulkRequests.add(skus);
+			Map<String, String> values = new HashMap<String, String>();
+			for(String sku : skus){
+				values.put(sku, "value-" + sku + "-" + region);
+			}
+			return values;
+		}
+
+		private final AtomicInteger calls = new AtomicInteger();
+		private final List<List<String>> bulkRequests = new ArrayList<List<String>>();
+
+		@FetcherMethod(keyGenerator = CountingKeyGenerator.class)
+		public String getShared(@CacheKey String key){
+			calls.incrementAndGet();
+			return "value-" + key;
+		}
+
+		@FetcherMethod(keyGenerator = InvocationAwareKeyGenerator.class)
+		public String getPerInvocation(@CacheKey String key){
+			calls.incrementAndGet();
+			return "value-" + key;
+		}
+
+		@FetcherMethod
+		public String getWithoutCacheKey(String key){
+			calls.incrementAndGet();
+			return "value-" + key;
+		}
+
+		@FetcherMethod(fetchBulk = true)
+		public Map<String, String> getBulk(String other, @CacheKey List<String> keys){
+			bulkRequests.add(keys);
+			Map<String, String> values = new HashMap<String, String>();
+			for(String key : keys){
+				values.put(key, "value-" + key);
+			}
+			return values;
+		}
+
+	}
+
+	public static class CountingKeyGenerator implements KeyGenerator{
+
+		public CountingKeyGenerator(){
+			CREATED.incrementAndGet();
+		}
+
+		@Override
+		public String generateKey(Object[] arguments) {
+			return arguments[0].toString();
+		}
+
+		@Override
+		public List<String> generateKeys(Object[] arguments) {
+			throw new UnsupportedOperationException("This method should not be being called.");
+		}
+
+	}
+
+	public static class InvocationAwareKeyGenerator extends CountingKeyGenerator implements MethodInvocationAware{
+
+		private MethodInvocation invocation;
+
+		@Override
+		public void setMethodInvocation(MethodInvocation invocation) {
+			this.invocation = invocation;
+		}
+
+		@Override
+		public String generateKey(Object[] arguments) {
+			return invocation.getArguments()[0].toString();
+		}
+
+	}
+
+	private static class FakeInvocation implements MethodInvocation{
+
+		private final Object target;
+		private final Method method;
+		private final Object[] arguments;
+
+		private FakeInvocation(Object target, Method method, Object[] arguments){
+			this.target = target;
+			this.method = method;
+			this.arguments = arguments;
+		}
+
+		@Override
+		public Method getMethod() {
+			return method;
+		}
+
+		@Override
+		public Object[] getArguments() {
+			return arguments;
+		}
+
+		@Override
+		public Object proceed() throws Throwable {
+			return method.invoke(target, arguments);
+		}
+
+		@Override
+		public Object getThis() {
+			return target;
+		}
+
+		@Override
+		public AccessibleObject getStaticPart() {
+			return method;
+		}
+
+	}
+
+}
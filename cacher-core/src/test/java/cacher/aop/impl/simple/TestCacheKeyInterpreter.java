@@ -11,6 +11,7 @@
 
 package cacher.aop.impl.simple;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -84,6 +85,31 @@ public class TestCacheKeyInterpreter implements Module{
 		assertEquals(1, interpreter.findKeyPosition());
 	}
 
+	@Test
+	public void testFindKeyPosition_FromMethod() throws NoSuchMethodException{
+		interpreter.setMethod(TestHelper.class.getMethod("singleCacheKey", String.class, String.class, String.class));
+		assertEquals(1, interpreter.findKeyPosition());
+	}
+
+	@Test(expected = MultipleKeyException.class)
+	public void testFindKeyPosition_FromMethod_MultipleKeyException() throws NoSuchMethodException{
+		interpreter.setMethod(TestHelper.class.getMethod("multipleCacheKeys", String.class, String.class));
+		interpreter.findKeyPosition();
+	}
+
+	@Test
+	public void testFindKeyPositions() throws NoSuchMethodException{
+		assertArrayEquals(new int[]{0, 1},
+				CacheKeyInterpreter.findKeyPositions(TestHelper.class.getMethod("multipleCacheKeys", String.class, String.class)));
+		assertArrayEquals(new int[]{2, 0, 1},
+				CacheKeyInterpreter.findKeyPositions(TestHelper.class.getMethod("orderedCacheKeys", String.class, String.class, String.class)));
+	}
+
+	@Test(expected = NoKeyException.class)
+	public void testFindKeyPositions_NoKeyException() throws NoSuchMethodException{
+		CacheKeyInterpreter.findKeyPositions(TestHelper.class.getMethod("noCacheKey"));
+	}
+
 	@Test(expected = ConversionException.class)
 	public void testConvertToList_ConversionException(){
 		interpreter.convertToList("not a collection");
@@ -115,6 +141,11 @@ public class TestCacheKeyInterpreter implements Module{
 			//Do Nothing!
 		}
 
+		@TestMethod
+		public void orderedCacheKeys(@CacheKey(order = 1) String key1, @CacheKey(order = 1) String key2, @CacheKey String key3){
+			//Do Nothing!
+		}
+
 		@TestMethod
 		public void singleCacheKey(@OtherParamAnnotation String someValue, @CacheKey String key, String someOtherValue){
 			//Do Nothing!
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.aop.impl.simple;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import cacher.aop.impl.simple.CacheKeyInterpreter.ConversionException;
+import cacher.aop.impl.simple.CacheKeyInterpreter.MultipleKeyException;
+
+public class TestKeyExtractor {
+
+	private static KeyExtractor forMethod(String name) {
+		for(Method method : TestHelper.class.getMethods()){
+			if(method.getName().equals(name)){
+				return KeyExtractor.forMethod(method);
+			}
+		}
+		throw new IllegalArgumentException(name);
+	}
+
+	@Test
+	public void testSingle(){
+		KeyExtractor extractor = forMethod("single");
+		assertEquals(1, extractor.getPosition());
+		assertEquals("42", extractor.extractKey(new Object[]{"other", 42L}));
+	}
+
+	@Test
+	public void testList(){
+		KeyExtractor extractor = forMethod("list");
+		Object[] arguments = new Object[]{Arrays.asList(1, 2, 3)};
+
+		assertEquals(Arrays.asList("1", "2", "3"), extractor.extractKeys(arguments));
+
+		extractor.clean(arguments, Arrays.asList("2"));
+		assertEquals(Arrays.asList("2"), arguments[0]);
+	}
+
+	@Test
+	public void testSet(){
+		KeyExtractor extractor = forMethod("set");
+		Object[] arguments = new Object[]{new LinkedHashSet<String>(Arrays.asList("a", "b"))};
+
+		assertEquals(Arrays.asList("a", "b"), extractor.extractKeys(arguments));
+
+		extractor.clean(arguments, Arrays.asList("b"));
+		assertTrue(arguments[0] instanceof Set);
+		assertEquals(new LinkedHashSet<String>(Arrays.asList("b")), arguments[0]);
+	}
+
+	@Test
+	public void testObjectArray(){
+		KeyExtractor extractor = forMethod("integerArray");
+		Object[] arguments = new Object[]{new Integer[]{1, 2, 3}, "other"};
+
+		assertEquals(Arrays.asList("1", "2", "3"), extractor.extractKeys(arguments));
+
+		extractor.clean(arguments, Arrays.asList("1", "3"));
+		assertArrayEquals(new Integer[]{1, 3}, (Integer[]) arguments[0]);
+	}
+
+	@Test
+	public void testLongArray(){
+		KeyExtractor extractor = forMethod("longArray");
+		Object[] arguments = new Object[]{new long[]{10L, 20L, 30L}};
+
+		assertEquals(Arrays.asList("10", "20", "30"), extractor.extractKeys(arguments));
+
+		extractor.clean(arguments, Arrays.asList("20"));
+		assertArrayEquals(new long[]{20L}, (long[]) arguments[0]);
+	}
+
+	@Test
+	public void testIntArray(){
+		KeyExtractor extractor = forMethod("intArray");
+		Object[] arguments = new Object[]{new int[]{1, 2}};
+
+		assertEquals(Arrays.asList("1", "2"), extractor.extractKeys(arguments));
+
+		extractor.clean(arguments, Arrays.asList("1"));
+		assertArrayEquals(new int[]{1}, (int[]) arguments[0]);
+	}
+
+	@Test
+	public void testObject(){
+		KeyExtractor extractor = forMethod("object");
+
+		assertEquals(Arrays.asList("1", "2"), extractor.extractKeys(new Object[]{new long[]{1L, 2L}}));
+		assertEquals(Arrays.asList("a"), extractor.extractKeys(new Object[]{Arrays.asList("a")}));
+	}
+
+	@Test(expected = ConversionException.class)
+	public void testObject_ConversionException(){
+		forMethod("object").extractKeys(new Object[]{"not a collection"});
+	}
+
+	@Test
+	public void testComposite(){
+		KeyExtractor extractor = forMethod("price");
+		assertEquals("sku1:us:USD", extractor.extractKey(new Object[]{"sku1", "USD", "us"}));
+	}
+
+	@Test
+	public void testComposite_SeparatorEscaped(){
+		KeyExtractor extractor = forMethod("price");
+		assertEquals("a\\:b:c:d", extractor.extractKey(new Object[]{"a:b", "d", "c"}));
+		assertEquals("a:b\\:c:d", extractor.extractKey(new Object[]{"a", "d", "b:c"}));
+		assertEquals("a\\\\:b:c", extractor.extractKey(new Object[]{"a\\", "c", "b"}));
+	}
+
+	@Test(expected = MultipleKeyException.class)
+	public void testComposite_GetPosition(){
+		forMethod("price").getPosition();
+	}
+
+	@Test(expected = ConversionException.class)
+	public void testComposite_NoFanOut(){
+		forMethod("price").extractKeys(new Object[]{"sku1", "USD", "us"});
+	}
+
+	@Test
+	public void testComposite_Bulk(){
+		KeyExtractor extractor = forMethod("prices");
+		Object[] arguments = new Object[]{"us", new String[]{"sku1", "sku2"}, 7};
+
+		assertEquals("7:us:", extractor.extractPrefix(arguments));
+		assertEquals(Arrays.asList("sku1", "sku2"), extractor.extractKeys(arguments));
+
+		extractor.clean(arguments, Arrays.asList("sku2"));
+		assertArrayEquals(new String[]{"sku2"}, (String[]) arguments[1]);
+		assertEquals("us", arguments[0]);
+	}
+
+	@Test
+	public void testComposite_Bulk_SeparatorEscaped(){
+		KeyExtractor extractor = forMethod("prices");
+
+		assertEquals("7:u\\:s:", extractor.extractPrefix(new Object[]{"u:s", new String[]{"sku1"}, 7}));
+	}
+
+	@Test
+	public void testSingleKey_NoPrefix(){
+		assertEquals("", forMethod("list").extractPrefix(new Object[]{Arrays.asList(1)}));
+	}
+
+	public static class TestHelper{
+
+		public void price(@CacheKey String sku, @CacheKey(order = 2) String currency, @CacheKey(order = 1) String region){
+			//Do Nothing!
+		}
+
+		public void prices(@CacheKey(order = 1) String region, @CacheKey String[] skus, @CacheKey int store){
+			//Do Nothing!
+		}
+
+		public void single(String other, @CacheKey long key){
+			//Do Nothing!
+		}
+
+		public void list(@CacheKey List<Integer> keys){
+			//Do Nothing!
+		}
+
+		public void set(@CacheKey Set<String> keys){
+			//Do Nothing!
+		}
+
+		public void integerArray(@CacheKey Integer[] keys, String other){
+			//Do Nothing!
+		}
+
+		public void longArray(@CacheKey long[] keys){
+			//Do Nothing!
+		}
+
+		public void intArray(@CacheKey int[] keys){
+			//Do Nothing!
+		}
+
+		public void object(@CacheKey Object keys){
+			//Do Nothing!
+		}
+
+	}
+
+}
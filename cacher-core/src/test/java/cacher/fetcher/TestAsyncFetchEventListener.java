@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import cacher.impl.InMemoryCache;
+
+public class TestAsyncFetchEventListener {
+
+	private final RecordingListener listener = new RecordingListener();
+	private AsyncFetchEventListener asyncListener;
+
+	@After
+	public void after(){
+		listener.release.countDown();
+		if(asyncListener != null){
+			asyncListener.close();
+		}
+	}
+
+	private static class RecordingListener implements FetchEventListener {
+
+		private final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+		private final List<String> threads = Collections.synchronizedList(new ArrayList<String>());
+		private volatile CountDownLatch release = new CountDownLatch(0);
+
+		@Override
+		public void fetchedFromCache(List<String> keys) {
+			record("cache" + keys);
+		}
+
+		@Override
+		public void fetchedFromFetcher(List<String> keys) {
+			record("fetcher" + keys);
+		}
+
+		@Override
+		public void fetchedNegativeFromCache(List<String> keys) {
+			record("negative" + keys);
+		}
+
+		private void record(String event){
+			try{
+				release.await(5, TimeUnit.SECONDS);
+			}
+			catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+			threads.add(Thread.currentThread().getName());
+			events.add(event);
+		}
+
+	}
+
+	private void awaitEvents(int count) throws InterruptedException{
+		long deadline = System.currentTimeMillis() + 5000;
+		while(listener.events.size() < count && System.currentTimeMillis() < deadline){
+			Thread.sleep(5);
+		}
+	}
+
+	@Test
+	public void testDispatchedInBackground() throws Exception{
+		asyncListener = new AsyncFetchEventListener(Arrays.<FetchEventListener>asList(listener));
+		asyncListener.start();
+
+		asyncListener.fetchedFromCache(Arrays.asList("key1"));
+		asyncListener.fetchedFromFetcher(Arrays.asList("key2"));
+		asyncListener.fetchedNegativeFromCache(Arrays.asList("key3"));
+		awaitEvents(3);
+
+		assertEquals(Arrays.asList("cache[key1]", "fetcher[key2]", "negative[key3]"), listener.events);
+		assertEquals(Collections.nCopies(3, "cacher-fetch-events"), listener.threads);
+		assertEquals(3, asyncListener.getDispatchedCount());
+	}
+
+	@Test
+	public void testSlowListenerDoesNotBlock() throws Exception{
+		listener.release = new CountDownLatch(1);
+		asyncListener = new AsyncFetchEventListener(Arrays.<FetchEventListener>asList(listener), 4);
+		asyncListener.start();
+
+		long start = System.nanoTime();
+		for(int x = 0; x < 20; x++){
+			asyncListener.fetchedFromCache(Arrays.asList("key" + x));
+		}
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+		assertTrue(asyncListener.getDroppedCount() > 0);
+
+		listener.release.countDown();
+		awaitEvents((int) (20 - asyncListener.getDroppedCount()));
+		assertEquals(20, listener.events.size() + asyncListener.getDroppedCount());
+	}
+
+	@Test
+	public void testAggregated() throws Exception{
+		listener.release = new CountDownLatch(1);
+		asyncListener = new AsyncFetchEventListener(Arrays.<FetchEventListener>asList(listener));
+		asyncListener.start();
+		asyncListener.setAggregationMillis(100);
+
+		for(int x = 0; x < 5; x++){
+			asyncListener.fetchedFromCache(Arrays.asList("key" + x));
+		}
+		asyncListener.fetchedFromFetcher(Arrays.asList("other"));
+		listener.release.countDown();
+		awaitEvents(2);
+		Thread.sleep(50);
+
+		assertEquals(Arrays.asList("cache[key0, key1, key2, key3, key4]", "fetcher[other]"), listener.events);
+	}
+
+	@Test
+	public void testCloseDispatchesPublishedEvents(){
+		asyncListener = new AsyncFetchEventListener(Arrays.<FetchEventListener>asList(listener));
+		asyncListener.start();
+		asyncListener.setAggregationMillis(60000);
+
+		asyncListener.fetchedFromCache(Arrays.asList("key1"));
+		asyncListener.fetchedFromCache(Arrays.asList("key2"));
+		asyncListener.close();
+
+		assertEquals(Arrays.asList("cache[key1, key2]"), listener.events);
+	}
+
+	@Test
+	public void testPublishedBeforeStart() throws Exception{
+		asyncListener = new AsyncFetchEventListener(Arrays.<FetchEventListener>asList(listener));
+
+		asyncListener.fetchedFromCache(Arrays.asList("key1"));
+		Thread.sleep(50);
+		assertTrue(listener.events.isEmpty());
+
+		asyncListener.start();
+		awaitEvents(1);
+		assertEquals(Arrays.asList("cache[key1]"), listener.events);
+	}
+
+	@Test
+	public void testIdleUntilPublished() throws Exception{
+		asyncListener = new AsyncFetchEventListener(Arrays.<FetchEventListener>asList(listener));
+		asyncListener.start();
+		Thread dispatcher = dispatcherThread();
+
+		//Parked without a timeout, rather than polling, when there is nothing to dispatch.
+		long deadline = System.currentTimeMillis() + 5000;
+		while(dispatcher.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline){
+			Thread.sleep(5);
+		}
+		assertEquals(Thread.State.WAITING, dispatcher.getState());
+
+		asyncListener.fetchedFromCache(Arrays.asList("key1"));
+		awaitEvents(1);
+		assertEquals(Arrays.asList("cache[key1]"), listener.events);
+	}
+
+	private static Thread dispatcherThread(){
+		for(Thread thread : Thread.getAllStackTraces().keySet()){
+			if("cacher-fetch-events".equals(thread.getName()) && thread.isAlive()){
+				return thread;
+			}
+		}
+		throw new AssertionError("Dispatch thread is not running");
+	}
+
+	@Test
+	public void testFetchManager() throws Exception{
+		asyncListener = new AsyncFetchEventListener(Arrays.<FetchEventListener>asList(listener));
+		asyncListener.start();
+		FetchManager manager = new FetchManager(new InMemoryCache(), Arrays.<FetchEventListener>asList(asyncListener));
+		FetchMultipleOneAtATime<String> fetcher = new FetchMultipleOneAtATime<String>() {
+
+			@Override
+			public Class<String> getType() {
+				return String.class;
+			}
+
+			@Override
+			public String fetch(String key) {
+				return "value";
+			}
+		};
+
+		manager.fetchSingle("key", fetcher);
+		manager.fetchSingle("key", fetcher);
+		awaitEvents(2);
+
+		assertEquals(Arrays.asList("fetcher[key]", "cache[key]"), listener.events);
+	}
+
+}
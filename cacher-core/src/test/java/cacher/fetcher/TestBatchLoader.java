@@ -0,0 +1,247 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.After;
+import org.junit.Test;
+
+import cacher.CacheUtils;
+import cacher.impl.InMemoryCache;
+
+public class TestBatchLoader {
+
+	private static final String GROUP = "group";
+
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final InMemoryCache cache = new InMemoryCache();
+	private final FetchManager manager = new FetchManager(cache);
+	private final RecordingFetcher fetcher = new RecordingFetcher();
+
+	@After
+	public void after(){
+		scheduler.shutdownNow();
+		executor.shutdownNow();
+	}
+
+	private static class RecordingFetcher implements FetchMultiple<String> {
+
+		private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<List<String>>());
+		private final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+		private volatile RuntimeException failure;
+
+		@Override
+		public Class<String> getType() {
+			return String.class;
+		}
+
+		@Override
+		public Map<String, String> fetch(List<String> keys) {
+			batches.add(new ArrayList<String>(keys));
+			threads.add(Thread.currentThread());
+			if(failure != null){
+				throw failure;
+			}
+			Map<String, String> values = new HashMap<String, String>();
+			for(String key : keys){
+				if(!key.startsWith("missing")){
+					values.put(key, "value-" + key);
+				}
+			}
+			return values;
+		}
+
+	}
+
+	@Test
+	public void testBatchedWithinDelay() throws Exception{
+		BatchLoader<String> loader = new BatchLoader<String>(manager, GROUP, fetcher, scheduler, executor);
+		loader.setMaxDelayMillis(50);
+
+		List<CompletableFuture<String>> futures = new ArrayList<CompletableFuture<String>>();
+		for(int x = 0; x < 10; x++){
+			futures.add(loader.load("key" + x));
+		}
+		futures.add(loader.load("missing"));
+
+		for(int x = 0; x < 10; x++){
+			assertEquals("value-key" + x, futures.get(x).get());
+		}
+		assertNull(futures.get(10).get());
+		assertEquals(1, fetcher.batches.size());
+		assertEquals(11, fetcher.batches.get(0).size());
+		assertEquals("value-key3", cache.get(CacheUtils.prefixedKey(GROUP, "key3")));
+	}
+
+	@Test
+	public void testScheduledBatchLoadedOnExecutor() throws Exception{
+		Thread schedulerThread = schedulerThread();
+		BatchLoader<String> loader = new BatchLoader<String>(manager, GROUP, fetcher, scheduler, executor);
+		loader.setMaxDelayMillis(10);
+
+		assertEquals("value-key", loader.fetchSingle("key"));
+		assertEquals(1, fetcher.threads.size());
+		assertTrue(fetcher.threads.get(0) != schedulerThread);
+		assertTrue(fetcher.threads.get(0) != Thread.currentThread());
+	}
+
+	@Test
+	public void testStaleScheduledDispatchIgnored() throws Exception{
+		Thread schedulerThread = schedulerThread();
+		BatchLoader<String> loader = new BatchLoader<String>(manager, GROUP, fetcher, scheduler, executor);
+		loader.setMaxDelayMillis(10);
+
+		CompletableFuture<String> future1 = loader.load("key1");
+		CompletableFuture<String> future2;
+		loader.setMaxDelayMillis(60000);
+		synchronized(loader){
+			//Let the scheduled dispatch fire, and block it until its batch has been sent.
+			while(schedulerThread.getState() != Thread.State.BLOCKED){
+				Thread.sleep(1);
+			}
+			loader.dispatch();
+			future2 = loader.load("key2");
+		}
+
+		assertEquals("value-key1", future1.get());
+		Thread.sleep(50);
+		assertFalse(future2.isDone());
+		assertEquals(1, loader.getPendingCount());
+		assertEquals(Arrays.asList(Arrays.asList("key1")), fetcher.batches);
+	}
+
+	private Thread schedulerThread() throws Exception{
+		return scheduler.submit(new Callable<Thread>() {
+
+			@Override
+			public Thread call() {
+				return Thread.currentThread();
+			}
+		}).get();
+	}
+
+	@Test
+	public void testDispatchedWhenFull() throws Exception{
+		BatchLoader<String> loader = new BatchLoader<String>(manager, GROUP, fetcher, scheduler, executor);
+		loader.setMaxDelayMillis(60000);
+		loader.setMaxBatchSize(3);
+
+		CompletableFuture<String> future1 = loader.load("key1");
+		CompletableFuture<String> future2 = loader.load("key2");
+		assertFalse(future1.isDone());
+
+		CompletableFuture<String> future3 = loader.load("key3");
+		assertTrue(future1.isDone());
+		assertTrue(future2.isDone());
+		assertEquals("value-key3", future3.get());
+		assertEquals(0, loader.getPendingCount());
+		assertEquals(Arrays.asList(Arrays.asList("key1", "key2", "key3")), fetcher.batches);
+	}
+
+	@Test
+	public void testDuplicateKeysShareFuture(){
+		BatchLoader<String> loader = new BatchLoader<String>(manager, GROUP, fetcher, scheduler, executor);
+		loader.setMaxDelayMillis(60000);
+
+		CompletableFuture<String> future1 = loader.load("key");
+		CompletableFuture<String> future2 = loader.load("key");
+		assertTrue(future1 == future2);
+
+		loader.dispatch();
+		assertEquals(Arrays.asList(Arrays.asList("key")), fetcher.batches);
+	}
+
+	@Test
+	public void testCachedKeysNotFetched(){
+		cache.set(CacheUtils.prefixedKey(GROUP, "key1"), "cached");
+		BatchLoader<String> loader = new BatchLoader<String>(manager, GROUP, fetcher, scheduler, executor);
+
+		assertEquals("cached", loader.fetchSingle("key1"));
+		assertEquals("value-key2", loader.fetchSingle("key2"));
+		assertEquals(Arrays.asList(Arrays.asList("key2")), fetcher.batches);
+	}
+
+	@Test
+	public void testFailure() throws Exception{
+		RuntimeException failure = new RuntimeException("Fake Exception");
+		fetcher.failure = failure;
+		BatchLoader<String> loader = new BatchLoader<String>(manager, GROUP, fetcher, scheduler, executor);
+		loader.setMaxDelayMillis(60000);
+
+		CompletableFuture<String> future = loader.load("key1");
+		loader.load("key2");
+		loader.dispatch();
+		assertTrue(future.isCompletedExceptionally());
+
+		loader.setMaxDelayMillis(1);
+		try{
+			loader.fetchSingle("key2");
+			fail("Expected RuntimeException");
+		}
+		catch(RuntimeException e){
+			assertEquals(failure, e);
+		}
+	}
+
+	@Test
+	public void testConcurrentCallers() throws Exception{
+		final BatchLoader<String> loader = new BatchLoader<String>(manager, GROUP, fetcher, scheduler, executor);
+		loader.setMaxDelayMillis(20);
+		loader.setMaxBatchSize(1000);
+
+		final List<String> results = Collections.synchronizedList(new ArrayList<String>());
+		List<Thread> threads = new ArrayList<Thread>();
+		for(int t = 0; t < 20; t++){
+			final String key = "key" + t;
+			threads.add(new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					results.add(loader.fetchSingle(key));
+				}
+			}));
+		}
+		for(Thread thread : threads){
+			thread.start();
+		}
+		for(Thread thread : threads){
+			thread.join();
+		}
+
+		assertEquals(20, results.size());
+		int fetched = 0;
+		for(List<String> batch : fetcher.batches){
+			fetched += batch.size();
+		}
+		assertEquals(20, fetched);
+		assertTrue("Too many batches: " + fetcher.batches.size(), fetcher.batches.size() < 20);
+	}
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestCachedEntry {
+
+	@Test
+	public void testStaleAndExpired(){
+		CachedEntry entry = new CachedEntry("value", 1000, 2000);
+
+		assertFalse(entry.isStale(999));
+		assertTrue(entry.isStale(1000));
+		assertFalse(entry.isExpired(1999));
+		assertTrue(entry.isExpired(2000));
+	}
+
+	@Test
+	public void testShouldRefreshEarly(){
+		//Took 100ms to fetch, so with beta 1.0 -ln(random) decides how many multiples of that to refresh ahead.
+		CachedEntry entry = new CachedEntry("value", 1000, 2000, 100);
+
+		assertFalse(entry.shouldRefreshEarly(500, 1.0, 0.5));
+		assertTrue(entry.shouldRefreshEarly(931, 1.0, 0.5));
+		assertTrue(entry.shouldRefreshEarly(500, 1.0, 0.001));
+		assertFalse(entry.shouldRefreshEarly(999, 1.0, 1.0));
+		assertTrue(entry.shouldRefreshEarly(1000, 1.0, 1.0));
+	}
+
+	@Test
+	public void testShouldRefreshEarly_Beta(){
+		CachedEntry entry = new CachedEntry("value", 1000, 2000, 100);
+
+		assertFalse(entry.shouldRefreshEarly(800, 1.0, 0.5));
+		assertTrue(entry.shouldRefreshEarly(800, 3.0, 0.5));
+	}
+
+	@Test
+	public void testShouldRefreshEarly_Cheap(){
+		CachedEntry entry = new CachedEntry("value", 1000, 2000, 0);
+
+		assertFalse(entry.shouldRefreshEarly(999, 10.0, 0.0001));
+	}
+
+}
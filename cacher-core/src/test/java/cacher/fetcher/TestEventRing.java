@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TestEventRing {
+
+	@Test
+	public void testCapacityRoundedUp(){
+		assertEquals(8, new EventRing<String>(5).capacity());
+		assertEquals(8, new EventRing<String>(8).capacity());
+	}
+
+	@Test
+	public void testOfferAndPoll(){
+		EventRing<String> ring = new EventRing<String>(4);
+
+		assertNull(ring.poll());
+		for(int x = 0; x < 4; x++){
+			assertTrue(ring.offer("value" + x));
+		}
+		assertFalse(ring.offer("full"));
+
+		assertEquals("value0", ring.poll());
+		assertTrue(ring.offer("value4"));
+		for(int x = 1; x <= 4; x++){
+			assertEquals("value" + x, ring.poll());
+		}
+		assertNull(ring.poll());
+	}
+
+	@Test
+	public void testIsEmpty(){
+		EventRing<String> ring = new EventRing<String>(4);
+
+		assertTrue(ring.isEmpty());
+		ring.offer("value");
+		assertFalse(ring.isEmpty());
+		ring.poll();
+		assertTrue(ring.isEmpty());
+	}
+
+	@Test
+	public void testConcurrentProducers() throws InterruptedException{
+		final EventRing<Integer> ring = new EventRing<Integer>(64);
+		final int perProducer = 10000;
+
+		List<Thread> producers = new ArrayList<Thread>();
+		for(int t = 0; t < 4; t++){
+			final int base = t * perProducer;
+			producers.add(new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					for(int x = 0; x < perProducer; x++){
+						while(!ring.offer(base + x)){
+							Thread.yield();
+						}
+					}
+				}
+			}));
+		}
+		for(Thread producer : producers){
+			producer.start();
+		}
+
+		Set<Integer> received = new HashSet<Integer>();
+		long deadline = System.currentTimeMillis() + 10000;
+		while(received.size() < 4 * perProducer && System.currentTimeMillis() < deadline){
+			Integer value = ring.poll();
+			if(value != null){
+				assertTrue("Duplicate " + value, received.add(value));
+			}
+		}
+		for(Thread producer : producers){
+			producer.join();
+		}
+
+		assertEquals(4 * perProducer, received.size());
+		assertNull(ring.poll());
+	}
+
+}
@@ -86,15 +86,14 @@ public class TestFetchManager{
     }
 
     @SuppressWarnings("unchecked")
-    protected Capture<Object> resetCacheForMultiple(Map<String, Object> value){
+    protected Capture<Map<String, Object>> resetCacheForMultiple(Map<String, Object> value){
         reset(cache);
         expect(cache.getBulk(
                 EasyMock.anyObject(List.class))
                 ).andReturn(value).once();
 
-        Capture<Object> captureNewlyCachedObject = Capture.newInstance();
-        cache.set(
-                EasyMock.anyObject(String.class),
+        Capture<Map<String, Object>> captureNewlyCachedObject = Capture.newInstance();
+        cache.setBulk(
                 EasyMock.capture(captureNewlyCachedObject)
                 );
         expectLastCall().anyTimes();
@@ -156,7 +155,7 @@ public class TestFetchManager{
         expectLastCall().once();
         replay(fetchEventListener);
 
-        Capture<Object> captureNewlyCachedObject = resetCacheForMultiple(new HashMap<String, Object>(){{
+        Capture<Map<String, Object>> captureNewlyCachedObject = resetCacheForMultiple(new HashMap<String, Object>(){{
             put(CacheUtils.prefixedKey(PREFIX, key1), a1);
             put(CacheUtils.prefixedKey(PREFIX, key2), a2);
         }});
@@ -212,7 +211,7 @@ public class TestFetchManager{
         expectLastCall().once();
         replay(fetchEventListener);
 
-        Capture<Object> captureNewlyCachedObjects = resetCacheForMultiple(new HashMap<String, Object>(){{
+        Capture<Map<String, Object>> captureNewlyCachedObjects = resetCacheForMultiple(new HashMap<String, Object>(){{
             put(CacheUtils.prefixedKey(PREFIX, key1), a1);
         }});
 
@@ -239,8 +238,9 @@ public class TestFetchManager{
         assertTrue(apples.containsKey(key2));
         assertSame(apples.get(key2), a2);
 
-        //a2 should have been cached
-        assertSame(captureNewlyCachedObjects.getValue(), a2);
+        //only a2 should have been cached
+        assertEquals(1, captureNewlyCachedObjects.getValue().size());
+        assertSame(captureNewlyCachedObjects.getValue().get(CacheUtils.prefixedKey(PREFIX, key2)), a2);
 
         //Verify values fetcher events
         List<String> keysFetchedFromCache = captureFFC.getValue();
@@ -268,7 +268,7 @@ public class TestFetchManager{
         expectLastCall().once();
         replay(fetchEventListener);
 
-        Capture<Object> captureNewlyCachedObjects = resetCacheForMultiple(new HashMap<String, Object>());
+        Capture<Map<String, Object>> captureNewlyCachedObjects = resetCacheForMultiple(new HashMap<String, Object>());
 
         Map<String, Apple> apples = manager.fetchMultiple(
                 PREFIX, Arrays.asList(key1), new FetchMultiple<Apple>() {
@@ -339,12 +339,10 @@ public class TestFetchManager{
                 EasyMock.anyObject(List.class))
                 ).andThrow(new RuntimeException("Fake Exception")).once();
 
-        Capture<Object> captureNewlyCachedObject = Capture.newInstance();
-        cache.set(
-                EasyMock.anyObject(String.class),
-                EasyMock.capture(captureNewlyCachedObject)
+        cache.setBulk(
+                EasyMock.anyObject(Map.class)
                 );
-        expectLastCall().andThrow(new RuntimeException("Fake Exception")).times(2);
+        expectLastCall().andThrow(new RuntimeException("Fake Exception")).once();
 
         replay(cache);
 
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+
+import cacher.CacheUtils;
+import cacher.impl.BlockingAsyncCache;
+import cacher.impl.InMemoryCache;
+
+public class TestFetchManager_Async {
+
+	private static final String GROUP = "group";
+
+	private final InMemoryCache cache = new InMemoryCache();
+	private final FetchManager manager = new FetchManager(cache);
+
+	/**
+	 * Returns a future for each fetch that is only completed by the test.
+	 */
+	private static class PendingFetcher implements AsyncFetchMultiple<String> {
+
+		private final List<List<String>> requests = new ArrayList<List<String>>();
+		private final List<CompletableFuture<Map<String, String>>> futures =
+				new ArrayList<CompletableFuture<Map<String, String>>>();
+
+		@Override
+		public Class<String> getType() {
+			return String.class;
+		}
+
+		@Override
+		public CompletableFuture<Map<String, String>> fetch(List<String> keys) {
+			requests.add(new ArrayList<String>(keys));
+			CompletableFuture<Map<String, String>> future = new CompletableFuture<Map<String, String>>();
+			futures.add(future);
+			return future;
+		}
+
+		private void complete(int request){
+			Map<String, String> values = new HashMap<String, String>();
+			for(String key : requests.get(request)){
+				values.put(key, "value-" + key);
+			}
+			futures.get(request).complete(values);
+		}
+
+	}
+
+	private static class PendingSingleFetcher implements AsyncFetchSingle<String> {
+
+		private final List<String> requests = new ArrayList<String>();
+		private final List<CompletableFuture<String>> futures = new ArrayList<CompletableFuture<String>>();
+
+		@Override
+		public Class<String> getType() {
+			return String.class;
+		}
+
+		@Override
+		public CompletableFuture<String> fetch(String key) {
+			requests.add(key);
+			CompletableFuture<String> future = new CompletableFuture<String>();
+			futures.add(future);
+			return future;
+		}
+
+	}
+
+	/**
+	 * Holds each task until the test runs it.
+	 */
+	private static class ManualExecutor implements Executor {
+
+		private final List<Runnable> tasks = new ArrayList<Runnable>();
+
+		@Override
+		public void execute(Runnable task) {
+			tasks.add(task);
+		}
+
+		private void runAll(){
+			while(!tasks.isEmpty()){
+				tasks.remove(0).run();
+			}
+		}
+
+	}
+
+	@Test
+	public void testFetchSingleAsync() throws Exception{
+		PendingSingleFetcher fetcher = new PendingSingleFetcher();
+
+		CompletableFuture<String> first = manager.fetchSingleAsync(GROUP, "a", fetcher);
+		assertFalse(first.isDone());
+		assertNull(cache.get(CacheUtils.prefixedKey(GROUP, "a")));
+
+		fetcher.futures.get(0).complete("value-a");
+		assertEquals("value-a", first.get());
+		assertEquals("value-a", cache.get(CacheUtils.prefixedKey(GROUP, "a")));
+
+		CompletableFuture<String> second = manager.fetchSingleAsync(GROUP, "a", fetcher);
+		assertTrue(second.isDone());
+		assertEquals("value-a", second.get());
+		assertEquals(Arrays.asList("a"), fetcher.requests);
+	}
+
+	@Test
+	public void testFetchMultipleAsync_OnlyUncachedKeysFetched() throws Exception{
+		cache.set(CacheUtils.prefixedKey(GROUP, "a"), "cached-a");
+		PendingFetcher fetcher = new PendingFetcher();
+
+		CompletableFuture<Map<String, String>> result = manager.fetchMultipleAsync(GROUP, Arrays.asList("a", "b"), fetcher);
+		assertFalse(result.isDone());
+		assertEquals(Arrays.asList(Arrays.asList("b")), fetcher.requests);
+
+		fetcher.complete(0);
+		assertEquals("cached-a", result.get().get("a"));
+		assertEquals("value-b", result.get().get("b"));
+		assertEquals("value-b", cache.get(CacheUtils.prefixedKey(GROUP, "b")));
+	}
+
+	@Test
+	public void testFetchMultipleAsync_LookupDoesNotBlock() throws Exception{
+		ManualExecutor executor = new ManualExecutor();
+		FetchManager asyncManager = new FetchManager(new BlockingAsyncCache(cache, executor));
+		PendingFetcher fetcher = new PendingFetcher();
+
+		CompletableFuture<Map<String, String>> result = asyncManager.fetchMultipleAsync(GROUP, Arrays.asList("a"), fetcher);
+		assertFalse(result.isDone());
+		assertTrue(fetcher.requests.isEmpty());
+
+		executor.runAll();
+		assertEquals(Arrays.asList(Arrays.asList("a")), fetcher.requests);
+
+		fetcher.complete(0);
+		assertEquals("value-a", result.get().get("a"));
+	}
+
+	@Test
+	public void testFetchMultipleAsync_FetcherFails() throws Exception{
+		PendingFetcher fetcher = new PendingFetcher();
+		IllegalStateException failure = new IllegalStateException("fake");
+
+		CompletableFuture<Map<String, String>> result = manager.fetchMultipleAsync(GROUP, Arrays.asList("a"), fetcher);
+		fetcher.futures.get(0).completeExceptionally(failure);
+
+		try{
+			result.get();
+			fail("Expected the fetcher's exception");
+		}
+		catch(ExecutionException e){
+			assertSame(failure, e.getCause());
+		}
+		assertTrue(cache.isEmpty());
+	}
+
+	@Test
+	public void testFetchMultipleAsync_FetcherThrows() throws Exception{
+		final IllegalStateException failure = new IllegalStateException("fake");
+
+		CompletableFuture<Map<String, String>> result = manager.fetchMultipleAsync(GROUP, Arrays.asList("a"),
+				new AsyncFetchMultiple<String>() {
+
+					@Override
+					public Class<String> getType() {
+						return String.class;
+					}
+
+					@Override
+					public CompletableFuture<Map<String, String>> fetch(List<String> keys) {
+						throw failure;
+					}
+				});
+
+		try{
+			result.get();
+			fail("Expected the fetcher's exception");
+		}
+		catch(ExecutionException e){
+			assertSame(failure, e.getCause());
+		}
+	}
+
+	@Test
+	public void testFetchSingleAsync_Negative() throws Exception{
+		manager.setNegativeExpireSeconds(60);
+		PendingSingleFetcher fetcher = new PendingSingleFetcher();
+
+		CompletableFuture<String> first = manager.fetchSingleAsync(GROUP, "missing", fetcher);
+		fetcher.futures.get(0).complete(null);
+		assertNull(first.get());
+
+		CompletableFuture<String> second = manager.fetchSingleAsync(GROUP, "missing", fetcher);
+		assertTrue(second.isDone());
+		assertNull(second.get());
+		assertEquals(1, fetcher.requests.size());
+	}
+
+	@Test
+	public void testFetchMultipleAsync_Coalescing() throws Exception{
+		manager.setCoalescing(true);
+		PendingFetcher fetcher = new PendingFetcher();
+
+		CompletableFuture<Map<String, String>> first = manager.fetchMultipleAsync(GROUP, Arrays.asList("a", "b"), fetcher);
+		CompletableFuture<Map<String, String>> second = manager.fetchMultipleAsync(GROUP, Arrays.asList("b", "c"), fetcher);
+		assertEquals(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c")), fetcher.requests);
+
+		fetcher.complete(1);
+		assertFalse(second.isDone());
+
+		fetcher.complete(0);
+		assertEquals("value-b", second.get().get("b"));
+		assertEquals("value-c", second.get().get("c"));
+		assertEquals("value-a", first.get().get("a"));
+	}
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import cacher.impl.BlockingAsyncCache;
+import cacher.impl.InMemoryCache;
+
+public class TestFetchManager_Chunking {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+	private final ChunkRecordingCache cache = new ChunkRecordingCache();
+	private final RecordingFetcher fetcher = new RecordingFetcher();
+
+	@After
+	public void after(){
+		executor.shutdownNow();
+	}
+
+	private static class ChunkRecordingCache extends InMemoryCache {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<List<String>> chunks = Collections.synchronizedList(new ArrayList<List<String>>());
+		private final Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+
+		@Override
+		public Map<String, Object> getBulk(List<String> keys) {
+			chunks.add(new ArrayList<String>(keys));
+			threads.add(Thread.currentThread().getName());
+			if(keys.contains("bad")){
+				throw new RuntimeException("Fake Exception");
+			}
+			synchronized(this){
+				return super.getBulk(keys);
+			}
+		}
+
+	}
+
+	private static class RecordingFetcher extends FetchMultipleOneAtATime<String> {
+
+		private final List<String> fetched = Collections.synchronizedList(new ArrayList<String>());
+
+		@Override
+		public Class<String> getType() {
+			return String.class;
+		}
+
+		@Override
+		public String fetch(String key) {
+			fetched.add(key);
+			return "fetched-" + key;
+		}
+
+	}
+
+	private List<String> populate(int count){
+		List<String> keys = new ArrayList<String>();
+		for(int x = 0; x < count; x++){
+			String key = "key" + x;
+			keys.add(key);
+			cache.set(key, "cached-" + key);
+		}
+		return keys;
+	}
+
+	@Test
+	public void testNotChunkedByDefault(){
+		FetchManager manager = new FetchManager(cache);
+		List<String> keys = populate(25);
+
+		assertEquals(25, manager.fetchMultiple(keys, fetcher).size());
+		assertEquals(1, cache.chunks.size());
+	}
+
+	@Test
+	public void testChunked(){
+		FetchManager manager = new FetchManager(cache);
+		manager.setBulkChunkSize(10);
+		List<String> keys = populate(25);
+
+		Map<String, String> values = manager.fetchMultiple(keys, fetcher);
+
+		assertEquals(25, values.size());
+		assertEquals("cached-key24", values.get("key24"));
+		assertEquals(3, cache.chunks.size());
+		assertEquals(10, cache.chunks.get(0).size());
+		assertEquals(5, cache.chunks.get(2).size());
+		assertTrue(fetcher.fetched.isEmpty());
+	}
+
+	@Test
+	public void testFailedChunk_OnlyItsKeysFetched(){
+		FetchManager manager = new FetchManager(cache);
+		manager.setBulkChunkSize(10);
+		List<String> keys = populate(25);
+		keys.set(15, "bad");
+
+		Map<String, String> values = manager.fetchMultiple(keys, fetcher);
+
+		assertEquals(25, values.size());
+		assertEquals("cached-key0", values.get("key0"));
+		assertEquals("fetched-key10", values.get("key10"));
+		assertEquals("cached-key20", values.get("key20"));
+		assertEquals(10, fetcher.fetched.size());
+		assertTrue(fetcher.fetched.contains("bad"));
+	}
+
+	@Test
+	public void testChunked_Executor(){
+		FetchManager manager = new FetchManager(cache);
+		manager.setBulkChunkSize(10);
+		manager.setBulkExecutor(executor);
+		List<String> keys = populate(100);
+
+		Map<String, String> values = manager.fetchMultiple(keys, fetcher);
+
+		assertEquals(100, values.size());
+		assertEquals(10, cache.chunks.size());
+		assertFalse(cache.threads.contains(Thread.currentThread().getName()));
+		assertTrue(fetcher.fetched.isEmpty());
+	}
+
+	@Test
+	public void testChunked_AsyncCache(){
+		FetchManager manager = new FetchManager(new BlockingAsyncCache(cache, executor));
+		manager.setBulkChunkSize(10);
+		List<String> keys = populate(100);
+		keys.set(55, "bad");
+
+		Map<String, String> values = manager.fetchMultiple(keys, fetcher);
+
+		assertEquals(100, values.size());
+		assertEquals(10, cache.chunks.size());
+		assertFalse(cache.threads.contains(Thread.currentThread().getName()));
+		assertEquals(10, fetcher.fetched.size());
+	}
+
+}
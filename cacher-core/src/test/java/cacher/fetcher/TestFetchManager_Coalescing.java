@@ -0,0 +1,241 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import cacher.impl.BoundedInMemoryCache;
+
+public class TestFetchManager_Coalescing {
+
+	private static final int THREADS = 16;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+	private final FetchManager manager = new FetchManager(new BoundedInMemoryCache(100));
+
+	@After
+	public void after(){
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Fetcher that blocks each invocation (or only the first) until released.
+	 */
+	private static class BlockingFetcher implements FetchSingle<String> {
+
+		private final AtomicInteger invocations = new AtomicInteger();
+		private final CountDownLatch release = new CountDownLatch(1);
+		private final RuntimeException failure;
+		private final boolean blockFirstOnly;
+
+		private BlockingFetcher(RuntimeException failure, boolean blockFirstOnly){
+			this.failure = failure;
+			this.blockFirstOnly = blockFirstOnly;
+		}
+
+		@Override
+		public Class<String> getType() {
+			return String.class;
+		}
+
+		@Override
+		public String fetch(String key) {
+			if(invocations.incrementAndGet() == 1 || !blockFirstOnly){
+				try{
+					release.await(10, TimeUnit.SECONDS);
+				}
+				catch(InterruptedException e){
+					Thread.currentThread().interrupt();
+				}
+			}
+			if(failure != null){
+				throw failure;
+			}
+			return "value-" + key;
+		}
+
+	}
+
+	private List<Future<String>> fetchConcurrently(final BlockingFetcher fetcher) throws InterruptedException{
+		List<Future<String>> results = new ArrayList<Future<String>>();
+		for(int i = 0; i < THREADS; i++){
+			results.add(executor.submit(new Callable<String>() {
+
+				@Override
+				public String call() {
+					return manager.fetchSingle("group", "key", fetcher);
+				}
+			}));
+		}
+
+		//Give every caller time to miss the cache and join the in-flight fetch.
+		Thread.sleep(200);
+		fetcher.release.countDown();
+		return results;
+	}
+
+	@Test
+	public void testCoalesced() throws Exception{
+		manager.setCoalescing(true);
+		BlockingFetcher fetcher = new BlockingFetcher(null, false);
+
+		for(Future<String> result : fetchConcurrently(fetcher)){
+			assertEquals("value-key", result.get(10, TimeUnit.SECONDS));
+		}
+
+		assertEquals(1, fetcher.invocations.get());
+	}
+
+	@Test
+	public void testNotCoalesced() throws Exception{
+		BlockingFetcher fetcher = new BlockingFetcher(null, false);
+
+		for(Future<String> result : fetchConcurrently(fetcher)){
+			assertEquals("value-key", result.get(10, TimeUnit.SECONDS));
+		}
+
+		assertEquals(THREADS, fetcher.invocations.get());
+	}
+
+	@Test
+	public void testCoalesced_ExceptionReachesEveryCaller() throws Exception{
+		manager.setCoalescing(true);
+		RuntimeException failure = new RuntimeException("Fake Exception");
+		BlockingFetcher fetcher = new BlockingFetcher(failure, false);
+
+		for(Future<String> result : fetchConcurrently(fetcher)){
+			try{
+				result.get(10, TimeUnit.SECONDS);
+			}
+			catch(ExecutionException e){
+				assertEquals(failure, e.getCause());
+				continue;
+			}
+			throw new AssertionError("Expected the fetcher's exception");
+		}
+
+		assertEquals(1, fetcher.invocations.get());
+	}
+
+	@Test
+	public void testCoalesced_Timeout() throws Exception{
+		manager.setCoalescing(true);
+		manager.setCoalescingTimeoutMillis(50);
+		final BlockingFetcher fetcher = new BlockingFetcher(null, true);
+
+		Future<String> leader = executor.submit(new Callable<String>() {
+
+			@Override
+			public String call() {
+				return manager.fetchSingle("group", "key", fetcher);
+			}
+		});
+		while(fetcher.invocations.get() == 0){
+			Thread.sleep(5);
+		}
+
+		//Leader is still blocked, so this caller gives up waiting and fetches itself.
+		assertEquals("value-key", manager.fetchSingle("group", "key", fetcher));
+		assertEquals(2, fetcher.invocations.get());
+
+		fetcher.release.countDown();
+		assertEquals("value-key", leader.get(10, TimeUnit.SECONDS));
+	}
+
+	/**
+	 * Overlapping fetchMultiple calls should only send keys that are not already in flight to the fetcher.
+	 */
+	@Test
+	public void testCoalescedMultiple() throws Exception{
+		manager.setCoalescing(true);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<List<String>> requested = Collections.synchronizedList(new ArrayList<List<String>>());
+		final FetchMultiple<String> fetcher = new FetchMultiple<String>() {
+
+			@Override
+			public Class<String> getType() {
+				return String.class;
+			}
+
+			@Override
+			public Map<String, String> fetch(List<String> keys) {
+				requested.add(new ArrayList<String>(keys));
+				if(requested.size() == 1){
+					try{
+						release.await(10, TimeUnit.SECONDS);
+					}
+					catch(InterruptedException e){
+						Thread.currentThread().interrupt();
+					}
+				}
+				Map<String, String> values = new HashMap<String, String>();
+				for(String key : keys){
+					values.put(key, "value-" + key);
+				}
+				return values;
+			}
+		};
+
+		Future<Map<String, String>> first = executor.submit(new Callable<Map<String, String>>() {
+
+			@Override
+			public Map<String, String> call() {
+				return manager.fetchMultiple("group", Arrays.asList("1", "2", "3"), fetcher);
+			}
+		});
+		while(requested.isEmpty()){
+			Thread.sleep(5);
+		}
+
+		Future<Map<String, String>> second = executor.submit(new Callable<Map<String, String>>() {
+
+			@Override
+			public Map<String, String> call() {
+				return manager.fetchMultiple("group", Arrays.asList("2", "3", "4"), fetcher);
+			}
+		});
+		while(requested.size() < 2){
+			Thread.sleep(5);
+		}
+		release.countDown();
+
+		assertEquals(3, first.get(10, TimeUnit.SECONDS).size());
+		Map<String, String> secondValues = second.get(10, TimeUnit.SECONDS);
+		assertEquals(3, secondValues.size());
+		assertEquals("value-2", secondValues.get("2"));
+		assertEquals("value-3", secondValues.get("3"));
+		assertEquals("value-4", secondValues.get("4"));
+
+		assertEquals(2, requested.size());
+		assertEquals(Arrays.asList("1", "2", "3"), requested.get(0));
+		assertEquals(Arrays.asList("4"), requested.get(1));
+	}
+
+}
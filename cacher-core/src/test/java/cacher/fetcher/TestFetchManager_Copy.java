@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import testframework.util.FakeTicker;
+import cacher.Cache;
+import cacher.impl.InMemoryCache;
+
+public class TestFetchManager_Copy {
+
+	private final FakeTicker ticker = new FakeTicker();
+	private final InMemoryCache cache = new InMemoryCache(ticker);
+	private final FetchManager manager = new FetchManager(cache);
+
+	private static class ValueFetcher implements FetchSingle<String> {
+
+		private int invocations;
+
+		@Override
+		public Class<String> getType() {
+			return String.class;
+		}
+
+		@Override
+		public String fetch(String key) {
+			invocations++;
+			return "value-" + key;
+		}
+
+	}
+
+	@Test
+	public void testExpireSeconds(){
+		assertEquals(Cache.DEFAULT_EXPIRATION, manager.getExpireSeconds());
+		manager.setExpireSeconds(10);
+		ValueFetcher fetcher = new ValueFetcher();
+
+		assertEquals("value-a", manager.fetchSingle("a", fetcher));
+		ticker.advance(9, TimeUnit.SECONDS);
+		assertEquals("value-a", cache.get("a"));
+
+		ticker.advance(2, TimeUnit.SECONDS);
+		assertNull(cache.get("a"));
+		assertEquals("value-a", manager.fetchSingle("a", fetcher));
+		assertEquals(2, fetcher.invocations);
+	}
+
+	@Test
+	public void testCopy_SettingsAreCopied(){
+		manager.setExpireSeconds(10);
+		manager.setNegativeExpireSeconds(5);
+		manager.setCoalescing(true);
+
+		FetchManager copy = manager.copy();
+		assertSame(cache, copy.getCache());
+		assertEquals(10, copy.getExpireSeconds());
+		assertEquals(5, copy.getNegativeExpireSeconds());
+		assertTrue(copy.isCoalescing());
+
+		copy.setExpireSeconds(60);
+		copy.setCoalescing(false);
+		assertEquals(10, manager.getExpireSeconds());
+		assertTrue(manager.isCoalescing());
+		assertFalse(copy.isCoalescing());
+	}
+
+	@Test
+	public void testCopy_SharesInFlightFetches() throws Exception{
+		manager.setCoalescing(true);
+		FetchManager copy = manager.copy();
+		final CompletableFuture<String> pending = new CompletableFuture<String>();
+		AsyncFetchSingle<String> fetcher = new AsyncFetchSingle<String>() {
+
+			@Override
+			public Class<String> getType() {
+				return String.class;
+			}
+
+			@Override
+			public CompletableFuture<String> fetch(String key) {
+				return pending;
+			}
+		};
+
+		CompletableFuture<String> first = manager.fetchSingleAsync("a", fetcher);
+		CompletableFuture<String> second = copy.fetchSingleAsync("a", new AsyncFetchSingle<String>() {
+
+			@Override
+			public Class<String> getType() {
+				return String.class;
+			}
+
+			@Override
+			public CompletableFuture<String> fetch(String key) {
+				throw new IllegalStateException("The in-flight fetch should have been shared");
+			}
+		});
+
+		pending.complete("value-a");
+		assertEquals("value-a", first.get());
+		assertEquals("value-a", second.get());
+	}
+
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import cacher.impl.BlockingAsyncCache;
+import cacher.impl.InMemoryCache;
+
+public class TestFetchManager_LatencyBudget {
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final SlowCache slowCache = new SlowCache();
+	private final FetchManager manager = new FetchManager(new BlockingAsyncCache(slowCache, executor));
+	private final CountingFetcher fetcher = new CountingFetcher();
+
+	@Before
+	public void setup(){
+		slowCache.set("key1", "cached1");
+		slowCache.set("key2", "cached2");
+	}
+
+	@After
+	public void after(){
+		executor.shutdownNow();
+	}
+
+	private static class SlowCache extends InMemoryCache {
+
+		private static final long serialVersionUID = 1L;
+
+		private volatile long delayMillis = 0;
+
+		@Override
+		public synchronized Object get(String key) {
+			pause();
+			return super.get(key);
+		}
+
+		@Override
+		public synchronized Map<String, Object> getBulk(List<String> keys) {
+			pause();
+			return super.getBulk(keys);
+		}
+
+		private void pause(){
+			try{
+				Thread.sleep(delayMillis);
+			}
+			catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+		}
+
+	}
+
+	private static class CountingFetcher extends FetchMultipleOneAtATime<String> {
+
+		private final AtomicInteger invocations = new AtomicInteger();
+		private volatile RuntimeException failure;
+
+		@Override
+		public Class<String> getType() {
+			return String.class;
+		}
+
+		@Override
+		public String fetch(String key) {
+			invocations.incrementAndGet();
+			if(failure != null){
+				throw failure;
+			}
+			return "fetched-" + key;
+		}
+
+	}
+
+	@Test
+	public void testWithinBudget(){
+		manager.setCacheLatencyBudgetMillis(1000);
+
+		assertEquals("cached1", manager.fetchSingle("key1", fetcher));
+		assertEquals(0, fetcher.invocations.get());
+	}
+
+	@Test
+	public void testBudgetExceeded(){
+		manager.setCacheLatencyBudgetMillis(50);
+		slowCache.delayMillis = 2000;
+
+		long start = System.nanoTime();
+		assertEquals("fetched-key1", manager.fetchSingle("key1", fetcher));
+
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+		assertEquals(1, fetcher.invocations.get());
+	}
+
+	@Test
+	public void testBudgetExceeded_Multiple(){
+		manager.setCacheLatencyBudgetMillis(50);
+		slowCache.delayMillis = 2000;
+
+		long start = System.nanoTime();
+		Map<String, String> values = manager.fetchMultiple(Arrays.asList("key1", "key2"), fetcher);
+
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+		assertEquals("fetched-key1", values.get("key1"));
+		assertEquals("fetched-key2", values.get("key2"));
+	}
+
+	@Test
+	public void testBudgetExceeded_Chunked(){
+		manager.setCacheLatencyBudgetMillis(50);
+		manager.setBulkChunkSize(1);
+		slowCache.delayMillis = 2000;
+
+		long start = System.nanoTime();
+		Map<String, String> values = manager.fetchMultiple(Arrays.asList("key1", "key2"), fetcher);
+
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+		assertEquals("fetched-key2", values.get("key2"));
+	}
+
+	@Test
+	public void testHedged(){
+		manager.setCacheLatencyBudgetMillis(5000);
+		manager.setHedgePercentile(0.95);
+		manager.setHedgeExecutor(executor);
+
+		//Build up a history of fast lookups.
+		for(int x = 0; x < LatencyTracker.MIN_SAMPLES + 10; x++){
+			assertEquals("cached1", manager.fetchSingle("key1", fetcher));
+		}
+		assertEquals(0, fetcher.invocations.get());
+
+		slowCache.delayMillis = 2000;
+		long start = System.nanoTime();
+		assertEquals("fetched-key2", manager.fetchSingle("key2", fetcher));
+
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+		assertEquals(1, fetcher.invocations.get());
+	}
+
+	@Test
+	public void testHedged_FetcherFails(){
+		manager.setCacheLatencyBudgetMillis(5000);
+		manager.setHedgePercentile(0.95);
+		manager.setHedgeExecutor(executor);
+
+		for(int x = 0; x < LatencyTracker.MIN_SAMPLES + 10; x++){
+			manager.fetchSingle("key1", fetcher);
+		}
+
+		//The hedged fetch fails right away, while the cache answers shortly after.
+		int invocations = fetcher.invocations.get();
+		fetcher.failure = new IllegalStateException("Fake Exception");
+		slowCache.delayMillis = 200;
+		assertEquals("cached2", manager.fetchSingle("key2", fetcher));
+		assertEquals(invocations + 1, fetcher.invocations.get());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testHedged_FetcherFailsAndCacheMisses(){
+		manager.setCacheLatencyBudgetMillis(5000);
+		manager.setHedgePercentile(0.95);
+		manager.setHedgeExecutor(executor);
+
+		for(int x = 0; x < LatencyTracker.MIN_SAMPLES + 10; x++){
+			manager.fetchSingle("key1", fetcher);
+		}
+
+		fetcher.failure = new IllegalStateException("Fake Exception");
+		slowCache.delayMillis = 200;
+		manager.fetchSingle("missing", fetcher);
+	}
+
+	@Test
+	public void testNotHedgedWithoutHistory(){
+		manager.setCacheLatencyBudgetMillis(5000);
+		manager.setHedgePercentile(0.95);
+		manager.setHedgeExecutor(executor);
+		slowCache.delayMillis = 100;
+
+		assertEquals("cached2", manager.fetchSingle("key2", fetcher));
+		assertEquals(0, fetcher.invocations.get());
+	}
+
+}
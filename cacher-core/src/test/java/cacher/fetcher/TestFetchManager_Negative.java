@@ -0,0 +1,251 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import testframework.util.FakeClock;
+import testframework.util.FakeTicker;
+import cacher.Cache;
+import cacher.CacheUtils;
+import cacher.impl.InMemoryCache;
+
+public class TestFetchManager_Negative {
+
+	private static final String GROUP = "group";
+
+	private final FakeTicker ticker = new FakeTicker();
+	private final InMemoryCache cache = new InMemoryCache(ticker);
+	private final RecordingListener listener = new RecordingListener();
+	private final FetchManager manager = new FetchManager(cache, Arrays.<FetchEventListener>asList(listener));
+	private final CountingFetcher fetcher = new CountingFetcher();
+
+	private static class CountingFetcher extends FetchMultipleOneAtATime<String> {
+
+		private int invocations;
+		private final Map<String, String> values = new HashMap<String, String>();
+
+		@Override
+		public Class<String> getType() {
+			return String.class;
+		}
+
+		@Override
+		public String fetch(String key) {
+			invocations++;
+			return values.get(key);
+		}
+
+	}
+
+	/**
+	 * Relies on the default {@link Cache#set(String, Object, int)}, which ignores the expiration.
+	 */
+	private static class NeverExpiringCache implements Cache {
+
+		private final Map<String, Object> values = new HashMap<String, Object>();
+
+		@Override
+		public Object get(String key) {
+			return values.get(key);
+		}
+
+		@Override
+		public Map<String, Object> getBulk(List<String> keys) {
+			Map<String, Object> found = new HashMap<String, Object>();
+			for(String key : keys){
+				if(values.containsKey(key)){
+					found.put(key, values.get(key));
+				}
+			}
+			return found;
+		}
+
+		@Override
+		public void set(String key, Object value) {
+			values.put(key, value);
+		}
+
+		@Override
+		public void clear() {
+			values.clear();
+		}
+
+		@Override
+		public void remove(String key) {
+			values.remove(key);
+		}
+
+	}
+
+	private static class RecordingListener implements FetchEventListener {
+
+		private final List<String> fromCache = new ArrayList<String>();
+		private final List<String> fromFetcher = new ArrayList<String>();
+		private final List<String> negativeFromCache = new ArrayList<String>();
+
+		@Override
+		public void fetchedFromCache(List<String> keys) {
+			fromCache.addAll(keys);
+		}
+
+		@Override
+		public void fetchedFromFetcher(List<String> keys) {
+			fromFetcher.addAll(keys);
+		}
+
+		@Override
+		public void fetchedNegativeFromCache(List<String> keys) {
+			negativeFromCache.addAll(keys);
+		}
+
+	}
+
+	@Test
+	public void testDisabledByDefault(){
+		assertNull(manager.fetchSingle(GROUP, "key", fetcher));
+		assertNull(manager.fetchSingle(GROUP, "key", fetcher));
+
+		assertEquals(2, fetcher.invocations);
+		assertNull(cache.get(CacheUtils.prefixedKey(GROUP, "key")));
+	}
+
+	@Test
+	public void testSingle(){
+		manager.setNegativeExpireSeconds(5);
+
+		assertNull(manager.fetchSingle(GROUP, "key", fetcher));
+		assertNull(manager.fetchSingle(GROUP, "key", fetcher));
+
+		assertEquals(1, fetcher.invocations);
+		assertEquals(Arrays.asList("key"), listener.fromFetcher);
+		assertEquals(Arrays.asList("key"), listener.negativeFromCache);
+		assertTrue(listener.fromCache.isEmpty());
+	}
+
+	@Test
+	public void testSingle_Expires(){
+		manager.setNegativeExpireSeconds(5);
+		manager.fetchSingle(GROUP, "key", fetcher);
+		fetcher.values.put("key", "value");
+
+		ticker.advance(4, TimeUnit.SECONDS);
+		assertNull(manager.fetchSingle(GROUP, "key", fetcher));
+
+		ticker.advance(1, TimeUnit.SECONDS);
+		assertEquals("value", manager.fetchSingle(GROUP, "key", fetcher));
+		assertEquals(2, fetcher.invocations);
+	}
+
+	@Test
+	public void testMultiple(){
+		manager.setNegativeExpireSeconds(5);
+		fetcher.values.put("key1", "value1");
+
+		Map<String, String> values = manager.fetchMultiple(GROUP, Arrays.asList("key1", "key2"), fetcher);
+		assertEquals("value1", values.get("key1"));
+		assertNull(values.get("key2"));
+		assertEquals(2, fetcher.invocations);
+
+		values = manager.fetchMultiple(GROUP, Arrays.asList("key1", "key2", "key3"), fetcher);
+		assertEquals("value1", values.get("key1"));
+		assertFalse(values.containsKey("key2"));
+		assertNull(values.get("key3"));
+		assertEquals(3, fetcher.invocations);
+
+		assertEquals(Arrays.asList("key1"), listener.fromCache);
+		assertEquals(Arrays.asList("key2"), listener.negativeFromCache);
+
+		//key3 was only just found to be missing.
+		assertNull(manager.fetchSingle(GROUP, "key3", fetcher));
+		assertEquals(3, fetcher.invocations);
+	}
+
+	@Test
+	public void testMultiple_WithSoftExpiration(){
+		manager.setNegativeExpireSeconds(5);
+		manager.setSoftExpireSeconds(10);
+
+		assertNull(manager.fetchMultiple(GROUP, Arrays.asList("key"), fetcher).get("key"));
+		assertTrue(manager.fetchMultiple(GROUP, Arrays.asList("key"), fetcher).isEmpty());
+
+		assertEquals(1, fetcher.invocations);
+		assertTrue(cache.get(CacheUtils.prefixedKey(GROUP, "key")) instanceof NegativeEntry);
+	}
+
+	@Test
+	public void testSingle_ExpiresWhenCacheIgnoresExpiration(){
+		FakeClock clock = new FakeClock();
+		FetchManager manager = new FetchManager(new NeverExpiringCache());
+		manager.setClock(clock);
+		manager.setNegativeExpireSeconds(5);
+		manager.fetchSingle(GROUP, "key", fetcher);
+		fetcher.values.put("key", "value");
+
+		clock.advance(4, TimeUnit.SECONDS);
+		assertNull(manager.fetchSingle(GROUP, "key", fetcher));
+
+		clock.advance(1, TimeUnit.SECONDS);
+		assertEquals("value", manager.fetchSingle(GROUP, "key", fetcher));
+		assertEquals(2, fetcher.invocations);
+	}
+
+	@Test
+	public void testMultiple_ExpiresWhenCacheIgnoresExpiration(){
+		FakeClock clock = new FakeClock();
+		FetchManager manager = new FetchManager(new NeverExpiringCache());
+		manager.setClock(clock);
+		manager.setNegativeExpireSeconds(5);
+		manager.fetchMultiple(GROUP, Arrays.asList("key1", "key2"), fetcher);
+		fetcher.values.put("key1", "value1");
+
+		clock.advance(4, TimeUnit.SECONDS);
+		assertTrue(manager.fetchMultiple(GROUP, Arrays.asList("key1", "key2"), fetcher).isEmpty());
+
+		clock.advance(1, TimeUnit.SECONDS);
+		Map<String, String> values = manager.fetchMultiple(GROUP, Arrays.asList("key1", "key2"), fetcher);
+		assertEquals("value1", values.get("key1"));
+		assertNull(values.get("key2"));
+		assertEquals(4, fetcher.invocations);
+	}
+
+	@Test
+	public void testSerializesDeadline() throws Exception{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(new NegativeEntry(1000));
+		out.close();
+
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		NegativeEntry entry = (NegativeEntry) in.readObject();
+		assertEquals(1000, entry.getExpiresAt());
+		assertFalse(entry.isExpired(999));
+		assertTrue(entry.isExpired(1000));
+	}
+
+}
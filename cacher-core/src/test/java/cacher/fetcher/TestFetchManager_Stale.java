@@ -0,0 +1,217 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import testframework.util.FakeClock;
+import cacher.CacheUtils;
+import cacher.impl.InMemoryCache;
+
+public class TestFetchManager_Stale {
+
+	private static final String GROUP = "group";
+
+	private final FakeClock clock = new FakeClock();
+	private final InMemoryCache cache = new InMemoryCache();
+	private final FetchManager manager = new FetchManager(cache);
+	private final CountingFetcher fetcher = new CountingFetcher();
+
+	@Before
+	public void setup(){
+		manager.setClock(clock);
+		manager.setSoftExpireSeconds(10);
+		manager.setMaxStaleSeconds(60);
+	}
+
+	private static class CountingFetcher extends FetchMultipleOneAtATime<String> {
+
+		private int invocations;
+		private String value = "value1";
+		private RuntimeException failure;
+
+		@Override
+		public Class<String> getType() {
+			return String.class;
+		}
+
+		@Override
+		public String fetch(String key) {
+			invocations++;
+			if(failure != null){
+				throw failure;
+			}
+			return value;
+		}
+
+	}
+
+	/**
+	 * {@link Executor} that holds tasks until told to run them.
+	 */
+	private static class QueuingExecutor implements Executor {
+
+		private final List<Runnable> tasks = new ArrayList<Runnable>();
+
+		@Override
+		public void execute(Runnable command) {
+			tasks.add(command);
+		}
+
+		private void runAll(){
+			List<Runnable> toRun = new ArrayList<Runnable>(tasks);
+			tasks.clear();
+			for(Runnable task : toRun){
+				task.run();
+			}
+		}
+
+	}
+
+	@Test
+	public void testStoredInCachedEntry(){
+		assertEquals("value1", manager.fetchSingle(GROUP, "key", fetcher));
+
+		CachedEntry entry = (CachedEntry) cache.get(CacheUtils.prefixedKey(GROUP, "key"));
+		assertEquals("value1", entry.getValue());
+		assertEquals(clock.millis() + 10000, entry.getSoftExpiresAt());
+		assertEquals(clock.millis() + 70000, entry.getHardExpiresAt());
+	}
+
+	@Test
+	public void testStoredInCachedEntry_CappedByExpireSeconds(){
+		manager.setExpireSeconds(30);
+		manager.fetchSingle(GROUP, "key", fetcher);
+
+		CachedEntry entry = (CachedEntry) cache.get(CacheUtils.prefixedKey(GROUP, "key"));
+		assertEquals(clock.millis() + 10000, entry.getSoftExpiresAt());
+		assertEquals(clock.millis() + 30000, entry.getHardExpiresAt());
+
+		manager.setExpireSeconds(5);
+		manager.fetchMultiple(GROUP, Arrays.asList("key2"), fetcher);
+
+		entry = (CachedEntry) cache.get(CacheUtils.prefixedKey(GROUP, "key2"));
+		assertEquals(clock.millis() + 5000, entry.getSoftExpiresAt());
+		assertEquals(clock.millis() + 5000, entry.getHardExpiresAt());
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testHardExpiration_CappedByExpireSeconds(){
+		manager.setExpireSeconds(30);
+		manager.fetchSingle(GROUP, "key", fetcher);
+		fetcher.failure = new RuntimeException("Fake Exception");
+
+		clock.advance(31, TimeUnit.SECONDS);
+		manager.fetchSingle(GROUP, "key", fetcher);
+	}
+
+	@Test
+	public void testFresh(){
+		manager.fetchSingle(GROUP, "key", fetcher);
+		fetcher.value = "value2";
+
+		clock.advance(9, TimeUnit.SECONDS);
+		assertEquals("value1", manager.fetchSingle(GROUP, "key", fetcher));
+		assertEquals(1, fetcher.invocations);
+	}
+
+	@Test
+	public void testStaleWhileRevalidate(){
+		QueuingExecutor executor = new QueuingExecutor();
+		manager.setRefreshExecutor(executor);
+		manager.fetchSingle(GROUP, "key", fetcher);
+		fetcher.value = "value2";
+
+		clock.advance(10, TimeUnit.SECONDS);
+		assertEquals("value1", manager.fetchSingle(GROUP, "key", fetcher));
+		assertEquals("value1", manager.fetchSingle(GROUP, "key", fetcher));
+
+		//Only one refresh is scheduled for the key.
+		assertEquals(1, executor.tasks.size());
+		executor.runAll();
+
+		assertEquals(2, fetcher.invocations);
+		assertEquals("value2", manager.fetchSingle(GROUP, "key", fetcher));
+	}
+
+	@Test
+	public void testStaleIfError(){
+		manager.fetchSingle(GROUP, "key", fetcher);
+		fetcher.failure = new RuntimeException("Fake Exception");
+
+		clock.advance(30, TimeUnit.SECONDS);
+		assertEquals("value1", manager.fetchSingle(GROUP, "key", fetcher));
+		assertEquals(2, fetcher.invocations);
+	}
+
+	@Test
+	public void testStale_Refreshed(){
+		manager.fetchSingle(GROUP, "key", fetcher);
+		fetcher.value = "value2";
+
+		clock.advance(30, TimeUnit.SECONDS);
+		assertEquals("value2", manager.fetchSingle(GROUP, "key", fetcher));
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testHardExpiration(){
+		manager.fetchSingle(GROUP, "key", fetcher);
+		fetcher.failure = new RuntimeException("Fake Exception");
+
+		clock.advance(70, TimeUnit.SECONDS);
+		manager.fetchSingle(GROUP, "key", fetcher);
+	}
+
+	@Test
+	public void testMultiple_StaleIfError(){
+		manager.fetchMultiple(GROUP, Arrays.asList("key1", "key2"), fetcher);
+		fetcher.failure = new RuntimeException("Fake Exception");
+
+		clock.advance(30, TimeUnit.SECONDS);
+		Map<String, String> values = manager.fetchMultiple(GROUP, Arrays.asList("key1", "key2"), fetcher);
+
+		Map<String, String> expected = new HashMap<String, String>();
+		expected.put("key1", "value1");
+		expected.put("key2", "value1");
+		assertEquals(expected, values);
+	}
+
+	@Test
+	public void testMultiple_StaleWhileRevalidate(){
+		QueuingExecutor executor = new QueuingExecutor();
+		manager.setRefreshExecutor(executor);
+		manager.fetchMultiple(GROUP, Arrays.asList("key1"), fetcher);
+		fetcher.value = "value2";
+
+		clock.advance(10, TimeUnit.SECONDS);
+		Map<String, String> values = manager.fetchMultiple(GROUP, Arrays.asList("key1", "key2"), fetcher);
+		assertEquals("value1", values.get("key1"));
+		assertEquals("value2", values.get("key2"));
+
+		executor.runAll();
+		assertTrue(executor.tasks.isEmpty());
+		assertEquals("value2", manager.fetchMultiple(GROUP, Arrays.asList("key1"), fetcher).get("key1"));
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class TestLatencyTracker {
+
+	@Test
+	public void testNotEnoughSamples(){
+		LatencyTracker tracker = new LatencyTracker();
+		for(int x = 1; x < LatencyTracker.MIN_SAMPLES; x++){
+			tracker.record(x);
+		}
+
+		assertEquals(-1, tracker.percentile(0.5));
+	}
+
+	@Test
+	public void testPercentile(){
+		LatencyTracker tracker = new LatencyTracker(100);
+		for(int x = 100; x > 0; x--){
+			tracker.record(x);
+		}
+
+		assertEquals(50, tracker.percentile(0.5));
+		assertEquals(95, tracker.percentile(0.95));
+		assertEquals(100, tracker.percentile(1.0));
+	}
+
+	@Test
+	public void testOldestSamplesReplaced(){
+		LatencyTracker tracker = new LatencyTracker(100);
+		for(int x = 0; x < 100; x++){
+			tracker.record(1000);
+		}
+		for(int x = 0; x < 100; x++){
+			tracker.record(10);
+		}
+
+		assertEquals(10, tracker.percentile(0.99));
+	}
+
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.fetcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import cacher.fetcher.ParallelFetchMultipleOneAtATime.ErrorPolicy;
+import cacher.fetcher.ParallelFetchMultipleOneAtATime.ParallelFetchException;
+
+public class TestParallelFetchMultipleOneAtATime {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+	@After
+	public void after(){
+		executor.shutdownNow();
+	}
+
+	private static class SlowFetcher extends ParallelFetchMultipleOneAtATime<String> {
+
+		private final AtomicInteger running = new AtomicInteger();
+		private final AtomicInteger maxRunning = new AtomicInteger();
+		private volatile CountDownLatch allStarted = new CountDownLatch(0);
+
+		private SlowFetcher(){
+			super();
+		}
+
+		private SlowFetcher(Executor executor){
+			super(executor);
+		}
+
+		@Override
+		public Class<String> getType() {
+			return String.class;
+		}
+
+		@Override
+		public String fetch(String key) {
+			int now = running.incrementAndGet();
+			int max = maxRunning.get();
+			while(now > max && !maxRunning.compareAndSet(max, now)){
+				max = maxRunning.get();
+			}
+			try{
+				allStarted.countDown();
+				allStarted.await(5, TimeUnit.SECONDS);
+				if(key.startsWith("fail")){
+					throw new IllegalStateException("Fake Exception: " + key);
+				}
+				if(key.startsWith("slow")){
+					Thread.sleep(5000);
+				}
+				if(key.startsWith("stuck")){
+					sleepUninterruptibly(500);
+				}
+				Thread.sleep(10);
+				return "value-" + key;
+			}
+			catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+				return null;
+			}
+			finally{
+				running.decrementAndGet();
+			}
+		}
+
+	}
+
+	/**
+	 * Sleeps through interrupts, as blocking I/O typically does.
+	 */
+	private static void sleepUninterruptibly(long millis){
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+		boolean interrupted = false;
+		while(deadline - System.nanoTime() > 0){
+			try{
+				Thread.sleep(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+			}
+			catch(InterruptedException e){
+				interrupted = true;
+			}
+		}
+		if(interrupted){
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static List<String> keys(int count){
+		List<String> keys = new ArrayList<String>();
+		for(int x = 0; x < count; x++){
+			keys.add("key" + x);
+		}
+		return keys;
+	}
+
+	@Test
+	public void testRunsInParallel(){
+		SlowFetcher fetcher = new SlowFetcher(executor);
+		//Every fetch waits until all 8 have started, which is only possible if they run together.
+		fetcher.allStarted = new CountDownLatch(8);
+
+		Map<String, String> values = fetcher.fetch(keys(8));
+
+		assertEquals(8, values.size());
+		assertEquals("value-key3", values.get("key3"));
+		assertEquals(8, fetcher.maxRunning.get());
+	}
+
+	@Test
+	public void testMaxConcurrency(){
+		SlowFetcher fetcher = new SlowFetcher(executor);
+		fetcher.setMaxConcurrency(3);
+
+		Map<String, String> values = fetcher.fetch(keys(20));
+
+		assertEquals(20, values.size());
+		assertTrue(fetcher.maxRunning.get() <= 3);
+	}
+
+	@Test
+	public void testDefaultExecutor(){
+		SlowFetcher fetcher = new SlowFetcher();
+
+		Map<String, String> values = fetcher.fetch(keys(20));
+
+		assertEquals(20, values.size());
+		assertEquals("value-key19", values.get("key19"));
+	}
+
+	@Test
+	public void testFailFast(){
+		SlowFetcher fetcher = new SlowFetcher(executor);
+
+		try{
+			fetcher.fetch(Arrays.asList("key1", "fail1", "key2"));
+			fail("Expected IllegalStateException");
+		}
+		catch(IllegalStateException e){
+			assertEquals("Fake Exception: fail1", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testSkip(){
+		SlowFetcher fetcher = new SlowFetcher(executor);
+		fetcher.setErrorPolicy(ErrorPolicy.SKIP);
+		fetcher.setTimeoutMillis(200);
+
+		Map<String, String> values = fetcher.fetch(Arrays.asList("key1", "fail1", "slow1", "key2"));
+
+		assertEquals(2, values.size());
+		assertEquals("value-key1", values.get("key1"));
+		assertEquals("value-key2", values.get("key2"));
+		assertFalse(values.containsKey("slow1"));
+	}
+
+	@Test
+	public void testCollect(){
+		SlowFetcher fetcher = new SlowFetcher(executor);
+		fetcher.setErrorPolicy(ErrorPolicy.COLLECT);
+		fetcher.setTimeoutMillis(200);
+
+		try{
+			fetcher.fetch(Arrays.asList("key1", "fail1", "slow1", "fail2"));
+			fail("Expected ParallelFetchException");
+		}
+		catch(ParallelFetchException e){
+			assertEquals(Arrays.asList("fail1", "slow1", "fail2"), new ArrayList<String>(e.getErrors().keySet()));
+			assertTrue(e.getErrors().get("fail2") instanceof IllegalStateException);
+			assertTrue(e.getErrors().get("slow1") instanceof TimeoutException);
+		}
+	}
+
+	@Test
+	public void testSkip_SingleKey(){
+		SlowFetcher fetcher = new SlowFetcher(executor);
+		fetcher.setErrorPolicy(ErrorPolicy.SKIP);
+
+		Map<String, String> values = fetcher.fetch(Arrays.asList("fail1"));
+
+		assertTrue(values.isEmpty());
+	}
+
+	@Test
+	public void testTimeout_SingleKey(){
+		SlowFetcher fetcher = new SlowFetcher(executor);
+		fetcher.setErrorPolicy(ErrorPolicy.SKIP);
+		fetcher.setTimeoutMillis(100);
+
+		long start = System.nanoTime();
+		Map<String, String> values = fetcher.fetch(Arrays.asList("slow1"));
+
+		assertTrue(values.isEmpty());
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+	}
+
+	@Test
+	public void testTimeout_WaitingForPermit(){
+		SlowFetcher fetcher = new SlowFetcher(executor);
+		fetcher.setErrorPolicy(ErrorPolicy.SKIP);
+		fetcher.setMaxConcurrency(1);
+		fetcher.setTimeoutMillis(100);
+
+		long start = System.nanoTime();
+		Map<String, String> values = fetcher.fetch(Arrays.asList("slow1", "key1"));
+
+		assertEquals(1, values.size());
+		assertEquals("value-key1", values.get("key1"));
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+	}
+
+	@Test
+	public void testTimeout_IgnoresInterrupt(){
+		SlowFetcher fetcher = new SlowFetcher(executor);
+		fetcher.setErrorPolicy(ErrorPolicy.SKIP);
+		fetcher.setMaxConcurrency(1);
+		fetcher.setTimeoutMillis(100);
+
+		long start = System.nanoTime();
+		Map<String, String> values = fetcher.fetch(Arrays.asList("stuck1", "key1", "key2"));
+
+		//The stuck fetch keeps its permit until it stops, so the other keys time out waiting for it.
+		assertTrue(values.isEmpty());
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 450);
+		assertEquals(1, fetcher.maxRunning.get());
+	}
+
+}
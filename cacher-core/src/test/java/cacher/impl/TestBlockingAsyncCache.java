@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class TestBlockingAsyncCache {
+
+	@Test
+	public void testCallingThread() throws Exception{
+		InMemoryCache inMemory = new InMemoryCache();
+		BlockingAsyncCache cache = new BlockingAsyncCache(inMemory);
+
+		CompletableFuture<Void> set = cache.setAsync("key1", "value1");
+		assertTrue(set.isDone());
+		assertEquals("value1", inMemory.get("key1"));
+
+		assertEquals("value1", cache.getAsync("key1").get());
+
+		inMemory.set("key2", "value2");
+		Map<String, Object> values = cache.getBulkAsync(Arrays.asList("key1", "key2")).get();
+		assertEquals("value1", values.get("key1"));
+		assertEquals("value2", values.get("key2"));
+
+		cache.removeAsync("key1").get();
+		assertNull(inMemory.get("key1"));
+	}
+
+	@Test
+	public void testExecutor() throws Exception{
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try{
+			BlockingAsyncCache cache = new BlockingAsyncCache(new InMemoryCache(), executor);
+
+			cache.setAsync("key", "value").get(5, TimeUnit.SECONDS);
+			assertEquals("value", cache.getAsync("key").get(5, TimeUnit.SECONDS));
+		}
+		finally{
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testFailure(){
+		BlockingAsyncCache cache = new BlockingAsyncCache(new ExceptionThrowingCache());
+
+		CompletableFuture<Object> result = cache.getAsync("key");
+
+		assertTrue(result.isCompletedExceptionally());
+		assertFalse(result.isCancelled());
+	}
+
+}
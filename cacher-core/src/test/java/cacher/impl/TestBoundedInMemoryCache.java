@@ -0,0 +1,258 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import testframework.util.FakeTicker;
+
+public class TestBoundedInMemoryCache {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidMaximumSize(){
+		new BoundedInMemoryCache(0);
+	}
+
+	@Test
+	public void testSetAndGet(){
+		BoundedInMemoryCache cache = new BoundedInMemoryCache(10);
+
+		assertNull(cache.get("key"));
+		cache.set("key", "value");
+		assertEquals("value", cache.get("key"));
+
+		cache.set("key", "other");
+		assertEquals("other", cache.get("key"));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testSetNull_RemovesEntry(){
+		BoundedInMemoryCache cache = new BoundedInMemoryCache(10);
+
+		cache.set("key", "value");
+		cache.set("key", null);
+
+		assertNull(cache.get("key"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testGetBulk(){
+		BoundedInMemoryCache cache = new BoundedInMemoryCache(10);
+		cache.set("key1", "value1");
+		cache.set("key2", "value2");
+
+		Map<String, Object> values = cache.getBulk(Arrays.asList("key1", "key2", "key3"));
+
+		assertEquals(2, values.size());
+		assertEquals("value1", values.get("key1"));
+		assertEquals("value2", values.get("key2"));
+		assertFalse(values.containsKey("key3"));
+	}
+
+	@Test
+	public void testRemoveAndClear(){
+		BoundedInMemoryCache cache = new BoundedInMemoryCache(10);
+		cache.set("key1", "value1");
+		cache.set("key2", "value2");
+
+		cache.remove("key1");
+		assertNull(cache.get("key1"));
+		assertEquals("value2", cache.get("key2"));
+
+		cache.clear();
+		assertNull(cache.get("key2"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testSetBulkAndRemoveBulk(){
+		BoundedInMemoryCache cache = new BoundedInMemoryCache(10);
+		cache.set("key3", "value3");
+
+		Map<String, Object> values = new HashMap<String, Object>();
+		values.put("key1", "value1");
+		values.put("key2", "value2");
+		values.put("key3", null);
+		cache.setBulk(values);
+
+		assertEquals("value1", cache.get("key1"));
+		assertEquals("value2", cache.get("key2"));
+		assertNull(cache.get("key3"));
+
+		cache.removeBulk(Arrays.asList("key1", "key2"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testBounded(){
+		BoundedInMemoryCache cache = new BoundedInMemoryCache(100);
+
+		for(int x = 0; x < 10000; x++){
+			cache.set("key" + x, x);
+		}
+
+		assertTrue(cache.size() <= 100);
+	}
+
+	/**
+	 * Frequently read keys should survive a scan of keys that are only ever seen once.
+	 */
+	@Test
+	public void testScanResistant(){
+		BoundedInMemoryCache cache = new BoundedInMemoryCache(100);
+
+		List<String> hotKeys = new ArrayList<String>();
+		for(int x = 0; x < 50; x++){
+			String key = "hot" + x;
+			hotKeys.add(key);
+			cache.set(key, x);
+		}
+		for(int round = 0; round < 5; round++){
+			for(String key : hotKeys){
+				cache.get(key);
+			}
+		}
+
+		for(int x = 0; x < 10000; x++){
+			cache.set("scan" + x, x);
+		}
+
+		int retained = 0;
+		for(String key : hotKeys){
+			if(cache.get(key) != null){
+				retained++;
+			}
+		}
+		assertTrue("Only " + retained + " hot keys retained", retained >= 45);
+	}
+
+	@Test
+	public void testConcurrentAccess() throws InterruptedException{
+		final BoundedInMemoryCache cache = new BoundedInMemoryCache(500);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for(int t = 0; t < 8; t++){
+			final int seed = t;
+			threads.add(new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					try{
+						for(int x = 0; x < 20000; x++){
+							String key = "key" + ((x * (seed + 1)) % 2000);
+							if(cache.get(key) == null){
+								cache.set(key, key);
+							}
+							else if(x % 7 == 0){
+								cache.remove(key);
+							}
+						}
+					}
+					catch(Throwable e){
+						failure.set(e);
+					}
+				}
+			}));
+		}
+		for(Thread thread : threads){
+			thread.start();
+		}
+		for(Thread thread : threads){
+			thread.join();
+		}
+
+		assertNull(failure.get());
+		assertTrue(cache.size() <= 500);
+	}
+
+	@Test
+	public void testSet_Expiration(){
+		FakeTicker ticker = new FakeTicker();
+		BoundedInMemoryCache cache = new BoundedInMemoryCache(10, ticker);
+
+		cache.set("key", "value", 10);
+
+		ticker.advance(9, TimeUnit.SECONDS);
+		assertEquals("value", cache.get("key"));
+
+		ticker.advance(1, TimeUnit.SECONDS);
+		assertNull(cache.get("key"));
+	}
+
+	@Test
+	public void testSet_DefaultExpiration(){
+		FakeTicker ticker = new FakeTicker();
+		BoundedInMemoryCache cache = new BoundedInMemoryCache(10, ticker);
+		cache.setDefaultCacheExpireSeconds(5);
+
+		cache.set("key1", "value1");
+		cache.set("key2", "value2", 0);
+
+		ticker.advance(1, TimeUnit.MINUTES);
+
+		assertNull(cache.get("key1"));
+		assertEquals("value2", cache.get("key2"));
+	}
+
+	@Test
+	public void testTimeToIdle(){
+		FakeTicker ticker = new FakeTicker();
+		BoundedInMemoryCache cache = new BoundedInMemoryCache(10, ticker);
+		cache.setTimeToIdleSeconds(10);
+
+		cache.set("key", "value");
+
+		for(int x = 0; x < 5; x++){
+			ticker.advance(8, TimeUnit.SECONDS);
+			assertEquals("value", cache.get("key"));
+		}
+
+		ticker.advance(10, TimeUnit.SECONDS);
+		assertNull(cache.get("key"));
+	}
+
+	/**
+	 * Expired entries that were never read again should still be removed.
+	 */
+	@Test
+	public void testExpiredEntriesRemoved(){
+		FakeTicker ticker = new FakeTicker();
+		BoundedInMemoryCache cache = new BoundedInMemoryCache(1000, ticker);
+
+		for(int x = 0; x < 100; x++){
+			cache.set("key" + x, x, 10);
+		}
+		assertEquals(100, cache.size());
+
+		ticker.advance(1, TimeUnit.MINUTES);
+		cache.set("other", "value");
+
+		assertEquals(1, cache.size());
+	}
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import testframework.util.FakeTicker;
+import cacher.fetcher.FetchManager;
+import cacher.fetcher.FetchMultipleOneAtATime;
+import cacher.impl.CircuitBreakerCache.State;
+
+public class TestCircuitBreakerCache {
+
+	private final FakeTicker ticker = new FakeTicker();
+	private final FlakyCache delegate = new FlakyCache();
+	private final CircuitBreakerCache cache = new CircuitBreakerCache(delegate, ticker);
+	private final List<String> transitions = new ArrayList<String>();
+
+	@Before
+	public void setup(){
+		cache.setMinimumCalls(4);
+		cache.setOpenMillis(1000);
+		cache.setProbeCalls(2);
+		cache.addListener(new CircuitBreakerListener() {
+
+			@Override
+			public void stateChanged(CircuitBreakerCache source, State from, State to) {
+				transitions.add(from + "->" + to);
+			}
+		});
+		delegate.set("key", "value");
+	}
+
+	/**
+	 * Fails or takes a while when told to, and counts calls.
+	 */
+	private class FlakyCache extends InMemoryCache {
+
+		private static final long serialVersionUID = 1L;
+
+		private int calls;
+		private boolean failing;
+		private long latencyMillis;
+
+		@Override
+		public Object get(String key) {
+			calls++;
+			ticker.advance(latencyMillis, TimeUnit.MILLISECONDS);
+			if(failing){
+				throw new RuntimeException("Fake Exception");
+			}
+			return super.get(key);
+		}
+
+	}
+
+	private void failCalls(int count){
+		for(int x = 0; x < count; x++){
+			try{
+				cache.get("key");
+				fail("Expected RuntimeException");
+			}
+			catch(RuntimeException e){
+				assertEquals("Fake Exception", e.getMessage());
+			}
+		}
+	}
+
+	@Test
+	public void testOpensOnFailureRate(){
+		delegate.failing = true;
+		failCalls(4);
+
+		assertEquals(State.OPEN, cache.getState());
+		assertEquals(Arrays.asList("CLOSED->OPEN"), transitions);
+
+		assertNull(cache.get("key"));
+		assertTrue(cache.getBulk(Arrays.asList("key")).isEmpty());
+		cache.set("key", "other");
+		assertEquals(4, delegate.calls);
+		assertEquals(3, cache.getShortCircuitedCount());
+	}
+
+	@Test
+	public void testStaysClosedBelowThreshold(){
+		for(int x = 0; x < 10; x++){
+			delegate.failing = (x % 4 == 0);
+			try{
+				cache.get("key");
+			}
+			catch(RuntimeException e){
+				//expected for failing calls
+			}
+		}
+
+		assertEquals(State.CLOSED, cache.getState());
+		assertEquals(10, delegate.calls);
+	}
+
+	@Test
+	public void testOpensOnSlowCalls(){
+		cache.setSlowCallMillis(500);
+		delegate.latencyMillis = 600;
+
+		for(int x = 0; x < 4; x++){
+			assertEquals("value", cache.get("key"));
+		}
+
+		assertEquals(State.OPEN, cache.getState());
+	}
+
+	@Test
+	public void testHalfOpen_ProbesSucceed(){
+		delegate.failing = true;
+		failCalls(4);
+		delegate.failing = false;
+
+		ticker.advance(999, TimeUnit.MILLISECONDS);
+		assertNull(cache.get("key"));
+
+		ticker.advance(1, TimeUnit.MILLISECONDS);
+		assertEquals("value", cache.get("key"));
+		assertEquals(State.HALF_OPEN, cache.getState());
+		assertEquals("value", cache.get("key"));
+
+		assertEquals(State.CLOSED, cache.getState());
+		assertEquals(Arrays.asList("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+	}
+
+	@Test
+	public void testHalfOpen_ProbeFails(){
+		delegate.failing = true;
+		failCalls(4);
+
+		ticker.advance(1, TimeUnit.SECONDS);
+		failCalls(1);
+
+		assertEquals(State.OPEN, cache.getState());
+		assertNull(cache.get("key"));
+		assertEquals(5, delegate.calls);
+		assertEquals(Arrays.asList("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN"), transitions);
+	}
+
+	@Test
+	public void testReset(){
+		delegate.failing = true;
+		failCalls(4);
+
+		cache.reset();
+
+		assertEquals(State.CLOSED, cache.getState());
+		failCalls(3);
+		assertEquals(State.CLOSED, cache.getState());
+	}
+
+	@Test
+	public void testFetchManager_SkipsCacheWhileOpen(){
+		FetchManager manager = new FetchManager(cache);
+		FetchMultipleOneAtATime<String> fetcher = new FetchMultipleOneAtATime<String>() {
+
+			@Override
+			public Class<String> getType() {
+				return String.class;
+			}
+
+			@Override
+			public String fetch(String key) {
+				return "fetched";
+			}
+		};
+
+		delegate.failing = true;
+		for(int x = 0; x < 4 && cache.getState() == State.CLOSED; x++){
+			assertEquals("fetched", manager.fetchSingle("key", fetcher));
+		}
+		assertEquals(State.OPEN, cache.getState());
+
+		int calls = delegate.calls;
+		assertEquals("fetched", manager.fetchSingle("key", fetcher));
+		assertEquals(calls, delegate.calls);
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import testframework.util.FakeTicker;
+import cacher.Cache;
+
+public class TestInMemoryCache {
+
+	private final FakeTicker ticker = new FakeTicker();
+	private final InMemoryCache cache = new InMemoryCache(ticker);
+
+	@Test
+	public void testSet_NoExpiration(){
+		cache.set("key", "value");
+
+		ticker.advance(365, TimeUnit.DAYS);
+
+		assertEquals("value", cache.get("key"));
+	}
+
+	@Test
+	public void testSet_Expiration(){
+		cache.set("key", "value", 10);
+
+		ticker.advance(9, TimeUnit.SECONDS);
+		assertEquals("value", cache.get("key"));
+
+		ticker.advance(1, TimeUnit.SECONDS);
+		assertNull(cache.get("key"));
+		assertFalse(cache.containsKey("key"));
+	}
+
+	@Test
+	public void testSet_DefaultExpiration(){
+		cache.setDefaultCacheExpireSeconds(5);
+		cache.set("key1", "value1");
+		cache.set("key2", "value2", Cache.NO_EXPIRATION);
+
+		ticker.advance(1, TimeUnit.MINUTES);
+
+		assertNull(cache.get("key1"));
+		assertEquals("value2", cache.get("key2"));
+	}
+
+	@Test
+	public void testSet_OverwriteClearsExpiration(){
+		cache.set("key", "value", 10);
+		cache.set("key", "value", Cache.NO_EXPIRATION);
+
+		ticker.advance(1, TimeUnit.MINUTES);
+
+		assertEquals("value", cache.get("key"));
+	}
+
+	/**
+	 * Expired entries that were never read again should still be removed.
+	 */
+	@Test
+	public void testExpiredEntriesRemoved(){
+		for(int x = 0; x < 100; x++){
+			cache.set("key" + x, x, 10);
+		}
+
+		ticker.advance(1, TimeUnit.MINUTES);
+		cache.getBulk(Arrays.asList("other"));
+
+		assertEquals(0, cache.size());
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import testframework.util.FakeTicker;
+import cacher.codec.SerializingValueCodec;
+
+public class TestOffHeapCache {
+
+	private final FakeTicker ticker = new FakeTicker();
+
+	private OffHeapCache createCache(int slabCount, int slabSize){
+		return new OffHeapCache(slabCount, slabSize, new SerializingValueCodec(), ticker);
+	}
+
+	@Test
+	public void testSetAndGet(){
+		OffHeapCache cache = createCache(2, 4096);
+
+		assertNull(cache.get("key"));
+
+		cache.set("key", "value");
+		assertEquals("value", cache.get("key"));
+
+		cache.set("key", Arrays.asList("a", "b"));
+		assertEquals(Arrays.asList("a", "b"), cache.get("key"));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testGetBulk(){
+		OffHeapCache cache = createCache(2, 4096);
+		cache.set("key1", "value1");
+		cache.set("key2", 2);
+
+		Map<String, Object> values = cache.getBulk(Arrays.asList("key1", "key2", "key3"));
+
+		assertEquals(2, values.size());
+		assertEquals("value1", values.get("key1"));
+		assertEquals(2, values.get("key2"));
+		assertFalse(values.containsKey("key3"));
+	}
+
+	@Test
+	public void testRemoveAndClear(){
+		OffHeapCache cache = createCache(2, 4096);
+		cache.set("key1", "value1");
+		cache.set("key2", "value2");
+
+		cache.remove("key1");
+		assertNull(cache.get("key1"));
+		assertEquals("value2", cache.get("key2"));
+
+		cache.clear();
+		assertNull(cache.get("key2"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testExpiration(){
+		OffHeapCache cache = createCache(2, 4096);
+		cache.set("key", "value", 10);
+
+		ticker.advance(9, TimeUnit.SECONDS);
+		assertEquals("value", cache.get("key"));
+
+		ticker.advance(1, TimeUnit.SECONDS);
+		assertNull(cache.get("key"));
+	}
+
+	@Test
+	public void testEntryLargerThanSlab(){
+		OffHeapCache cache = createCache(2, 256);
+		cache.set("key", "small");
+
+		cache.set("key", new byte[1024]);
+
+		assertNull(cache.get("key"));
+	}
+
+	/**
+	 * Once all slabs are full, the oldest entries are evicted and the newest retained.
+	 */
+	@Test
+	public void testOldestSlabEvicted(){
+		OffHeapCache cache = createCache(4, 1024);
+
+		for(int x = 0; x < 1000; x++){
+			cache.set("key" + x, x);
+		}
+
+		assertTrue(cache.size() < 1000);
+		assertNull(cache.get("key0"));
+		assertEquals(999, cache.get("key999"));
+	}
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import testframework.util.FakeTicker;
+
+public class TestTieredCache {
+
+	private final FakeTicker ticker = new FakeTicker();
+	private final InMemoryCache local = new InMemoryCache(ticker);
+	private final CountingCache remote = new CountingCache();
+	private final TieredCache cache = new TieredCache(local, remote);
+
+	@Test
+	public void testGet_PopulatesLocal(){
+		remote.set("key", "value");
+
+		assertEquals("value", cache.get("key"));
+		assertEquals("value", cache.get("key"));
+
+		assertEquals(1, remote.gets);
+		assertEquals("value", local.get("key"));
+	}
+
+	@Test
+	public void testGetBulk_OnlyMissesGoRemote(){
+		local.set("key1", "value1");
+		remote.set("key2", "value2");
+
+		Map<String, Object> values = cache.getBulk(Arrays.asList("key1", "key2", "key3"));
+
+		assertEquals(2, values.size());
+		assertEquals("value1", values.get("key1"));
+		assertEquals("value2", values.get("key2"));
+		assertEquals(1, remote.getBulks);
+		assertEquals(Arrays.asList("key2", "key3"), remote.lastBulkKeys);
+		assertEquals("value2", local.get("key2"));
+	}
+
+	@Test
+	public void testLocalExpiration(){
+		cache.setLocalExpireSeconds(5);
+		remote.set("key", "value");
+		cache.get("key");
+
+		ticker.advance(6, TimeUnit.SECONDS);
+		assertNull(local.get("key"));
+		assertEquals("value", cache.get("key"));
+		assertEquals(2, remote.gets);
+	}
+
+	@Test
+	public void testLocalExpiration_NeverExceedsRequested(){
+		cache.set("key", "value", 2);
+
+		ticker.advance(3, TimeUnit.SECONDS);
+		assertNull(local.get("key"));
+	}
+
+	@Test
+	public void testSetAndRemove_WriteThrough(){
+		cache.set("key", "value");
+		assertEquals("value", local.get("key"));
+		assertEquals("value", remote.get("key"));
+
+		cache.remove("key");
+		assertNull(local.get("key"));
+		assertNull(remote.get("key"));
+	}
+
+	@Test
+	public void testInvalidationListener(){
+		final List<String> invalidated = new ArrayList<String>();
+		cache.addInvalidationListener(new InvalidationListener() {
+
+			@Override
+			public void invalidated(String key) {
+				invalidated.add(key);
+			}
+
+			@Override
+			public void invalidatedAll() {
+				invalidated.add("*");
+			}
+		});
+
+		cache.set("key1", "value1");
+		cache.remove("key2");
+		cache.clear();
+
+		assertEquals(Arrays.asList("key1", "key2", "*"), invalidated);
+	}
+
+	@Test
+	public void testInvalidateLocal(){
+		cache.set("key", "value");
+		remote.set("key", "changed");
+
+		assertEquals("value", cache.get("key"));
+		cache.invalidateLocal("key");
+		assertEquals("changed", cache.get("key"));
+	}
+
+	private static class CountingCache extends InMemoryCache {
+
+		private static final long serialVersionUID = 1L;
+
+		private int gets;
+		private int getBulks;
+		private List<String> lastBulkKeys;
+
+		@Override
+		public Object get(String key) {
+			gets++;
+			return super.get(key);
+		}
+
+		@Override
+		public Map<String, Object> getBulk(List<String> keys) {
+			getBulks++;
+			lastBulkKeys = keys;
+			return super.getBulk(keys);
+		}
+
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class TestTimerWheel {
+
+	private final TimerWheel<TimerWheel.Timer> wheel = new TimerWheel<TimerWheel.Timer>(0L);
+
+	private TimerWheel.Timer schedule(long duration, TimeUnit unit){
+		TimerWheel.Timer timer = new TimerWheel.Timer();
+		timer.setExpirationTime(unit.toNanos(duration));
+		wheel.schedule(timer);
+		return timer;
+	}
+
+	@Test
+	public void testAdvance_NotYetExpired(){
+		TimerWheel.Timer timer = schedule(10, TimeUnit.SECONDS);
+
+		assertTrue(wheel.advance(TimeUnit.SECONDS.toNanos(5)).isEmpty());
+		assertTrue(timer.isScheduled());
+	}
+
+	@Test
+	public void testAdvance_Expired(){
+		TimerWheel.Timer timer = schedule(10, TimeUnit.SECONDS);
+
+		List<TimerWheel.Timer> expired = wheel.advance(TimeUnit.SECONDS.toNanos(12));
+
+		assertEquals(1, expired.size());
+		assertSame(timer, expired.get(0));
+		assertFalse(timer.isScheduled());
+	}
+
+	/**
+	 * Timers in the coarser wheels must cascade down and still fire.
+	 */
+	@Test
+	public void testAdvance_Cascades(){
+		TimerWheel.Timer minutes = schedule(3, TimeUnit.MINUTES);
+		TimerWheel.Timer hours = schedule(2, TimeUnit.HOURS);
+		TimerWheel.Timer days = schedule(10, TimeUnit.DAYS);
+
+		long now = 0;
+		int fired = 0;
+		while(now < TimeUnit.DAYS.toNanos(11)){
+			now += TimeUnit.SECONDS.toNanos(30);
+			for(TimerWheel.Timer timer : wheel.advance(now)){
+				assertTrue((now - timer.getExpirationTime()) >= 0);
+				assertTrue((now - timer.getExpirationTime()) < TimeUnit.MINUTES.toNanos(2));
+				fired++;
+			}
+		}
+
+		assertEquals(3, fired);
+		assertFalse(minutes.isScheduled());
+		assertFalse(hours.isScheduled());
+		assertFalse(days.isScheduled());
+	}
+
+	@Test
+	public void testDeschedule(){
+		TimerWheel.Timer timer = schedule(10, TimeUnit.SECONDS);
+
+		wheel.deschedule(timer);
+
+		assertFalse(timer.isScheduled());
+		assertTrue(wheel.advance(TimeUnit.SECONDS.toNanos(20)).isEmpty());
+	}
+
+	@Test
+	public void testClear(){
+		TimerWheel.Timer timer = schedule(10, TimeUnit.SECONDS);
+
+		wheel.clear();
+
+		assertFalse(timer.isScheduled());
+		assertTrue(wheel.advance(TimeUnit.SECONDS.toNanos(20)).isEmpty());
+	}
+
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import cacher.fetcher.FetchManager;
+import cacher.fetcher.FetchMultipleOneAtATime;
+
+public class TestWriteBehindCache {
+
+	private final BlockingCache delegate = new BlockingCache();
+	private WriteBehindCache cache;
+
+	@After
+	public void after(){
+		delegate.release();
+		if(cache != null){
+			cache.close();
+		}
+	}
+
+	/**
+	 * Records each write, and blocks writes of keys starting with "block" until released.
+	 */
+	private static class BlockingCache extends InMemoryCache {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Semaphore blocked = new Semaphore(0);
+		private final CountDownLatch released = new CountDownLatch(1);
+		private final List<String> writes = Collections.synchronizedList(new ArrayList<String>());
+
+		@Override
+		public synchronized Object get(String key) {
+			return super.get(key);
+		}
+
+		@Override
+		public void set(String key, Object value, int expiration) {
+			if(key.startsWith("block")){
+				blocked.release();
+				try{
+					released.await(5, TimeUnit.SECONDS);
+				}
+				catch(InterruptedException e){
+					Thread.currentThread().interrupt();
+				}
+			}
+			writes.add(key + "=" + value);
+			synchronized(this){
+				super.set(key, value, expiration);
+			}
+		}
+
+		private void awaitBlocked() throws InterruptedException{
+			assertTrue(blocked.tryAcquire(5, TimeUnit.SECONDS));
+		}
+
+		private void release(){
+			released.countDown();
+		}
+
+	}
+
+	@Test
+	public void testSetAndFlush() throws Exception{
+		cache = new WriteBehindCache(delegate);
+
+		cache.set("key", "value");
+		assertEquals("value", cache.get("key"));
+
+		assertTrue(cache.flush(5000));
+		assertEquals("value", delegate.get("key"));
+		assertEquals(1, cache.getQueuedCount());
+		assertEquals(1, cache.getWrittenCount());
+		assertEquals(0, cache.getPendingCount());
+	}
+
+	@Test
+	public void testWritesDoNotBlockCaller() throws Exception{
+		cache = new WriteBehindCache(delegate);
+
+		cache.set("block", "value");
+		delegate.awaitBlocked();
+		cache.set("key1", "value1");
+		cache.setBulk(Collections.<String, Object>singletonMap("key2", "value2"));
+
+		assertEquals("value1", cache.get("key1"));
+		Map<String, Object> values = cache.getBulk(Arrays.asList("key1", "key2", "key3"));
+		assertEquals("value1", values.get("key1"));
+		assertEquals("value2", values.get("key2"));
+		assertNull(values.get("key3"));
+		assertNull(delegate.get("key1"));
+
+		delegate.release();
+		assertTrue(cache.flush(5000));
+		assertEquals("value2", delegate.get("key2"));
+	}
+
+	@Test
+	public void testCoalesced() throws Exception{
+		cache = new WriteBehindCache(delegate);
+
+		cache.set("block", "value");
+		delegate.awaitBlocked();
+		for(int x = 0; x < 5; x++){
+			cache.set("key", "value" + x);
+		}
+
+		delegate.release();
+		assertTrue(cache.flush(5000));
+		assertEquals(Arrays.asList("block=value", "key=value4"), delegate.writes);
+		assertEquals(4, cache.getCoalescedCount());
+		assertEquals(2, cache.getWrittenCount());
+	}
+
+	@Test
+	public void testRemove_ReplacesPendingSet() throws Exception{
+		cache = new WriteBehindCache(delegate);
+
+		cache.set("block", "value");
+		delegate.awaitBlocked();
+		delegate.put("key", "old");
+		cache.set("key", "value");
+		cache.remove("key");
+		assertNull(cache.get("key"));
+
+		delegate.release();
+		assertTrue(cache.flush(5000));
+		assertNull(delegate.get("key"));
+		assertEquals(Arrays.asList("block=value"), delegate.writes);
+	}
+
+	@Test
+	public void testOverflow_Drop() throws Exception{
+		cache = new WriteBehindCache(delegate, 2, 1);
+
+		cache.set("block", "value");
+		delegate.awaitBlocked();
+		cache.set("key1", "value1");
+		cache.set("key2", "value2");
+		cache.set("key3", "value3");
+
+		assertEquals(1, cache.getDroppedCount());
+		assertNull(cache.get("key3"));
+
+		delegate.release();
+		assertTrue(cache.flush(5000));
+		assertNull(delegate.get("key3"));
+		assertEquals(3, cache.getWrittenCount());
+	}
+
+	@Test
+	public void testOverflow_CallerRuns() throws Exception{
+		cache = new WriteBehindCache(delegate, 1, 1);
+		cache.setOverflowPolicy(WriteBehindCache.OverflowPolicy.CALLER_RUNS);
+
+		cache.set("block", "value");
+		delegate.awaitBlocked();
+		cache.set("key1", "value1");
+		cache.set("key2", "value2");
+
+		assertEquals(0, cache.getDroppedCount());
+		assertEquals("value2", delegate.get("key2"));
+	}
+
+	@Test
+	public void testOverflow_CallerRuns_AppliesCoalescedWrite() throws Exception{
+		cache = new WriteBehindCache(delegate, 1, 1);
+		cache.setOverflowPolicy(WriteBehindCache.OverflowPolicy.CALLER_RUNS);
+
+		cache.set("block", "value");
+		delegate.awaitBlocked();
+		cache.set("key1", "value1");
+
+		//Overflows, so the caller applies the write and is blocked while doing so.
+		Thread caller = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				cache.set("block2", "value1");
+			}
+		});
+		caller.start();
+		delegate.awaitBlocked();
+
+		//Coalesced into the write the caller is applying.
+		cache.set("block2", "value2");
+		assertEquals(1, cache.getCoalescedCount());
+
+		delegate.release();
+		caller.join(5000);
+		assertTrue(cache.flush(5000));
+		assertEquals("value2", delegate.get("block2"));
+		assertEquals(0, cache.getPendingCount());
+	}
+
+	@Test
+	public void testOverflow_Drop_ClearedWhileRequeueing() throws Exception{
+		final AtomicInteger offers = new AtomicInteger();
+		//Always full. The offers of the overflowing write coalesce a later write, then clear.
+		BlockingQueue<String> full = new LinkedBlockingQueue<String>(1) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public boolean offer(String key) {
+				switch(offers.incrementAndGet()){
+				case 1:
+					cache.set("key", "value2");
+					break;
+				case 2:
+					cache.clear();
+					break;
+				default:
+					throw new AssertionError("Requeued a key that no longer has a pending write");
+				}
+				return false;
+			}
+		};
+		cache = new WriteBehindCache(delegate, full, 1);
+
+		cache.set("key", "value1");
+
+		assertEquals(2, offers.get());
+		assertEquals(1, cache.getCoalescedCount());
+		assertEquals(0, cache.getPendingCount());
+		assertNull(cache.get("key"));
+	}
+
+	@Test
+	public void testClear_WaitsForWriteInProgress() throws Exception{
+		cache = new WriteBehindCache(delegate);
+
+		cache.set("block", "value");
+		delegate.awaitBlocked();
+		Thread clearing = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				cache.clear();
+			}
+		});
+		clearing.start();
+		clearing.join(200);
+		assertTrue(clearing.isAlive());
+
+		delegate.release();
+		clearing.join(5000);
+		assertTrue(cache.flush(5000));
+		assertNull(delegate.get("block"));
+		assertNull(cache.get("block"));
+	}
+
+	@Test
+	public void testFetchManager() throws Exception{
+		cache = new WriteBehindCache(delegate);
+		FetchManager manager = new FetchManager(cache);
+
+		cache.set("block", "value");
+		delegate.awaitBlocked();
+		String value = manager.fetchSingle("key", new FetchMultipleOneAtATime<String>() {
+
+			@Override
+			public Class<String> getType() {
+				return String.class;
+			}
+
+			@Override
+			public String fetch(String key) {
+				return "fetched";
+			}
+		});
+
+		assertEquals("fetched", value);
+		assertNull(delegate.get("key"));
+
+		delegate.release();
+		assertTrue(cache.flush(5000));
+		assertEquals("fetched", delegate.get("key"));
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package testframework.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Clock} whose time only moves when told to.
+ * 
+ * @author Dennis Crissman
+ */
+public class FakeClock extends Clock {
+
+	private final AtomicLong millis = new AtomicLong(1000000000000L);
+
+	@Override
+	public ZoneId getZone() {
+		return ZoneOffset.UTC;
+	}
+
+	@Override
+	public Clock withZone(ZoneId zone) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public long millis() {
+		return millis.get();
+	}
+
+	@Override
+	public Instant instant() {
+		return Instant.ofEpochMilli(millis());
+	}
+
+	/**
+	 * Moves time forward.
+	 * @param duration - amount of time
+	 * @param unit - {@link TimeUnit} of the duration
+	 * @return this
+	 */
+	public FakeClock advance(long duration, TimeUnit unit){
+		millis.addAndGet(unit.toMillis(duration));
+		return this;
+	}
+
+}
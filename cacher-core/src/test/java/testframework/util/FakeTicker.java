@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package testframework.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import cacher.Ticker;
+
+/**
+ * {@link Ticker} whose time only moves when told to.
+ * 
+ * @author Dennis Crissman
+ */
+public class FakeTicker implements Ticker {
+
+	private final AtomicLong nanos = new AtomicLong();
+
+	@Override
+	public long read() {
+		return nanos.get();
+	}
+
+	/**
+	 * Moves time forward.
+	 * @param duration - amount of time
+	 * @param unit - {@link TimeUnit} of the duration
+	 * @return this
+	 */
+	public FakeTicker advance(long duration, TimeUnit unit){
+		nanos.addAndGet(unit.toNanos(duration));
+		return this;
+	}
+
+}
@@ -14,26 +14,50 @@ package cacher.memcached;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
 
 import net.spy.memcached.MemcachedClient;
+import net.spy.memcached.internal.BulkFuture;
+import net.spy.memcached.internal.BulkGetCompletionListener;
+import net.spy.memcached.internal.BulkGetFuture;
+import net.spy.memcached.internal.GetCompletionListener;
+import net.spy.memcached.internal.GetFuture;
+import net.spy.memcached.internal.OperationCompletionListener;
+import net.spy.memcached.internal.OperationFuture;
+import cacher.AsyncCache;
 import cacher.Cache;
+import cacher.CacheUtils;
 import cacher.memcached.getstrategy.GetStrategy;
 import cacher.memcached.getstrategy.SyncGetStrategy;
 
 /**
- * Implementation of {@link Cache} that uses Memcache.
+ * <p>Implementation of {@link Cache} that uses Memcache.</p>
+ * <p>The {@link AsyncCache} methods bypass the {@link GetStrategy} and complete their futures from
+ * spymemcached's completion listeners, so no thread is parked waiting on the network. Timeouts are
+ * governed by the {@link MemcachedClient}'s operation timeout.</p>
  * 
  * @author Andrew Edwards
  * @author Dennis Crissman
  */
-public class MemcachedCache implements Cache {
+public class MemcachedCache implements AsyncCache {
 
 	private final MemcachedClient client;
 	private int defaultExpireSeconds;
+	private int expireJitterSeconds = 0;
 	private final GetStrategy getStrategy;
 
+	/** Memcached treats expirations larger than 30 days as a unix timestamp. */
+	static final int MAX_RELATIVE_EXPIRATION = 60 * 60 * 24 * 30;
+
 	static final Character ESCAPE_CHAR = '&';
 	/** Any Character in this Array will be escaped in the cached key. */
 	static final Character[] ESCAPABLE_CHARS = new Character[]{' '};
@@ -124,14 +148,39 @@ public class MemcachedCache implements Cache {
 		set(key, value, getDefaultCacheExpireSeconds());
 	}
 
-	/**
-	 * Sets a value in the cacher
-	 * @param key - String key
-	 * @param value - Object value
-	 * @param expiration - Seconds to allow the cached key/value pair to live.
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#set(java.lang.String, java.lang.Object, int)
 	 */
+	@Override
 	public void set(String key, Object value, int expiration){
-		client.set(encode(key), expiration, value);
+		client.set(encode(key), resolveExpiration(expiration), value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values) {
+		setBulk(values, DEFAULT_EXPIRATION);
+	}
+
+	/**
+	 * spymemcached has no multi-set command, but it does not wait on any of these operations. They are
+	 * all queued on the client's connections before any response is read, and are written out together.
+	 * @see cacher.Cache#setBulk(java.util.Map, int)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values, int expiration) {
+		for(Map.Entry<String, Object> entry : values.entrySet()){
+			if(entry.getValue() == null){
+				client.delete(encode(entry.getKey()));
+			}
+			else{
+				client.set(encode(entry.getKey()), resolveExpiration(expiration), entry.getValue());
+			}
+		}
 	}
 
 	/*
@@ -140,7 +189,156 @@ public class MemcachedCache implements Cache {
 	 */
 	@Override
 	public void remove(String key) {
-		client.delete(key);
+		client.delete(encode(key));
+	}
+
+	/**
+	 * Like {@link #setBulk(Map, int)}, every delete is queued without waiting for a response.
+	 * @see cacher.Cache#removeBulk(java.util.Collection)
+	 */
+	@Override
+	public void removeBulk(Collection<String> keys) {
+		for(String key : keys){
+			client.delete(encode(key));
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.AsyncCache#getAsync(java.lang.String)
+	 */
+	@Override
+	public CompletableFuture<Object> getAsync(String key) {
+		final CompletableFuture<Object> result = new CompletableFuture<Object>();
+		final GetFuture<Object> future = client.asyncGet(encode(key));
+		cancelOnCancel(result, future);
+		future.addListener(new GetCompletionListener() {
+
+			@Override
+			public void onComplete(GetFuture<?> completed) throws Exception {
+				try{
+					result.complete(completed.get());
+				}
+				catch(ExecutionException e){
+					result.completeExceptionally(e.getCause());
+				}
+				catch(Exception e){
+					result.completeExceptionally(e);
+				}
+			}
+		});
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.AsyncCache#getBulkAsync(java.util.List)
+	 */
+	@Override
+	public CompletableFuture<Map<String, Object>> getBulkAsync(List<String> keys) {
+		if(keys == null || keys.isEmpty()){
+			return CompletableFuture.completedFuture(Collections.<String, Object>emptyMap());
+		}
+
+		List<String> encodedKeys = new ArrayList<String>();
+		for(String key : keys){
+			encodedKeys.add(encode(key));
+		}
+
+		final CompletableFuture<Map<String, Object>> result = new CompletableFuture<Map<String, Object>>();
+		final BulkFuture<Map<String, Object>> future = client.asyncGetBulk(encodedKeys);
+		cancelOnCancel(result, future);
+		future.addListener(new BulkGetCompletionListener() {
+
+			@Override
+			public void onComplete(BulkGetFuture<?> completed) throws Exception {
+				try{
+					Map<String, ?> values = completed.get();
+					Map<String, Object> decoded = new HashMap<String, Object>();
+					if(values != null){
+						for(Map.Entry<String, ?> entry : values.entrySet()){
+							decoded.put(decode(entry.getKey()), entry.getValue());
+						}
+					}
+					result.complete(decoded);
+				}
+				catch(ExecutionException e){
+					result.completeExceptionally(e.getCause());
+				}
+				catch(Exception e){
+					result.completeExceptionally(e);
+				}
+			}
+		});
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.AsyncCache#setAsync(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public CompletableFuture<Void> setAsync(String key, Object value) {
+		return setAsync(key, value, DEFAULT_EXPIRATION);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.AsyncCache#setAsync(java.lang.String, java.lang.Object, int)
+	 */
+	@Override
+	public CompletableFuture<Void> setAsync(String key, Object value, int expiration) {
+		return toCompletableFuture(client.set(encode(key), resolveExpiration(expiration), value));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.AsyncCache#removeAsync(java.lang.String)
+	 */
+	@Override
+	public CompletableFuture<Void> removeAsync(String key) {
+		return toCompletableFuture(client.delete(encode(key)));
+	}
+
+	/**
+	 * @param future - {@link OperationFuture} of a write to memcached.
+	 * @return {@link CompletableFuture} that completes when the write does.
+	 */
+	private static CompletableFuture<Void> toCompletableFuture(OperationFuture<Boolean> future){
+		final CompletableFuture<Void> result = new CompletableFuture<Void>();
+		cancelOnCancel(result, future);
+		future.addListener(new OperationCompletionListener() {
+
+			@Override
+			public void onComplete(OperationFuture<?> completed) throws Exception {
+				try{
+					completed.get();
+					result.complete(null);
+				}
+				catch(ExecutionException e){
+					result.completeExceptionally(e.getCause());
+				}
+				catch(Exception e){
+					result.completeExceptionally(e);
+				}
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Cancels the memcached operation if the caller cancels the {@link CompletableFuture}.
+	 */
+	private static void cancelOnCancel(CompletableFuture<?> result, final Future<?> future){
+		result.whenComplete(new BiConsumer<Object, Throwable>() {
+
+			@Override
+			public void accept(Object value, Throwable error) {
+				if(error instanceof CancellationException){
+					future.cancel(false);
+				}
+			}
+		});
 	}
 
 	/**
@@ -158,6 +356,34 @@ public class MemcachedCache implements Cache {
 		return defaultExpireSeconds;
 	}
 
+	/**
+	 * Sets the maximum number of seconds randomly added to each entry's expiration, so that entries
+	 * written together (eg. by a single fetchMultiple) do not all expire together. Defaults to 0.
+	 * @param seconds - maximum seconds to add.
+	 */
+	public void setExpireJitterSeconds(int seconds) {
+		expireJitterSeconds = seconds;
+	}
+
+	/**
+	 * @return maximum seconds randomly added to each entry's expiration.
+	 */
+	public int getExpireJitterSeconds() {
+		return expireJitterSeconds;
+	}
+
+	/**
+	 * @param expiration - requested expiration in seconds, or {@link Cache#DEFAULT_EXPIRATION}.
+	 * @return the expiration to send to memcached.
+	 */
+	private int resolveExpiration(int expiration){
+		int seconds = (expiration == DEFAULT_EXPIRATION) ? getDefaultCacheExpireSeconds() : expiration;
+		if(seconds > MAX_RELATIVE_EXPIRATION){
+			return seconds;
+		}
+		return Math.min(CacheUtils.jitterExpiration(seconds, getExpireJitterSeconds()), MAX_RELATIVE_EXPIRATION);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see cacher.Cache#clear()
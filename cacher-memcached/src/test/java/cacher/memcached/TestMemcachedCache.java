@@ -11,23 +11,39 @@
 
 package cacher.memcached;
 
+import static org.easymock.EasyMock.capture;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.reset;
 import static org.easymock.EasyMock.verify;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import net.spy.memcached.MemcachedClient;
+import net.spy.memcached.internal.BulkFuture;
+import net.spy.memcached.internal.BulkGetCompletionListener;
+import net.spy.memcached.internal.BulkGetFuture;
+import net.spy.memcached.internal.GetCompletionListener;
+import net.spy.memcached.internal.GetFuture;
+import net.spy.memcached.internal.OperationCompletionListener;
+import net.spy.memcached.internal.OperationFuture;
 
+import org.easymock.Capture;
 import org.easymock.EasyMock;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import cacher.Cache;
+
 public class TestMemcachedCache {
 
 	private final MemcachedClient client = EasyMock.createMock(MemcachedClient.class);
@@ -96,6 +112,165 @@ public class TestMemcachedCache {
 		cache.set(key, value);
 	}
 
+	@Test
+	public void testSet_DefaultExpiration(){
+		String key = "my&key";
+		Object value = new Object();
+		int timeout = 5;
+
+		reset(client);
+		expect(client.set(
+				MemcachedCache.encode(key), timeout, value)
+				).andReturn(null).once();
+		replay(client);
+
+		MemcachedCache cache = createCache(timeout);
+		cache.set(key, value, Cache.DEFAULT_EXPIRATION);
+	}
+
+	@Test
+	public void testSet_ExpireJitter(){
+		String key = "my&key";
+		Object value = new Object();
+		Capture<Integer> expiration = EasyMock.newCapture();
+
+		reset(client);
+		expect(client.set(
+				EasyMock.eq(MemcachedCache.encode(key)), EasyMock.captureInt(expiration), EasyMock.eq(value))
+				).andReturn(null).once();
+		replay(client);
+
+		MemcachedCache cache = createCache(60);
+		cache.setExpireJitterSeconds(10);
+		cache.set(key, value);
+
+		assertTrue(expiration.getValue() >= 60 && expiration.getValue() <= 70);
+	}
+
+	@Test
+	public void testRemove(){
+		String key = "my&key";
+
+		reset(client);
+		expect(client.delete(MemcachedCache.encode(key))).andReturn(null).once();
+		replay(client);
+
+		MemcachedCache cache = createCache();
+		cache.remove(key);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testGetAsync() throws Exception{
+		String key = "my&key";
+		Object value = new Object();
+		GetFuture<Object> future = EasyMock.createMock(GetFuture.class);
+		Capture<GetCompletionListener> listener = EasyMock.newCapture();
+
+		reset(client);
+		expect(client.asyncGet(MemcachedCache.encode(key))).andReturn(future).once();
+		replay(client);
+		expect(future.addListener(capture(listener))).andReturn(future).once();
+		expect(future.get()).andReturn(value).once();
+		replay(future);
+
+		MemcachedCache cache = createCache();
+		CompletableFuture<Object> result = cache.getAsync(key);
+		assertFalse(result.isDone());
+
+		listener.getValue().onComplete(future);
+		assertEquals(value, result.get());
+		verify(future);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testGetAsync_Failure() throws Exception{
+		String key = "my&key";
+		RuntimeException failure = new RuntimeException("fake");
+		GetFuture<Object> future = EasyMock.createMock(GetFuture.class);
+		Capture<GetCompletionListener> listener = EasyMock.newCapture();
+
+		reset(client);
+		expect(client.asyncGet(MemcachedCache.encode(key))).andReturn(future).once();
+		replay(client);
+		expect(future.addListener(capture(listener))).andReturn(future).once();
+		expect(future.get()).andThrow(new ExecutionException(failure)).once();
+		replay(future);
+
+		MemcachedCache cache = createCache();
+		CompletableFuture<Object> result = cache.getAsync(key);
+		listener.getValue().onComplete(future);
+
+		assertTrue(result.isCompletedExceptionally());
+		try{
+			result.get();
+			fail("Expected ExecutionException");
+		}
+		catch(ExecutionException e){
+			assertEquals(failure, e.getCause());
+		}
+		verify(future);
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	@Test
+	public void testGetBulkAsync() throws Exception{
+		String key1 = "my&key";
+		String key2 = "my other key";
+		Map<String, Object> values = new HashMap<String, Object>();
+		values.put(MemcachedCache.encode(key1), "value1");
+		values.put(MemcachedCache.encode(key2), "value2");
+
+		BulkGetFuture future = EasyMock.createMock(BulkGetFuture.class);
+		Capture<BulkGetCompletionListener> listener = EasyMock.newCapture();
+
+		reset(client);
+		expect(client.asyncGetBulk(
+				Arrays.asList(MemcachedCache.encode(key1), MemcachedCache.encode(key2)))
+				).andReturn((BulkFuture<Map<String, Object>>) future).once();
+		replay(client);
+		expect(future.addListener(capture(listener))).andReturn(future).once();
+		expect(future.get()).andReturn(values).once();
+		replay(future);
+
+		MemcachedCache cache = createCache();
+		CompletableFuture<Map<String, Object>> result = cache.getBulkAsync(Arrays.asList(key1, key2));
+		listener.getValue().onComplete(future);
+
+		Map<String, Object> expected = new HashMap<String, Object>();
+		expected.put(key1, "value1");
+		expected.put(key2, "value2");
+		assertEquals(expected, result.get());
+		verify(future);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testSetAsync() throws Exception{
+		String key = "my&key";
+		Object value = new Object();
+		int timeout = 5;
+		OperationFuture<Boolean> future = EasyMock.createMock(OperationFuture.class);
+		Capture<OperationCompletionListener> listener = EasyMock.newCapture();
+
+		reset(client);
+		expect(client.set(MemcachedCache.encode(key), timeout, value)).andReturn(future).once();
+		replay(client);
+		expect(future.addListener(capture(listener))).andReturn(future).once();
+		expect(future.get()).andReturn(Boolean.TRUE).once();
+		replay(future);
+
+		MemcachedCache cache = createCache(timeout);
+		CompletableFuture<Void> result = cache.setAsync(key, value);
+		assertFalse(result.isDone());
+
+		listener.getValue().onComplete(future);
+		assertTrue(result.isDone());
+		assertFalse(result.isCompletedExceptionally());
+		verify(future);
+	}
+
 	@Test
 	public void testEncode(){
 		String fakeKey = "He llo &Wo&rld";
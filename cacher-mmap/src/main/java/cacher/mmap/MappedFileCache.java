@@ -0,0 +1,655 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.mmap;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import cacher.Cache;
+import cacher.codec.SerializingValueCodec;
+import cacher.codec.ValueCodec;
+
+/**
+ * <p>{@link Cache} that persists entries to memory-mapped files on local disk, so that the cached
+ * values survive a restart of the JVM.</p>
+ * <p>Entries are appended to a log made up of fixed size segment files, and an in-memory index maps each
+ * key to the location of its latest record. Overwriting or removing a key only marks the previous record
+ * as dead. Once half of a segment is dead, its remaining live records are copied forward and the segment
+ * file is deleted. If more than the maximum number of segments are in use, the oldest segment is evicted
+ * along with every entry still stored in it.</p>
+ * <p>Every record carries a checksum. When the cache is reopened the segments are replayed in order to
+ * rebuild the index, and a record that was only partially written before a crash is discarded.</p>
+ * <p>Values are converted to bytes using a {@link ValueCodec}, by default {@link SerializingValueCodec}.
+ * Because entries outlive the process, expiration is tracked using wall clock time.</p>
+ * <p>Only one instance may have a directory open at any given time.</p>
+ *
+ * @author Dennis Crissman
+ */
+public class MappedFileCache implements Cache, Closeable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MappedFileCache.class);
+
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+	public static final int DEFAULT_MAX_SEGMENTS = 16;
+
+	/** Fraction of a segment that must be dead before it is compacted. */
+	private static final double COMPACTION_THRESHOLD = 0.5;
+
+	private final File directory;
+	private final int segmentSize;
+	private final int maxSegments;
+	private final ValueCodec codec;
+	private final Clock clock;
+	private volatile int defaultExpireSeconds = NO_EXPIRATION;
+	private volatile boolean syncOnWrite = false;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/* Guarded by lock */
+	private final TreeMap<Long, Segment> segments = new TreeMap<Long, Segment>();
+	private final Map<String, Location> index = new HashMap<String, Location>();
+	private Segment active;
+	private boolean closed = false;
+
+	/**
+	 * Uses {@link #DEFAULT_SEGMENT_SIZE}, {@link #DEFAULT_MAX_SEGMENTS} and {@link SerializingValueCodec}.
+	 * @param directory - directory to store the segment files in, created if it does not exist.
+	 * @throws IOException
+	 */
+	public MappedFileCache(File directory) throws IOException{
+		this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_SEGMENTS);
+	}
+
+	/**
+	 * Uses {@link SerializingValueCodec}.
+	 * @param directory - directory to store the segment files in, created if it does not exist.
+	 * @param segmentSize - size of each segment file in bytes, which is also the largest entry that can be cached.
+	 * @param maxSegments - maximum number of segment files to keep on disk.
+	 * @throws IOException
+	 */
+	public MappedFileCache(File directory, int segmentSize, int maxSegments) throws IOException{
+		this(directory, segmentSize, maxSegments, new SerializingValueCodec(), Clock.systemUTC());
+	}
+
+	/**
+	 * @param directory - directory to store the segment files in, created if it does not exist.
+	 * @param segmentSize - size of each segment file in bytes, which is also the largest entry that can be cached.
+	 * @param maxSegments - maximum number of segment files to keep on disk.
+	 * @param codec - {@link ValueCodec} used to convert values to and from bytes.
+	 * @param clock - {@link Clock} used to determine when entries expire.
+	 * @throws IOException
+	 */
+	public MappedFileCache(File directory, int segmentSize, int maxSegments, ValueCodec codec, Clock clock) throws IOException{
+		if(maxSegments < 2){
+			throw new IllegalArgumentException("At least 2 segments are required: " + maxSegments);
+		}
+		if(segmentSize <= Segment.HEADER_SIZE){
+			throw new IllegalArgumentException("segmentSize is too small: " + segmentSize);
+		}
+		if(!directory.isDirectory() && !directory.mkdirs()){
+			throw new IOException("Unable to create directory " + directory);
+		}
+
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.maxSegments = maxSegments;
+		this.codec = codec;
+		this.clock = clock;
+
+		recover();
+	}
+
+	/**
+	 * Sets the default entry expire timeout in seconds. This value will be used if one is not otherwise specified.
+	 * @param seconds - default seconds to expire entries, {@link Cache#NO_EXPIRATION} to never expire.
+	 */
+	public void setDefaultCacheExpireSeconds(int seconds) {
+		defaultExpireSeconds = seconds;
+	}
+
+	/**
+	 * @return default seconds each entry will expire in.
+	 */
+	public int getDefaultCacheExpireSeconds() {
+		return defaultExpireSeconds;
+	}
+
+	/**
+	 * If <code>true</code>, every write is flushed to disk before returning. Otherwise the operating system
+	 * decides when to write dirty pages, and the most recent writes may be lost if the machine (but not
+	 * the JVM) crashes. Defaults to <code>false</code>.
+	 * @param syncOnWrite - whether to flush on every write.
+	 */
+	public void setSyncOnWrite(boolean syncOnWrite){
+		this.syncOnWrite = syncOnWrite;
+	}
+
+	/**
+	 * @return whether every write is flushed to disk before returning.
+	 */
+	public boolean isSyncOnWrite(){
+		return syncOnWrite;
+	}
+
+	/**
+	 * @return the current number of entries, which may include expired entries that have not yet been removed.
+	 */
+	public int size(){
+		lock.readLock().lock();
+		try{
+			return index.size();
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of segment files currently on disk.
+	 */
+	public int getSegmentCount(){
+		lock.readLock().lock();
+		try{
+			return segments.size();
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#get(java.lang.String)
+	 */
+	@Override
+	public Object get(String key) {
+		byte[] bytes;
+		lock.readLock().lock();
+		try{
+			ensureOpen();
+			bytes = readLocked(key, clock.millis());
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+
+		if(bytes == null){
+			return null;
+		}
+		return codec.decode(bytes);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#getBulk(java.util.List)
+	 */
+	@Override
+	public Map<String, Object> getBulk(List<String> keys) {
+		Map<String, byte[]> encoded = new HashMap<String, byte[]>();
+		lock.readLock().lock();
+		try{
+			ensureOpen();
+			long now = clock.millis();
+			for(String key : keys){
+				byte[] bytes = readLocked(key, now);
+				if(bytes != null){
+					encoded.put(key, bytes);
+				}
+			}
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+
+		Map<String, Object> values = new HashMap<String, Object>();
+		for(Map.Entry<String, byte[]> entry : encoded.entrySet()){
+			values.put(entry.getKey(), codec.decode(entry.getValue()));
+		}
+		return values;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#set(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void set(String key, Object value) {
+		set(key, value, DEFAULT_EXPIRATION);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#set(java.lang.String, java.lang.Object, int)
+	 */
+	@Override
+	public void set(String key, Object value, int expiration) {
+		if(value == null){
+			remove(key);
+			return;
+		}
+
+		byte[] valueBytes = codec.encode(value);
+		int seconds = (expiration == DEFAULT_EXPIRATION) ? getDefaultCacheExpireSeconds() : expiration;
+
+		lock.writeLock().lock();
+		try{
+			ensureOpen();
+			writeLocked(key, valueBytes, seconds, clock.millis());
+			afterWrite();
+		}
+		catch(IOException e){
+			throw new MappedFileCacheException("Unable to write " + key, e);
+		}
+		finally{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values) {
+		setBulk(values, DEFAULT_EXPIRATION);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#setBulk(java.util.Map, int)
+	 */
+	@Override
+	public void setBulk(Map<String, Object> values, int expiration) {
+		int seconds = (expiration == DEFAULT_EXPIRATION) ? getDefaultCacheExpireSeconds() : expiration;
+
+		//Encode outside of the lock, null values are removed.
+		Map<String, byte[]> encoded = new HashMap<String, byte[]>();
+		for(Map.Entry<String, Object> entry : values.entrySet()){
+			encoded.put(entry.getKey(), (entry.getValue() == null) ? null : codec.encode(entry.getValue()));
+		}
+
+		lock.writeLock().lock();
+		try{
+			ensureOpen();
+			long now = clock.millis();
+			for(Map.Entry<String, byte[]> entry : encoded.entrySet()){
+				if(entry.getValue() == null){
+					removeLocked(entry.getKey());
+				}
+				else{
+					writeLocked(entry.getKey(), entry.getValue(), seconds, now);
+				}
+			}
+			afterWrite();
+		}
+		catch(IOException e){
+			throw new MappedFileCacheException("Unable to write " + values.keySet(), e);
+		}
+		finally{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#clear()
+	 */
+	@Override
+	public void clear() {
+		lock.writeLock().lock();
+		try{
+			ensureOpen();
+			long nextId = active.getId() + 1;
+			for(Segment segment : segments.values()){
+				segment.delete();
+			}
+			segments.clear();
+			index.clear();
+			active = newSegment(nextId);
+		}
+		catch(IOException e){
+			throw new MappedFileCacheException("Unable to clear " + directory, e);
+		}
+		finally{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#remove(java.lang.String)
+	 */
+	@Override
+	public void remove(String key) {
+		lock.writeLock().lock();
+		try{
+			ensureOpen();
+			removeLocked(key);
+			afterWrite();
+		}
+		catch(IOException e){
+			throw new MappedFileCacheException("Unable to remove " + key, e);
+		}
+		finally{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cacher.Cache#removeBulk(java.util.Collection)
+	 */
+	@Override
+	public void removeBulk(Collection<String> keys) {
+		lock.writeLock().lock();
+		try{
+			ensureOpen();
+			for(String key : keys){
+				removeLocked(key);
+			}
+			afterWrite();
+		}
+		catch(IOException e){
+			throw new MappedFileCacheException("Unable to remove " + keys, e);
+		}
+		finally{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Flushes and closes all segment files. The cache can no longer be used afterwards.
+	 */
+	@Override
+	public void close() throws IOException {
+		lock.writeLock().lock();
+		try{
+			if(closed){
+				return;
+			}
+			closed = true;
+			for(Segment segment : segments.values()){
+				segment.close();
+			}
+			segments.clear();
+			index.clear();
+			active = null;
+		}
+		finally{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Appends the entry, replacing any previous record of the key. Entries too large to fit in a
+	 * segment are removed instead. Must be called while holding the write lock.
+	 */
+	private void writeLocked(String key, byte[] valueBytes, int seconds, long now) throws IOException{
+		byte[] keyBytes = key.getBytes(Segment.UTF8);
+		if(Segment.recordSize(keyBytes.length, valueBytes.length) > segmentSize){
+			LOGGER.debug("Entry too large to cache (" + valueBytes.length + " bytes): " + key);
+			removeLocked(key);
+			return;
+		}
+
+		markDead(index.get(key));
+		long expiresAt = (seconds > 0) ? now + TimeUnit.SECONDS.toMillis(seconds) : 0L;
+		index.put(key, append(keyBytes, valueBytes, expiresAt));
+	}
+
+	/**
+	 * Appends a tombstone for the key, if it is present. Must be called while holding the write lock.
+	 */
+	private void removeLocked(String key) throws IOException{
+		Location location = index.remove(key);
+		if(location == null){
+			return;
+		}
+		markDead(location);
+
+		//Tombstone masks the previous record when replayed, it is dead from the moment it is written.
+		markDead(append(key.getBytes(Segment.UTF8), null, 0L));
+	}
+
+	/**
+	 * Copies the value bytes for the key out of its segment. Must be called while holding the lock.
+	 */
+	private byte[] readLocked(String key, long now){
+		Location location = index.get(key);
+		if(location == null || location.hasExpired(now)){
+			return null;
+		}
+		return location.segment.readValue(location.offset, location.keyLength, location.valueLength);
+	}
+
+	private void ensureOpen(){
+		if(closed){
+			throw new IllegalStateException("MappedFileCache has been closed: " + directory);
+		}
+	}
+
+	/**
+	 * Opens every existing segment in the directory, in order, and replays its records to rebuild the index.
+	 */
+	private void recover() throws IOException{
+		File[] files = directory.listFiles();
+		if(files != null){
+			Arrays.sort(files);
+			final long now = clock.millis();
+			for(File file : files){
+				if(!Segment.isSegmentFile(file)){
+					continue;
+				}
+
+				final Segment segment = Segment.open(file);
+				segments.put(segment.getId(), segment);
+				segment.recover(new Segment.RecordVisitor() {
+
+					@Override
+					public void visit(int offset, String key, int keyLength, int valueLength, long expiresAt) {
+						Location location = new Location(segment, offset, keyLength, valueLength, expiresAt);
+						markDead(index.remove(key));
+						if(valueLength == Segment.TOMBSTONE || location.hasExpired(now)){
+							markDead(location);
+						}
+						else{
+							index.put(key, location);
+						}
+					}
+				});
+			}
+		}
+
+		if(segments.isEmpty()){
+			active = newSegment(1);
+		}
+		else{
+			active = segments.lastEntry().getValue();
+		}
+		LOGGER.debug("Recovered " + index.size() + " entries from " + segments.size() + " segments in " + directory);
+	}
+
+	/**
+	 * Appends the record to the active segment, rolling over to a new segment if it is full.
+	 * Must be called while holding the write lock.
+	 */
+	private Location append(byte[] keyBytes, byte[] valueBytes, long expiresAt) throws IOException{
+		int offset = active.append(keyBytes, valueBytes, expiresAt);
+		if(offset < 0){
+			active.force();
+			active = newSegment(active.getId() + 1);
+			offset = active.append(keyBytes, valueBytes, expiresAt);
+		}
+		return new Location(active, offset, keyBytes.length,
+				(valueBytes == null) ? Segment.TOMBSTONE : valueBytes.length, expiresAt);
+	}
+
+	private Segment newSegment(long id) throws IOException{
+		Segment segment = Segment.create(directory, id, segmentSize);
+		segments.put(id, segment);
+		return segment;
+	}
+
+	private void markDead(Location location){
+		if(location != null){
+			location.segment.addDeadBytes(location.recordSize());
+		}
+	}
+
+	/**
+	 * Compacts mostly dead segments, evicts the oldest segments if there are too many and, if
+	 * configured to, flushes the active segment. Must be called while holding the write lock.
+	 */
+	private void afterWrite() throws IOException{
+		List<Segment> compactable = new ArrayList<Segment>();
+		for(Segment segment : segments.values()){
+			if(segment != active && segment.getDeadBytes() >= segment.getWritePosition() * COMPACTION_THRESHOLD){
+				compactable.add(segment);
+			}
+		}
+		for(Segment segment : compactable){
+			compact(segment);
+		}
+
+		while(segments.size() > maxSegments){
+			evict(segments.firstEntry().getValue());
+		}
+
+		if(isSyncOnWrite()){
+			active.force();
+		}
+	}
+
+	/**
+	 * Copies the live records out of the segment and deletes it.
+	 */
+	private void compact(final Segment segment) throws IOException{
+		final boolean olderSegmentsExist = segments.firstKey() < segment.getId();
+		final List<IOException> failures = new ArrayList<IOException>();
+		final int[] copied = new int[1];
+
+		segment.scan(new Segment.RecordVisitor() {
+
+			@Override
+			public void visit(int offset, String key, int keyLength, int valueLength, long expiresAt) {
+				try{
+					byte[] keyBytes = key.getBytes(Segment.UTF8);
+					if(valueLength == Segment.TOMBSTONE){
+						//Still needed to mask a record of the key in an older segment.
+						if(olderSegmentsExist && !index.containsKey(key)){
+							markDead(append(keyBytes, null, 0L));
+						}
+						return;
+					}
+
+					Location location = index.get(key);
+					if(location != null && location.segment == segment && location.offset == offset){
+						byte[] value = segment.readValue(offset, keyLength, valueLength);
+						index.put(key, append(keyBytes, value, expiresAt));
+						copied[0]++;
+					}
+				}
+				catch(IOException e){
+					failures.add(e);
+				}
+			}
+		});
+
+		if(!failures.isEmpty()){
+			throw failures.get(0);
+		}
+
+		segments.remove(segment.getId());
+		segment.delete();
+		LOGGER.debug("Compacted segment " + segment.getId() + ", copied " + copied[0] + " entries");
+	}
+
+	/**
+	 * Deletes the segment, removing every entry still stored in it.
+	 */
+	private void evict(final Segment segment) throws IOException{
+		final int[] evicted = new int[1];
+		segment.scan(new Segment.RecordVisitor() {
+
+			@Override
+			public void visit(int offset, String key, int keyLength, int valueLength, long expiresAt) {
+				Location location = index.get(key);
+				if(location != null && location.segment == segment && location.offset == offset){
+					index.remove(key);
+					evicted[0]++;
+				}
+			}
+		});
+
+		segments.remove(segment.getId());
+		segment.delete();
+		LOGGER.debug("Evicted segment " + segment.getId() + ", removed " + evicted[0] + " entries");
+	}
+
+	/**
+	 * Where an entry lives on disk.
+	 */
+	private static final class Location {
+
+		private final Segment segment;
+		private final int offset;
+		private final int keyLength;
+		private final int valueLength;
+		private final long expiresAt;
+
+		private Location(Segment segment, int offset, int keyLength, int valueLength, long expiresAt){
+			this.segment = segment;
+			this.offset = offset;
+			this.keyLength = keyLength;
+			this.valueLength = valueLength;
+			this.expiresAt = expiresAt;
+		}
+
+		private int recordSize(){
+			return Segment.recordSize(keyLength, valueLength);
+		}
+
+		private boolean hasExpired(long now){
+			return expiresAt != 0L && now >= expiresAt;
+		}
+
+	}
+
+	/**
+	 * Thrown when the underlying segment files cannot be written.
+	 */
+	public static class MappedFileCacheException extends RuntimeException {
+
+		private static final long serialVersionUID = 2938274165395128751L;
+
+		public MappedFileCacheException(String message, Throwable cause){
+			super(message, cause);
+		}
+
+	}
+
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.mmap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.zip.CRC32;
+
+/**
+ * <p>A single append-only log file, memory-mapped in its entirety.</p>
+ * <p>Each record is laid out as <code>[crc][keyLength][valueLength][expiresAt][key][value]</code>, where
+ * the crc covers everything after it. A <code>valueLength</code> of {@link #TOMBSTONE} marks a removed key.
+ * The crc is written last, so a record torn by a crash is detected and discarded when the segment is recovered.</p>
+ * <p><b>NOTE:</b> This class is not thread-safe, callers must provide their own synchronization.</p>
+ * 
+ * @author Dennis Crissman
+ */
+final class Segment {
+
+	static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/** crc (int) + keyLength (int) + valueLength (int) + expiresAt (long) */
+	static final int HEADER_SIZE = 20;
+	static final int TOMBSTONE = -1;
+
+	private static final String PREFIX = "segment-";
+	private static final String SUFFIX = ".log";
+
+	private final long id;
+	private final File file;
+	private final RandomAccessFile randomAccessFile;
+	private final MappedByteBuffer buffer;
+	private int writePosition;
+	private long deadBytes;
+
+	private Segment(long id, File file, int size) throws IOException{
+		this.id = id;
+		this.file = file;
+		this.randomAccessFile = new RandomAccessFile(file, "rw");
+		if(randomAccessFile.length() < size){
+			randomAccessFile.setLength(size);
+		}
+		this.buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, randomAccessFile.length());
+	}
+
+	/**
+	 * Creates a new, empty segment.
+	 * @param directory - directory to create the segment file in.
+	 * @param id - segment id, segments are replayed in id order.
+	 * @param size - size of the segment in bytes.
+	 * @return new {@link Segment}
+	 * @throws IOException
+	 */
+	static Segment create(File directory, long id, int size) throws IOException{
+		return new Segment(id, new File(directory, fileName(id)), size);
+	}
+
+	/**
+	 * Opens an existing segment. {@link #recover(RecordVisitor)} must be called before appending to it.
+	 * @param file - existing segment file.
+	 * @return {@link Segment}
+	 * @throws IOException
+	 */
+	static Segment open(File file) throws IOException{
+		return new Segment(parseId(file), file, 0);
+	}
+
+	/**
+	 * @param file - file to check.
+	 * @return <code>true</code> if the file name matches that of a segment.
+	 */
+	static boolean isSegmentFile(File file){
+		String name = file.getName();
+		if(!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)){
+			return false;
+		}
+		try{
+			parseId(file);
+			return true;
+		}
+		catch(NumberFormatException e){
+			return false;
+		}
+	}
+
+	private static long parseId(File file){
+		String name = file.getName();
+		return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+	}
+
+	private static String fileName(long id){
+		return String.format("%s%019d%s", PREFIX, id, SUFFIX);
+	}
+
+	long getId(){
+		return id;
+	}
+
+	int getWritePosition(){
+		return writePosition;
+	}
+
+	long getDeadBytes(){
+		return deadBytes;
+	}
+
+	/**
+	 * Records that bytes within this segment are no longer referenced.
+	 * @param bytes - number of bytes
+	 */
+	void addDeadBytes(long bytes){
+		deadBytes += bytes;
+	}
+
+	/**
+	 * @param keyLength - length of the encoded key
+	 * @param valueLength - length of the encoded value, or {@link #TOMBSTONE}
+	 * @return size of the record in bytes.
+	 */
+	static int recordSize(int keyLength, int valueLength){
+		return HEADER_SIZE + keyLength + Math.max(0, valueLength);
+	}
+
+	/**
+	 * Appends a record.
+	 * @param key - encoded key
+	 * @param value - encoded value, or <code>null</code> for a tombstone.
+	 * @param expiresAt - epoch millis the record expires at, or 0 to never expire.
+	 * @return offset of the record, or -1 if the segment does not have enough room left.
+	 */
+	int append(byte[] key, byte[] value, long expiresAt){
+		int valueLength = (value == null) ? TOMBSTONE : value.length;
+		int size = recordSize(key.length, valueLength);
+		if(buffer.capacity() - writePosition < size){
+			return -1;
+		}
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE - 4);
+		header.putInt(key.length);
+		header.putInt(valueLength);
+		header.putLong(expiresAt);
+
+		CRC32 crc = new CRC32();
+		crc.update(header.array());
+		crc.update(key);
+		if(value != null){
+			crc.update(value);
+		}
+
+		ByteBuffer view = buffer.duplicate();
+		view.position(writePosition + 4);
+		view.put(header.array());
+		view.put(key);
+		if(value != null){
+			view.put(value);
+		}
+		buffer.putInt(writePosition, (int) crc.getValue());
+
+		int offset = writePosition;
+		writePosition += size;
+		return offset;
+	}
+
+	/**
+	 * Copies the value of the record at the offset.
+	 * @param offset - record offset
+	 * @param keyLength - length of the record's encoded key
+	 * @param valueLength - length of the record's encoded value
+	 * @return encoded value
+	 */
+	byte[] readValue(int offset, int keyLength, int valueLength){
+		byte[] value = new byte[valueLength];
+		ByteBuffer view = buffer.duplicate();
+		view.position(offset + HEADER_SIZE + keyLength);
+		view.get(value);
+		return value;
+	}
+
+	/**
+	 * Visits every valid record in the segment, in the order they were written, and positions
+	 * the segment for appending after the last valid record. Anything following the first invalid
+	 * record (eg. a write torn by a crash) is discarded.
+	 * @param visitor - {@link RecordVisitor}
+	 */
+	void recover(RecordVisitor visitor){
+		writePosition = scan(visitor);
+
+		ByteBuffer view = buffer.duplicate();
+		view.position(writePosition);
+		while(view.hasRemaining()){
+			if(view.get() != 0){
+				//Discard the torn record so it cannot be mistaken for data once appended after.
+				for(int i = writePosition; i < view.capacity(); i++){
+					buffer.put(i, (byte) 0);
+				}
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Visits every valid record in the segment, in the order they were written.
+	 * @param visitor - {@link RecordVisitor}
+	 * @return position following the last valid record.
+	 */
+	int scan(RecordVisitor visitor){
+		ByteBuffer view = buffer.duplicate();
+		int position = 0;
+		while(view.capacity() - position >= HEADER_SIZE){
+			view.position(position);
+			int storedCrc = view.getInt();
+			byte[] header = new byte[HEADER_SIZE - 4];
+			view.get(header);
+			ByteBuffer headerView = ByteBuffer.wrap(header);
+			int keyLength = headerView.getInt();
+			int valueLength = headerView.getInt();
+			long expiresAt = headerView.getLong();
+
+			if(storedCrc == 0 && keyLength == 0 && valueLength == 0){
+				break;
+			}
+			if(keyLength < 0 || valueLength < TOMBSTONE
+					|| (long) position + recordSize(keyLength, valueLength) > view.capacity()){
+				break;
+			}
+
+			byte[] key = new byte[keyLength];
+			view.get(key);
+			byte[] value = (valueLength == TOMBSTONE) ? null : new byte[valueLength];
+			if(value != null){
+				view.get(value);
+			}
+
+			CRC32 crc = new CRC32();
+			crc.update(header);
+			crc.update(key);
+			if(value != null){
+				crc.update(value);
+			}
+			if((int) crc.getValue() != storedCrc){
+				break;
+			}
+
+			visitor.visit(position, new String(key, UTF8), keyLength, valueLength, expiresAt);
+			position += recordSize(keyLength, valueLength);
+		}
+		return position;
+	}
+
+	/**
+	 * Flushes all changes to disk.
+	 */
+	void force(){
+		buffer.force();
+	}
+
+	/**
+	 * Flushes and closes the segment.
+	 * @throws IOException
+	 */
+	void close() throws IOException{
+		force();
+		randomAccessFile.close();
+	}
+
+	/**
+	 * Closes the segment and deletes its file.
+	 * @throws IOException
+	 */
+	void delete() throws IOException{
+		randomAccessFile.close();
+		if(!file.delete()){
+			throw new IOException("Unable to delete segment " + file);
+		}
+	}
+
+	/**
+	 * Callback for each record found while scanning a segment.
+	 */
+	interface RecordVisitor {
+
+		/**
+		 * @param offset - offset of the record within the segment.
+		 * @param key - decoded key
+		 * @param keyLength - length of the encoded key
+		 * @param valueLength - length of the encoded value, or {@link Segment#TOMBSTONE}
+		 * @param expiresAt - epoch millis the record expires at, or 0 if it never expires.
+		 */
+		void visit(int offset, String key, int keyLength, int valueLength, long expiresAt);
+
+	}
+
+}
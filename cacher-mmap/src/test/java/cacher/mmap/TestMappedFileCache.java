@@ -0,0 +1,207 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.mmap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import cacher.codec.SerializingValueCodec;
+
+public class TestMappedFileCache {
+
+	private static final int SEGMENT_SIZE = 4096;
+
+	private File directory;
+	private MappedFileCache cache;
+
+	@Before
+	public void setUp() throws IOException{
+		directory = Files.createTempDirectory("cacher-mmap").toFile();
+		cache = new MappedFileCache(directory, SEGMENT_SIZE, 4);
+	}
+
+	@After
+	public void tearDown() throws IOException{
+		cache.close();
+		File[] files = directory.listFiles();
+		if(files != null){
+			for(File file : files){
+				file.delete();
+			}
+		}
+		directory.delete();
+	}
+
+	private MappedFileCache reopen(Clock clock) throws IOException{
+		cache.close();
+		cache = new MappedFileCache(directory, SEGMENT_SIZE, 4, new SerializingValueCodec(), clock);
+		return cache;
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidMaxSegments() throws IOException{
+		new MappedFileCache(directory, SEGMENT_SIZE, 1);
+	}
+
+	@Test
+	public void testSetAndGet(){
+		assertNull(cache.get("key"));
+		cache.set("key", "value");
+		assertEquals("value", cache.get("key"));
+
+		cache.set("key", "other");
+		assertEquals("other", cache.get("key"));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testGetBulk(){
+		cache.set("key1", "value1");
+		cache.set("key2", "value2");
+
+		Map<String, Object> values = cache.getBulk(Arrays.asList("key1", "key2", "key3"));
+
+		assertEquals(2, values.size());
+		assertEquals("value1", values.get("key1"));
+		assertEquals("value2", values.get("key2"));
+		assertFalse(values.containsKey("key3"));
+	}
+
+	@Test
+	public void testRemoveAndClear(){
+		cache.set("key1", "value1");
+		cache.set("key2", "value2");
+
+		cache.remove("key1");
+		assertNull(cache.get("key1"));
+		assertEquals("value2", cache.get("key2"));
+
+		cache.clear();
+		assertNull(cache.get("key2"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testSetBulkAndRemoveBulk() throws IOException{
+		Map<String, Object> values = new HashMap<String, Object>();
+		values.put("key1", "value1");
+		values.put("key2", "value2");
+		values.put("key3", "value3");
+		cache.setBulk(values);
+		cache.removeBulk(Arrays.asList("key1", "key2"));
+
+		reopen(Clock.systemUTC());
+
+		assertNull(cache.get("key1"));
+		assertNull(cache.get("key2"));
+		assertEquals("value3", cache.get("key3"));
+	}
+
+	@Test
+	public void testReopen_PreservesEntries() throws IOException{
+		cache.set("key1", "value1");
+		cache.set("key2", "value2");
+		cache.set("key1", "updated");
+		cache.remove("key2");
+
+		reopen(Clock.systemUTC());
+
+		assertEquals("updated", cache.get("key1"));
+		assertNull(cache.get("key2"));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testReopen_Expiration() throws IOException{
+		Instant start = Instant.parse("2026-01-01T00:00:00Z");
+		reopen(Clock.fixed(start, ZoneOffset.UTC));
+		cache.set("key1", "value1", 10);
+		cache.set("key2", "value2");
+
+		reopen(Clock.fixed(start.plusSeconds(5), ZoneOffset.UTC));
+		assertEquals("value1", cache.get("key1"));
+
+		reopen(Clock.fixed(start.plusSeconds(10), ZoneOffset.UTC));
+		assertNull(cache.get("key1"));
+		assertEquals("value2", cache.get("key2"));
+	}
+
+	/**
+	 * A record torn by a crash should be discarded without losing the records written before it.
+	 */
+	@Test
+	public void testReopen_TornWrite() throws IOException{
+		cache.set("key1", "value1");
+		cache.set("key2", "value2");
+		cache.close();
+
+		File segment = directory.listFiles()[0];
+		byte[] bytes = Files.readAllBytes(segment.toPath());
+		String contents = new String(bytes, "ISO-8859-1");
+		int valueStart = contents.indexOf("key2") + "key2".length();
+		bytes[valueStart] = (byte) ~bytes[valueStart];
+		Files.write(segment.toPath(), bytes);
+
+		reopen(Clock.systemUTC());
+		assertEquals("value1", cache.get("key1"));
+		assertNull(cache.get("key2"));
+
+		cache.set("key3", "value3");
+		reopen(Clock.systemUTC());
+		assertEquals("value1", cache.get("key1"));
+		assertEquals("value3", cache.get("key3"));
+	}
+
+	@Test
+	public void testSegmentsBounded() throws IOException{
+		for(int x = 0; x < 2000; x++){
+			cache.set("key" + (x % 10), "value" + x);
+		}
+
+		assertTrue(cache.getSegmentCount() <= 4);
+		for(int x = 0; x < 10; x++){
+			assertEquals("value" + (1990 + x), cache.get("key" + x));
+		}
+
+		reopen(Clock.systemUTC());
+		assertEquals(10, cache.size());
+		assertEquals("value1999", cache.get("key9"));
+	}
+
+	@Test
+	public void testOldestSegmentEvicted(){
+		for(int x = 0; x < 2000; x++){
+			cache.set("key" + x, "value" + x);
+		}
+
+		assertTrue(cache.getSegmentCount() <= 4);
+		assertNull(cache.get("key0"));
+		assertEquals("value1999", cache.get("key1999"));
+	}
+
+}
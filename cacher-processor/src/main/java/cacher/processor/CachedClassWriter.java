@@ -0,0 +1,596 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+
+import cacher.Cache;
+
+/**
+ * <p>Writes the source of the caching subclass of a class with <code>@FetcherMethod</code>s.</p>
+ * <p>The subclass has a constructor for each non-private constructor of the class, taking a
+ * <code>FetchManager</code> as an extra first argument. Each <code>@FetcherMethod</code> is overridden to call
+ * the <code>FetchManager</code> directly, with the original method as the fetcher.</p>
+ * <p>Names used by the generated code start with <code>$</code>, so that they cannot hide the parameters of
+ * the overridden methods.</p>
+ *
+ * @author Dennis Crissman
+ */
+final class CachedClassWriter {
+
+	static final String SUFFIX = "_Cached";
+
+	private static final String FETCH_MANAGER = "cacher.fetcher.FetchManager";
+	private static final String INJECT = "javax.inject.Inject";
+
+	private final ProcessingEnvironment env;
+	private final TypeElement type;
+	private final List<FetcherMethodModel> methods;
+	private final StringBuilder source = new StringBuilder();
+	private int indent = 0;
+
+	CachedClassWriter(ProcessingEnvironment env, TypeElement type, List<FetcherMethodModel> methods){
+		this.env = env;
+		this.type = type;
+		this.methods = methods;
+	}
+
+	/**
+	 * @param env - {@link ProcessingEnvironment}
+	 * @param type - class with <code>@FetcherMethod</code>s.
+	 * @return simple name of the generated class, which is placed in the same package.
+	 */
+	static String generatedName(ProcessingEnvironment env, TypeElement type){
+		String packageName = env.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		String name = type.getQualifiedName().toString();
+		if(!packageName.isEmpty()){
+			name = name.substring(packageName.length() + 1);
+		}
+		return name.replace('.', '_') + SUFFIX;
+	}
+
+	/**
+	 * @return the source of the generated class.
+	 */
+	String write(){
+		String packageName = env.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		String name = generatedName(env, type);
+
+		line("/*");
+		line(" * Generated by " + FetcherMethodProcessor.class.getName() + ", do not edit.");
+		line(" */");
+		if(!packageName.isEmpty()){
+			line("package " + packageName + ";");
+		}
+		line("");
+		line("/**");
+		line(" * Caching subclass of {@link " + type.getQualifiedName() + "}.");
+		line(" */");
+		line("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+		open(visibility(type.getModifiers()) + (type.getModifiers().contains(Modifier.ABSTRACT) ? "abstract " : "")
+				+ "class " + name + " extends " + type.getQualifiedName());
+		line("");
+
+		for(int i = 0; i < methods.size(); i++){
+			FetcherMethodModel method = methods.get(i);
+			if(method.getKeyGenerator() != null){
+				line("private static final " + method.getKeyGenerator().getQualifiedName() + " " + helperName("KEY_GENERATOR", i)
+						+ " = new " + method.getKeyGenerator().getQualifiedName() + "();");
+			}
+			if(method.getKeyCleaner() != null){
+				line("private static final " + method.getKeyCleaner().getQualifiedName() + " " + helperName("KEY_CLEANER", i)
+						+ " = new " + method.getKeyCleaner().getQualifiedName() + "();");
+			}
+		}
+		line("private final " + FETCH_MANAGER + " fetchManager;");
+		for(int i = 0; i < methods.size(); i++){
+			if(methods.get(i).hasOwnFetchManager()){
+				line("private final " + FETCH_MANAGER + " " + fetchManagerField(methods.get(i), i) + ";");
+			}
+		}
+
+		for(ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())){
+			if(!constructor.getModifiers().contains(Modifier.PRIVATE)){
+				line("");
+				writeConstructor(name, constructor);
+			}
+		}
+
+		for(int i = 0; i < methods.size(); i++){
+			line("");
+			FetcherMethodModel method = methods.get(i);
+			if(method.isFetchBulk()){
+				writeBulkMethod(name, method, i);
+			}
+			else{
+				writeSingleMethod(name, method, i);
+			}
+		}
+
+		if(hasCheckedExceptions()){
+			line("");
+			line("/**");
+			line(" * Carries a checked exception thrown by a fetcher method through the FetchManager.");
+			line(" */");
+			open("private static final class FetcherException extends RuntimeException");
+			line("");
+			line("private static final long serialVersionUID = 1L;");
+			line("");
+			open("private FetcherException(Exception cause)");
+			line("super(cause);");
+			close();
+			line("");
+			close();
+		}
+
+		line("");
+		close();
+		return source.toString();
+	}
+
+	private void writeConstructor(String name, ExecutableElement constructor){
+		List<String> names = parameterNames(constructor);
+		String fetchManager = names.contains("fetchManager") ? "$fetchManager" : "fetchManager";
+
+		if(FetcherMethodModel.findAnnotation(constructor.getAnnotationMirrors(), INJECT) != null){
+			line("@" + INJECT);
+		}
+		StringBuilder parameters = new StringBuilder(FETCH_MANAGER + " " + fetchManager);
+		for(VariableElement parameter : constructor.getParameters()){
+			parameters.append(", ").append(parameter.asType()).append(' ').append(parameter.getSimpleName());
+		}
+		open(visibility(constructor.getModifiers()) + name + "(" + parameters + ")" + throwsClause(constructor));
+		line("super(" + join(names) + ");");
+		open("if(" + fetchManager + " == null)");
+		line("throw new IllegalArgumentException(\"A FetchManager instance must be set.\");");
+		close();
+		line("this.fetchManager = " + fetchManager + ";");
+		for(int i = 0; i < methods.size(); i++){
+			FetcherMethodModel model = methods.get(i);
+			if(!model.hasOwnFetchManager()){
+				continue;
+			}
+			String field = "this." + fetchManagerField(model, i);
+			line(field + " = " + fetchManager + ".copy();");
+			if(model.getExpiration() != Cache.DEFAULT_EXPIRATION){
+				line(field + ".setExpireSeconds(" + model.getExpiration() + ");");
+			}
+			if(model.getNegativeExpiration() != Cache.DEFAULT_EXPIRATION){
+				line(field + ".setNegativeExpireSeconds(" + model.getNegativeExpiration() + ");");
+			}
+			if(!FetcherMethodModel.DEFAULT_COALESCING.equals(model.getCoalescing())){
+				line(field + ".setCoalescing(" + "ENABLED".equals(model.getCoalescing()) + ");");
+			}
+		}
+		close();
+	}
+
+	/**
+	 * @return name of the field holding the <code>FetchManager</code> the method uses.
+	 */
+	private static String fetchManagerField(FetcherMethodModel model, int index){
+		return model.hasOwnFetchManager() ? "fetchManager" + index : "fetchManager";
+	}
+
+	private void writeSingleMethod(String name, FetcherMethodModel model, int index){
+		ExecutableElement method = model.getMethod();
+		List<String> names = parameterNames(method);
+		String key = model.getKeyGenerator() == null
+				? compositeKey(model.getKeyPositions(), names)
+				: helperName("KEY_GENERATOR", index) + ".generateKey(" + argumentArray(names) + ")";
+
+		openMethod(method);
+		if(model.getKeyGenerator() == null){
+			writeNullKeyCheck(method, names, model.getKeyPositions());
+		}
+		openFetchManagerCall(method);
+		line("return (" + boxed(method.getReturnType()) + ") this." + fetchManagerField(model, index) + ".fetchSingle("
+				+ literal(model.getPrefix())
+				+ ", " + key + ", new cacher.fetcher.FetchSingle<Object>() {");
+		indent++;
+		line("");
+		line("@Override");
+		open("public Object fetch(String $key)");
+		writeSuperCall(name, method, null, names);
+		close();
+		line("");
+		line("@Override");
+		open("public Class<Object> getType()");
+		line("return (Class) " + types().erasure(boxedType(method.getReturnType())) + ".class;");
+		close();
+		line("");
+		indent--;
+		line("});");
+		closeFetchManagerCall(method);
+		close();
+	}
+
+	private void writeBulkMethod(String name, FetcherMethodModel model, int index){
+		ExecutableElement method = model.getMethod();
+		List<String> names = parameterNames(method);
+
+		openMethod(method);
+		if(model.getKeyGenerator() == null){
+			writeNullKeyCheck(method, names, model.getKeyPositions());
+			String fanOut = names.get(model.getFanOutPosition());
+			boolean array = model.getFanOutKind() == FetcherMethodModel.FanOutKind.OBJECT_ARRAY
+					|| model.getFanOutKind() == FetcherMethodModel.FanOutKind.PRIMITIVE_ARRAY;
+			line("java.util.List<String> $keys = new java.util.ArrayList<String>(" + fanOut + (array ? ".length" : ".size()") + ");");
+			open("for(" + elementType(method, model) + " $value : " + fanOut + ")");
+			if(model.getFanOutKind() != FetcherMethodModel.FanOutKind.PRIMITIVE_ARRAY){
+				open("if($value == null)");
+				line(uncachedCall(method, names));
+				close();
+			}
+			line("$keys.add(String.valueOf($value));");
+			close();
+		}
+		else{
+			line("java.util.List<String> $keys = " + helperName("KEY_GENERATOR", index) + ".generateKeys("
+					+ argumentArray(names) + ");");
+		}
+
+		String prefix = literal(model.getPrefix());
+		if(model.getKeyGenerator() == null){
+			List<Integer> prefixPositions = model.getPrefixPositions();
+			if(!prefixPositions.isEmpty()){
+				StringBuilder builder = new StringBuilder("new StringBuilder(" + prefix + ")");
+				for(int position : prefixPositions){
+					builder.append(".append(").append(escaped(names.get(position))).append(").append(':')");
+				}
+				prefix = builder.append(".toString()").toString();
+			}
+		}
+		else if(model.isPrefixGenerator()){
+			prefix = prefix + " + " + helperName("KEY_GENERATOR", index) + ".generatePrefix(" + argumentArray(names) + ")";
+		}
+
+		openFetchManagerCall(method);
+		line("return (" + method.getReturnType() + ") (java.util.Map) this." + fetchManagerField(model, index) + ".fetchMultiple("
+				+ prefix
+				+ ", $keys, new cacher.fetcher.FetchMultiple<Object>() {");
+		indent++;
+		line("");
+		line("@Override");
+		open("public java.util.Map<String, Object> fetch(java.util.List<String> $uncachedKeys)");
+		List<String> arguments = writeClean(model, names, index);
+		writeSuperCall(name, method, "java.util.Map<?, ?> $fetched", arguments);
+		line("java.util.Map<String, Object> $results = new java.util.HashMap<String, Object>();");
+		open("if($fetched != null)");
+		open("for(java.util.Map.Entry<?, ?> $entry : $fetched.entrySet())");
+		line("$results.put($entry.getKey().toString(), $entry.getValue());");
+		close();
+		close();
+		line("return $results;");
+		close();
+		line("");
+		line("@Override");
+		open("public Class<Object> getType()");
+		line("return Object.class;");
+		close();
+		line("");
+		indent--;
+		line("});");
+		closeFetchManagerCall(method);
+		close();
+	}
+
+	/**
+	 * Writes the code that replaces the fanned out argument with only the uncached values.
+	 * @return the arguments to call the original method with.
+	 */
+	private List<String> writeClean(FetcherMethodModel model, List<String> names, int index){
+		ExecutableElement method = model.getMethod();
+		List<String> arguments = new ArrayList<String>(names);
+
+		if(model.getKeyCleaner() != null){
+			line("Object[] $arguments = " + argumentArray(names) + ";");
+			line(helperName("KEY_CLEANER", index) + ".clean($arguments, $uncachedKeys);");
+			for(int i = 0; i < arguments.size(); i++){
+				TypeMirror parameterType = method.getParameters().get(i).asType();
+				arguments.set(i, "(" + boxed(parameterType) + ") $arguments[" + i + "]");
+			}
+			return arguments;
+		}
+
+		int position = model.getFanOutPosition();
+		String fanOut = names.get(position);
+		TypeMirror fanOutType = method.getParameters().get(position).asType();
+		line("java.util.Set<String> $uncached = new java.util.HashSet<String>($uncachedKeys);");
+		switch(model.getFanOutKind()){
+		case PRIMITIVE_ARRAY:
+			String component = ((ArrayType) fanOutType).getComponentType().toString();
+			line(component + "[] $kept = new " + component + "[" + fanOut + ".length];");
+			line("int $count = 0;");
+			open("for(" + component + " $value : " + fanOut + ")");
+			open("if($uncached.contains(String.valueOf($value)))");
+			line("$kept[$count++] = $value;");
+			close();
+			close();
+			arguments.set(position, "java.util.Arrays.copyOf($kept, $count)");
+			break;
+		case OBJECT_ARRAY:
+			TypeMirror componentType = types().erasure(((ArrayType) fanOutType).getComponentType());
+			line("java.util.List<Object> $kept = new java.util.ArrayList<Object>($uncachedKeys.size());");
+			writeFilter(fanOut);
+			arguments.set(position, "(" + fanOutType + ") $kept.toArray(new " + componentType + "[$kept.size()])");
+			break;
+		default:
+			String collection = model.getFanOutKind() == FetcherMethodModel.FanOutKind.SET
+					? "java.util.LinkedHashSet"
+					: "java.util.ArrayList";
+			line("java.util.Collection<Object> $kept = new " + collection + "<Object>($uncachedKeys.size());");
+			writeFilter(fanOut);
+			arguments.set(position, "(" + fanOutType + ") (java.util.Collection) $kept");
+		}
+		return arguments;
+	}
+
+	private void writeFilter(String fanOut){
+		open("for(Object $value : " + fanOut + ")");
+		open("if($uncached.contains(String.valueOf($value)))");
+		line("$kept.add($value);");
+		close();
+		close();
+	}
+
+	/**
+	 * Calls the original method without caching when a key is <code>null</code>, as the interceptor does, rather
+	 * than caching it under the key "null".
+	 */
+	private void writeNullKeyCheck(ExecutableElement method, List<String> names, List<Integer> positions){
+		StringBuilder condition = new StringBuilder();
+		for(int position : positions){
+			if(method.getParameters().get(position).asType().getKind().isPrimitive()){
+				continue;
+			}
+			if(condition.length() > 0){
+				condition.append(" || ");
+			}
+			condition.append(names.get(position)).append(" == null");
+		}
+		if(condition.length() == 0){
+			return;
+		}
+		open("if(" + condition + ")");
+		line(uncachedCall(method, names));
+		close();
+	}
+
+	private static String uncachedCall(ExecutableElement method, List<String> names){
+		return "return super." + method.getSimpleName() + "(" + join(names) + ");";
+	}
+
+	/**
+	 * Calls the original method, carrying any checked exception out in a FetcherException.
+	 * @param variable - declaration of the variable to assign the result to, or <code>null</code> to return it.
+	 */
+	private void writeSuperCall(String name, ExecutableElement method, String variable, List<String> arguments){
+		String call = name + ".super." + method.getSimpleName() + "(" + join(arguments) + ");";
+		if(!hasCheckedExceptions(method)){
+			line(variable == null ? "return " + call : variable + " = " + call);
+			return;
+		}
+		if(variable != null){
+			line(variable + ";");
+			call = variable.substring(variable.lastIndexOf(' ') + 1) + " = " + call;
+		}
+		else{
+			call = "return " + call;
+		}
+		open("try");
+		line(call);
+		close();
+		open("catch(RuntimeException $e)");
+		line("throw $e;");
+		close();
+		open("catch(Exception $e)");
+		line("throw new FetcherException($e);");
+		close();
+	}
+
+	private void openMethod(ExecutableElement method){
+		StringBuilder parameters = new StringBuilder();
+		for(VariableElement parameter : method.getParameters()){
+			if(parameters.length() > 0){
+				parameters.append(", ");
+			}
+			parameters.append("final ").append(parameter.asType()).append(' ').append(parameter.getSimpleName());
+		}
+		line("@Override");
+		open(visibility(method.getModifiers()) + method.getReturnType() + " " + method.getSimpleName()
+				+ "(" + parameters + ")" + throwsClause(method));
+	}
+
+	private void openFetchManagerCall(ExecutableElement method){
+		if(hasCheckedExceptions(method)){
+			open("try");
+		}
+	}
+
+	/**
+	 * Rethrows the checked exceptions the original method declares.
+	 */
+	private void closeFetchManagerCall(ExecutableElement method){
+		if(!hasCheckedExceptions(method)){
+			return;
+		}
+		close();
+		open("catch(FetcherException $e)");
+		for(TypeMirror thrown : method.getThrownTypes()){
+			if(isChecked(thrown)){
+				open("if($e.getCause() instanceof " + types().erasure(thrown) + ")");
+				line("throw (" + thrown + ") $e.getCause();");
+				close();
+			}
+		}
+		line("throw $e;");
+		close();
+	}
+
+	private String compositeKey(List<Integer> positions, List<String> names){
+		if(positions.size() == 1){
+			return "String.valueOf(" + names.get(positions.get(0)) + ")";
+		}
+		StringBuilder key = new StringBuilder("new StringBuilder()");
+		for(int i = 0; i < positions.size() - 1; i++){
+			key.append(".append(").append(escaped(names.get(positions.get(i)))).append(").append(':')");
+		}
+		key.append(".append(").append(names.get(positions.get(positions.size() - 1))).append(')');
+		return key.append(".toString()").toString();
+	}
+
+	/**
+	 * Escapes a value followed by a separator the same way as the interceptor, so that both build the same keys.
+	 */
+	private static String escaped(String name){
+		return "cacher.CacheUtils.escapeKeyValue(String.valueOf(" + name + "), ':')";
+	}
+
+	private String elementType(ExecutableElement method, FetcherMethodModel model){
+		if(model.getFanOutKind() == FetcherMethodModel.FanOutKind.PRIMITIVE_ARRAY){
+			return ((ArrayType) method.getParameters().get(model.getFanOutPosition()).asType()).getComponentType().toString();
+		}
+		return "Object";
+	}
+
+	private boolean hasCheckedExceptions(){
+		for(FetcherMethodModel method : methods){
+			if(hasCheckedExceptions(method.getMethod())){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean hasCheckedExceptions(ExecutableElement method){
+		for(TypeMirror thrown : method.getThrownTypes()){
+			if(isChecked(thrown)){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isChecked(TypeMirror thrown){
+		TypeMirror runtimeException = env.getElementUtils().getTypeElement("java.lang.RuntimeException").asType();
+		TypeMirror error = env.getElementUtils().getTypeElement("java.lang.Error").asType();
+		return !types().isAssignable(thrown, runtimeException) && !types().isAssignable(thrown, error);
+	}
+
+	private String throwsClause(ExecutableElement executable){
+		if(executable.getThrownTypes().isEmpty()){
+			return "";
+		}
+		List<String> thrown = new ArrayList<String>();
+		for(TypeMirror type : executable.getThrownTypes()){
+			thrown.add(type.toString());
+		}
+		return " throws " + join(thrown);
+	}
+
+	private TypeMirror boxedType(TypeMirror type){
+		if(type.getKind().isPrimitive()){
+			return types().boxedClass(types().getPrimitiveType(type.getKind())).asType();
+		}
+		return type;
+	}
+
+	/**
+	 * @return the type to cast an Object to, boxed for primitives.
+	 */
+	private String boxed(TypeMirror type){
+		if(type.getKind() == TypeKind.TYPEVAR){
+			return types().erasure(type).toString();
+		}
+		return boxedType(type).toString();
+	}
+
+	private Types types(){
+		return env.getTypeUtils();
+	}
+
+	private String literal(String value){
+		return env.getElementUtils().getConstantExpression(value);
+	}
+
+	private static String helperName(String name, int index){
+		return name + "_" + index;
+	}
+
+	private static String argumentArray(List<String> names){
+		return "new Object[]{" + join(names) + "}";
+	}
+
+	private static String visibility(Set<Modifier> modifiers){
+		if(modifiers.contains(Modifier.PUBLIC)){
+			return "public ";
+		}
+		if(modifiers.contains(Modifier.PROTECTED)){
+			return "protected ";
+		}
+		return "";
+	}
+
+	private static List<String> parameterNames(ExecutableElement executable){
+		List<String> names = new ArrayList<String>();
+		for(VariableElement parameter : executable.getParameters()){
+			names.add(parameter.getSimpleName().toString());
+		}
+		return names;
+	}
+
+	private static String join(List<String> values){
+		StringBuilder joined = new StringBuilder();
+		for(String value : values){
+			if(joined.length() > 0){
+				joined.append(", ");
+			}
+			joined.append(value);
+		}
+		return joined.toString();
+	}
+
+	private void open(String declaration){
+		line(declaration + " {");
+		indent++;
+	}
+
+	private void close(){
+		indent--;
+		line("}");
+	}
+
+	private void line(String text){
+		if(!text.isEmpty()){
+			for(int i = 0; i < indent; i++){
+				source.append('\t');
+			}
+			source.append(text);
+		}
+		source.append('\n');
+	}
+
+}
@@ -0,0 +1,431 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+
+import cacher.Cache;
+
+/**
+ * <p>A single <code>@FetcherMethod</code>, with its annotation values read and checked against what the
+ * generated code supports.</p>
+ * <p>With the default <code>SimpleCacheKeyGenerator</code> and <code>SimpleCacheKeyCleaner</code>, the keys
+ * are read straight from the <code>@CacheKey</code> parameters. Other key generators and cleaners are
+ * created once and called with the arguments, as long as they do not need the method or its invocation.</p>
+ * <p>An expiration, negative expiration or coalescing set on the annotation is applied to a copy of the
+ * <code>FetchManager</code> used only by the method.</p>
+ *
+ * @author Dennis Crissman
+ */
+final class FetcherMethodModel {
+
+	static final String FETCHER_METHOD = "cacher.aop.FetcherMethod";
+	static final String CACHE_KEY = "cacher.aop.impl.simple.CacheKey";
+
+	private static final String SIMPLE_KEY_GENERATOR = "cacher.aop.impl.simple.SimpleCacheKeyGenerator";
+	private static final String SIMPLE_KEY_CLEANER = "cacher.aop.impl.simple.SimpleCacheKeyCleaner";
+	private static final String KEY_PREFIX_GENERATOR = "cacher.aop.KeyPrefixGenerator";
+	private static final String METHOD_AWARE = "cacher.aop.MethodAware";
+	private static final String METHOD_INVOCATION_AWARE = "cacher.aop.MethodInvocationAware";
+
+	/** Value of <code>@FetcherMethod(coalescing)</code> that keeps the setting of the <code>FetchManager</code>. */
+	static final String DEFAULT_COALESCING = "DEFAULT";
+
+	/**
+	 * How the generated code passes the uncached keys back into the fanned out parameter.
+	 */
+	enum FanOutKind {
+		/** A <code>java.util.List</code> or any type an <code>ArrayList</code> can be assigned to. */
+		LIST,
+		/** A <code>java.util.Set</code> or any type a <code>LinkedHashSet</code> can be assigned to. */
+		SET,
+		/** An array of objects. */
+		OBJECT_ARRAY,
+		/** An array of primitives. */
+		PRIMITIVE_ARRAY
+	}
+
+	private final ExecutableElement method;
+	private final String prefix;
+	private final boolean fetchBulk;
+	private final TypeElement keyGenerator;
+	private final TypeElement keyCleaner;
+	private final List<Integer> keyPositions;
+	private final int fanOutPosition;
+	private final FanOutKind fanOutKind;
+	private final boolean prefixGenerator;
+	private final int expiration;
+	private final int negativeExpiration;
+	private final String coalescing;
+
+	private FetcherMethodModel(ExecutableElement method, String prefix, boolean fetchBulk, TypeElement keyGenerator,
+			TypeElement keyCleaner, List<Integer> keyPositions, int fanOutPosition, FanOutKind fanOutKind,
+			boolean prefixGenerator, int expiration, int negativeExpiration, String coalescing){
+		this.method = method;
+		this.prefix = prefix;
+		this.fetchBulk = fetchBulk;
+		this.keyGenerator = keyGenerator;
+		this.keyCleaner = keyCleaner;
+		this.keyPositions = keyPositions;
+		this.fanOutPosition = fanOutPosition;
+		this.fanOutKind = fanOutKind;
+		this.prefixGenerator = prefixGenerator;
+		this.expiration = expiration;
+		this.negativeExpiration = negativeExpiration;
+		this.coalescing = coalescing;
+	}
+
+	/**
+	 * Reads the <code>@FetcherMethod</code> on the method, reporting an error for anything the generated code
+	 * cannot support.
+	 * @return the {@link FetcherMethodModel}, or <code>null</code> if an error was reported.
+	 */
+	static FetcherMethodModel read(ProcessingEnvironment env, ExecutableElement method){
+		Messager messager = env.getMessager();
+		Elements elements = env.getElementUtils();
+		Types types = env.getTypeUtils();
+
+		Set<Modifier> modifiers = method.getModifiers();
+		if(modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC)
+				|| modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.ABSTRACT)){
+			messager.printMessage(Kind.ERROR,
+					"@FetcherMethod must be on a method that can be overridden and has a body", method);
+			return null;
+		}
+		if(!method.getTypeParameters().isEmpty()){
+			messager.printMessage(Kind.ERROR, "@FetcherMethod is not supported on generic methods", method);
+			return null;
+		}
+		if(method.getReturnType().getKind() == TypeKind.VOID){
+			messager.printMessage(Kind.ERROR, "@FetcherMethod must return a value", method);
+			return null;
+		}
+		String returnType = types.erasure(method.getReturnType()).toString();
+		if("java.util.concurrent.CompletableFuture".equals(returnType)
+				|| "java.util.concurrent.CompletionStage".equals(returnType)){
+			messager.printMessage(Kind.ERROR,
+					"A @FetcherMethod returning a future is only supported by the CacheInterceptor", method);
+			return null;
+		}
+
+		AnnotationMirror annotation = findAnnotation(method.getAnnotationMirrors(), FETCHER_METHOD);
+		String prefix = "";
+		boolean fetchBulk = false;
+		TypeElement keyGenerator = null;
+		TypeElement keyCleaner = null;
+		String cache = "";
+		int expiration = Cache.DEFAULT_EXPIRATION;
+		int negativeExpiration = Cache.DEFAULT_EXPIRATION;
+		String coalescing = DEFAULT_COALESCING;
+		for(Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+				: elements.getElementValuesWithDefaults(annotation).entrySet()){
+			String name = entry.getKey().getSimpleName().toString();
+			Object value = entry.getValue().getValue();
+			if("prefix".equals(name)){
+				prefix = (String) value;
+			}
+			else if("fetchBulk".equals(name)){
+				fetchBulk = (Boolean) value;
+			}
+			else if("keyGenerator".equals(name)){
+				keyGenerator = (TypeElement) ((DeclaredType) value).asElement();
+			}
+			else if("keyCleaner".equals(name)){
+				keyCleaner = (TypeElement) ((DeclaredType) value).asElement();
+			}
+			else if("cache".equals(name)){
+				cache = (String) value;
+			}
+			else if("expiration".equals(name)){
+				expiration = (Integer) value;
+			}
+			else if("negativeExpiration".equals(name)){
+				negativeExpiration = (Integer) value;
+			}
+			else if("coalescing".equals(name)){
+				coalescing = ((VariableElement) value).getSimpleName().toString();
+			}
+		}
+
+		if(!cache.isEmpty()){
+			messager.printMessage(Kind.ERROR,
+					"@FetcherMethod(cache) is only supported by the CacheInterceptor, pass the FetchManager of the cache"
+					+ " to the generated class instead", method);
+			return null;
+		}
+
+		if(fetchBulk && !types.isSameType(types.erasure(method.getReturnType()),
+				types.erasure(elements.getTypeElement("java.util.Map").asType()))){
+			messager.printMessage(Kind.ERROR, "A bulk @FetcherMethod must return a java.util.Map", method);
+			return null;
+		}
+
+		if(keyGenerator.getQualifiedName().contentEquals(SIMPLE_KEY_GENERATOR)){
+			keyGenerator = null;
+		}
+		else if(!isSupportedHelper(env, keyGenerator, method)){
+			return null;
+		}
+		if(!fetchBulk || keyCleaner.getQualifiedName().contentEquals(SIMPLE_KEY_CLEANER)){
+			keyCleaner = null;
+		}
+		else if(!isSupportedHelper(env, keyCleaner, method)){
+			return null;
+		}
+
+		List<Integer> keyPositions = findKeyPositions(method);
+		int fanOutPosition = -1;
+		FanOutKind fanOutKind = null;
+		if(keyGenerator == null || (fetchBulk && keyCleaner == null)){
+			if(keyPositions.isEmpty()){
+				messager.printMessage(Kind.ERROR, "No @CacheKey parameter was found. At least one must exist.", method);
+				return null;
+			}
+			if(fetchBulk){
+				for(int position : keyPositions){
+					FanOutKind kind = fanOutKind(env, method.getParameters().get(position).asType());
+					if(kind == null){
+						continue;
+					}
+					if(fanOutKind != null){
+						messager.printMessage(Kind.ERROR,
+								"A bulk @FetcherMethod must have exactly one Collection or array @CacheKey parameter", method);
+						return null;
+					}
+					fanOutPosition = position;
+					fanOutKind = kind;
+				}
+				if(fanOutKind == null){
+					messager.printMessage(Kind.ERROR,
+							"A bulk @FetcherMethod must have a java.util.List, java.util.Set or array @CacheKey parameter",
+							method);
+					return null;
+				}
+			}
+		}
+
+		boolean prefixGenerator = keyGenerator != null
+				&& types.isAssignable(keyGenerator.asType(), elements.getTypeElement(KEY_PREFIX_GENERATOR).asType());
+
+		return new FetcherMethodModel(method, prefix, fetchBulk, keyGenerator, keyCleaner,
+				keyPositions, fanOutPosition, fanOutKind, prefixGenerator, expiration, negativeExpiration, coalescing);
+	}
+
+	static AnnotationMirror findAnnotation(List<? extends AnnotationMirror> annotations, String name){
+		for(AnnotationMirror annotation : annotations){
+			TypeElement type = (TypeElement) annotation.getAnnotationType().asElement();
+			if(type.getQualifiedName().contentEquals(name)){
+				return annotation;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * A key generator or cleaner is created once by the generated class, so it must have a public no argument
+	 * constructor and must not need the method or its invocation.
+	 */
+	private static boolean isSupportedHelper(ProcessingEnvironment env, TypeElement helper, ExecutableElement method){
+		Types types = env.getTypeUtils();
+		Elements elements = env.getElementUtils();
+
+		for(String aware : new String[]{METHOD_AWARE, METHOD_INVOCATION_AWARE}){
+			if(types.isAssignable(helper.asType(), elements.getTypeElement(aware).asType())){
+				env.getMessager().printMessage(Kind.ERROR, helper.getQualifiedName()
+						+ " cannot be used by a generated class because it implements " + aware, method);
+				return false;
+			}
+		}
+
+		for(ExecutableElement constructor : ElementFilter.constructorsIn(helper.getEnclosedElements())){
+			if(constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)){
+				return true;
+			}
+		}
+		env.getMessager().printMessage(Kind.ERROR,
+				helper.getQualifiedName() + " must have a public constructor without arguments", method);
+		return false;
+	}
+
+	/**
+	 * Positions of the <code>@CacheKey</code> parameters, sorted by their order and then by position.
+	 */
+	private static List<Integer> findKeyPositions(ExecutableElement method){
+		final List<int[]> keys = new ArrayList<int[]>();
+		List<? extends VariableElement> parameters = method.getParameters();
+		for(int x = 0; x < parameters.size(); x++){
+			AnnotationMirror cacheKey = findAnnotation(parameters.get(x).getAnnotationMirrors(), CACHE_KEY);
+			if(cacheKey != null){
+				int order = 0;
+				for(Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : cacheKey.getElementValues().entrySet()){
+					if(entry.getKey().getSimpleName().contentEquals("order")){
+						order = (Integer) entry.getValue().getValue();
+					}
+				}
+				keys.add(new int[]{order, x});
+			}
+		}
+
+		Collections.sort(keys, new Comparator<int[]>() {
+
+			@Override
+			public int compare(int[] key1, int[] key2) {
+				return Integer.compare(key1[0], key2[0]);
+			}
+		});
+
+		List<Integer> positions = new ArrayList<Integer>();
+		for(int[] key : keys){
+			positions.add(key[1]);
+		}
+		return positions;
+	}
+
+	/**
+	 * @return how the parameter is fanned out, or <code>null</code> if it cannot be.
+	 */
+	private static FanOutKind fanOutKind(ProcessingEnvironment env, TypeMirror type){
+		if(type.getKind() == TypeKind.ARRAY){
+			TypeMirror component = ((ArrayType) type).getComponentType();
+			return component.getKind().isPrimitive() ? FanOutKind.PRIMITIVE_ARRAY : FanOutKind.OBJECT_ARRAY;
+		}
+
+		Types types = env.getTypeUtils();
+		Elements elements = env.getElementUtils();
+		TypeMirror erasure = types.erasure(type);
+		if(!types.isAssignable(erasure, types.erasure(elements.getTypeElement("java.util.Collection").asType()))){
+			return null;
+		}
+		if(types.isAssignable(types.erasure(elements.getTypeElement("java.util.ArrayList").asType()), erasure)){
+			return FanOutKind.LIST;
+		}
+		if(types.isAssignable(types.erasure(elements.getTypeElement("java.util.LinkedHashSet").asType()), erasure)){
+			return FanOutKind.SET;
+		}
+		return null;
+	}
+
+	ExecutableElement getMethod(){
+		return method;
+	}
+
+	String getPrefix(){
+		return prefix;
+	}
+
+	boolean isFetchBulk(){
+		return fetchBulk;
+	}
+
+	/**
+	 * @return custom key generator, or <code>null</code> if the keys are read from the <code>@CacheKey</code>
+	 * parameters.
+	 */
+	TypeElement getKeyGenerator(){
+		return keyGenerator;
+	}
+
+	/**
+	 * @return custom key cleaner, or <code>null</code> if the <code>@CacheKey</code> parameter is filtered.
+	 */
+	TypeElement getKeyCleaner(){
+		return keyCleaner;
+	}
+
+	/**
+	 * @return <code>true</code> if the custom key generator also generates a prefix.
+	 */
+	boolean isPrefixGenerator(){
+		return prefixGenerator;
+	}
+
+	/**
+	 * @return seconds to cache values for, or <code>Cache.DEFAULT_EXPIRATION</code> to keep the setting of the
+	 * <code>FetchManager</code>.
+	 */
+	int getExpiration(){
+		return expiration;
+	}
+
+	/**
+	 * @return seconds to cache missing values for, or <code>Cache.DEFAULT_EXPIRATION</code> to keep the setting
+	 * of the <code>FetchManager</code>.
+	 */
+	int getNegativeExpiration(){
+		return negativeExpiration;
+	}
+
+	/**
+	 * @return name of the <code>FetcherMethod.Coalescing</code> value.
+	 */
+	String getCoalescing(){
+		return coalescing;
+	}
+
+	/**
+	 * @return <code>true</code> if the method needs its own copy of the <code>FetchManager</code>.
+	 */
+	boolean hasOwnFetchManager(){
+		return expiration != Cache.DEFAULT_EXPIRATION || negativeExpiration != Cache.DEFAULT_EXPIRATION
+				|| !DEFAULT_COALESCING.equals(coalescing);
+	}
+
+	/**
+	 * @return positions of the <code>@CacheKey</code> parameters, in key order.
+	 */
+	List<Integer> getKeyPositions(){
+		return keyPositions;
+	}
+
+	/**
+	 * @return position of the parameter fanned out by a bulk fetch, -1 if there is none.
+	 */
+	int getFanOutPosition(){
+		return fanOutPosition;
+	}
+
+	FanOutKind getFanOutKind(){
+		return fanOutKind;
+	}
+
+	/**
+	 * @return the {@link #getKeyPositions()} that are not fanned out, which make up the prefix of a bulk fetch.
+	 */
+	List<Integer> getPrefixPositions(){
+		List<Integer> positions = new ArrayList<Integer>(keyPositions);
+		positions.remove(Integer.valueOf(fanOutPosition));
+		return positions;
+	}
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+/**
+ * <p>Generates a caching subclass, named <code>&lt;Class&gt;_Cached</code>, for each class with
+ * <code>@FetcherMethod</code> methods. The subclass calls the <code>FetchManager</code> directly, so caching
+ * works without the <code>CacheInterceptor</code> or any runtime AOP.</p>
+ * <p>The <code>FetchManager</code> is passed as the first argument of each constructor of the subclass, which
+ * keeps any <code>@Inject</code> annotation of the original constructor. Bind the class to its subclass, or
+ * create the subclass directly, in place of intercepting it.</p>
+ * <p>Anything the generated code cannot support, such as a final method or a key generator that needs the
+ * <code>MethodInvocation</code>, is reported as a compile error on the method.</p>
+ *
+ * @author Dennis Crissman
+ */
+public class FetcherMethodProcessor extends AbstractProcessor {
+
+	/*
+	 * (non-Javadoc)
+	 * @see javax.annotation.processing.AbstractProcessor#getSupportedAnnotationTypes()
+	 */
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton(FetcherMethodModel.FETCHER_METHOD);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see javax.annotation.processing.AbstractProcessor#getSupportedSourceVersion()
+	 */
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see javax.annotation.processing.AbstractProcessor#process(java.util.Set, javax.annotation.processing.RoundEnvironment)
+	 */
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		TypeElement fetcherMethod = processingEnv.getElementUtils().getTypeElement(FetcherMethodModel.FETCHER_METHOD);
+		if(fetcherMethod == null){
+			return false;
+		}
+
+		Map<TypeElement, List<ExecutableElement>> methodsByType = new LinkedHashMap<TypeElement, List<ExecutableElement>>();
+		for(ExecutableElement method : ElementFilter.methodsIn(roundEnv.getElementsAnnotatedWith(fetcherMethod))){
+			TypeElement type = (TypeElement) method.getEnclosingElement();
+			List<ExecutableElement> methods = methodsByType.get(type);
+			if(methods == null){
+				methods = new ArrayList<ExecutableElement>();
+				methodsByType.put(type, methods);
+			}
+			methods.add(method);
+		}
+
+		for(Entry<TypeElement, List<ExecutableElement>> entry : methodsByType.entrySet()){
+			generate(entry.getKey(), entry.getValue());
+		}
+		return false;
+	}
+
+	private void generate(TypeElement type, List<ExecutableElement> annotatedMethods){
+		if(!isSupportedType(type)){
+			return;
+		}
+
+		List<FetcherMethodModel> methods = new ArrayList<FetcherMethodModel>();
+		boolean valid = true;
+		for(ExecutableElement method : annotatedMethods){
+			FetcherMethodModel model = FetcherMethodModel.read(processingEnv, method);
+			if(model == null){
+				valid = false;
+			}
+			else{
+				methods.add(model);
+			}
+		}
+		if(!valid){
+			return;
+		}
+
+		String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		String name = CachedClassWriter.generatedName(processingEnv, type);
+		String qualifiedName = packageName.isEmpty() ? name : packageName + "." + name;
+		try{
+			JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+			Writer writer = file.openWriter();
+			try{
+				writer.write(new CachedClassWriter(processingEnv, type, methods).write());
+			}
+			finally{
+				writer.close();
+			}
+		}
+		catch(IOException e){
+			processingEnv.getMessager().printMessage(Kind.ERROR, "Unable to write " + qualifiedName + ": " + e, type);
+		}
+	}
+
+	/**
+	 * The generated class extends the annotated class, so it must be a non-final class that is not generic and,
+	 * if nested, is static.
+	 */
+	private boolean isSupportedType(TypeElement type){
+		String problem = null;
+		if(type.getKind() != ElementKind.CLASS){
+			problem = "@FetcherMethod is only supported on methods of classes";
+		}
+		else if(type.getModifiers().contains(Modifier.FINAL)){
+			problem = "A class with @FetcherMethods cannot be final";
+		}
+		else if(type.getModifiers().contains(Modifier.PRIVATE)){
+			problem = "A class with @FetcherMethods cannot be private";
+		}
+		else if(!type.getTypeParameters().isEmpty()){
+			problem = "@FetcherMethod is not supported on generic classes";
+		}
+		else if(type.getNestingKind() != NestingKind.TOP_LEVEL
+				&& (type.getNestingKind() != NestingKind.MEMBER || !type.getModifiers().contains(Modifier.STATIC))){
+			problem = "A nested class with @FetcherMethods must be static";
+		}
+
+		if(problem == null){
+			return true;
+		}
+		for(Element method : ElementFilter.methodsIn(type.getEnclosedElements())){
+			if(FetcherMethodModel.findAnnotation(method.getAnnotationMirrors(), FetcherMethodModel.FETCHER_METHOD) != null){
+				processingEnv.getMessager().printMessage(Kind.ERROR, problem, method);
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright 2026 Red Hat, Inc.
+ * Author: Dennis Crissman
+ *
+ * Licensed under the GNU Lesser General Public License, version 3 or
+ * any later version.
+ *
+ * In addition to the conditions of LGPLv3, you must preserve author
+ * attributions in source code distributions.
+ */
+
+package cacher.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import cacher.Ticker;
+import cacher.fetcher.FetchManager;
+import cacher.impl.InMemoryCache;
+
+public class TestFetcherMethodProcessor {
+
+	private static final String SERVICE =
+			"package sample;\n"
+			+ "import java.util.*;\n"
+			+ "import cacher.aop.FetcherMethod;\n"
+			+ "import cacher.aop.impl.simple.CacheKey;\n"
+			+ "public class PriceService {\n"
+			+ "	public int calls;\n"
+			+ "	public List<Object> requested = new ArrayList<Object>();\n"
+			+ "	private final String currency;\n"
+			+ "	public PriceService(String currency){ this.currency = currency; }\n"
+			+ "	@FetcherMethod\n"
+			+ "	public String getPrice(@CacheKey String sku, @CacheKey(order = 1) String region){\n"
+			+ "		calls++;\n"
+			+ "		return sku + '-' + region + '-' + currency;\n"
+			+ "	}\n"
+			+ "	@FetcherMethod(prefix = \"quantity\", expiration = 30)\n"
+			+ "	public int getQuantity(@CacheKey long id){\n"
+			+ "		calls++;\n"
+			+ "		return (int) id * 2;\n"
+			+ "	}\n"
+			+ "	@FetcherMethod(fetchBulk = true)\n"
+			+ "	public Map<String, String> getPrices(@CacheKey List<String> skus, @CacheKey(order = -1) String region){\n"
+			+ "		requested.add(skus);\n"
+			+ "		Map<String, String> prices = new HashMap<String, String>();\n"
+			+ "		for(String sku : skus){ prices.put(sku, sku + '-' + region); }\n"
+			+ "		return prices;\n"
+			+ "	}\n"
+			+ "	@FetcherMethod(fetchBulk = true)\n"
+			+ "	public Map<Long, String> getNames(@CacheKey long[] ids) throws java.io.IOException {\n"
+			+ "		requested.add(Arrays.toString(ids));\n"
+			+ "		Map<Long, String> names = new HashMap<Long, String>();\n"
+			+ "		for(long id : ids){\n"
+			+ "			if(id < 0){ throw new java.io.IOException(\"negative \" + id); }\n"
+			+ "			names.put(id, \"name\" + id);\n"
+			+ "		}\n"
+			+ "		return names;\n"
+			+ "	}\n"
+			+ "}\n";
+
+	private File directory;
+	private DiagnosticCollector<JavaFileObject> diagnostics;
+
+	@Before
+	public void before() throws IOException{
+		directory = Files.createTempDirectory("cacher-processor").toFile();
+		diagnostics = new DiagnosticCollector<JavaFileObject>();
+	}
+
+	@After
+	public void after(){
+		delete(directory);
+	}
+
+	private static void delete(File file){
+		File[] children = file.listFiles();
+		if(children != null){
+			for(File child : children){
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+	/**
+	 * Compiles the source with the {@link FetcherMethodProcessor}.
+	 * @return <code>true</code> if it compiled.
+	 */
+	private boolean compile(String className, String source) throws IOException{
+		File sourceFile = new File(directory, className.replace('.', File.separatorChar) + ".java");
+		sourceFile.getParentFile().mkdirs();
+		Files.write(sourceFile.toPath(), source.getBytes(StandardCharsets.UTF_8));
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8);
+		try{
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+					Arrays.asList("-classpath", System.getProperty("java.class.path"), "-d", directory.getPath(),
+							"-s", directory.getPath()),
+					null, fileManager.getJavaFileObjects(sourceFile));
+			task.setProcessors(Arrays.asList(new FetcherMethodProcessor()));
+			return task.call();
+		}
+		finally{
+			fileManager.close();
+		}
+	}
+
+	private String errors(){
+		StringBuilder errors = new StringBuilder();
+		for(Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()){
+			if(diagnostic.getKind() == Diagnostic.Kind.ERROR){
+				errors.append(diagnostic.getMessage(null)).append('\n');
+			}
+		}
+		return errors.toString();
+	}
+
+	private static Object call(Object target, String name, Object... arguments) throws Throwable{
+		for(Method method : target.getClass().getMethods()){
+			if(method.getName().equals(name)){
+				try{
+					return method.invoke(target, arguments);
+				}
+				catch(InvocationTargetException e){
+					throw e.getCause();
+				}
+			}
+		}
+		throw new IllegalArgumentException(name);
+	}
+
+	@Test
+	public void testGeneratedSubclass() throws Throwable{
+		boolean compiled = compile("sample.PriceService", SERVICE);
+		assertTrue(errors(), compiled);
+
+		final AtomicLong nanos = new AtomicLong();
+		InMemoryCache cache = new InMemoryCache(new Ticker() {
+
+			@Override
+			public long read() {
+				return nanos.get();
+			}
+		});
+		URLClassLoader loader = new URLClassLoader(new URL[]{directory.toURI().toURL()}, getClass().getClassLoader());
+		try{
+			Class<?> generated = loader.loadClass("sample.PriceService_Cached");
+			assertEquals("sample.PriceService", generated.getSuperclass().getName());
+			Object service = generated.getConstructor(FetchManager.class, String.class)
+					.newInstance(new FetchManager(cache), "USD");
+
+			assertEquals("sku1-us-USD", call(service, "getPrice", "sku1", "us"));
+			assertEquals("sku1-us-USD", call(service, "getPrice", "sku1", "us"));
+			assertEquals("sku1-us-USD", cache.get("sku1:us"));
+
+			assertEquals(14, call(service, "getQuantity", 7L));
+			assertEquals(14, call(service, "getQuantity", 7L));
+			assertEquals(14, cache.get("quantity7"));
+			nanos.addAndGet(TimeUnit.SECONDS.toNanos(31));
+			assertNull(cache.get("quantity7"));
+			assertEquals("sku1-us-USD", cache.get("sku1:us"));
+			assertEquals(2, generated.getField("calls").get(service));
+			assertEquals(14, call(service, "getQuantity", 7L));
+			assertEquals(3, generated.getField("calls").get(service));
+
+			Map<?, ?> prices = (Map<?, ?>) call(service, "getPrices", Arrays.asList("a", "b"), "eu");
+			assertEquals("a-eu", prices.get("a"));
+			prices = (Map<?, ?>) call(service, "getPrices", Arrays.asList("b", "c"), "eu");
+			assertEquals("b-eu", prices.get("b"));
+			assertEquals("c-eu", prices.get("c"));
+			assertEquals("c-eu", cache.get("eu:c"));
+
+			Map<?, ?> names = (Map<?, ?>) call(service, "getNames", new long[]{1L, 2L});
+			assertEquals("name1", names.get("1"));
+			names = (Map<?, ?>) call(service, "getNames", new long[]{2L, 3L});
+			assertEquals("name3", names.get("3"));
+
+			@SuppressWarnings("unchecked")
+			List<Object> requested = (List<Object>) generated.getField("requested").get(service);
+			assertEquals(Arrays.<Object>asList(Arrays.asList("a", "b"), Arrays.asList("c"), "[1, 2]", "[3]"), requested);
+
+			try{
+				call(service, "getNames", new long[]{-1L});
+				fail("Expected the checked exception to be rethrown");
+			}
+			catch(IOException e){
+				assertEquals("negative -1", e.getMessage());
+			}
+
+			try{
+				generated.getConstructor(FetchManager.class, String.class).newInstance(null, "USD");
+				fail("Expected a FetchManager to be required");
+			}
+			catch(InvocationTargetException e){
+				assertTrue(e.getCause() instanceof IllegalArgumentException);
+			}
+		}
+		finally{
+			loader.close();
+		}
+	}
+
+	@Test
+	public void testGeneratedSubclass_SeparatorInKey() throws Throwable{
+		boolean compiled = compile("sample.PriceService", SERVICE);
+		assertTrue(errors(), compiled);
+
+		InMemoryCache cache = new InMemoryCache();
+		URLClassLoader loader = new URLClassLoader(new URL[]{directory.toURI().toURL()}, getClass().getClassLoader());
+		try{
+			Class<?> generated = loader.loadClass("sample.PriceService_Cached");
+			Object service = generated.getConstructor(FetchManager.class, String.class)
+					.newInstance(new FetchManager(cache), "USD");
+
+			assertEquals("a:b-c-USD", call(service, "getPrice", "a:b", "c"));
+			assertEquals("a-b:c-USD", call(service, "getPrice", "a", "b:c"));
+			assertEquals(2, generated.getField("calls").get(service));
+			assertEquals("a:b-c-USD", cache.get("a\\:b:c"));
+			assertEquals("a-b:c-USD", cache.get("a:b:c"));
+
+			call(service, "getPrices", Arrays.asList("d"), "a:b");
+			assertEquals("d-a:b", cache.get("a\\:b:d"));
+		}
+		finally{
+			loader.close();
+		}
+	}
+
+	@Test
+	public void testGeneratedSubclass_NullKey() throws Throwable{
+		boolean compiled = compile("sample.PriceService", SERVICE);
+		assertTrue(errors(), compiled);
+
+		InMemoryCache cache = new InMemoryCache();
+		URLClassLoader loader = new URLClassLoader(new URL[]{directory.toURI().toURL()}, getClass().getClassLoader());
+		try{
+			Class<?> generated = loader.loadClass("sample.PriceService_Cached");
+			Object service = generated.getConstructor(FetchManager.class, String.class)
+					.newInstance(new FetchManager(cache), "USD");
+
+			assertEquals("null-us-USD", call(service, "getPrice", null, "us"));
+			assertEquals("null-us-USD", call(service, "getPrice", null, "us"));
+			assertEquals(2, generated.getField("calls").get(service));
+
+			Map<?, ?> prices = (Map<?, ?>) call(service, "getPrices", Arrays.asList("a", null), "eu");
+			assertEquals("a-eu", prices.get("a"));
+			prices = (Map<?, ?>) call(service, "getPrices", Arrays.asList("a"), null);
+			assertEquals("a-null", prices.get("a"));
+			assertTrue(cache.isEmpty());
+		}
+		finally{
+			loader.close();
+		}
+	}
+
+	@Test
+	public void testUnsupportedMethod() throws IOException{
+		assertFalse(compile("sample.FinalService",
+				"package sample;\n"
+				+ "import cacher.aop.FetcherMethod;\n"
+				+ "import cacher.aop.impl.simple.CacheKey;\n"
+				+ "public class FinalService {\n"
+				+ "	@FetcherMethod\n"
+				+ "	public final String get(@CacheKey String key){ return key; }\n"
+				+ "}\n"));
+		assertTrue(errors(), errors().contains("can be overridden"));
+	}
+
+	@Test
+	public void testMissingCacheKey() throws IOException{
+		assertFalse(compile("sample.NoKeyService",
+				"package sample;\n"
+				+ "import cacher.aop.FetcherMethod;\n"
+				+ "public class NoKeyService {\n"
+				+ "	@FetcherMethod\n"
+				+ "	public String get(String key){ return key; }\n"
+				+ "}\n"));
+		assertTrue(errors(), errors().contains("No @CacheKey parameter was found"));
+	}
+
+	@Test
+	public void testFutureReturnType() throws IOException{
+		assertFalse(compile("sample.FutureService",
+				"package sample;\n"
+				+ "import java.util.concurrent.CompletableFuture;\n"
+				+ "import cacher.aop.FetcherMethod;\n"
+				+ "import cacher.aop.impl.simple.CacheKey;\n"
+				+ "public class FutureService {\n"
+				+ "	@FetcherMethod\n"
+				+ "	public CompletableFuture<String> get(@CacheKey String key){ return CompletableFuture.completedFuture(key); }\n"
+				+ "}\n"));
+		assertTrue(errors(), errors().contains("only supported by the CacheInterceptor"));
+	}
+
+	@Test
+	public void testNamedCache() throws IOException{
+		assertFalse(compile("sample.NamedCacheService",
+				"package sample;\n"
+				+ "import cacher.aop.FetcherMethod;\n"
+				+ "import cacher.aop.impl.simple.CacheKey;\n"
+				+ "public class NamedCacheService {\n"
+				+ "	@FetcherMethod(cache = \"local\")\n"
+				+ "	public String get(@CacheKey String key){ return key; }\n"
+				+ "}\n"));
+		assertTrue(errors(), errors().contains("only supported by the CacheInterceptor"));
+	}
+
+	@Test
+	public void testInvocationAwareKeyGenerator() throws IOException{
+		assertFalse(compile("sample.AwareService",
+				"package sample;\n"
+				+ "import cacher.aop.FetcherMethod;\n"
+				+ "import cacher.aop.impl.simple.CacheKey;\n"
+				+ "import cacher.aop.impl.simple.SimpleCacheKeyGenerator;\n"
+				+ "public class AwareService {\n"
+				+ "	public static class Generator extends SimpleCacheKeyGenerator {}\n"
+				+ "	@FetcherMethod(keyGenerator = Generator.class)\n"
+				+ "	public String get(@CacheKey String key){ return key; }\n"
+				+ "}\n"));
+		assertTrue(errors(), errors().contains("cacher.aop.MethodAware"));
+	}
+
+}